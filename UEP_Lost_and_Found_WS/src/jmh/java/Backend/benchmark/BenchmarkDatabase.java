@@ -0,0 +1,116 @@
+package Backend.benchmark;
+
+import Backend.config.Database;
+import Backend.config.DatabaseMigration;
+import Backend.config.H2Backend;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.Random;
+
+/**
+ * Embedded H2 database in MySQL compatibility mode for benchmarks
+ * Drop-in replacement for Database so repositories run unchanged.
+ */
+public class BenchmarkDatabase extends Database {
+
+    private static final String[] NAMES = {
+        "Wallet", "Phone", "Umbrella", "Calculator", "ID Card", "Laptop", "Water Bottle", "Notebook",
+        "Keys", "Earphones", "Jacket", "Backpack", "Charger", "Eyeglasses", "Watch", "USB Drive"
+    };
+    private static final String[] COLORS = { "black", "blue", "red", "white", "green", "brown", "silver" };
+    private static final String[] PLACES = { "Library", "Canteen", "Gym", "Registrar", "Engineering Building", "Chapel" };
+
+    public BenchmarkDatabase(String name) {
+        super(new H2Backend(name, null));
+    }
+
+    /**
+     * Plain driver connection, so the JDBC tracking proxies stay out of the measurements
+     */
+    @Override
+    public Connection getConnection() {
+        try {
+            return DriverManager.getConnection(getUrl(), getUsername(), getPassword());
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot open benchmark database " + getUrl(), e);
+        }
+    }
+
+    /**
+     * Creates the tables and fills them with deterministic sample data
+     */
+    public BenchmarkDatabase populate(int users, int items, int claims) throws SQLException {
+        Random random = new Random(42);
+        try (Connection conn = getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP ALL OBJECTS");
+        }
+        DatabaseMigration.runMigration(this);
+        try (Connection conn = getConnection()) {
+            try (PreparedStatement insert = conn.prepareStatement(
+                    "INSERT INTO users (fname, mname, lname, type, email, username, password) VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+                for (int i = 1; i <= users; i++) {
+                    insert.setString(1, "First" + i);
+                    insert.setString(2, "");
+                    insert.setString(3, "Last" + (i % 97));
+                    insert.setString(4, i == 1 ? "Admin" : "Student");
+                    insert.setString(5, "user" + i + "@uep.edu.ph");
+                    insert.setString(6, "user" + i);
+                    insert.setString(7, "$2a$10$92IXUNpkjO0rOQ5byMi.Ye4oKoEa3Ro9llC/.og/at2.uheWG/igi");
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+
+            try (PreparedStatement insert = conn.prepareStatement(
+                    "INSERT INTO items (status, name, description, category, location, image, user_id, date_reported, reported_by) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+                LocalDate today = LocalDate.now();
+                for (int i = 1; i <= items; i++) {
+                    int user = 1 + random.nextInt(users);
+                    String name = NAMES[random.nextInt(NAMES.length)];
+                    String place = PLACES[random.nextInt(PLACES.length)];
+                    insert.setString(1, random.nextBoolean() ? "Lost" : "Found");
+                    insert.setString(2, COLORS[random.nextInt(COLORS.length)] + " " + name);
+                    insert.setString(3, "A " + COLORS[random.nextInt(COLORS.length)] + " " + name.toLowerCase() +
+                                        " last seen near the " + place + ". Contact the reporter with proof of ownership.");
+                    insert.setString(4, "General");
+                    insert.setString(5, place);
+                    insert.setString(6, random.nextInt(3) == 0 ? null : "uploads/" + i + "_photo.jpg");
+                    insert.setInt(7, user);
+                    insert.setDate(8, java.sql.Date.valueOf(today.minusDays(random.nextInt(365))));
+                    insert.setString(9, "user" + user);
+                    insert.addBatch();
+                    if (i % 1000 == 0) {
+                        insert.executeBatch();
+                    }
+                }
+                insert.executeBatch();
+            }
+
+            try (PreparedStatement insert = conn.prepareStatement(
+                    "INSERT INTO claims (item_id, claimant_id, claimant_username, claim_description, status, date_submitted) " +
+                    "VALUES (?, ?, ?, ?, ?, ?)")) {
+                for (int i = 1; i <= claims; i++) {
+                    int user = 1 + random.nextInt(users);
+                    insert.setInt(1, 1 + random.nextInt(items));
+                    insert.setInt(2, user);
+                    insert.setString(3, "user" + user);
+                    insert.setString(4, "I can describe the contents and the scratch on the back.");
+                    insert.setString(5, random.nextInt(4) == 0 ? "Approved" : "Pending");
+                    insert.setDate(6, java.sql.Date.valueOf(LocalDate.now().minusDays(random.nextInt(60))));
+                    insert.addBatch();
+                    if (i % 1000 == 0) {
+                        insert.executeBatch();
+                    }
+                }
+                insert.executeBatch();
+            }
+        }
+        return this;
+    }
+}
@@ -0,0 +1,37 @@
+package Backend.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BCrypt verification as done on every login attempt
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PasswordHashBenchmark {
+
+    @Param({"10", "12"})
+    public int strength;
+
+    private BCryptPasswordEncoder encoder;
+    private String hash;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(strength);
+        hash = encoder.encode("uep123");
+    }
+
+    @Benchmark
+    public boolean verifyMatching() {
+        return encoder.matches("uep123", hash);
+    }
+
+    @Benchmark
+    public boolean verifyWrong() {
+        return encoder.matches("wrong-password", hash);
+    }
+}
@@ -0,0 +1,121 @@
+package Backend.benchmark;
+
+import Backend.dto.ClaimView;
+import Backend.dto.ItemView;
+import Backend.dto.UserView;
+import Backend.model.Claim;
+import Backend.model.Item;
+import Backend.model.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the controller response shapes
+ * The mapper is configured like Spring Boot's default one. Each response is
+ * measured as the entities used to be returned and as the views returned
+ * now; the payload sizes of both are printed at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ResponseSerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<Item> items;
+    private List<Claim> claims;
+    private List<User> users;
+    private List<ItemView> itemViews;
+    private List<ClaimView> claimViews;
+    private List<UserView> userViews;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        items = new ArrayList<>(size);
+        claims = new ArrayList<>(size);
+        users = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            Item item = new Item("Black Wallet " + i,
+                    "Black leather wallet with a UEP ID card, found near the Library entrance.",
+                    i % 2 == 0 ? "Lost" : "Found", "user" + (i % 50), "uploads/" + i + "_wallet.jpg");
+            item.setId((long) i);
+            item.setUserId((long) (i % 50));
+            item.setDateReported(LocalDateTime.now().minusDays(i % 365));
+            items.add(item);
+
+            Claim claim = new Claim(item, i % 50, "The wallet has my student ID and a red library card.");
+            claim.setId((long) i);
+            claim.setClaimantUsername("user" + (i % 50));
+            claims.add(claim);
+
+            User user = new User("Juan", "Santos", "Dela Cruz", "Student", "user" + i + "@uep.edu.ph", "user" + i,
+                    "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3vM1Ew0sRZ8dRCsWNhdBy2e");
+            user.setId((long) i);
+            users.add(user);
+        }
+        itemViews = ItemView.of(items);
+        claimViews = ClaimView.of(claims);
+        userViews = UserView.of(users);
+
+        try {
+            System.out.printf("%nPayload bytes for %d rows: items %d -> %d, claims %d -> %d, users %d -> %d%n", size,
+                    itemsResponse().length, itemViewsResponse().length,
+                    claimsResponse().length, claimViewsResponse().length,
+                    usersResponse().length, userViewsResponse().length);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Benchmark
+    public byte[] itemsResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(Map.of("items", items));
+    }
+
+    @Benchmark
+    public byte[] claimsResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(Map.of("claims", claims));
+    }
+
+    @Benchmark
+    public byte[] usersResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(Map.of("users", users));
+    }
+
+    @Benchmark
+    public byte[] itemViewsResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(Map.of("items", itemViews));
+    }
+
+    @Benchmark
+    public byte[] claimViewsResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(Map.of("claims", claimViews));
+    }
+
+    @Benchmark
+    public byte[] userViewsResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(Map.of("users", userViews));
+    }
+
+    /**
+     * Entity to view conversion, which the views pay on top of serializing
+     */
+    @Benchmark
+    public byte[] itemsToViewsResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(Map.of("items", ItemView.of(items)));
+    }
+}
@@ -0,0 +1,49 @@
+package Backend.benchmark;
+
+import Backend.model.Item;
+import Backend.repository.ItemRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end repository queries against embedded H2 in MySQL mode
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SearchQueryBenchmark {
+
+    @Param({"1000", "10000"})
+    public int items;
+
+    private ItemRepository itemRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        itemRepository = new ItemRepository();
+        itemRepository.setDatabase(new BenchmarkDatabase("search" + items).populate(200, items, 0));
+    }
+
+    @Benchmark
+    public List<Item> findAll() {
+        return itemRepository.findAll();
+    }
+
+    @Benchmark
+    public List<Item> findByStatus() {
+        return itemRepository.findByStatus("Found");
+    }
+
+    @Benchmark
+    public List<Item> findByNameContaining() {
+        return itemRepository.findByNameContaining("wallet");
+    }
+
+    @Benchmark
+    public List<Item> findByDescriptionContaining() {
+        return itemRepository.findByDescriptionContaining("Library");
+    }
+}
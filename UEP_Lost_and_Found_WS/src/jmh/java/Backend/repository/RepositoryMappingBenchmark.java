@@ -0,0 +1,72 @@
+package Backend.repository;
+
+import Backend.benchmark.BenchmarkDatabase;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Row mapping cost of the repositories
+ * The result set is scrollable and rewound for every invocation, so the
+ * numbers exclude query execution. Claim mapping still loads each claim's
+ * item with its own query, which is what the claim benchmark shows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RepositoryMappingBenchmark {
+
+    @Param({"100", "1000"})
+    public int rows;
+
+    private Connection connection;
+    private ResultSet items;
+    private ResultSet claims;
+    private ItemRepository itemRepository;
+    private ClaimRepository claimRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        BenchmarkDatabase database = new BenchmarkDatabase("mapping" + rows).populate(50, rows, rows);
+        itemRepository = new ItemRepository();
+        itemRepository.setDatabase(database);
+        claimRepository = new ClaimRepository();
+        claimRepository.setDatabase(database);
+        claimRepository.setItemRepository(itemRepository);
+
+        connection = database.getConnection();
+        items = scrollable("SELECT * FROM items");
+        claims = scrollable("SELECT * FROM claims");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public void mapResultSetToItem(Blackhole blackhole) throws SQLException {
+        items.beforeFirst();
+        while (items.next()) {
+            blackhole.consume(itemRepository.mapResultSetToItem(items));
+        }
+    }
+
+    @Benchmark
+    public void mapResultSetToClaim(Blackhole blackhole) throws SQLException {
+        claims.beforeFirst();
+        while (claims.next()) {
+            blackhole.consume(claimRepository.mapResultSetToClaim(claims));
+        }
+    }
+
+    private ResultSet scrollable(String sql) throws SQLException {
+        PreparedStatement stmt = connection.prepareStatement(sql, ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+        return stmt.executeQuery();
+    }
+}
@@ -0,0 +1,264 @@
+package Backend.loadtest;
+
+import Backend.UepLostAndFoundApplication;
+import Backend.config.DatabaseInitializer;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model HTTP load test against the application on an embedded database
+ * Requests arrive as a Poisson process at the configured rate regardless of
+ * how fast the server answers; latency is measured from each request's
+ * intended start, so queueing delay is not hidden (no coordinated omission).
+ *
+ * Configured with system properties (see the loadTest task in build.gradle):
+ *   loadtest.rate         arrivals per second (default 50)
+ *   loadtest.concurrency  max requests in flight; arrivals beyond it are dropped (default 64)
+ *   loadtest.duration     measured seconds (default 60)
+ *   loadtest.warmup       unmeasured seconds before that (default 10)
+ *   loadtest.mix          weights, e.g. browse:60,login:10,report:10,claim:15,approve:5
+ *   loadtest.users        seeded student accounts (default 200)
+ *   loadtest.items        seeded items (default 2000)
+ *   loadtest.output       report directory (default build/reports/loadtest)
+ */
+public class LoadTest {
+
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final double rate;
+    private final int concurrency;
+    private final Duration duration;
+    private final Duration warmup;
+    private final Map<Scenarios.Kind, Integer> mix;
+    private final Map<Scenarios.Kind, Endpoint> endpoints = new EnumMap<>(Scenarios.Kind.class);
+    private volatile boolean measuring = false;
+
+    /**
+     * Latency histogram and outcome counters of one endpoint
+     */
+    private static final class Endpoint {
+        final ConcurrentHistogram latency = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+        final LongAdder ok = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder dropped = new LongAdder();
+        final LongAdder skipped = new LongAdder();
+
+        void reset() {
+            latency.reset();
+            ok.reset();
+            errors.reset();
+            dropped.reset();
+            skipped.reset();
+        }
+    }
+
+    LoadTest(double rate, int concurrency, Duration duration, Duration warmup, Map<Scenarios.Kind, Integer> mix) {
+        this.rate = rate;
+        this.concurrency = concurrency;
+        this.duration = duration;
+        this.warmup = warmup;
+        this.mix = mix;
+        for (Scenarios.Kind kind : Scenarios.Kind.values()) {
+            endpoints.put(kind, new Endpoint());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int users = Integer.getInteger("loadtest.users", 200);
+        int items = Integer.getInteger("loadtest.items", 2000);
+        int claims = items / 4;
+        LoadTest test = new LoadTest(
+                Double.parseDouble(System.getProperty("loadtest.rate", "50")),
+                Integer.getInteger("loadtest.concurrency", 64),
+                Duration.ofSeconds(Long.getLong("loadtest.duration", 60)),
+                Duration.ofSeconds(Long.getLong("loadtest.warmup", 10)),
+                parseMix(System.getProperty("loadtest.mix", "browse:60,login:10,report:10,claim:15,approve:5")));
+
+        LoadTestDatabase database = new LoadTestDatabase("loadtest");
+        database.populate(users, items, claims);
+        ConfigurableApplicationContext context = startApplication(database);
+        try {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            Scenarios scenarios = new Scenarios(baseUrl, users, items, claims);
+            scenarios.logInAll(Math.min(users, 100));
+
+            test.run(scenarios);
+
+            Path output = Paths.get(System.getProperty("loadtest.output", "build/reports/loadtest"))
+                    .resolve(LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")));
+            test.writeReport(output);
+        } finally {
+            context.close();
+        }
+    }
+
+    /**
+     * Starts the application in-process against the embedded database
+     */
+    private static ConfigurableApplicationContext startApplication(LoadTestDatabase database) {
+        // Read by Database, which the repositories use directly
+        System.setProperty("DB_URL", database.getUrl());
+
+        // Command-line arguments, so they override application.properties
+        return new SpringApplicationBuilder(UepLostAndFoundApplication.class)
+                .listeners(new DatabaseInitializer())
+                .run(
+                        "--server.port=0",
+                        "--spring.profiles.active=h2",
+                        "--db.h2.file=",
+                        "--logging.level.Backend=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        // Every virtual user logs in from localhost
+                        "--login.rate-limit.address.capacity=1000000",
+                        "--login.rate-limit.username.capacity=1000",
+                        "--stats.checkpoint-file=stats-checkpoint.json");
+    }
+
+    void run(Scenarios scenarios) throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "loadtest-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Semaphore inFlight = new Semaphore(concurrency);
+        int totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+        double meanGapNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        long next = start;
+        System.out.printf("Load test: %.1f req/s, concurrency %d, warmup %ds, duration %ds, mix %s%n",
+                rate, concurrency, warmup.getSeconds(), duration.getSeconds(), mix);
+
+        while (next < end) {
+            // Exponential inter-arrival times give a Poisson arrival process
+            next += (long) (-Math.log(1.0 - ThreadLocalRandom.current().nextDouble()) * meanGapNanos);
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (!measuring && next >= measureFrom) {
+                endpoints.values().forEach(Endpoint::reset);
+                measuring = true;
+            }
+
+            Scenarios.Kind kind = pick(totalWeight);
+            Endpoint endpoint = endpoints.get(kind);
+            if (!inFlight.tryAcquire()) {
+                endpoint.dropped.increment();
+                continue;
+            }
+            long intendedStart = next;
+            workers.execute(() -> {
+                try {
+                    int status = scenarios.execute(kind);
+                    if (status == 0) {
+                        endpoint.skipped.increment();
+                        return;
+                    }
+                    record(endpoint, intendedStart, status >= 200 && status < 300);
+                } catch (Exception e) {
+                    record(endpoint, intendedStart, false);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        }
+
+        workers.shutdown();
+        workers.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    private void record(Endpoint endpoint, long intendedStart, boolean success) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStart);
+        endpoint.latency.recordValue(Math.min(micros, HIGHEST_MICROS));
+        if (success) {
+            endpoint.ok.increment();
+        } else {
+            endpoint.errors.increment();
+        }
+    }
+
+    private Scenarios.Kind pick(int totalWeight) {
+        int roll = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Map.Entry<Scenarios.Kind, Integer> entry : mix.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Empty load test mix");
+    }
+
+    /**
+     * Writes one .hgrm percentile distribution per endpoint plus summary.txt and summary.csv
+     */
+    void writeReport(Path output) throws IOException {
+        Files.createDirectories(output);
+        double seconds = duration.getSeconds();
+        StringBuilder table = new StringBuilder(String.format("%-14s %9s %8s %8s %8s %9s %9s %9s %9s %9s%n",
+                "endpoint", "ok", "errors", "dropped", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        StringBuilder csv = new StringBuilder("endpoint,ok,errors,dropped,skipped,throughput,p50_ms,p90_ms,p99_ms,p999_ms,max_ms\n");
+
+        for (Map.Entry<Scenarios.Kind, Endpoint> entry : endpoints.entrySet()) {
+            String label = entry.getKey().getLabel();
+            Endpoint endpoint = entry.getValue();
+            Histogram latency = endpoint.latency.copy();
+            try (PrintStream out = new PrintStream(output.resolve(label + ".hgrm").toFile())) {
+                latency.outputPercentileDistribution(out, 1000.0);
+            }
+            double throughput = (endpoint.ok.sum() + endpoint.errors.sum()) / seconds;
+            table.append(String.format("%-14s %9d %8d %8d %8.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    label, endpoint.ok.sum(), endpoint.errors.sum(), endpoint.dropped.sum(), throughput,
+                    millis(latency, 50), millis(latency, 90), millis(latency, 99), millis(latency, 99.9),
+                    latency.getMaxValue() / 1000.0));
+            csv.append(String.format("%s,%d,%d,%d,%d,%.2f,%.3f,%.3f,%.3f,%.3f,%.3f%n",
+                    label, endpoint.ok.sum(), endpoint.errors.sum(), endpoint.dropped.sum(), endpoint.skipped.sum(),
+                    throughput, millis(latency, 50), millis(latency, 90), millis(latency, 99), millis(latency, 99.9),
+                    latency.getMaxValue() / 1000.0));
+        }
+
+        Files.writeString(output.resolve("summary.txt"), table);
+        Files.writeString(output.resolve("summary.csv"), csv);
+        System.out.print(table);
+        System.out.println("Report written to " + output.toAbsolutePath());
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private static Map<Scenarios.Kind, Integer> parseMix(String spec) {
+        Map<Scenarios.Kind, Integer> mix = new EnumMap<>(Scenarios.Kind.class);
+        for (String part : spec.split(",")) {
+            String[] pair = part.trim().split(":");
+            Scenarios.Kind kind = Scenarios.Kind.valueOf(pair[0].trim().toUpperCase());
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight > 0) {
+                mix.put(kind, weight);
+            }
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,89 @@
+package Backend.loadtest;
+
+import Backend.config.Database;
+import Backend.config.DatabaseMigration;
+import Backend.config.H2Backend;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Random;
+
+/**
+ * Embedded H2 database in MySQL mode that the application under test runs against
+ */
+public class LoadTestDatabase extends Database {
+    // Same password DataLoader gives the admin account
+    static final String USER_PASSWORD = "uep123";
+
+    private static final String[] NAMES = {
+        "Wallet", "Phone", "Umbrella", "Calculator", "ID Card", "Laptop", "Water Bottle", "Notebook", "Keys", "Jacket"
+    };
+    private static final String[] PLACES = { "Library", "Canteen", "Gym", "Registrar", "Chapel" };
+
+    public LoadTestDatabase(String name) {
+        super(new H2Backend(name, null));
+    }
+
+    /**
+     * Creates the schema and seeds users loaduser1..N, items and pending claims
+     */
+    public void populate(int users, int items, int claims) throws SQLException {
+        Random random = new Random(7);
+        // One hash shared by every seeded account keeps seeding fast
+        String passwordHash = new BCryptPasswordEncoder().encode(USER_PASSWORD);
+        DatabaseMigration.runMigration(this);
+        try (Connection conn = getConnection()) {
+            try (PreparedStatement insert = conn.prepareStatement(
+                    "INSERT INTO users (fname, mname, lname, type, email, username, password) VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+                for (int i = 1; i <= users; i++) {
+                    insert.setString(1, "Load");
+                    insert.setString(2, "");
+                    insert.setString(3, "User" + i);
+                    insert.setString(4, "Student");
+                    insert.setString(5, "loaduser" + i + "@uep.edu.ph");
+                    insert.setString(6, "loaduser" + i);
+                    insert.setString(7, passwordHash);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+
+            try (PreparedStatement insert = conn.prepareStatement(
+                    "INSERT INTO items (status, name, description, location, user_id, date_reported, reported_by) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+                for (int i = 1; i <= items; i++) {
+                    int user = 1 + random.nextInt(users);
+                    String name = NAMES[random.nextInt(NAMES.length)];
+                    String place = PLACES[random.nextInt(PLACES.length)];
+                    insert.setString(1, random.nextBoolean() ? "Lost" : "Found");
+                    insert.setString(2, name);
+                    insert.setString(3, name + " last seen near the " + place);
+                    insert.setString(4, place);
+                    insert.setInt(5, user);
+                    insert.setDate(6, java.sql.Date.valueOf(LocalDate.now().minusDays(random.nextInt(180))));
+                    insert.setString(7, "loaduser" + user);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+
+            try (PreparedStatement insert = conn.prepareStatement(
+                    "INSERT INTO claims (item_id, claimant_id, claimant_username, claim_description, date_submitted) " +
+                    "VALUES (?, ?, ?, ?, ?)")) {
+                for (int i = 1; i <= claims; i++) {
+                    int user = 1 + random.nextInt(users);
+                    insert.setInt(1, 1 + random.nextInt(items));
+                    insert.setInt(2, user);
+                    insert.setString(3, "loaduser" + user);
+                    insert.setString(4, "Seeded load test claim");
+                    insert.setDate(5, java.sql.Date.valueOf(LocalDate.now()));
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package Backend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The request mixes the load test drives, each against a logged-in virtual user
+ */
+public class Scenarios {
+
+    /**
+     * One request kind; the name is the endpoint label in the report
+     */
+    public enum Kind {
+        BROWSE("browse_items"),
+        LOGIN("login"),
+        REPORT("report_item"),
+        CLAIM("create_claim"),
+        APPROVE("admin_approve");
+
+        private final String label;
+
+        Kind(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final String baseUrl;
+    private final int users;
+    private final int items;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient anonymous;
+    private final List<Session> sessions = new ArrayList<>();
+    private final ConcurrentLinkedQueue<Long> pendingClaims = new ConcurrentLinkedQueue<>();
+    private final byte[] image;
+    private Session admin;
+
+    private record Session(String username, HttpClient client) {}
+
+    public Scenarios(String baseUrl, int users, int items, int seededClaims) {
+        this.baseUrl = baseUrl;
+        this.users = users;
+        this.items = items;
+        this.anonymous = newClient();
+        for (long id = 1; id <= seededClaims; id++) {
+            pendingClaims.add(id);
+        }
+        this.image = new byte[24 * 1024];
+        new Random(3).nextBytes(image);
+    }
+
+    /**
+     * Logs in every virtual user and the admin once, before measuring
+     */
+    public void logInAll(int sessionCount) throws IOException, InterruptedException {
+        for (int i = 1; i <= Math.min(sessionCount, users); i++) {
+            HttpClient client = newClient();
+            String username = "loaduser" + i;
+            expectOk(login(client, username), "login " + username);
+            sessions.add(new Session(username, client));
+        }
+        HttpClient adminClient = newClient();
+        expectOk(login(adminClient, "admin"), "login admin");
+        admin = new Session("admin", adminClient);
+    }
+
+    /**
+     * Executes one request of the given kind
+     * @return HTTP status code, or 0 when there was nothing to do (no pending claim)
+     */
+    public int execute(Kind kind) throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        switch (kind) {
+            case BROWSE:
+                return send(anonymous, HttpRequest.newBuilder(uri("items")).GET()).statusCode();
+            case LOGIN:
+                return login(newClient(), "loaduser" + (1 + random.nextInt(users))).statusCode();
+            case REPORT:
+                return reportItem(randomSession(random));
+            case CLAIM:
+                return createClaim(randomSession(random), 1 + random.nextInt(items));
+            case APPROVE:
+                Long claimId = pendingClaims.poll();
+                if (claimId == null) {
+                    return 0;
+                }
+                int status = postJson(admin.client(), "claims",
+                        Map.of("action", "approve", "id", claimId, "approver_username", admin.username())).statusCode();
+                // Approving another claim on the same item may already have rejected this one
+                return status == 409 ? 200 : status;
+            default:
+                throw new IllegalArgumentException("Unknown scenario " + kind);
+        }
+    }
+
+    private HttpResponse<String> login(HttpClient client, String username) throws IOException, InterruptedException {
+        return postJson(client, "users/login", Map.of("username", username, "password", LoadTestDatabase.USER_PASSWORD));
+    }
+
+    private int reportItem(Session session) throws IOException, InterruptedException {
+        String boundary = "----loadtest" + System.nanoTime();
+        ByteArrayOutputStream body = new ByteArrayOutputStream(image.length + 1024);
+        writeField(body, boundary, "status", ThreadLocalRandom.current().nextBoolean() ? "Lost" : "Found");
+        writeField(body, boundary, "name", "Load test umbrella");
+        writeField(body, boundary, "desc", "Blue folding umbrella left at the canteen");
+        writeField(body, boundary, "reportedBy", session.username());
+        body.write(("--" + boundary + "\r\nContent-Disposition: form-data; name=\"image\"; filename=\"photo.jpg\"\r\n" +
+                    "Content-Type: image/jpeg\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.write(image);
+        body.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri("items"))
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()));
+        return send(session.client(), request).statusCode();
+    }
+
+    private int createClaim(Session session, long itemId) throws IOException, InterruptedException {
+        HttpResponse<String> response = postJson(session.client(), "claims", Map.of(
+                "action", "create",
+                "item_id", itemId,
+                "claimant_username", session.username(),
+                "claim_description", "Load test claim with identifying details"));
+        if (response.statusCode() == 200) {
+            JsonNode id = objectMapper.readTree(response.body()).path("claim").path("id");
+            if (id.isNumber()) {
+                pendingClaims.add(id.asLong());
+            }
+        }
+        return response.statusCode();
+    }
+
+    private HttpResponse<String> postJson(HttpClient client, String path, Map<String, Object> body)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)));
+        return send(client, request);
+    }
+
+    private HttpResponse<String> send(HttpClient client, HttpRequest.Builder request) throws IOException, InterruptedException {
+        return client.send(request.timeout(TIMEOUT).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private Session randomSession(ThreadLocalRandom random) {
+        return sessions.get(random.nextInt(sessions.size()));
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + "/api/" + path);
+    }
+
+    private static HttpClient newClient() {
+        return HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .connectTimeout(TIMEOUT)
+                .build();
+    }
+
+    private static void writeField(ByteArrayOutputStream body, String boundary, String name, String value) throws IOException {
+        body.write(("--" + boundary + "\r\nContent-Disposition: form-data; name=\"" + name + "\"\r\n\r\n" + value + "\r\n")
+                .getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void expectOk(HttpResponse<String> response, String what) {
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(what + " failed with HTTP " + response.statusCode() + ": " + response.body());
+        }
+    }
+}
@@ -1,24 +1,23 @@
 
 package Backend;
 
-import Backend.config.Database;
-import Backend.config.DatabaseMigration;
+import Backend.config.DatabaseInitializer;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class UepLostAndFoundApplication {
 
     public static void main(String[] args) {
         try {
-            // Run database migration first
-            System.out.println("Running database migration...");
-            Database database = new Database();
-            DatabaseMigration.runMigration(database);
-            System.out.println("Database migration completed");
+            SpringApplication application = new SpringApplication(UepLostAndFoundApplication.class);
+            // Selects MySQL or H2 from the active profile and runs the database migration first
+            application.addListeners(new DatabaseInitializer());
             
             // Then start the Spring Boot application
-            SpringApplication.run(UepLostAndFoundApplication.class, args);
+            application.run(args);
             
         } catch (Exception e) {
             System.err.println("Failed to start application: " + e.getMessage());
@@ -0,0 +1,187 @@
+package Backend.config;
+
+import Backend.model.User;
+import Backend.util.AdaptiveLimit;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Adaptive concurrency limit in front of the API
+ * When the database slows down, requests would otherwise pile up on every
+ * Tomcat thread until nothing, static files included, is served. The limit
+ * follows request latency (see AdaptiveLimit) and requests beyond it get an
+ * immediate 503 with Retry-After instead of a thread. Anonymous requests
+ * may only fill part of the limit and signed-in users a larger part, so
+ * under load they are shed first, while admins and login keep the rest.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = Logger.getLogger(ConcurrencyLimitFilter.class.getName());
+    private static final String BUSY = "{\"error\":\"Server is busy, please try again shortly\"}";
+    private static final long LOG_INTERVAL_NANOS = 10_000_000_000L;
+
+    public enum Priority {
+        CRITICAL, USER, ANONYMOUS
+    }
+
+    private final AntPathMatcher matcher = new AntPathMatcher();
+    private final boolean enabled;
+    private final AdaptiveLimit limit;
+    private final Map<Priority, Double> shares = new EnumMap<>(Priority.class);
+    private final List<String> criticalPaths;
+    private final List<String> excludedPaths;
+    private final String retryAfterSeconds;
+
+    private final LongAdder admitted = new LongAdder();
+    private final Map<Priority, LongAdder> rejected = new EnumMap<>(Priority.class);
+    private volatile long lastLog = System.nanoTime() - LOG_INTERVAL_NANOS;
+
+    public ConcurrencyLimitFilter(
+            @Value("${limiter.enabled:true}") boolean enabled,
+            @Value("${limiter.initial-limit:20}") int initialLimit,
+            @Value("${limiter.min-limit:8}") int minLimit,
+            @Value("${limiter.max-limit:200}") int maxLimit,
+            @Value("${limiter.tolerance:1.5}") double tolerance,
+            @Value("${limiter.smoothing:0.2}") double smoothing,
+            @Value("${limiter.long-window:600}") int longWindow,
+            @Value("${limiter.share.user:0.9}") double userShare,
+            @Value("${limiter.share.anonymous:0.6}") double anonymousShare,
+            @Value("${limiter.critical-paths:/api/users/login,/api/users/logout}") String criticalPaths,
+            @Value("${limiter.excluded-paths:/api/export/**,/api/backups/**}") String excludedPaths,
+            @Value("${limiter.retry-after-seconds:1}") int retryAfterSeconds) {
+        this.enabled = enabled;
+        this.limit = new AdaptiveLimit(initialLimit, minLimit, maxLimit, tolerance, smoothing, longWindow);
+        this.shares.put(Priority.CRITICAL, 1.0);
+        this.shares.put(Priority.USER, clampShare(userShare));
+        this.shares.put(Priority.ANONYMOUS, clampShare(anonymousShare));
+        this.criticalPaths = paths(criticalPaths);
+        this.excludedPaths = paths(excludedPaths);
+        this.retryAfterSeconds = String.valueOf(Math.max(1, retryAfterSeconds));
+        for (Priority priority : Priority.values()) {
+            rejected.put(priority, new LongAdder());
+        }
+    }
+
+    /**
+     * Exports and backups are long by design and bounded by their own
+     * services; their latency would only mislead the limit
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return !enabled || !path.startsWith("/api/") || matches(excludedPaths, path);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Priority priority = classify(request);
+        if (!limit.tryAcquire(shares.get(priority))) {
+            reject(priority, response);
+            return;
+        }
+        admitted.increment();
+
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                // Streams on another thread; this thread is free again
+                limit.releaseWithoutSample();
+            } else {
+                limit.release(System.nanoTime() - start);
+            }
+        }
+    }
+
+    /**
+     * Admins and sign-in first, then signed-in users, then anonymous browsing
+     */
+    Priority classify(HttpServletRequest request) {
+        if (matches(criticalPaths, request.getRequestURI())) {
+            return Priority.CRITICAL;
+        }
+        HttpSession session = request.getSession(false);
+        User user = session != null ? (User) session.getAttribute("user") : null;
+        if (user == null) {
+            return Priority.ANONYMOUS;
+        }
+        return "Admin".equals(user.getType()) ? Priority.CRITICAL : Priority.USER;
+    }
+
+    /**
+     * Limit, load and rejection counts for monitoring
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("limit", limit.getLimit());
+        stats.put("in_flight", limit.getInFlight());
+        stats.put("short_rtt_ms", Math.round(limit.getShortRttMillis() * 100) / 100.0);
+        stats.put("long_rtt_ms", Math.round(limit.getLongRttMillis() * 100) / 100.0);
+        stats.put("admitted", admitted.sum());
+        for (Priority priority : Priority.values()) {
+            stats.put("rejected_" + priority.name().toLowerCase(Locale.ROOT), rejected.get(priority).sum());
+        }
+        return stats;
+    }
+
+    private void reject(Priority priority, HttpServletResponse response) throws IOException {
+        rejected.get(priority).increment();
+        long now = System.nanoTime();
+        if (now - lastLog >= LOG_INTERVAL_NANOS) {
+            lastLog = now;
+            logger.warning(String.format("Shedding load: limit %d, %d in flight, latency %.1f ms (long-term %.1f ms), rejected %s",
+                    limit.getLimit(), limit.getInFlight(), limit.getShortRttMillis(), limit.getLongRttMillis(), priority));
+        }
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write(BUSY);
+    }
+
+    private boolean matches(List<String> patterns, String path) {
+        for (String pattern : patterns) {
+            if (matcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<String> paths(String value) {
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(path -> !path.isEmpty())
+                .toList();
+    }
+
+    private static double clampShare(double share) {
+        return Math.min(1.0, Math.max(0.05, share));
+    }
+}
@@ -1,45 +1,89 @@
 package Backend.config;
 
+import Backend.util.Tracer;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Database Connection Manager
  * Java equivalent of the PHP Database class
- * Handles MySQL database connections with environment variable support
+ * Handles MySQL or embedded H2 connections with environment variable support
  */
 public class Database {
     private String host;
     private String dbName;
     private String username;
     private String password;
+    private String url;
+    private DatabaseBackend backend;
     private Connection conn;
+    // Set from the Spring profile at startup; DB_BACKEND and DB_H2_FILE still take precedence
+    private static volatile String defaultBackend = DatabaseBackend.MYSQL;
+    private static volatile String defaultH2File;
     private static final Logger logger = Logger.getLogger(Database.class.getName());
+    private static final Timer acquireTimer = Timer.builder("db.connection.acquire")
+            .description("Time to open a JDBC connection")
+            .register(Metrics.globalRegistry);
 
     /**
      * Constructor that initializes database configuration from environment variables
      * Falls back to default values if environment variables are not set
      */
     public Database() {
-        sa
-        
+        this(null);
+    }
+
+    /**
+     * Constructor for a fixed backend, e.g. an embedded database in benchmarks
+     * @param backend Backend to use, or null to select one from DB_BACKEND
+     */
+    protected Database(DatabaseBackend backend) {
+        this.host = getEnvOrDefault("DB_HOST", "localhost:3306");
+        this.dbName = getEnvOrDefault("DB_NAME", "uep_lost_and_found_ws");
+        this.backend = backend != null ? backend : DatabaseBackend.create(
+            getEnvOrDefault("DB_BACKEND", defaultBackend),
+            this.host,
+            this.dbName,
+            getEnvOrDefault("DB_H2_FILE", defaultH2File)
+        );
+        this.username = getEnvOrDefault("DB_USERNAME", this.backend.getDefaultUsername());
+        this.password = getEnvOrDefault("DB_PASSWORD", this.backend.getDefaultPassword());
+        // Full JDBC URL override, e.g. a named in-memory database for load tests
+        this.url = getEnvOrDefault("DB_URL", this.backend.getUrl());
+
         logger.info("Database configuration initialized:");
+        logger.info("Backend: " + this.backend.getName());
         logger.info("Host: " + this.host);
         logger.info("Database: " + this.dbName);
         logger.info("Username: " + this.username);
     }
 
+    /**
+     * Sets the backend used when DB_BACKEND is not set
+     * @param backend "mysql" or "h2"
+     * @param h2File H2 database file, or null for in-memory; used when DB_H2_FILE is not set
+     */
+    public static void setDefaultBackend(String backend, String h2File) {
+        defaultBackend = backend;
+        defaultH2File = h2File;
+    }
+
     /**
      * Gets environment variable or returns default value
+     * A JVM system property with the same name takes precedence
      * @param envVar Environment variable name
      * @param defaultValue Default value if environment variable is not set
      * @return Environment variable value or default
      */
     private String getEnvOrDefault(String envVar, String defaultValue) {
-        String value = System.getenv(envVar);
+        String value = System.getProperty(envVar, System.getenv(envVar));
         return (value != null && !value.trim().isEmpty()) ? value : defaultValue;
     }
 
@@ -48,34 +92,46 @@ public class Database {
      * @return Connection object or null if connection fails
      */
     public Connection getConnection() {
-        this.conn = null;
+        // Repositories share one instance across request threads, so hand back
+        // the connection opened here rather than whatever the field holds by then
+        Connection connection = null;
+        long start = System.nanoTime();
+        Tracer.Span span = Tracer.startSpan("jdbc", "connect");
 
         try {
-            // Load MySQL JDBC driver
-            Class.forName("com.mysql.cj.jdbc.Driver");
-            
-            // Build connection URL with UTF8MB4 charset
-            String url = String.format(
-                "jdbc:mysql://%s/%s?charset=utf8mb4&useSSL=false&serverTimezone=UTC&allowPublicKeyRetrieval=true",
-                this.host,
-                this.dbName
-            );
+            // Load the backend's JDBC driver
+            Class.forName(this.backend.getDriverClassName());
             
-            // Establish connection
-            this.conn = DriverManager.getConnection(url, this.username, this.password);
+            // Establish connection; statements are counted per HTTP request
+            connection = TrackingJdbc.wrap(DriverManager.getConnection(this.url, this.username, this.password));
             
+            acquireTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
             logger.info("Database connection established successfully");
             
         } catch (ClassNotFoundException e) {
-            logger.log(Level.SEVERE, "MySQL JDBC Driver not found", e);
-            System.err.println("Database driver error: MySQL JDBC Driver not found. Please ensure MySQL connector is in classpath.");
+            countFailure(e);
+            logger.log(Level.SEVERE, "JDBC Driver not found: " + this.backend.getDriverClassName(), e);
+            System.err.println("Database driver error: " + this.backend.getDriverClassName() + " not found. Please ensure the driver is in classpath.");
         } catch (SQLException e) {
+            countFailure(e);
             logger.log(Level.SEVERE, "Connection error: " + e.getMessage(), e);
             System.err.println("Database connection failed: " + e.getMessage());
-            System.err.println("Please check your database configuration and ensure MySQL server is running.");
+            if (DatabaseBackend.MYSQL.equals(this.backend.getName())) {
+                System.err.println("Please check your database configuration and ensure MySQL server is running.");
+            }
+        } finally {
+            span.end();
         }
 
-        return this.conn;
+        this.conn = connection;
+        return connection;
+    }
+
+    /**
+     * Counts a failed connection attempt by exception type
+     */
+    private static void countFailure(Exception e) {
+        Metrics.counter("db.connection.errors", "exception", e.getClass().getSimpleName()).increment();
     }
 
     /**
@@ -92,6 +148,38 @@ public class Database {
         }
     }
 
+    /**
+     * Gets the backend this instance connects to
+     * @return DatabaseBackend in use
+     */
+    public DatabaseBackend getBackend() {
+        return this.backend;
+    }
+
+    /**
+     * Gets the JDBC URL this instance connects to
+     * @return JDBC URL
+     */
+    public String getUrl() {
+        return this.url;
+    }
+
+    /**
+     * Gets the user name this instance connects as
+     * @return Database user name
+     */
+    public String getUsername() {
+        return this.username;
+    }
+
+    /**
+     * Gets the password this instance connects with
+     * @return Database password
+     */
+    public String getPassword() {
+        return this.password;
+    }
+
     /**
      * Gets the current connection
      * @return Current Connection object
@@ -115,11 +203,13 @@ public class Database {
     public String getDatabaseInfo() {
         return String.format(
             "Database Configuration:\n" +
+            "Backend: %s\n" +
             "Host: %s\n" +
             "Database: %s\n" +
             "Username: %s\n" +
             "Password: %s\n" +
             "Connection: %s",
+            this.backend.getName(),
             this.host,
             this.dbName,
             this.username,
@@ -0,0 +1,78 @@
+package Backend.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Database engine that Database connects to
+ * Everything engine-specific lives here: the driver, the JDBC URL, default
+ * credentials, how "already exists" errors are reported during migration,
+ * how large results are streamed and how snapshots are read and restored.
+ * Repository SQL and schema.sql stay portable across all backends.
+ */
+public interface DatabaseBackend {
+
+    String MYSQL = "mysql";
+    String H2 = "h2";
+
+    /**
+     * @return backend name as used in DB_BACKEND and db.backend
+     */
+    String getName();
+
+    String getDriverClassName();
+
+    String getUrl();
+
+    String getDefaultUsername();
+
+    String getDefaultPassword();
+
+    /**
+     * Whether a DDL statement failed only because its table, column or constraint is already there
+     */
+    boolean isAlreadyExists(SQLException e);
+
+    /**
+     * Fetch size that makes a forward-only query hand over its rows as they
+     * are read, rather than the driver buffering the whole result first
+     * @param rows Rows per round trip where the driver supports batches
+     */
+    int getStreamingFetchSize(int rows);
+
+    /**
+     * Starts a read-only transaction on the connection in which every query
+     * sees the database as of its start, whatever commits meanwhile
+     * The caller ends it with commit or rollback.
+     */
+    void beginConsistentSnapshot(Connection conn) throws SQLException;
+
+    /**
+     * Statements that turn off foreign key (and where possible unique) checks
+     * on a session that bulk-loads rows which are known to be consistent
+     */
+    String[] getBulkLoadStart();
+
+    /**
+     * Statements that turn the checks back on after getBulkLoadStart
+     */
+    String[] getBulkLoadEnd();
+
+    /**
+     * Creates a backend by name
+     * @param name "mysql" or "h2"
+     * @param host MySQL host and port
+     * @param dbName Database name; also the name of the in-memory H2 database
+     * @param h2File H2 database file path, or null for an in-memory database
+     */
+    static DatabaseBackend create(String name, String host, String dbName, String h2File) {
+        switch (name.trim().toLowerCase()) {
+            case MYSQL:
+                return new MySqlBackend(host, dbName);
+            case H2:
+                return new H2Backend(dbName, h2File);
+            default:
+                throw new IllegalArgumentException("Unknown database backend: " + name + " (expected mysql or h2)");
+        }
+    }
+}
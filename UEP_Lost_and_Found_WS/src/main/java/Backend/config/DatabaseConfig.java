@@ -2,16 +2,24 @@
 
 package Backend.config;
 
+import Backend.repository.SingleFlight;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 
 /**
- * Database Configuration for MySQL
- * The datasource is configured in application.properties
- * This ensures Spring Boot uses the MySQL configuration
+ * Database Configuration for MySQL or embedded H2
+ * The datasource is configured in application.properties, or from the
+ * selected backend by DatabaseInitializer for the h2 profile
+ * Repositories are created with new, so their settings are applied here
  */
 @Configuration
 public class DatabaseConfig {
     // Database configuration is handled by Spring Boot through application.properties
     // No explicit DataSource bean needed as Spring Boot auto-configures from properties
+
+    public DatabaseConfig(@Value("${single-flight.enabled:true}") boolean singleFlightEnabled,
+                          @Value("${single-flight.stale-ms:250}") long singleFlightStaleMillis) {
+        SingleFlight.configure(singleFlightEnabled, singleFlightStaleMillis);
+    }
 }
 
@@ -0,0 +1,47 @@
+package Backend.config;
+
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Selects the database backend from the active profile and migrates it
+ * Runs once the environment is prepared, before any bean opens a connection.
+ * db.backend (set by the h2 profile) becomes the default for every Database
+ * the repositories create, and Spring's own datasource is pointed at the
+ * same database so both sides always agree.
+ */
+public class DatabaseInitializer implements ApplicationListener<ApplicationEnvironmentPreparedEvent> {
+
+    private static final Logger logger = Logger.getLogger(DatabaseInitializer.class.getName());
+
+    @Override
+    public void onApplicationEvent(ApplicationEnvironmentPreparedEvent event) {
+        ConfigurableEnvironment environment = event.getEnvironment();
+        String h2File = environment.getProperty("db.h2.file", "");
+        Database.setDefaultBackend(environment.getProperty("db.backend", DatabaseBackend.MYSQL),
+                h2File.isBlank() ? null : h2File);
+
+        Database database = new Database();
+        if (!DatabaseBackend.MYSQL.equals(database.getBackend().getName())) {
+            Map<String, Object> datasource = new HashMap<>();
+            datasource.put("spring.datasource.url", database.getUrl());
+            datasource.put("spring.datasource.driverClassName", database.getBackend().getDriverClassName());
+            datasource.put("spring.datasource.username", database.getUsername());
+            datasource.put("spring.datasource.password", database.getPassword());
+            environment.getPropertySources().addFirst(new MapPropertySource("databaseBackend", datasource));
+            logger.info("Using " + database.getBackend().getName() + " database at " + database.getUrl());
+        }
+
+        if (environment.getProperty("db.migrate-on-startup", Boolean.class, true)) {
+            System.out.println("Running database migration...");
+            DatabaseMigration.runMigration(database);
+            System.out.println("Database migration completed");
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package Backend.config;
 
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
 import java.sql.Connection;
 import java.sql.Statement;
 import java.sql.SQLException;
@@ -7,18 +10,28 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
- * Database migration script to fix missing columns
+ * Database migration script to create the schema and fix missing columns
+ * Runs the portable schema.sql first, so an empty MySQL or H2 database is
+ * brought up to date without any manual setup.
  */
 public class DatabaseMigration {
     
     private static final Logger logger = Logger.getLogger(DatabaseMigration.class.getName());
+    private static final String SCHEMA = "schema.sql";
     
     public static void runMigration(Database database) {
-        logger.info("Starting database migration...");
+        logger.info("Starting database migration on " + database.getBackend().getName() + "...");
+        DatabaseBackend backend = database.getBackend();
         
         try (Connection conn = database.getConnection();
              Statement stmt = conn.createStatement()) {
             
+            // === SCHEMA ===
+            
+            // CREATE TABLE IF NOT EXISTS only, so existing tables are left alone
+            ScriptUtils.executeSqlScript(conn, new ClassPathResource(SCHEMA));
+            logger.info("Ensured tables from " + SCHEMA + " exist");
+            
             // === USERS TABLE MIGRATION ===
             
             // Add request_admin column if it doesn't exist
@@ -26,7 +39,7 @@ public class DatabaseMigration {
                 stmt.execute("ALTER TABLE users ADD COLUMN request_admin BOOLEAN DEFAULT FALSE");
                 logger.info("Added request_admin column to users table");
             } catch (SQLException e) {
-                if (e.getMessage().contains("Duplicate column name")) {
+                if (backend.isAlreadyExists(e)) {
                     logger.info("request_admin column already exists");
                 } else {
                     throw e;
@@ -38,7 +51,7 @@ public class DatabaseMigration {
                 stmt.execute("ALTER TABLE users ADD COLUMN status VARCHAR(20) DEFAULT 'Active'");
                 logger.info("Added status column to users table");
             } catch (SQLException e) {
-                if (e.getMessage().contains("Duplicate column name")) {
+                if (backend.isAlreadyExists(e)) {
                     logger.info("status column already exists");
                 } else {
                     throw e;
@@ -50,13 +63,37 @@ public class DatabaseMigration {
                 stmt.execute("ALTER TABLE users ADD COLUMN created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP");
                 logger.info("Added created_at column to users table");
             } catch (SQLException e) {
-                if (e.getMessage().contains("Duplicate column name")) {
+                if (backend.isAlreadyExists(e)) {
                     logger.info("created_at column already exists");
                 } else {
                     throw e;
                 }
             }
             
+            // Indexes added since the tables were first created: the paginated
+            // admin user directory and the date ranges of exports
+            String[][] indexes = {
+                {"users", "idx_users_name", "lname, fname, id"},
+                {"users", "idx_users_fname", "fname"},
+                {"users", "idx_users_type_name", "type, lname, fname, id"},
+                {"items", "idx_items_date_reported", "date_reported"},
+                {"claims", "idx_claims_date_submitted", "date_submitted"},
+                {"items_archive", "idx_items_archive_date_reported", "date_reported"},
+                {"claims_archive", "idx_claims_archive_date_submitted", "date_submitted"}
+            };
+            for (String[] index : indexes) {
+                try {
+                    stmt.execute("CREATE INDEX " + index[1] + " ON " + index[0] + " (" + index[2] + ")");
+                    logger.info("Added " + index[1] + " index to " + index[0] + " table");
+                } catch (SQLException e) {
+                    if (backend.isAlreadyExists(e)) {
+                        logger.info(index[1] + " index already exists");
+                    } else {
+                        logger.warning("Could not add " + index[1] + " index: " + e.getMessage());
+                    }
+                }
+            }
+            
             // Update existing admin user
             stmt.execute("UPDATE users SET request_admin = FALSE WHERE username = 'admin' AND type = 'Admin'");
             logger.info("Updated existing admin user");
@@ -68,7 +105,7 @@ public class DatabaseMigration {
                 stmt.execute("ALTER TABLE items ADD COLUMN reported_by VARCHAR(50) NOT NULL DEFAULT 'Unknown'");
                 logger.info("Added reported_by column to items table");
             } catch (SQLException e) {
-                if (e.getMessage().contains("Duplicate column name") || e.getMessage().contains("already exists")) {
+                if (backend.isAlreadyExists(e)) {
                     logger.info("reported_by column already exists");
                 } else {
                     logger.warning("Could not add reported_by column: " + e.getMessage());
@@ -79,7 +116,7 @@ public class DatabaseMigration {
                 stmt.execute("ALTER TABLE items ADD COLUMN user_id INT NOT NULL DEFAULT 1");
                 logger.info("Added user_id column to items table");
             } catch (SQLException e) {
-                if (e.getMessage().contains("Duplicate column name") || e.getMessage().contains("already exists")) {
+                if (backend.isAlreadyExists(e)) {
                     logger.info("user_id column already exists");
                 } else {
                     logger.warning("Could not add user_id column: " + e.getMessage());
@@ -91,13 +128,33 @@ public class DatabaseMigration {
                 stmt.execute("ALTER TABLE items ADD CONSTRAINT fk_items_user_id FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE");
                 logger.info("Added foreign key constraint for user_id in items table");
             } catch (SQLException e) {
-                if (e.getMessage().contains("Duplicate key name") || e.getMessage().contains("already exists") || e.getMessage().contains("Duplicate constraint name")) {
+                if (backend.isAlreadyExists(e)) {
                     logger.info("Foreign key constraint already exists");
                 } else {
                     logger.warning("Could not add foreign key constraint: " + e.getMessage());
                 }
             }
             
+            // Add near-duplicate and photo hash columns if they don't exist; the archive keeps duplicate_of
+            String[][] itemColumns = {
+                {"items", "fingerprint", "VARBINARY(96)"},
+                {"items", "image_hash", "BIGINT"},
+                {"items", "duplicate_of", "INT"},
+                {"items_archive", "duplicate_of", "INT"}
+            };
+            for (String[] column : itemColumns) {
+                try {
+                    stmt.execute("ALTER TABLE " + column[0] + " ADD COLUMN " + column[1] + " " + column[2]);
+                    logger.info("Added " + column[1] + " column to " + column[0] + " table");
+                } catch (SQLException e) {
+                    if (backend.isAlreadyExists(e)) {
+                        logger.info(column[1] + " column already exists in " + column[0] + " table");
+                    } else {
+                        logger.warning("Could not add " + column[1] + " column to " + column[0] + " table: " + e.getMessage());
+                    }
+                }
+            }
+            
             // === CLAIMS TABLE MIGRATION ===
             
             // Add claimant_username column if it doesn't exist
@@ -105,7 +162,7 @@ public class DatabaseMigration {
                 stmt.execute("ALTER TABLE claims ADD COLUMN claimant_username VARCHAR(50) NOT NULL DEFAULT ''");
                 logger.info("Added claimant_username column to claims table");
             } catch (SQLException e) {
-                if (e.getMessage().contains("Duplicate column name") || e.getMessage().contains("already exists")) {
+                if (backend.isAlreadyExists(e)) {
                     logger.info("claimant_username column already exists");
                 } else {
                     logger.warning("Could not add claimant_username column: " + e.getMessage());
@@ -117,13 +174,32 @@ public class DatabaseMigration {
                 stmt.execute("ALTER TABLE claims ADD COLUMN date_submitted DATE NOT NULL DEFAULT '2024-01-01'");
                 logger.info("Added date_submitted column to claims table");
             } catch (SQLException e) {
-                if (e.getMessage().contains("Duplicate column name") || e.getMessage().contains("already exists")) {
+                if (backend.isAlreadyExists(e)) {
                     logger.info("date_submitted column already exists");
                 } else {
                     logger.warning("Could not add date_submitted column: " + e.getMessage());
                 }
             }
             
+            // Add approval and optimistic locking columns if they don't exist
+            String[][] claimColumns = {
+                {"approver_username", "VARCHAR(50)"},
+                {"date_approved", "TIMESTAMP NULL"},
+                {"version", "INT NOT NULL DEFAULT 0"}
+            };
+            for (String[] column : claimColumns) {
+                try {
+                    stmt.execute("ALTER TABLE claims ADD COLUMN " + column[0] + " " + column[1]);
+                    logger.info("Added " + column[0] + " column to claims table");
+                } catch (SQLException e) {
+                    if (backend.isAlreadyExists(e)) {
+                        logger.info(column[0] + " column already exists");
+                    } else {
+                        logger.warning("Could not add " + column[0] + " column: " + e.getMessage());
+                    }
+                }
+            }
+            
             logger.info("Database migration completed successfully");
             
         } catch (SQLException e) {
@@ -0,0 +1,106 @@
+package Backend.config;
+
+import org.h2.api.ErrorCode;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+
+/**
+ * Embedded H2 backend in MySQL compatibility mode
+ * Runs in-process, so benchmarks, load tests and small single-node
+ * deployments need no MySQL server. Identifiers are folded to lower case
+ * like MySQL on Linux, so the repositories' SQL runs unchanged. Text
+ * compares without case like MySQL's default collation, so prefix searches
+ * such as the user directory's match the same rows on both.
+ */
+public class H2Backend implements DatabaseBackend {
+
+    static final String MODE = ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;IGNORECASE=TRUE";
+
+    private static final Set<Integer> ALREADY_EXISTS = Set.of(
+            ErrorCode.TABLE_OR_VIEW_ALREADY_EXISTS_1,
+            ErrorCode.DUPLICATE_COLUMN_NAME_1,
+            ErrorCode.CONSTRAINT_ALREADY_EXISTS_1,
+            ErrorCode.INDEX_ALREADY_EXISTS_1);
+
+    private final String dbName;
+    private final String file;
+
+    /**
+     * @param file Database file path without the .mv.db suffix, or null for an
+     *             in-memory database that lives until the JVM exits
+     */
+    public H2Backend(String dbName, String file) {
+        this.dbName = dbName;
+        this.file = file;
+    }
+
+    @Override
+    public String getName() {
+        return H2;
+    }
+
+    @Override
+    public String getDriverClassName() {
+        return "org.h2.Driver";
+    }
+
+    @Override
+    public String getUrl() {
+        if (file == null) {
+            return "jdbc:h2:mem:" + dbName + MODE + ";DB_CLOSE_DELAY=-1";
+        }
+        return "jdbc:h2:file:" + file + MODE;
+    }
+
+    @Override
+    public String getDefaultUsername() {
+        return "sa";
+    }
+
+    @Override
+    public String getDefaultPassword() {
+        return "";
+    }
+
+    @Override
+    public boolean isAlreadyExists(SQLException e) {
+        return ALREADY_EXISTS.contains(e.getErrorCode());
+    }
+
+    /**
+     * H2 keeps large results on disk past its in-memory row limit and reads
+     * them in fetch-size batches
+     */
+    @Override
+    public int getStreamingFetchSize(int rows) {
+        return rows;
+    }
+
+    /**
+     * H2's SNAPSHOT isolation reads every table as of the transaction's start
+     */
+    @Override
+    public void beginConsistentSnapshot(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("SET SESSION CHARACTERISTICS AS TRANSACTION ISOLATION LEVEL SNAPSHOT");
+        }
+        conn.setAutoCommit(false);
+    }
+
+    /**
+     * Database-wide in H2, not per session, so it is only for maintenance
+     * windows such as a restore
+     */
+    @Override
+    public String[] getBulkLoadStart() {
+        return new String[] {"SET REFERENTIAL_INTEGRITY FALSE"};
+    }
+
+    @Override
+    public String[] getBulkLoadEnd() {
+        return new String[] {"SET REFERENTIAL_INTEGRITY TRUE"};
+    }
+}
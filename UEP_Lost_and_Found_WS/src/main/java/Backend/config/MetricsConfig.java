@@ -0,0 +1,122 @@
+package Backend.config;
+
+import Backend.repository.SingleFlight;
+import Backend.service.ClaimTurnaroundRecorder;
+import Backend.service.ItemListSnapshot;
+import Backend.service.LoginRateLimiter;
+import Backend.service.StatsAggregateStore;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Cache and limiter meters exported on /actuator/prometheus
+ * Values are read from the components' own counters at scrape time, so
+ * nothing is added to the request path. Repository and connection timers
+ * register themselves (see RepositoryMetrics and Database); HTTP latency
+ * comes from Spring Boot's http.server.requests timer and the JDBC pool
+ * from its HikariCP binder.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder loginRateLimiterMetrics(LoginRateLimiter limiter) {
+        return registry -> {
+            ToDoubleFunction<String> stat = key -> ((Number) limiter.getStats().get(key)).doubleValue();
+            FunctionCounter.builder("login.attempts", limiter, l -> stat.applyAsDouble("allowed"))
+                    .tag("result", "allowed").register(registry);
+            FunctionCounter.builder("login.attempts", limiter, l -> stat.applyAsDouble("rejected_by_username"))
+                    .tag("result", "rejected_by_username").register(registry);
+            FunctionCounter.builder("login.attempts", limiter, l -> stat.applyAsDouble("rejected_by_address"))
+                    .tag("result", "rejected_by_address").register(registry);
+            FunctionCounter.builder("login.outcomes", limiter, l -> stat.applyAsDouble("successes"))
+                    .tag("result", "success").register(registry);
+            FunctionCounter.builder("login.outcomes", limiter, l -> stat.applyAsDouble("failures"))
+                    .tag("result", "failure").register(registry);
+            Gauge.builder("login.limiter.buckets", limiter, l -> stat.applyAsDouble("tracked_usernames"))
+                    .tag("key", "username").register(registry);
+            Gauge.builder("login.limiter.buckets", limiter, l -> stat.applyAsDouble("tracked_addresses"))
+                    .tag("key", "address").register(registry);
+            FunctionCounter.builder("login.limiter.evictions", limiter, l -> stat.applyAsDouble("evicted"))
+                    .register(registry);
+            FunctionCounter.builder("login.limiter.overflow", limiter, l -> stat.applyAsDouble("overflow_hits"))
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder statsAggregateMetrics(StatsAggregateStore store) {
+        return registry -> {
+            Function<String, ToDoubleFunction<StatsAggregateStore>> stat =
+                    key -> s -> s.getCacheStats().get(key).doubleValue();
+            FunctionCounter.builder("stats.snapshot.requests", store, stat.apply("snapshot_hits"))
+                    .tag("result", "hit").register(registry);
+            FunctionCounter.builder("stats.snapshot.requests", store, stat.apply("snapshot_builds"))
+                    .tag("result", "miss").register(registry);
+            Gauge.builder("stats.tracked.rows", store, stat.apply("tracked_items"))
+                    .tag("table", "items").register(registry);
+            Gauge.builder("stats.tracked.rows", store, stat.apply("tracked_claims"))
+                    .tag("table", "claims").register(registry);
+            Gauge.builder("stats.ready", store, stat.apply("ready")).register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder concurrencyLimitMetrics(ConcurrencyLimitFilter filter) {
+        return registry -> {
+            ToDoubleFunction<String> stat = key -> ((Number) filter.getStats().get(key)).doubleValue();
+            Gauge.builder("http.limiter.limit", filter, f -> stat.applyAsDouble("limit"))
+                    .description("Adaptive limit on concurrent API requests").register(registry);
+            Gauge.builder("http.limiter.in_flight", filter, f -> stat.applyAsDouble("in_flight")).register(registry);
+            FunctionCounter.builder("http.limiter.requests", filter, f -> stat.applyAsDouble("admitted"))
+                    .tag("result", "admitted").register(registry);
+            for (ConcurrencyLimitFilter.Priority priority : ConcurrencyLimitFilter.Priority.values()) {
+                String key = "rejected_" + priority.name().toLowerCase();
+                FunctionCounter.builder("http.limiter.requests", filter, f -> stat.applyAsDouble(key))
+                        .tag("result", "rejected").tag("priority", priority.name().toLowerCase()).register(registry);
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder itemListSnapshotMetrics(ItemListSnapshot snapshot) {
+        return registry -> {
+            ToDoubleFunction<String> stat = key -> ((Number) snapshot.getStats().get(key)).doubleValue();
+            FunctionCounter.builder("items.snapshot.requests", snapshot, s -> stat.applyAsDouble("hits"))
+                    .description("Item list requests by whether the encoded snapshot was current")
+                    .tag("result", "hit").register(registry);
+            FunctionCounter.builder("items.snapshot.requests", snapshot, s -> stat.applyAsDouble("misses"))
+                    .tag("result", "miss").register(registry);
+            FunctionCounter.builder("items.snapshot.builds", snapshot, s -> stat.applyAsDouble("builds")).register(registry);
+            Gauge.builder("items.snapshot.bytes", snapshot, s -> stat.applyAsDouble("json_bytes"))
+                    .tag("encoding", "identity").register(registry);
+            Gauge.builder("items.snapshot.bytes", snapshot, s -> stat.applyAsDouble("gzip_bytes"))
+                    .tag("encoding", "gzip").register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder singleFlightMetrics() {
+        return registry -> {
+            ToDoubleFunction<String> stat = key -> ((Number) SingleFlight.getStats().get(key)).doubleValue();
+            for (String result : new String[] { "executed", "joined", "reused" }) {
+                FunctionCounter.builder("repository.single_flight.calls", SingleFlight.class, c -> stat.applyAsDouble(result))
+                        .description("Coalesced repository reads by whether they queried the database")
+                        .tag("result", result).register(registry);
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder claimTurnaroundMetrics(ClaimTurnaroundRecorder recorder) {
+        return registry -> Gauge.builder("claims.turnaround.buckets", recorder, ClaimTurnaroundRecorder::getBucketCount)
+                .description("Turnaround histograms held in memory")
+                .register(registry);
+    }
+}
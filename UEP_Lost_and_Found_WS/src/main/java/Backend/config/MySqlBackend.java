@@ -0,0 +1,94 @@
+package Backend.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+
+/**
+ * MySQL server backend, the default
+ */
+public class MySqlBackend implements DatabaseBackend {
+
+    // ER_DUP_KEY, ER_TABLE_EXISTS_ERROR, ER_DUP_FIELDNAME, ER_DUP_KEYNAME, ER_FK_DUP_NAME
+    private static final Set<Integer> ALREADY_EXISTS = Set.of(1022, 1050, 1060, 1061, 1826);
+
+    private final String host;
+    private final String dbName;
+
+    public MySqlBackend(String host, String dbName) {
+        this.host = host;
+        this.dbName = dbName;
+    }
+
+    @Override
+    public String getName() {
+        return MYSQL;
+    }
+
+    @Override
+    public String getDriverClassName() {
+        return "com.mysql.cj.jdbc.Driver";
+    }
+
+    /**
+     * UTF8MB4 connection; the database itself is created on first connect
+     * Batched inserts are rewritten into multi-row INSERTs, one round trip per batch.
+     */
+    @Override
+    public String getUrl() {
+        return String.format(
+            "jdbc:mysql://%s/%s?charset=utf8mb4&useSSL=false&serverTimezone=UTC&allowPublicKeyRetrieval=true&createDatabaseIfNotExist=true&rewriteBatchedStatements=true",
+            host,
+            dbName
+        );
+    }
+
+    @Override
+    public String getDefaultUsername() {
+        return "root";
+    }
+
+    @Override
+    public String getDefaultPassword() {
+        return "neil2003";
+    }
+
+    @Override
+    public boolean isAlreadyExists(SQLException e) {
+        return ALREADY_EXISTS.contains(e.getErrorCode());
+    }
+
+    /**
+     * Connector/J reads the whole result into memory unless the fetch size is
+     * Integer.MIN_VALUE, which streams it row by row (positive sizes need a
+     * server-side cursor, useCursorFetch, which the URL does not turn on)
+     */
+    @Override
+    public int getStreamingFetchSize(int rows) {
+        return Integer.MIN_VALUE;
+    }
+
+    /**
+     * InnoDB takes the read view at START TRANSACTION WITH CONSISTENT SNAPSHOT
+     * rather than at the first read, so all tables are read as of one instant
+     */
+    @Override
+    public void beginConsistentSnapshot(Connection conn) throws SQLException {
+        conn.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+        conn.setAutoCommit(false);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("START TRANSACTION WITH CONSISTENT SNAPSHOT, READ ONLY");
+        }
+    }
+
+    @Override
+    public String[] getBulkLoadStart() {
+        return new String[] {"SET foreign_key_checks = 0", "SET unique_checks = 0"};
+    }
+
+    @Override
+    public String[] getBulkLoadEnd() {
+        return new String[] {"SET unique_checks = 1", "SET foreign_key_checks = 1"};
+    }
+}
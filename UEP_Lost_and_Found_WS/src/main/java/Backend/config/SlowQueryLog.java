@@ -0,0 +1,247 @@
+package Backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Bounded ring buffer of statements slower than a threshold
+ * TrackingJdbc times every statement executed through Database and hands
+ * slow ones to record(). The first time a statement is seen, its plan is
+ * captured with EXPLAIN on a background thread and a separate connection,
+ * so the request that ran the slow query never waits for it.
+ */
+@Component
+public class SlowQueryLog {
+
+    private static final Logger logger = Logger.getLogger(SlowQueryLog.class.getName());
+    private static final int MAX_PLANS = 500;
+    private static final String EXPLAIN = "EXPLAIN ";
+
+    private final long thresholdNanos;
+    private final boolean explain;
+    private final SlowQuery[] ring;
+    private final AtomicLong recorded = new AtomicLong();
+    // Plans by statement shape, captured once per statement
+    private final ConcurrentHashMap<String, List<Map<String, Object>>> plans = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor explainer;
+
+    /**
+     * One slow execution; rows grows while the caller reads the result set
+     */
+    public static final class SlowQuery {
+        private final String sql;
+        private final List<String> parameterShapes;
+        private final long elapsedNanos;
+        private final String operation;
+        private final LocalDateTime executedAt;
+        private volatile int rows;
+
+        SlowQuery(String sql, List<String> parameterShapes, long elapsedNanos, String operation, int rows) {
+            this.sql = sql;
+            this.parameterShapes = parameterShapes;
+            this.elapsedNanos = elapsedNanos;
+            this.operation = operation;
+            this.executedAt = LocalDateTime.now();
+            this.rows = rows;
+        }
+
+        void rowRead() {
+            rows++;
+        }
+
+        public String getSql() { return sql; }
+        public long getElapsedNanos() { return elapsedNanos; }
+    }
+
+    public SlowQueryLog(@Value("${sql.slow-query.threshold-ms:200}") long thresholdMillis,
+                        @Value("${sql.slow-query.capacity:256}") int capacity,
+                        @Value("${sql.slow-query.explain:true}") boolean explain) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.explain = explain;
+        this.ring = new SlowQuery[Math.max(1, capacity)];
+        this.explainer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(64), runnable -> {
+            Thread thread = new Thread(runnable, "slow-query-explain");
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.DiscardPolicy());
+        TrackingJdbc.setSlowQueryLog(this);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        TrackingJdbc.setSlowQueryLog(null);
+        explainer.shutdownNow();
+    }
+
+    boolean isSlow(long elapsedNanos) {
+        return elapsedNanos >= thresholdNanos;
+    }
+
+    /**
+     * Records a slow execution
+     * @param parameters Bound values by index, null for plain statements; used for EXPLAIN only, never stored
+     * @param operation Repository method that ran the statement, may be null
+     */
+    SlowQuery record(String sql, Object[] parameters, long elapsedNanos, String operation, int rows) {
+        if (sql.startsWith(EXPLAIN)) {
+            // Our own plan capture
+            return null;
+        }
+        // Literal SQL from plain statements is listed with its values masked
+        String shape = parameters != null ? sql : SqlRequestStats.normalize(sql);
+        SlowQuery entry = new SlowQuery(shape, shapes(parameters), elapsedNanos, operation, rows);
+        long slot = recorded.getAndIncrement();
+        synchronized (ring) {
+            ring[(int) (slot % ring.length)] = entry;
+        }
+        logger.warning(String.format("Slow query (%d ms) in %s: %s",
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), operation != null ? operation : "unknown", shape));
+
+        if (explain && !plans.containsKey(shape) && isExplainable(sql)) {
+            Object[] values = parameters != null ? parameters : new Object[0];
+            try {
+                explainer.execute(() -> capturePlan(shape, sql, values));
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Worst entries in the buffer, one per statement and calling method
+     * @param limit Maximum number of statements to list
+     */
+    public Map<String, Object> getWorstOffenders(int limit) {
+        List<SlowQuery> entries = new ArrayList<>();
+        synchronized (ring) {
+            for (SlowQuery entry : ring) {
+                if (entry != null) {
+                    entries.add(entry);
+                }
+            }
+        }
+
+        Map<String, List<SlowQuery>> grouped = new HashMap<>();
+        for (SlowQuery entry : entries) {
+            grouped.computeIfAbsent(entry.operation + "\n" + entry.sql, k -> new ArrayList<>()).add(entry);
+        }
+
+        List<Map<String, Object>> offenders = new ArrayList<>();
+        grouped.values().stream()
+                .map(group -> group.stream().max(Comparator.comparingLong(SlowQuery::getElapsedNanos)).orElseThrow())
+                .sorted(Comparator.comparingLong(SlowQuery::getElapsedNanos).reversed())
+                .limit(Math.max(1, limit))
+                .forEach(worst -> {
+                    List<SlowQuery> group = grouped.get(worst.operation + "\n" + worst.sql);
+                    Map<String, Object> offender = new LinkedHashMap<>();
+                    offender.put("sql", worst.sql);
+                    offender.put("operation", worst.operation);
+                    offender.put("parameter_shapes", worst.parameterShapes);
+                    offender.put("max_ms", toMillis(worst.elapsedNanos));
+                    offender.put("mean_ms", toMillis((long) group.stream().mapToLong(SlowQuery::getElapsedNanos).average().orElse(0)));
+                    offender.put("occurrences", group.size());
+                    offender.put("rows", worst.rows);
+                    offender.put("last_seen", group.stream().map(q -> q.executedAt).max(Comparator.naturalOrder()).orElse(null));
+                    offender.put("plan", plans.get(worst.sql));
+                    offenders.add(offender);
+                });
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("threshold_ms", toMillis(thresholdNanos));
+        result.put("capacity", ring.length);
+        result.put("recorded_total", recorded.get());
+        result.put("offenders", offenders);
+        return result;
+    }
+
+    public void clear() {
+        synchronized (ring) {
+            Arrays.fill(ring, null);
+        }
+        plans.clear();
+    }
+
+    private void capturePlan(String shape, String sql, Object[] parameters) {
+        if (plans.containsKey(shape)) {
+            return;
+        }
+        List<Map<String, Object>> plan = new ArrayList<>();
+        Database database = new Database();
+        try (Connection conn = database.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(EXPLAIN + sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                stmt.setObject(i + 1, parameters[i]);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                ResultSetMetaData meta = rs.getMetaData();
+                while (rs.next()) {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    for (int column = 1; column <= meta.getColumnCount(); column++) {
+                        row.put(meta.getColumnLabel(column).toLowerCase(Locale.ROOT), rs.getObject(column));
+                    }
+                    plan.add(row);
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            logger.log(Level.FINE, "EXPLAIN failed for: " + shape, e);
+            plan.add(Map.of("error", String.valueOf(e.getMessage())));
+        }
+        if (plans.size() < MAX_PLANS) {
+            plans.put(shape, plan);
+        }
+    }
+
+    private static boolean isExplainable(String sql) {
+        String head = sql.stripLeading().toUpperCase(Locale.ROOT);
+        return head.startsWith("SELECT") || head.startsWith("UPDATE") || head.startsWith("DELETE") || head.startsWith("INSERT");
+    }
+
+    /**
+     * Type of each bound parameter, with the length for strings, e.g. [String(9), Long]
+     */
+    private static List<String> shapes(Object[] parameters) {
+        if (parameters == null) {
+            return List.of();
+        }
+        List<String> shapes = new ArrayList<>(parameters.length);
+        for (Object value : parameters) {
+            if (value == null) {
+                shapes.add("NULL");
+            } else if (value instanceof String) {
+                shapes.add("String(" + ((String) value).length() + ")");
+            } else {
+                shapes.add(value.getClass().getSimpleName());
+            }
+        }
+        return shapes;
+    }
+
+    private static double toMillis(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+}
@@ -0,0 +1,143 @@
+package Backend.config;
+
+import io.micrometer.core.instrument.Metrics;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Tracks the JDBC work of each API request and checks it against budgets
+ * Requests are keyed by HTTP method and controller mapping, plus the action
+ * parameter the controllers dispatch on. A request over its statement
+ * budget, or one that runs the same statement with different parameters
+ * more than max-repeats times (an N+1 pattern), is logged and counted.
+ * Async bodies such as streamed exports run on another thread and are not
+ * tracked; the request thread's stats are dropped when it hands over.
+ */
+@Component
+public class SqlBudgetInterceptor implements AsyncHandlerInterceptor {
+
+    private static final Logger logger = Logger.getLogger(SqlBudgetInterceptor.class.getName());
+
+    // Actions ClaimController.getClaims dispatches on; any other value is left out of the key
+    private static final Set<String> ACTIONS = Set.of("user", "pending");
+
+    private final boolean enabled;
+    private final int maxStatements;
+    private final int maxRepeats;
+    private final long logIntervalNanos;
+    private final Map<String, Integer> endpointBudgets;
+    // Last warning per endpoint and kind, so a hot endpoint cannot flood the log
+    private final ConcurrentHashMap<String, Long> lastLogged = new ConcurrentHashMap<>();
+
+    public SqlBudgetInterceptor(
+            @Value("${sql.budget.enabled:true}") boolean enabled,
+            @Value("${sql.budget.max-statements:20}") int maxStatements,
+            @Value("${sql.budget.max-repeats:5}") int maxRepeats,
+            @Value("${sql.budget.log-interval-seconds:60}") long logIntervalSeconds,
+            @Value("${sql.budget.endpoints:}") String endpointBudgets) {
+        this.enabled = enabled;
+        this.maxStatements = maxStatements;
+        this.maxRepeats = maxRepeats;
+        this.logIntervalNanos = TimeUnit.SECONDS.toNanos(logIntervalSeconds);
+        this.endpointBudgets = parseBudgets(endpointBudgets);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (enabled) {
+            SqlRequestStats.begin();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // afterCompletion runs only for the later async dispatch, possibly on another thread
+        SqlRequestStats.end();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        SqlRequestStats stats = SqlRequestStats.current();
+        if (stats == null) {
+            return;
+        }
+        try {
+            check(stats, endpointKey(request, response.getStatus() < 400));
+        } finally {
+            SqlRequestStats.end();
+        }
+    }
+
+    private void check(SqlRequestStats stats, String endpoint) {
+        Metrics.summary("sql.request.statements", "endpoint", endpoint).record(stats.getStatements());
+
+        int budget = endpointBudgets.getOrDefault(endpoint, maxStatements);
+        if (stats.getStatements() > budget) {
+            violation(endpoint, "statements", String.format(
+                    "SQL budget exceeded on %s: %d statements (budget %d), %d rows, %d connections",
+                    endpoint, stats.getStatements(), budget, stats.getRows(), stats.getConnections()));
+        }
+
+        Map.Entry<String, Integer> repeated = stats.getMostRepeated();
+        if (repeated != null && repeated.getValue() > maxRepeats) {
+            violation(endpoint, "n_plus_one", String.format(
+                    "Possible N+1 on %s: statement ran %d times in one request: %s",
+                    endpoint, repeated.getValue(), repeated.getKey()));
+        }
+    }
+
+    private void violation(String endpoint, String kind, String message) {
+        Metrics.counter("sql.budget.violations", "endpoint", endpoint, "kind", kind).increment();
+        long now = System.nanoTime();
+        String key = endpoint + "|" + kind;
+        Long last = lastLogged.get(key);
+        if (last == null || now - last >= logIntervalNanos) {
+            lastLogged.put(key, now);
+            logger.warning(message);
+        }
+    }
+
+    /**
+     * e.g. "GET /api/claims?action=pending"
+     * The action is kept only when it is a known action or has a configured
+     * budget, so arbitrary client values neither become metric tags nor grow
+     * lastLogged.
+     * @param withAction Whether to include the action parameter; only for handled requests
+     */
+    String endpointKey(HttpServletRequest request, boolean withAction) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String key = request.getMethod() + " " + (pattern != null ? pattern : "unmapped");
+        String action = withAction ? request.getParameter("action") : null;
+        if (action == null || action.isBlank()) {
+            return key;
+        }
+        String withActionKey = key + "?action=" + action;
+        return ACTIONS.contains(action) || endpointBudgets.containsKey(withActionKey) ? withActionKey : key;
+    }
+
+    /**
+     * Parses "GET /api/items:5, GET /api/claims?action=pending:10"
+     */
+    private static Map<String, Integer> parseBudgets(String spec) {
+        Map<String, Integer> budgets = new HashMap<>();
+        for (String entry : spec.split(",")) {
+            int colon = entry.lastIndexOf(':');
+            if (colon > 0) {
+                budgets.put(entry.substring(0, colon).trim(), Integer.parseInt(entry.substring(colon + 1).trim()));
+            }
+        }
+        return budgets;
+    }
+}
@@ -0,0 +1,105 @@
+package Backend.config;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * JDBC activity of the HTTP request running on the current thread
+ * Started and ended by SqlBudgetInterceptor; TrackingJdbc reports into it.
+ * A request is served by one thread, so the counters are plain fields.
+ */
+public final class SqlRequestStats {
+
+    private static final ThreadLocal<SqlRequestStats> current = new ThreadLocal<>();
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+
+    private int statements;
+    private int rows;
+    private int connections;
+    // Executions per statement shape; the same shape with different parameters repeats here
+    private final Map<String, int[]> executions = new HashMap<>();
+
+    private SqlRequestStats() {}
+
+    /**
+     * Starts tracking for the current thread
+     */
+    public static SqlRequestStats begin() {
+        SqlRequestStats stats = new SqlRequestStats();
+        current.set(stats);
+        return stats;
+    }
+
+    /**
+     * @return the stats of the current request, or null outside a tracked request
+     */
+    public static SqlRequestStats current() {
+        return current.get();
+    }
+
+    public static void end() {
+        current.remove();
+    }
+
+    static void connectionOpened() {
+        SqlRequestStats stats = current.get();
+        if (stats != null) {
+            stats.connections++;
+        }
+    }
+
+    /**
+     * @param sql The statement text
+     * @param prepared Whether parameters are bound separately; literal SQL is normalized first
+     */
+    static void statementExecuted(String sql, boolean prepared) {
+        SqlRequestStats stats = current.get();
+        if (stats != null && sql != null) {
+            stats.statements++;
+            stats.executions.computeIfAbsent(prepared ? sql : normalize(sql), k -> new int[1])[0]++;
+        }
+    }
+
+    static void rowRead() {
+        SqlRequestStats stats = current.get();
+        if (stats != null) {
+            stats.rows++;
+        }
+    }
+
+    /**
+     * Replaces literals so statements differing only in values compare equal
+     */
+    static String normalize(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        return NUMBER_LITERAL.matcher(shape).replaceAll("?");
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getConnections() {
+        return connections;
+    }
+
+    /**
+     * The statement shape executed most often in this request
+     * @return shape and count, or null when nothing ran
+     */
+    public Map.Entry<String, Integer> getMostRepeated() {
+        Map.Entry<String, Integer> worst = null;
+        for (Map.Entry<String, int[]> entry : executions.entrySet()) {
+            if (worst == null || entry.getValue()[0] > worst.getValue()) {
+                worst = Map.entry(entry.getKey(), entry.getValue()[0]);
+            }
+        }
+        return worst;
+    }
+}
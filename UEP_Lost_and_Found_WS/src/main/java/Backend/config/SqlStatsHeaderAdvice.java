@@ -0,0 +1,43 @@
+package Backend.config;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.Map;
+
+/**
+ * Adds the request's SQL counts as response headers (dev profile only)
+ * Runs just before the body is written, after the controller's queries.
+ */
+@Profile("dev")
+@ControllerAdvice
+public class SqlStatsHeaderAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        SqlRequestStats stats = SqlRequestStats.current();
+        if (stats != null) {
+            response.getHeaders().set("X-SQL-Statements", String.valueOf(stats.getStatements()));
+            response.getHeaders().set("X-SQL-Rows", String.valueOf(stats.getRows()));
+            response.getHeaders().set("X-SQL-Connections", String.valueOf(stats.getConnections()));
+            Map.Entry<String, Integer> repeated = stats.getMostRepeated();
+            if (repeated != null) {
+                response.getHeaders().set("X-SQL-Max-Repeats", String.valueOf(repeated.getValue()));
+            }
+        }
+        return body;
+    }
+}
@@ -0,0 +1,115 @@
+package Backend.config;
+
+import Backend.util.Tracer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Completed traces: the most recent ones in memory, and optionally every
+ * one appended as a JSON line to tracing.export-file by a background writer
+ */
+@Component
+public class TraceStore {
+
+    private static final Logger logger = Logger.getLogger(TraceStore.class.getName());
+
+    private final Tracer.Trace[] ring;
+    private long added;
+    private final ObjectMapper objectMapper;
+    private final Path exportFile;
+    private final ThreadPoolExecutor exporter;
+
+    public TraceStore(ObjectMapper objectMapper,
+                      @Value("${tracing.buffer-size:200}") int bufferSize,
+                      @Value("${tracing.export-file:}") String exportFile) {
+        this.objectMapper = objectMapper;
+        this.ring = new Tracer.Trace[Math.max(1, bufferSize)];
+        this.exportFile = exportFile.isBlank() ? null : Paths.get(exportFile);
+        this.exporter = this.exportFile == null ? null : new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1000), runnable -> {
+                    Thread thread = new Thread(runnable, "trace-exporter");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (exporter != null) {
+            exporter.shutdown();
+        }
+    }
+
+    public void add(Tracer.Trace trace) {
+        synchronized (ring) {
+            ring[(int) (added++ % ring.length)] = trace;
+        }
+        if (exporter != null) {
+            try {
+                exporter.execute(() -> export(trace));
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+            }
+        }
+    }
+
+    /**
+     * Summaries of the traces in memory, newest first
+     * @param minMillis Only traces at least this long
+     */
+    public List<Map<String, Object>> getRecent(int limit, double minMillis) {
+        List<Map<String, Object>> recent = new ArrayList<>();
+        synchronized (ring) {
+            for (long i = added - 1; i >= 0 && i >= added - ring.length && recent.size() < limit; i--) {
+                Map<String, Object> summary = ring[(int) (i % ring.length)].toMap(false);
+                if ((Double) summary.get("duration_ms") >= minMillis) {
+                    recent.add(summary);
+                }
+            }
+        }
+        return recent;
+    }
+
+    /**
+     * @return the trace with all spans, or null when it is no longer in memory
+     */
+    public Map<String, Object> find(String traceId) {
+        synchronized (ring) {
+            for (Tracer.Trace trace : ring) {
+                if (trace != null && trace.getId().equals(traceId)) {
+                    return trace.toMap(true);
+                }
+            }
+        }
+        return null;
+    }
+
+    private void export(Tracer.Trace trace) {
+        try (Writer writer = Files.newBufferedWriter(exportFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            writer.write(objectMapper.writeValueAsString(trace.toMap(true)));
+            writer.write('\n');
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to export trace " + trace.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package Backend.config;
+
+import Backend.util.Tracer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Spans for controller and service methods of sampled requests
+ * Repositories are not Spring-proxied; RepositoryMetrics and the JDBC
+ * proxies open their spans directly.
+ */
+@Aspect
+@Component
+public class TracingAspect {
+
+    @Around("within(Backend.controller..*)")
+    public Object traceController(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace("controller", joinPoint);
+    }
+
+    @Around("within(Backend.service..*)")
+    public Object traceService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace("service", joinPoint);
+    }
+
+    private Object trace(String kind, ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!Tracer.isActive()) {
+            return joinPoint.proceed();
+        }
+        Tracer.Span span = Tracer.startSpan(kind,
+                joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName());
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+}
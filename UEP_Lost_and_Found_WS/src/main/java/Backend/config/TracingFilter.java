@@ -0,0 +1,105 @@
+package Backend.config;
+
+import Backend.model.User;
+import Backend.util.Tracer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Gives every API request a trace id and traces a sample of them
+ * The id goes to the logging MDC (traceId) and the X-Trace-Id response
+ * header for all requests; spans are only recorded for sampled ones, which
+ * are handed to the TraceStore when the request completes. The sample
+ * header forces a trace only for admin sessions, and only when
+ * tracing.honor-sample-header is on, so clients cannot fill the trace
+ * buffer or slow requests down at will.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class TracingFilter extends OncePerRequestFilter {
+
+    static final String TRACE_ID_HEADER = "X-Trace-Id";
+    static final String SAMPLE_HEADER = "X-Trace-Sample";
+
+    private final TraceStore traceStore;
+    private final double sampleRate;
+    private final boolean honorSampleHeader;
+    private final int maxSpans;
+
+    public TracingFilter(TraceStore traceStore,
+                         @Value("${tracing.sample-rate:0.01}") double sampleRate,
+                         @Value("${tracing.honor-sample-header:false}") boolean honorSampleHeader,
+                         @Value("${tracing.max-spans:1000}") int maxSpans) {
+        this.traceStore = traceStore;
+        this.sampleRate = sampleRate;
+        this.honorSampleHeader = honorSampleHeader;
+        this.maxSpans = maxSpans;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String traceId = Tracer.newTraceId();
+        MDC.put("traceId", traceId);
+        response.setHeader(TRACE_ID_HEADER, traceId);
+
+        if (!isSampled(request)) {
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                MDC.remove("traceId");
+            }
+            return;
+        }
+
+        Tracer.Trace trace = Tracer.startTrace(traceId, request.getMethod() + " " + request.getRequestURI(), maxSpans);
+        Tracer.Span root = trace.getRoot();
+        try {
+            chain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            root.error(e);
+            throw e;
+        } finally {
+            // Name by controller mapping so traces of one endpoint group together
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (pattern != null) {
+                root.setName(request.getMethod() + " " + pattern);
+            }
+            root.tag("status", String.valueOf(response.getStatus()));
+            root.end();
+            MDC.remove("traceId");
+            traceStore.add(trace);
+        }
+    }
+
+    private boolean isSampled(HttpServletRequest request) {
+        if (honorSampleHeader && "1".equals(request.getHeader(SAMPLE_HEADER)) && isAdmin(request)) {
+            return true;
+        }
+        return sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    private static boolean isAdmin(HttpServletRequest request) {
+        HttpSession session = request.getSession(false);
+        User currentUser = session != null ? (User) session.getAttribute("user") : null;
+        return currentUser != null && "Admin".equals(currentUser.getType());
+    }
+}
@@ -0,0 +1,183 @@
+package Backend.config;
+
+import Backend.repository.RepositoryMetrics;
+import Backend.util.Tracer;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * JDBC proxies that report statements and rows to SqlRequestStats
+ * Database wraps every connection it hands out; statements and result sets
+ * created from it are wrapped in turn. Outside a tracked request each call
+ * costs one thread-local lookup on top of the delegate. Executions are
+ * timed, and those over the threshold are handed to the SlowQueryLog;
+ * sampled requests get a tracing span per execution.
+ */
+final class TrackingJdbc {
+
+    private static volatile SlowQueryLog slowQueryLog;
+
+    private TrackingJdbc() {}
+
+    static void setSlowQueryLog(SlowQueryLog log) {
+        slowQueryLog = log;
+    }
+
+    static Connection wrap(Connection connection) {
+        if (connection == null) {
+            return null;
+        }
+        SqlRequestStats.connectionOpened();
+        return proxy(Connection.class, connection, new ConnectionHandler(connection));
+    }
+
+    private static <T> T proxy(Class<T> type, T target, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(TrackingJdbc.class.getClassLoader(), new Class<?>[] { type }, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Wraps the statements a connection creates
+     */
+    private static final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = TrackingJdbc.invoke(target, method, args);
+            switch (method.getName()) {
+                case "prepareStatement":
+                    return proxy(PreparedStatement.class, (PreparedStatement) result,
+                            new StatementHandler((Statement) result, (String) args[0]));
+                case "prepareCall":
+                    return proxy(CallableStatement.class, (CallableStatement) result,
+                            new StatementHandler((Statement) result, (String) args[0]));
+                case "createStatement":
+                    return proxy(Statement.class, (Statement) result, new StatementHandler((Statement) result, null));
+                default:
+                    return result;
+            }
+        }
+    }
+
+    /**
+     * Counts and times executions and wraps the result sets a statement returns
+     * For prepared statements the SQL is known up front and bound values are
+     * kept for EXPLAIN; plain statements pass the SQL to execute.
+     */
+    private static final class StatementHandler implements InvocationHandler {
+        private static final Object[] NO_PARAMETERS = new Object[0];
+
+        private final Statement target;
+        private final String preparedSql;
+        private Object[] parameters = NO_PARAMETERS;
+        private int parameterCount;
+
+        StatementHandler(Statement target, String preparedSql) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                bind((Integer) args[0], name.equals("setNull") ? null : args[1]);
+                return TrackingJdbc.invoke(target, method, args);
+            }
+            if (name.equals("clearParameters")) {
+                parameters = NO_PARAMETERS;
+                parameterCount = 0;
+            }
+            if (!name.startsWith("execute")) {
+                return TrackingJdbc.invoke(target, method, args);
+            }
+
+            boolean prepared = args == null || args.length == 0;
+            String sql = name.equals("executeBatch")
+                    ? (preparedSql != null ? preparedSql : "batch")
+                    : (prepared ? preparedSql : (String) args[0]);
+            SqlRequestStats.statementExecuted(sql, prepared || name.equals("executeBatch"));
+
+            Tracer.Span span = Tracer.startSpan("jdbc", name);
+            if (sql != null && Tracer.isActive()) {
+                span.tag("sql", prepared ? sql : SqlRequestStats.normalize(sql));
+            }
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = TrackingJdbc.invoke(target, method, args);
+            } catch (Throwable e) {
+                span.error(e);
+                throw e;
+            } finally {
+                span.end();
+            }
+            long elapsed = System.nanoTime() - start;
+
+            SlowQueryLog log = slowQueryLog;
+            SlowQueryLog.SlowQuery slow = null;
+            if (log != null && sql != null && log.isSlow(elapsed)) {
+                int rows = result instanceof Integer ? (Integer) result : 0;
+                slow = log.record(sql, prepared ? Arrays.copyOf(parameters, parameterCount) : null, elapsed, RepositoryMetrics.currentOperation(), rows);
+            }
+            if (result instanceof ResultSet) {
+                return proxy(ResultSet.class, (ResultSet) result, new ResultSetHandler((ResultSet) result, slow));
+            }
+            return result;
+        }
+
+        private void bind(int index, Object value) {
+            if (index > parameters.length) {
+                parameters = Arrays.copyOf(parameters, Math.max(index, parameters.length * 2));
+            }
+            parameters[index - 1] = value;
+            parameterCount = Math.max(parameterCount, index);
+        }
+    }
+
+    /**
+     * Counts rows read through next()
+     */
+    private static final class ResultSetHandler implements InvocationHandler {
+        private final ResultSet target;
+        private final SlowQueryLog.SlowQuery slow;
+
+        ResultSetHandler(ResultSet target, SlowQueryLog.SlowQuery slow) {
+            this.target = target;
+            this.slow = slow;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = TrackingJdbc.invoke(target, method, args);
+            if (Boolean.TRUE.equals(result) && method.getName().equals("next")) {
+                SqlRequestStats.rowRead();
+                if (slow != null) {
+                    slow.rowRead();
+                }
+            }
+            return result;
+        }
+    }
+}
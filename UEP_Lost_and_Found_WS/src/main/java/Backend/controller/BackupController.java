@@ -0,0 +1,123 @@
+package Backend.controller;
+
+import Backend.model.User;
+import Backend.service.BackupService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import jakarta.servlet.http.HttpSession;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Admin snapshot backups: create, list, download and restore
+ * Restoring replaces every user, item and claim, the admin's own account
+ * included, and is refused unless backup.restore-enabled is set.
+ */
+@RestController
+@RequestMapping("/api/backups")
+public class BackupController {
+
+    @Autowired
+    private BackupService backupService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> createBackup(HttpSession session) {
+        User currentUser = (User) session.getAttribute("user");
+        if (currentUser == null || !"Admin".equals(currentUser.getType())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Access denied"));
+        }
+
+        try {
+            return ResponseEntity.ok(Map.of("backup", backupService.backup()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        } catch (IOException | RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Backup failed: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> listBackups(HttpSession session) {
+        User currentUser = (User) session.getAttribute("user");
+        if (currentUser == null || !"Admin".equals(currentUser.getType())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Access denied"));
+        }
+
+        try {
+            return ResponseEntity.ok(Map.of(
+                    "backups", backupService.list(),
+                    "restore_enabled", backupService.isRestoreEnabled()));
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Could not list backups: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{file}")
+    public ResponseEntity<StreamingResponseBody> downloadBackup(@PathVariable String file, HttpSession session) {
+        User currentUser = (User) session.getAttribute("user");
+        if (currentUser == null || !"Admin".equals(currentUser.getType())) {
+            return error(HttpStatus.FORBIDDEN, "Access denied");
+        }
+
+        Path snapshot = backupService.find(file);
+        if (snapshot == null) {
+            return error(HttpStatus.NOT_FOUND, "Backup not found");
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(file).build().toString())
+                .body(out -> Files.copy(snapshot, out));
+    }
+
+    @PostMapping("/{file}/restore")
+    public ResponseEntity<Map<String, Object>> restoreBackup(@PathVariable String file, HttpSession session) {
+        User currentUser = (User) session.getAttribute("user");
+        if (currentUser == null || !"Admin".equals(currentUser.getType())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Access denied"));
+        }
+        if (!backupService.isRestoreEnabled()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "Restore is disabled on this server (backup.restore-enabled)"));
+        }
+
+        Path snapshot = backupService.find(file);
+        if (snapshot == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Backup not found"));
+        }
+        try {
+            return ResponseEntity.ok(Map.of("restore", backupService.restore(snapshot)));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        } catch (IOException e) {
+            // Checked before anything was deleted
+            return ResponseEntity.badRequest().body(Map.of("error", "Backup is unreadable: " + e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Restore failed: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Same {"error": ...} body as the other endpoints, for the download's return type
+     */
+    private ResponseEntity<StreamingResponseBody> error(HttpStatus status, String message) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> objectMapper.writeValue(out, Map.of("error", message)));
+    }
+}
@@ -1,9 +1,12 @@
 package Backend.controller;
 
+import Backend.dto.ClaimView;
 import Backend.model.Claim;
+import Backend.model.ClaimTransition;
 import Backend.model.User;
 import Backend.service.ClaimService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -34,7 +37,7 @@ public class ClaimController {
 
             try {
                 Claim claim = claimService.createClaim(itemId, claimantUsername, claimDescription);
-                return ResponseEntity.ok(Map.of("message", "Claim submitted successfully", "claim", claim));
+                return ResponseEntity.ok(Map.of("message", "Claim submitted successfully", "claim", ClaimView.of(claim)));
             } catch (Exception e) {
                 return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
             }
@@ -47,8 +50,8 @@ public class ClaimController {
             }
 
             try {
-                claimService.approveClaim(claimId, approverUsername);
-                return ResponseEntity.ok(Map.of("message", "Claim approved successfully"));
+                ClaimTransition transition = claimService.approveClaim(claimId, approverUsername, expectedVersion(claimData));
+                return transitionResponse(transition, "Claim approved successfully");
             } catch (Exception e) {
                 return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
             }
@@ -61,8 +64,8 @@ public class ClaimController {
             }
 
             try {
-                claimService.rejectClaim(claimId, approverUsername);
-                return ResponseEntity.ok(Map.of("message", "Claim rejected successfully"));
+                ClaimTransition transition = claimService.rejectClaim(claimId, approverUsername, expectedVersion(claimData));
+                return transitionResponse(transition, "Claim rejected successfully");
             } catch (Exception e) {
                 return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
             }
@@ -74,6 +77,7 @@ public class ClaimController {
     @GetMapping
     public ResponseEntity<Map<String, Object>> getClaims(@RequestParam(value = "action", required = false) String action,
                                                          @RequestParam(value = "username", required = false) String username,
+                                                         @RequestParam(value = "includeArchived", defaultValue = "false") boolean includeArchived,
                                                          HttpSession session) {
         User currentUser = (User) session.getAttribute("user");
         if (currentUser == null) {
@@ -84,16 +88,58 @@ public class ClaimController {
             if (!currentUser.getUsername().equals(username) && !"Admin".equals(currentUser.getType())) {
                 return ResponseEntity.status(403).body(Map.of("error", "Access denied"));
             }
-            List<Claim> claims = claimService.getClaimsByUser(username);
-            return ResponseEntity.ok(Map.of("claims", claims));
+            List<Claim> claims = claimService.getClaimsByUser(username, includeArchived);
+            return ResponseEntity.ok(Map.of("claims", ClaimView.of(claims)));
         } else if ("pending".equals(action)) {
             if (!"Admin".equals(currentUser.getType())) {
                 return ResponseEntity.status(403).body(Map.of("error", "Access denied"));
             }
             List<Claim> claims = claimService.getPendingClaims();
-            return ResponseEntity.ok(Map.of("claims", claims));
+            return ResponseEntity.ok(Map.of("claims", ClaimView.of(claims)));
         }
 
         return ResponseEntity.badRequest().body(Map.of("error", "Invalid request"));
     }
+
+    /**
+     * Optional "version" of the claim the admin acted on, for optimistic locking
+     */
+    private static Integer expectedVersion(Map<String, Object> claimData) {
+        Object version = claimData.get("version");
+        return version != null ? Integer.valueOf(version.toString()) : null;
+    }
+
+    /**
+     * 200 when the claim changed, 404 when it does not exist, 409 when someone else changed it first
+     */
+    private static ResponseEntity<Map<String, Object>> transitionResponse(ClaimTransition transition, String message) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("outcome", transition.outcome().name().toLowerCase());
+        Claim claim = transition.claim();
+        if (claim != null) {
+            response.put("status", claim.getStatus());
+            response.put("version", claim.getVersion());
+        }
+
+        switch (transition.outcome()) {
+            case APPLIED:
+                response.put("message", message);
+                if (claim != null && claim.getItem() != null && claim.getItem().getStatus() != null) {
+                    response.put("item_status", claim.getItem().getStatus());
+                }
+                if (!transition.rejectedClaims().isEmpty()) {
+                    response.put("rejected_claims", transition.rejectedClaims().stream().map(Claim::getId).toList());
+                }
+                return ResponseEntity.ok(response);
+            case NOT_FOUND:
+                response.put("error", "Claim not found");
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            case STATUS_CONFLICT:
+                response.put("error", "Claim was already " + claim.getStatus());
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+            default:
+                response.put("error", "Claim was changed by someone else, please reload and try again");
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        }
+    }
 }
@@ -0,0 +1,196 @@
+package Backend.controller;
+
+import Backend.config.ConcurrencyLimitFilter;
+import Backend.config.SlowQueryLog;
+import Backend.config.TraceStore;
+import Backend.model.User;
+import Backend.repository.SingleFlight;
+import Backend.service.ArchivalService;
+import Backend.service.ImageMatchIndex;
+import Backend.service.ItemListSnapshot;
+import Backend.service.ItemSuggestIndex;
+import Backend.service.StorageMaintenanceService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.servlet.http.HttpSession;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/diagnostics")
+public class DiagnosticsController {
+
+    @Autowired
+    private SlowQueryLog slowQueryLog;
+
+    @Autowired
+    private TraceStore traceStore;
+
+    @Autowired
+    private ArchivalService archivalService;
+
+    @Autowired
+    private StorageMaintenanceService storageService;
+
+    @Autowired
+    private ImageMatchIndex imageMatchIndex;
+
+    @Autowired
+    private ConcurrencyLimitFilter concurrencyLimitFilter;
+
+    @Autowired
+    private ItemListSnapshot itemListSnapshot;
+
+    @Autowired
+    private ItemSuggestIndex itemSuggestIndex;
+
+    @GetMapping("/slow-queries")
+    public ResponseEntity<Map<String, Object>> getSlowQueries(@RequestParam(value = "limit", defaultValue = "20") int limit,
+                                                              HttpSession session) {
+        User currentUser = (User) session.getAttribute("user");
+        if (currentUser == null || !"Admin".equals(currentUser.getType())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Access denied"));
+        }
+
+        return ResponseEntity.ok(Map.of("slow_queries", slowQueryLog.getWorstOffenders(limit)));
+    }
+
+    @DeleteMapping("/slow-queries")
+    public ResponseEntity<Map<String, Object>> clearSlowQueries(HttpSession session) {
+        User currentUser = (User) session.getAttribute("user");
+        if (currentUser == null || !"Admin".equals(currentUser.getType())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Access denied"));
+        }
+
+        slowQueryLog.clear();
+        return ResponseEntity.ok(Map.of("message", "Slow query log cleared"));
+    }
+
+    @GetMapping("/traces")
+    public ResponseEntity<Map<String, Object>> getTraces(@RequestParam(value = "limit", defaultValue = "50") int limit,
+                                                         @RequestParam(value = "min_ms", defaultValue = "0") double minMillis,
+                                                         HttpSession session) {
+        User currentUser = (User) session.getAttribute("user");
+        if (currentUser == null || !"Admin".equals(currentUser.getType())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Access denied"));
+        }
+
+        return ResponseEntity.ok(Map.of("traces", traceStore.getRecent(limit, minMillis)));
+    }
+
+    @GetMapping("/traces/{traceId}")
+    public ResponseEntity<Map<String, Object>> getTrace(@PathVariable("traceId") String traceId, HttpSession session) {
+        User currentUser = (User) session.getAttribute("user");
+        if (currentUser == null || !"Admin".equals(currentUser.getType())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Access denied"));
+        }
+
+        Map<String, Object> trace = traceStore.find(traceId);
+        if (trace == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Trace not found"));
+        }
+        return ResponseEntity.ok(Map.of("trace", trace));
+    }
+
+    @GetMapping("/archive")
+    public ResponseEntity<Map<String, Object>> getArchiveRun(HttpSession session) {
+        User currentUser = (User) session.getAttribute("user");
+        if (currentUser == null || !"Admin".equals(currentUser.getType())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Access denied"));
+        }
+
+        return ResponseEntity.ok(Map.of("last_run", archivalService.getLastRun()));
+    }
+
+    @PostMapping("/archive")
+    public ResponseEntity<Map<String, Object>> runArchive(HttpSession session) {
+        User currentUser = (User) session.getAttribute("user");
+        if (currentUser == null || !"Admin".equals(currentUser.getType())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Access denied"));
+        }
+
+        return ResponseEntity.ok(Map.of("run", archivalService.archive()));
+    }
+
+    @GetMapping("/storage")
+    public ResponseEntity<Map<String, Object>> getStorage(HttpSession session) {
+        User currentUser = (User) session.getAttribute("user");
+        if (currentUser == null || !"Admin".equals(currentUser.getType())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Access denied"));
+        }
+
+        return ResponseEntity.ok(Map.of("storage", storageService.getStatus()));
+    }
+
+    @GetMapping("/storage/orphans")
+    public ResponseEntity<Map<String, Object>> getOrphans(HttpSession session) {
+        User currentUser = (User) session.getAttribute("user");
+        if (currentUser == null || !"Admin".equals(currentUser.getType())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Access denied"));
+        }
+
+        return ResponseEntity.ok(Map.of("sweep", storageService.sweep(true)));
+    }
+
+    @PostMapping("/storage/sweep")
+    public ResponseEntity<Map<String, Object>> runSweep(HttpSession session) {
+        User currentUser = (User) session.getAttribute("user");
+        if (currentUser == null || !"Admin".equals(currentUser.getType())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Access denied"));
+        }
+
+        return ResponseEntity.ok(Map.of("sweep", storageService.sweep(false)));
+    }
+
+    @GetMapping("/images")
+    public ResponseEntity<Map<String, Object>> getImageMatching(HttpSession session) {
+        User currentUser = (User) session.getAttribute("user");
+        if (currentUser == null || !"Admin".equals(currentUser.getType())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Access denied"));
+        }
+
+        return ResponseEntity.ok(Map.of("images", imageMatchIndex.getStatus()));
+    }
+
+    @GetMapping("/limiter")
+    public ResponseEntity<Map<String, Object>> getConcurrencyLimiter(HttpSession session) {
+        User currentUser = (User) session.getAttribute("user");
+        if (currentUser == null || !"Admin".equals(currentUser.getType())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Access denied"));
+        }
+
+        return ResponseEntity.ok(Map.of("limiter", concurrencyLimitFilter.getStats()));
+    }
+
+    @GetMapping("/single-flight")
+    public ResponseEntity<Map<String, Object>> getSingleFlight(HttpSession session) {
+        User currentUser = (User) session.getAttribute("user");
+        if (currentUser == null || !"Admin".equals(currentUser.getType())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Access denied"));
+        }
+
+        return ResponseEntity.ok(Map.of("single_flight", SingleFlight.getStats()));
+    }
+
+    @GetMapping("/item-snapshot")
+    public ResponseEntity<Map<String, Object>> getItemSnapshot(HttpSession session) {
+        User currentUser = (User) session.getAttribute("user");
+        if (currentUser == null || !"Admin".equals(currentUser.getType())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Access denied"));
+        }
+
+        return ResponseEntity.ok(Map.of("item_snapshot", itemListSnapshot.getStats()));
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<Map<String, Object>> getSuggestIndex(HttpSession session) {
+        User currentUser = (User) session.getAttribute("user");
+        if (currentUser == null || !"Admin".equals(currentUser.getType())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Access denied"));
+        }
+
+        return ResponseEntity.ok(Map.of("suggest", itemSuggestIndex.getStats()));
+    }
+}
@@ -0,0 +1,106 @@
+package Backend.controller;
+
+import Backend.model.User;
+import Backend.repository.ExportRepository;
+import Backend.service.ExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import jakarta.servlet.http.HttpSession;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Admin downloads of items and claims, e.g.
+ * /api/export/claims?format=csv&from=2025-01-01&to=2025-12-31&status=Approved&gzip=true
+ * The file is streamed as it is read; nothing is assembled in memory first.
+ */
+@RestController
+@RequestMapping("/api/export")
+public class ExportController {
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @GetMapping("/items")
+    public ResponseEntity<StreamingResponseBody> exportItems(
+            @RequestParam(value = "format", defaultValue = "csv") String format,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "status", required = false) String status,
+            @RequestParam(value = "includeArchived", defaultValue = "false") boolean includeArchived,
+            @RequestParam(value = "gzip", defaultValue = "false") boolean gzip,
+            HttpSession session) {
+        return export(ExportService.Dataset.ITEMS, format, from, to, status, includeArchived, gzip, session);
+    }
+
+    @GetMapping("/claims")
+    public ResponseEntity<StreamingResponseBody> exportClaims(
+            @RequestParam(value = "format", defaultValue = "csv") String format,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "status", required = false) String status,
+            @RequestParam(value = "includeArchived", defaultValue = "false") boolean includeArchived,
+            @RequestParam(value = "gzip", defaultValue = "false") boolean gzip,
+            HttpSession session) {
+        return export(ExportService.Dataset.CLAIMS, format, from, to, status, includeArchived, gzip, session);
+    }
+
+    private ResponseEntity<StreamingResponseBody> export(ExportService.Dataset dataset, String format,
+                                                         LocalDate from, LocalDate to, String status,
+                                                         boolean includeArchived, boolean gzip, HttpSession session) {
+        User currentUser = (User) session.getAttribute("user");
+        if (currentUser == null || !"Admin".equals(currentUser.getType())) {
+            return error(HttpStatus.FORBIDDEN, "Access denied");
+        }
+
+        ExportService.Format exportFormat;
+        switch (format.trim().toLowerCase()) {
+            case "csv":
+                exportFormat = ExportService.Format.CSV;
+                break;
+            case "ndjson":
+                exportFormat = ExportService.Format.NDJSON;
+                break;
+            default:
+                return error(HttpStatus.BAD_REQUEST, "Unknown format: " + format + " (expected csv or ndjson)");
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            return error(HttpStatus.BAD_REQUEST, "from must not be after to");
+        }
+
+        ExportRepository.Filter filter = new ExportRepository.Filter(from, to,
+                status == null || status.isBlank() ? null : status.trim(), includeArchived);
+        ExportService.Export export = exportService.start(dataset, exportFormat, filter, gzip);
+        if (export == null) {
+            return error(HttpStatus.TOO_MANY_REQUESTS, "Too many exports running, try again shortly");
+        }
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, export.contentType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(export.fileName()).build().toString())
+                .body(export.body());
+    }
+
+    /**
+     * Same {"error": ...} body as the other endpoints; this method's return
+     * type has to stay StreamingResponseBody for the export itself to stream
+     */
+    private ResponseEntity<StreamingResponseBody> error(HttpStatus status, String message) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> objectMapper.writeValue(out, Map.of("error", message)));
+    }
+}
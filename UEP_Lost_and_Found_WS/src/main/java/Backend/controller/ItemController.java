@@ -1,9 +1,18 @@
 package Backend.controller;
 
+import Backend.dto.ItemView;
 import Backend.model.Item;
 import Backend.model.User;
+import Backend.service.ImageMatchIndex;
+import Backend.service.ItemFacetIndex;
+import Backend.service.ItemListSnapshot;
 import Backend.service.ItemService;
+import Backend.service.ItemSuggestIndex;
+import Backend.service.StorageMaintenanceService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
@@ -26,12 +35,109 @@ public class ItemController {
     @Autowired
     private ItemService itemService;
 
-    private final String UPLOAD_DIR = "uploads/";
+    @Autowired
+    private StorageMaintenanceService storageService;
+
+    @Autowired
+    private ItemFacetIndex facetIndex;
+
+    @Autowired
+    private ItemSuggestIndex suggestIndex;
+
+    @Autowired
+    private ImageMatchIndex imageMatchIndex;
+
+    @Autowired
+    private ItemListSnapshot itemListSnapshot;
 
+    /**
+     * All items, newest first, optionally only those with a status
+     * Served from the encoded snapshot, gzipped if the client accepts it;
+     * right after a write, and with archived items, read from the database.
+     */
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getItems() {
-        List<Item> items = itemService.getAllItems();
-        return ResponseEntity.ok(Map.of("items", items));
+    public ResponseEntity<byte[]> getItems(
+            @RequestParam(value = "includeArchived", defaultValue = "false") boolean includeArchived,
+            @RequestParam(value = "status", required = false) String status,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON);
+        ItemListSnapshot.Body body = includeArchived ? null : itemListSnapshot.get(status);
+        if (body != null) {
+            response.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (ItemListSnapshot.acceptsGzip(acceptEncoding)) {
+                return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(body.gzip());
+            }
+            return response.body(body.json());
+        }
+
+        List<Item> items = itemService.getAllItems(includeArchived);
+        if (status != null) {
+            items = items.stream().filter(item -> status.equals(item.getStatus())).toList();
+        }
+        return response.body(itemListSnapshot.encode(items));
+    }
+
+    /**
+     * Faceted browsing, e.g. ?status=Found&category=Electronics&location=Library
+     * Repeating a facet ORs its values; different facets are ANDed.
+     */
+    @GetMapping("/browse")
+    public ResponseEntity<Map<String, Object>> browseItems(
+            @RequestParam(value = "status", required = false) List<String> status,
+            @RequestParam(value = "category", required = false) List<String> category,
+            @RequestParam(value = "location", required = false) List<String> location,
+            @RequestParam(value = "reporter", required = false) List<String> reporter,
+            @RequestParam(value = "offset", defaultValue = "0") int offset,
+            @RequestParam(value = "limit", defaultValue = "50") int limit) {
+        Map<String, List<String>> filters = new HashMap<>();
+        putFilter(filters, ItemFacetIndex.STATUS, status);
+        putFilter(filters, ItemFacetIndex.CATEGORY, category);
+        putFilter(filters, ItemFacetIndex.LOCATION, location);
+        putFilter(filters, ItemFacetIndex.REPORTER, reporter);
+
+        ItemFacetIndex.Result result = facetIndex.query(filters, Math.max(0, offset), Math.min(Math.max(1, limit), 500));
+        if (result == null) {
+            // Still loading after a start or restore; a table scan per request would only slow it down
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .body(Map.of("error", "Item browsing is starting up, try again shortly"));
+        }
+        return ResponseEntity.ok(Map.of(
+            "items", ItemView.of(result.items()),
+            "total", result.total(),
+            "facets", result.facets()
+        ));
+    }
+
+    /**
+     * Autocomplete for item names and description terms, e.g. ?q=blue wa
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<Map<String, Object>> suggestItems(
+            @RequestParam(value = "q", defaultValue = "") String query,
+            @RequestParam(value = "limit", defaultValue = "8") int limit) {
+        List<String> suggestions = suggestIndex.suggest(query, Math.min(limit, 10)).stream()
+                .map(ItemSuggestIndex.Suggestion::text)
+                .toList();
+        return ResponseEntity.ok(Map.of("suggestions", suggestions));
+    }
+
+    /**
+     * Items with a visually similar photo, closest first, e.g. ?id=12&status=Lost
+     */
+    @GetMapping("/similar")
+    public ResponseEntity<Map<String, Object>> similarItems(
+            @RequestParam("id") Long id,
+            @RequestParam(value = "status", required = false) String status,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        List<ImageMatchIndex.Match> matches = imageMatchIndex.findSimilar(id, blankToNull(status), Math.min(Math.max(1, limit), 50));
+        if (matches == null) {
+            return ResponseEntity.status(404).body(Map.of("error", "Item not found or has no photo"));
+        }
+        return ResponseEntity.ok(Map.of(
+            "matches", matches.stream().map(match -> Map.of("item", ItemView.of(match.item()), "distance", match.distance())).toList(),
+            "hashed", Boolean.TRUE.equals(imageMatchIndex.isHashed(id))
+        ));
     }
 
     @PostMapping
@@ -40,9 +146,12 @@ public class ItemController {
             @RequestParam("name") String name,
             @RequestParam("desc") String description,
             @RequestParam("reportedBy") String reportedBy,
+            @RequestParam(value = "category", required = false) String category,
+            @RequestParam(value = "location", required = false) String location,
             @RequestParam(value = "image", required = false) MultipartFile image,
             HttpSession session) {
 
+        String imagePath = null;
         try {
             User currentUser = (User) session.getAttribute("user");
             if (currentUser == null) {
@@ -60,11 +169,10 @@ public class ItemController {
                 return ResponseEntity.badRequest().body(Map.of("error", "Item status is required"));
             }
 
-            String imagePath = null;
             if (image != null && !image.isEmpty()) {
                 try {
                     // Ensure upload directory exists
-                    Path uploadPath = Paths.get(UPLOAD_DIR);
+                    Path uploadPath = storageService.getUploadDir();
                     if (!Files.exists(uploadPath)) {
                         Files.createDirectories(uploadPath);
                     }
@@ -73,7 +181,7 @@ public class ItemController {
                     String fileName = System.currentTimeMillis() + "_" + image.getOriginalFilename();
                     Path filePath = uploadPath.resolve(fileName);
                     Files.write(filePath, image.getBytes());
-                    imagePath = filePath.toString();
+                    imagePath = storedPath(filePath);
                 } catch (IOException e) {
                     return ResponseEntity.status(500).body(Map.of("error", "Failed to upload image: " + e.getMessage()));
                 }
@@ -81,15 +189,20 @@ public class ItemController {
 
             Item item = new Item(name.trim(), description.trim(), status.trim(), reportedBy, imagePath);
             item.setUserId(currentUser.getId());
+            item.setCategory(blankToNull(category));
+            item.setLocation(blankToNull(location));
             
             Item savedItem = itemService.saveItem(item);
 
-            return ResponseEntity.ok(Map.of("message", "Item reported successfully", "item", savedItem));
+            return ResponseEntity.ok(Map.of("message", "Item reported successfully", "item", ItemView.of(savedItem)));
             
         } catch (Exception e) {
             // Log the error for debugging
             System.err.println("Error reporting item: " + e.getMessage());
             e.printStackTrace();
+
+            // The item was not saved, so nothing refers to the uploaded image
+            storageService.scheduleDeletion(imagePath, "insert-failed");
             
             return ResponseEntity.status(500).body(Map.of(
                 "error", "Failed to report item: " + e.getMessage(),
@@ -108,17 +221,31 @@ public class ItemController {
         Optional<Item> itemOpt = itemService.getItemById(id);
         if (itemOpt.isPresent()) {
             Item item = itemOpt.get();
-            if (item.getImage() != null) {
-                try {
-                    Files.deleteIfExists(Paths.get(item.getImage()));
-                } catch (IOException e) {
-                    // Log error but continue
-                }
-            }
             itemService.deleteItem(id);
+            // The file is removed in the background once the row is gone
+            storageService.scheduleDeletion(item.getImage(), "item-deleted");
             return ResponseEntity.ok(Map.of("message", "Item deleted successfully"));
         } else {
             return ResponseEntity.status(404).body(Map.of("error", "Item not found"));
         }
     }
+
+    private static void putFilter(Map<String, List<String>> filters, String facet, List<String> values) {
+        if (values != null && !values.isEmpty()) {
+            filters.put(facet, values);
+        }
+    }
+
+    /**
+     * Image path as saved on the item: relative to the working directory when
+     * the upload directory is inside it, like "uploads/...", otherwise absolute
+     */
+    private static String storedPath(Path file) {
+        Path workingDir = Paths.get("").toAbsolutePath();
+        return file.startsWith(workingDir) ? workingDir.relativize(file).toString() : file.toString();
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.trim().isEmpty() ? null : value.trim();
+    }
 }
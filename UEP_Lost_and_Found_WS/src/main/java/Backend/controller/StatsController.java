@@ -0,0 +1,56 @@
+package Backend.controller;
+
+import Backend.model.User;
+import Backend.service.ClaimTurnaroundRecorder;
+import Backend.service.StatsAggregateStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.servlet.http.HttpSession;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/stats")
+public class StatsController {
+
+    @Autowired
+    private StatsAggregateStore statsAggregateStore;
+
+    @Autowired
+    private ClaimTurnaroundRecorder claimTurnaroundRecorder;
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getStats(HttpSession session) {
+        User currentUser = (User) session.getAttribute("user");
+        if (currentUser == null || !"Admin".equals(currentUser.getType())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Access denied"));
+        }
+
+        return ResponseEntity.ok(Map.of("stats", statsAggregateStore.getDashboard()));
+    }
+
+    @GetMapping("/claim-turnaround")
+    public ResponseEntity<Map<String, Object>> getClaimTurnaround(@RequestParam(value = "by", defaultValue = "week") String by,
+                                                                  @RequestParam(value = "weeks", defaultValue = "12") int weeks,
+                                                                  HttpSession session) {
+        User currentUser = (User) session.getAttribute("user");
+        if (currentUser == null || !"Admin".equals(currentUser.getType())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Access denied"));
+        }
+
+        return ResponseEntity.ok(Map.of("claim_turnaround", claimTurnaroundRecorder.getTurnaround(by, weeks)));
+    }
+
+    @PostMapping("/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildStats(HttpSession session) {
+        User currentUser = (User) session.getAttribute("user");
+        if (currentUser == null || !"Admin".equals(currentUser.getType())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Access denied"));
+        }
+
+        statsAggregateStore.rebuild();
+        return ResponseEntity.ok(Map.of("message", "Statistics rebuilt successfully"));
+    }
+}
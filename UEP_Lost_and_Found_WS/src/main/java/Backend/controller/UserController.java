@@ -1,12 +1,17 @@
 package Backend.controller;
 
+import Backend.dto.UserView;
 import Backend.model.User;
+import Backend.repository.UserRepository;
+import Backend.service.LoginRateLimiter;
 import Backend.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
 import java.util.HashMap;
 import java.util.List;
@@ -20,6 +25,9 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+
     @PostMapping
     public ResponseEntity<Map<String, Object>> registerUser(@RequestBody User user, HttpSession session) {
         Map<String, Object> response = new HashMap<>();
@@ -29,7 +37,7 @@ public class UserController {
             }
             User savedUser = userService.saveUser(user);
             response.put("message", "User registered successfully");
-            response.put("user", savedUser);
+            response.put("user", UserView.of(savedUser));
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             response.put("error", "Registration failed: " + e.getMessage());
@@ -38,19 +46,33 @@ public class UserController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<Map<String, Object>> login(@RequestBody Map<String, String> loginData, HttpSession session) {
+    public ResponseEntity<Map<String, Object>> login(@RequestBody Map<String, String> loginData, HttpSession session,
+                                                     HttpServletRequest request) {
         Map<String, Object> response = new HashMap<>();
         String username = loginData.get("username");
         String password = loginData.get("password");
+        String address = request.getRemoteAddr();
+
+        // Reject throttled attempts before any database lookup or BCrypt work
+        LoginRateLimiter.Decision decision = loginRateLimiter.tryAcquire(username, address);
+        if (!decision.isAllowed()) {
+            response.put("error", "Too many login attempts. Please try again later.");
+            response.put("retry_after_seconds", decision.getRetryAfterSeconds());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(decision.getRetryAfterSeconds()))
+                    .body(response);
+        }
 
         Optional<User> userOpt = userService.authenticate(username, password);
         if (userOpt.isPresent()) {
+            loginRateLimiter.onSuccess(username, address);
             User user = userOpt.get();
             session.setAttribute("user", user);
             response.put("message", "Login successful");
-            response.put("user", user);
+            response.put("user", UserView.of(user));
             return ResponseEntity.ok(response);
         } else {
+            loginRateLimiter.onFailure(username, address);
             response.put("error", "Invalid username or password");
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
         }
@@ -64,23 +86,62 @@ public class UserController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Admin user directory, one page at a time in name order
+     * e.g. ?q=dela&type=Student, then ?after= the returned next cursor
+     */
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getUsers(HttpSession session) {
+    public ResponseEntity<Map<String, Object>> getUsers(
+            @RequestParam(value = "q", required = false) String query,
+            @RequestParam(value = "type", required = false) String type,
+            @RequestParam(value = "status", required = false) String status,
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "limit", defaultValue = "50") int limit,
+            HttpSession session) {
         User currentUser = (User) session.getAttribute("user");
         if (currentUser == null || !"Admin".equals(currentUser.getType())) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Access denied"));
         }
 
-        List<User> users = userService.getAllUsers();
-        return ResponseEntity.ok(Map.of("users", users));
+        UserRepository.DirectoryFilter filter = new UserRepository.DirectoryFilter(
+                blankToNull(query), blankToNull(type), blankToNull(status));
+        UserService.DirectoryPage page;
+        try {
+            page = userService.getDirectoryPage(filter, blankToNull(after), Math.min(Math.max(1, limit), 200));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("users", UserView.of(page.users()));
+        response.put("next", page.next());
+        if (page.count() != null) {
+            response.put("count", page.count());
+            response.put("count_capped", page.countCapped());
+        }
+        return ResponseEntity.ok(response);
     }
 
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+
+    @GetMapping("/login-limiter")
+    public ResponseEntity<Map<String, Object>> getLoginLimiterStats(HttpSession session) {
+        User currentUser = (User) session.getAttribute("user");
+        if (currentUser == null || !"Admin".equals(currentUser.getType())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Access denied"));
+        }
+
+        return ResponseEntity.ok(Map.of("login_limiter", loginRateLimiter.getStats()));
+    }
 
     @GetMapping("/current")
     public ResponseEntity<Map<String, Object>> getCurrentUser(HttpSession session) {
         User user = (User) session.getAttribute("user");
         Map<String, Object> response = new HashMap<>();
-        response.put("user", user);
+        response.put("user", user != null ? UserView.of(user) : null);
         return ResponseEntity.ok(response);
     }
 
@@ -92,7 +153,7 @@ public class UserController {
         }
 
         List<User> pendingAdmins = userService.getPendingAdmins();
-        return ResponseEntity.ok(Map.of("pending_admins", pendingAdmins));
+        return ResponseEntity.ok(Map.of("pending_admins", UserView.of(pendingAdmins)));
     }
 
     @PostMapping("/approve-admin")
@@ -0,0 +1,86 @@
+package Backend.dto;
+
+import Backend.model.Claim;
+import Backend.model.Item;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Claim as returned by the API
+ * Flat, with the item's id, name and status instead of the whole item, and
+ * with the field names the claim tables of the frontend read.
+ */
+@JsonSerialize(using = ClaimView.Serializer.class)
+public record ClaimView(Long id, Long itemId, String itemName, String itemStatus, Integer claimantId,
+                        String claimantUsername, String claimDescription, String status,
+                        LocalDateTime dateSubmitted, String approverUsername, LocalDateTime dateApproved,
+                        Integer version, boolean archived) {
+
+    public static ClaimView of(Claim claim) {
+        Item item = claim.getItem();
+        return new ClaimView(claim.getId(),
+                item != null ? item.getId() : null,
+                item != null ? item.getName() : null,
+                item != null ? item.getStatus() : null,
+                claim.getClaimantId(), claim.getClaimantUsername(), claim.getClaimDescription(),
+                claim.getStatus(), claim.getDateSubmitted(), claim.getApproverUsername(),
+                claim.getDateApproved(), claim.getVersion(), claim.isArchived());
+    }
+
+    public static List<ClaimView> of(List<Claim> claims) {
+        return claims.stream().map(ClaimView::of).toList();
+    }
+
+    /**
+     * Writes the fields directly, with names encoded once
+     */
+    static final class Serializer extends StdSerializer<ClaimView> {
+
+        private static final SerializedString ID = new SerializedString("id");
+        private static final SerializedString ITEM_ID = new SerializedString("item_id");
+        private static final SerializedString ITEM_NAME = new SerializedString("item_name");
+        private static final SerializedString ITEM_STATUS = new SerializedString("item_status");
+        private static final SerializedString CLAIMANT_ID = new SerializedString("claimant_id");
+        private static final SerializedString CLAIMANT_NAME = new SerializedString("claimant_name");
+        private static final SerializedString CLAIM_DESCRIPTION = new SerializedString("claim_description");
+        private static final SerializedString STATUS = new SerializedString("status");
+        private static final SerializedString DATE_SUBMITTED = new SerializedString("date_submitted");
+        private static final SerializedString APPROVER_USERNAME = new SerializedString("approver_username");
+        private static final SerializedString DATE_APPROVED = new SerializedString("date_approved");
+        private static final SerializedString VERSION = new SerializedString("version");
+        private static final SerializedString ARCHIVED = new SerializedString("archived");
+
+        Serializer() {
+            super(ClaimView.class);
+        }
+
+        @Override
+        public void serialize(ClaimView claim, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            Views.writeNumber(gen, ID, claim.id());
+            Views.writeNumber(gen, ITEM_ID, claim.itemId());
+            Views.writeString(gen, ITEM_NAME, claim.itemName());
+            Views.writeString(gen, ITEM_STATUS, claim.itemStatus());
+            Views.writeNumber(gen, CLAIMANT_ID, claim.claimantId());
+            Views.writeString(gen, CLAIMANT_NAME, claim.claimantUsername());
+            Views.writeString(gen, CLAIM_DESCRIPTION, claim.claimDescription());
+            Views.writeString(gen, STATUS, claim.status());
+            Views.writeDateTime(gen, DATE_SUBMITTED, claim.dateSubmitted());
+            Views.writeString(gen, APPROVER_USERNAME, claim.approverUsername());
+            Views.writeDateTime(gen, DATE_APPROVED, claim.dateApproved());
+            Views.writeNumber(gen, VERSION, claim.version());
+            if (claim.archived()) {
+                gen.writeFieldName(ARCHIVED);
+                gen.writeBoolean(true);
+            }
+            gen.writeEndObject();
+        }
+    }
+}
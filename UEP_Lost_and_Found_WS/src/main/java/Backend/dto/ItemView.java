@@ -0,0 +1,77 @@
+package Backend.dto;
+
+import Backend.model.Item;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Item as returned by the API
+ * Unlike the entity it carries the description once (no desc alias) and
+ * leaves out optional fields that are not set.
+ */
+@JsonSerialize(using = ItemView.Serializer.class)
+public record ItemView(Long id, String name, String description, String status, String category,
+                       String location, String reportedBy, String image, Long userId,
+                       LocalDateTime dateReported, Long duplicateOf, boolean archived) {
+
+    public static ItemView of(Item item) {
+        return new ItemView(item.getId(), item.getName(), item.getDescription(), item.getStatus(),
+                item.getCategory(), item.getLocation(), item.getReportedBy(), item.getImage(),
+                item.getUserId(), item.getDateReported(), item.getDuplicateOf(), item.isArchived());
+    }
+
+    public static List<ItemView> of(List<Item> items) {
+        return items.stream().map(ItemView::of).toList();
+    }
+
+    /**
+     * Writes the fields directly, with names encoded once
+     */
+    static final class Serializer extends StdSerializer<ItemView> {
+
+        private static final SerializedString ID = new SerializedString("id");
+        private static final SerializedString NAME = new SerializedString("name");
+        private static final SerializedString DESCRIPTION = new SerializedString("description");
+        private static final SerializedString STATUS = new SerializedString("status");
+        private static final SerializedString CATEGORY = new SerializedString("category");
+        private static final SerializedString LOCATION = new SerializedString("location");
+        private static final SerializedString REPORTED_BY = new SerializedString("reportedBy");
+        private static final SerializedString IMAGE = new SerializedString("image");
+        private static final SerializedString USER_ID = new SerializedString("userId");
+        private static final SerializedString DATE_REPORTED = new SerializedString("dateReported");
+        private static final SerializedString DUPLICATE_OF = new SerializedString("duplicateOf");
+        private static final SerializedString ARCHIVED = new SerializedString("archived");
+
+        Serializer() {
+            super(ItemView.class);
+        }
+
+        @Override
+        public void serialize(ItemView item, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            Views.writeNumber(gen, ID, item.id());
+            Views.writeString(gen, NAME, item.name());
+            Views.writeString(gen, DESCRIPTION, item.description());
+            Views.writeString(gen, STATUS, item.status());
+            Views.writeString(gen, CATEGORY, item.category());
+            Views.writeString(gen, LOCATION, item.location());
+            Views.writeString(gen, REPORTED_BY, item.reportedBy());
+            Views.writeString(gen, IMAGE, item.image());
+            Views.writeNumber(gen, USER_ID, item.userId());
+            Views.writeDateTime(gen, DATE_REPORTED, item.dateReported());
+            Views.writeNumber(gen, DUPLICATE_OF, item.duplicateOf());
+            if (item.archived()) {
+                gen.writeFieldName(ARCHIVED);
+                gen.writeBoolean(true);
+            }
+            gen.writeEndObject();
+        }
+    }
+}
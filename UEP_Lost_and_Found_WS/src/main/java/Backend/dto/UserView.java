@@ -0,0 +1,66 @@
+package Backend.dto;
+
+import Backend.model.User;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * User as returned by the API; never carries the password hash
+ */
+@JsonSerialize(using = UserView.Serializer.class)
+public record UserView(Long id, String fname, String mname, String lname, String type,
+                       String email, String username, String status, boolean requestAdmin) {
+
+    public static UserView of(User user) {
+        return new UserView(user.getId(), user.getFname(), user.getMname(), user.getLname(),
+                user.getType(), user.getEmail(), user.getUsername(), user.getStatus(), user.isRequestAdmin());
+    }
+
+    public static List<UserView> of(List<User> users) {
+        return users.stream().map(UserView::of).toList();
+    }
+
+    /**
+     * Writes the fields directly, with names encoded once
+     */
+    static final class Serializer extends StdSerializer<UserView> {
+
+        private static final SerializedString ID = new SerializedString("id");
+        private static final SerializedString FNAME = new SerializedString("fname");
+        private static final SerializedString MNAME = new SerializedString("mname");
+        private static final SerializedString LNAME = new SerializedString("lname");
+        private static final SerializedString TYPE = new SerializedString("type");
+        private static final SerializedString EMAIL = new SerializedString("email");
+        private static final SerializedString USERNAME = new SerializedString("username");
+        private static final SerializedString STATUS = new SerializedString("status");
+        private static final SerializedString REQUEST_ADMIN = new SerializedString("requestAdmin");
+
+        Serializer() {
+            super(UserView.class);
+        }
+
+        @Override
+        public void serialize(UserView user, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            Views.writeNumber(gen, ID, user.id());
+            Views.writeString(gen, FNAME, user.fname());
+            // The frontend prints middle names unconditionally; keep it present
+            gen.writeFieldName(MNAME);
+            gen.writeString(user.mname() != null ? user.mname() : "");
+            Views.writeString(gen, LNAME, user.lname());
+            Views.writeString(gen, TYPE, user.type());
+            Views.writeString(gen, EMAIL, user.email());
+            Views.writeString(gen, USERNAME, user.username());
+            Views.writeString(gen, STATUS, user.status());
+            gen.writeFieldName(REQUEST_ADMIN);
+            gen.writeBoolean(user.requestAdmin());
+            gen.writeEndObject();
+        }
+    }
+}
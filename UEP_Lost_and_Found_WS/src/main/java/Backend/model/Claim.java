@@ -40,6 +40,16 @@ public class Claim {
 
     private LocalDateTime dateApproved;
 
+    // Incremented on every write; clients send it back to detect concurrent changes
+    @Version
+    private Integer version = 0;
+
+    private LocalDateTime createdAt;
+
+    // Read from claims_archive rather than the live table
+    @Transient
+    private boolean archived;
+
     // Constructors
     public Claim() {}
 
@@ -76,4 +86,13 @@ public class Claim {
 
     public LocalDateTime getDateApproved() { return dateApproved; }
     public void setDateApproved(LocalDateTime dateApproved) { this.dateApproved = dateApproved; }
+
+    public Integer getVersion() { return version; }
+    public void setVersion(Integer version) { this.version = version; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public boolean isArchived() { return archived; }
+    public void setArchived(boolean archived) { this.archived = archived; }
 }
@@ -0,0 +1,34 @@
+package Backend.model;
+
+import java.util.List;
+
+/**
+ * Result of a guarded claim status change
+ * The change is a single conditional UPDATE; when it matches no row, the
+ * outcome says why and claim holds the row as it is now.
+ *
+ * @param outcome What happened
+ * @param claim Claim after the attempt, null when not found; unless an approval closed
+ *              the item, its item holds only the ID
+ * @param rejectedClaims Competing claims rejected along with an approval
+ */
+public record ClaimTransition(Outcome outcome, Claim claim, List<Claim> rejectedClaims) {
+
+    public enum Outcome {
+        // The claim moved to the new status
+        APPLIED,
+        NOT_FOUND,
+        // The claim is no longer in the expected status, e.g. another admin resolved it first
+        STATUS_CONFLICT,
+        // The claim changed since the caller read the given version
+        VERSION_CONFLICT
+    }
+
+    public ClaimTransition(Outcome outcome, Claim claim) {
+        this(outcome, claim, List.of());
+    }
+
+    public boolean isApplied() {
+        return outcome == Outcome.APPLIED;
+    }
+}
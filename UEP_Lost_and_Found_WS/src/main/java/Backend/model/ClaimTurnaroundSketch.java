@@ -0,0 +1,39 @@
+package Backend.model;
+
+import java.time.LocalDate;
+
+/**
+ * Serialized claim turnaround histogram for one approver in one week
+ * Stored in claim_turnaround_sketches; sketches of different buckets can be
+ * merged to answer percentiles over any combination of weeks and approvers.
+ */
+public class ClaimTurnaroundSketch {
+
+    private LocalDate weekStart;
+    private String approver;
+    private long sampleCount;
+    private byte[] sketch;
+
+    // Constructors
+    public ClaimTurnaroundSketch() {}
+
+    public ClaimTurnaroundSketch(LocalDate weekStart, String approver, long sampleCount, byte[] sketch) {
+        this.weekStart = weekStart;
+        this.approver = approver;
+        this.sampleCount = sampleCount;
+        this.sketch = sketch;
+    }
+
+    // Getters and Setters
+    public LocalDate getWeekStart() { return weekStart; }
+    public void setWeekStart(LocalDate weekStart) { this.weekStart = weekStart; }
+
+    public String getApprover() { return approver; }
+    public void setApprover(String approver) { this.approver = approver; }
+
+    public long getSampleCount() { return sampleCount; }
+    public void setSampleCount(long sampleCount) { this.sampleCount = sampleCount; }
+
+    public byte[] getSketch() { return sketch; }
+    public void setSketch(byte[] sketch) { this.sketch = sketch; }
+}
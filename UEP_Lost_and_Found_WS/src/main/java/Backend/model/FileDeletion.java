@@ -0,0 +1,49 @@
+package Backend.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Upload file queued for deletion
+ * Stored in file_deletions so deletes survive restarts; failed attempts are
+ * retried with back-off until the file is gone.
+ */
+public class FileDeletion {
+
+    private Long id;
+    private String path;
+    private String reason; // item-deleted, user-deleted, insert-failed or orphan
+    private int attempts;
+    private String lastError;
+    private LocalDateTime nextAttemptAt;
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public FileDeletion() {}
+
+    public FileDeletion(String path, String reason) {
+        this.path = path;
+        this.reason = reason;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getPath() { return path; }
+    public void setPath(String path) { this.path = path; }
+
+    public String getReason() { return reason; }
+    public void setReason(String reason) { this.reason = reason; }
+
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+
+    public LocalDateTime getNextAttemptAt() { return nextAttemptAt; }
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
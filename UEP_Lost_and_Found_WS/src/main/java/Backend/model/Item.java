@@ -26,6 +26,12 @@ public class Item {
     @Column(length = 10)
     private String status; // Lost or Found
 
+    @Column(length = 50)
+    private String category; // e.g. Electronics, optional
+
+    @Column(length = 100)
+    private String location; // Where it was lost or found, optional
+
     @NotBlank
     private String reportedBy; // Username of reporter
 
@@ -38,6 +44,12 @@ public class Item {
     @NotNull
     private LocalDateTime dateReported = LocalDateTime.now();
 
+    private Long duplicateOf; // Earlier report this one looks like a near-duplicate of, if any
+
+    // Read from items_archive rather than the live table
+    @Transient
+    private boolean archived;
+
     // Constructors
     public Item() {}
 
@@ -71,6 +83,12 @@ public class Item {
     public String getStatus() { return status; }
     public void setStatus(String status) { this.status = status; }
 
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+
+    public String getLocation() { return location; }
+    public void setLocation(String location) { this.location = location; }
+
     public String getReportedBy() { return reportedBy; }
     public void setReportedBy(String reportedBy) { this.reportedBy = reportedBy; }
 
@@ -82,4 +100,10 @@ public class Item {
 
     public LocalDateTime getDateReported() { return dateReported; }
     public void setDateReported(LocalDateTime dateReported) { this.dateReported = dateReported; }
+
+    public Long getDuplicateOf() { return duplicateOf; }
+    public void setDuplicateOf(Long duplicateOf) { this.duplicateOf = duplicateOf; }
+
+    public boolean isArchived() { return archived; }
+    public void setArchived(boolean archived) { this.archived = archived; }
 }
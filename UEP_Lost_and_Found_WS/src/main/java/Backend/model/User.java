@@ -40,6 +40,9 @@ public class User {
     @Column(length = 255)
     private String password;
 
+    @Column(length = 20)
+    private String status = "Active";
+
     @Column(name = "request_admin")
     private boolean requestAdmin = false;
 
@@ -81,6 +84,9 @@ public class User {
     public String getPassword() { return password; }
     public void setPassword(String password) { this.password = password; }
 
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
     public boolean isRequestAdmin() { return requestAdmin; }
     public void setRequestAdmin(boolean requestAdmin) { this.requestAdmin = requestAdmin; }
 }
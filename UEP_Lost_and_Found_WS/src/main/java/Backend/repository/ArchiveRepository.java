@@ -0,0 +1,311 @@
+package Backend.repository;
+
+import Backend.config.Database;
+import Backend.model.Claim;
+import Backend.model.Item;
+import org.springframework.stereotype.Repository;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Moves resolved and stale items, with their claims, into the archive tables
+ * Items are picked in id order from a keyset cursor, so every batch is a
+ * short index range scan, and each batch is moved in its own small
+ * transaction. Archived rows are read back only when a caller opts in.
+ */
+@Repository
+public class ArchiveRepository {
+
+    private static final Logger logger = Logger.getLogger(ArchiveRepository.class.getName());
+    private static final RepositoryMetrics metrics = RepositoryMetrics.forRepository("archive");
+
+    private static final String ITEM_COLUMNS =
+            "id, status, name, description, category, location, image, user_id, date_reported, reported_by, duplicate_of, created_at";
+    private static final String CLAIM_COLUMNS =
+            "id, item_id, claimant_id, claimant_username, claim_description, status, date_submitted, " +
+            "approver_username, date_approved, version, created_at";
+
+    private Database database;
+    private ItemRepository itemRepository;
+
+    /**
+     * Which items may be archived
+     * @param resolvedStatuses Item statuses that mean the item is done with, e.g. Claimed
+     * @param resolvedBefore Resolved items reported before this date are archived
+     * @param staleBefore Items in any status reported before this date are archived
+     */
+    public record Criteria(Set<String> resolvedStatuses, LocalDate resolvedBefore, LocalDate staleBefore) {}
+
+    /**
+     * Rows moved by one batch
+     */
+    public record MovedRows(List<Long> itemIds, int claims) {
+        public int items() {
+            return itemIds.size();
+        }
+    }
+
+    public ArchiveRepository() {
+        this.database = new Database();
+        this.itemRepository = new ItemRepository();
+    }
+
+    /**
+     * Next batch of archivable item ids after the cursor
+     * Items with a pending claim are never archived, whatever their age.
+     */
+    public List<Long> findArchivableItemIds(Long afterId, Criteria criteria, int limit) {
+        return metrics.time("findArchivableItemIds", () -> {
+            List<Long> ids = new ArrayList<>();
+            String sql = "SELECT id FROM items WHERE id > ? AND " + archivable(criteria) + " ORDER BY id LIMIT ?";
+
+            try (Connection conn = database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                stmt.setLong(1, afterId);
+                int index = bindArchivable(stmt, 2, criteria);
+                stmt.setInt(index, limit);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        ids.add(rs.getLong("id"));
+                    }
+                }
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Error finding archivable items after ID: " + afterId, e);
+                RepositoryMetrics.error(e);
+                throw new RuntimeException("Failed to find archivable items", e);
+            }
+            return ids;
+        });
+    }
+
+    /**
+     * Copies the items and their claims into the archive tables and deletes them
+     * The candidates are locked and checked again first, so an item that got a
+     * pending claim since it was picked stays where it is.
+     */
+    public MovedRows archiveItems(List<Long> candidateIds, Criteria criteria) {
+        if (candidateIds.isEmpty()) {
+            return new MovedRows(List.of(), 0);
+        }
+        return metrics.time("archiveItems", () -> {
+            List<Long> ids = new ArrayList<>();
+            int claims;
+
+            try (Connection conn = database.getConnection()) {
+                conn.setAutoCommit(false);
+                try {
+                    String lockSql = "SELECT id FROM items WHERE id IN (" + placeholders(candidateIds.size()) + ") AND " +
+                                     archivable(criteria) + " ORDER BY id FOR UPDATE";
+                    try (PreparedStatement stmt = conn.prepareStatement(lockSql)) {
+                        int index = bindIds(stmt, 1, candidateIds);
+                        bindArchivable(stmt, index, criteria);
+                        try (ResultSet rs = stmt.executeQuery()) {
+                            while (rs.next()) {
+                                ids.add(rs.getLong("id"));
+                            }
+                        }
+                    }
+                    if (ids.isEmpty()) {
+                        conn.commit();
+                        return new MovedRows(List.of(), 0);
+                    }
+
+                    Timestamp archivedAt = Timestamp.valueOf(LocalDateTime.now());
+                    String in = " IN (" + placeholders(ids.size()) + ")";
+                    executeUpdate(conn, "INSERT INTO items_archive (" + ITEM_COLUMNS + ", archived_at) " +
+                                        "SELECT " + ITEM_COLUMNS + ", ? FROM items WHERE id" + in, archivedAt, ids);
+                    claims = executeUpdate(conn, "INSERT INTO claims_archive (" + CLAIM_COLUMNS + ", archived_at) " +
+                                                 "SELECT " + CLAIM_COLUMNS + ", ? FROM claims WHERE item_id" + in, archivedAt, ids);
+                    executeUpdate(conn, "DELETE FROM claims WHERE item_id" + in, null, ids);
+                    executeUpdate(conn, "DELETE FROM items WHERE id" + in, null, ids);
+
+                    conn.commit();
+                } catch (SQLException | RuntimeException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Error archiving items: " + candidateIds, e);
+                RepositoryMetrics.error(e);
+                throw new RuntimeException("Failed to archive items", e);
+            }
+
+            // Gone from the live tables as far as listeners are concerned
+            ids.forEach(RepositoryEvents::itemDeleted);
+            return new MovedRows(ids, claims);
+        });
+    }
+
+    /**
+     * Find all archived items
+     */
+    public List<Item> findAllItems() {
+        return metrics.time("findAllItems", () -> {
+            List<Item> items = new ArrayList<>();
+            String sql = "SELECT * FROM items_archive ORDER BY date_reported DESC";
+
+            try (Connection conn = database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql);
+                 ResultSet rs = stmt.executeQuery()) {
+
+                while (rs.next()) {
+                    items.add(mapArchivedItem(rs));
+                }
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Error finding archived items", e);
+                RepositoryMetrics.error(e);
+            }
+            return items;
+        });
+    }
+
+    /**
+     * Find archived claims by claimant ID, with their archived items
+     */
+    public List<Claim> findClaimsByClaimantId(Integer claimantId) {
+        return metrics.time("findClaimsByClaimantId", () -> {
+            List<Claim> claims = new ArrayList<>();
+            Map<Claim, Long> itemIds = new HashMap<>();
+            String sql = "SELECT * FROM claims_archive WHERE claimant_id = ? ORDER BY created_at DESC";
+
+            try (Connection conn = database.getConnection()) {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setInt(1, claimantId);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            Claim claim = new Claim();
+                            ClaimRepository.mapClaimColumns(rs, claim);
+                            claim.setArchived(true);
+                            claims.add(claim);
+                            itemIds.put(claim, rs.getLong("item_id"));
+                        }
+                    }
+                }
+
+                // One lookup for all the items rather than one per claim
+                Map<Long, Item> items = findItemsById(conn, new ArrayList<>(Set.copyOf(itemIds.values())));
+                claims.forEach(claim -> claim.setItem(items.get(itemIds.get(claim))));
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Error finding archived claims by claimant ID: " + claimantId, e);
+                RepositoryMetrics.error(e);
+            }
+            return claims;
+        });
+    }
+
+    /**
+     * Count archived items
+     */
+    public long countItems() {
+        return metrics.time("countItems", () -> {
+            String sql = "SELECT COUNT(*) FROM items_archive";
+
+            try (Connection conn = database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql);
+                 ResultSet rs = stmt.executeQuery()) {
+
+                if (rs.next()) {
+                    return rs.getLong(1);
+                }
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Error counting archived items", e);
+                RepositoryMetrics.error(e);
+            }
+            return 0L;
+        });
+    }
+
+    private Map<Long, Item> findItemsById(Connection conn, List<Long> ids) throws SQLException {
+        if (ids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<Long, Item> items = new HashMap<>();
+        String sql = "SELECT * FROM items_archive WHERE id IN (" + placeholders(ids.size()) + ")";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            bindIds(stmt, 1, ids);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Item item = mapArchivedItem(rs);
+                    items.put(item.getId(), item);
+                }
+            }
+        }
+        return items;
+    }
+
+    private Item mapArchivedItem(ResultSet rs) throws SQLException {
+        Item item = itemRepository.mapResultSetToItem(rs);
+        item.setArchived(true);
+        return item;
+    }
+
+    /**
+     * WHERE clause for items that may be archived, bound by bindArchivable
+     */
+    private static String archivable(Criteria criteria) {
+        String age = criteria.resolvedStatuses().isEmpty()
+                ? "date_reported < ?"
+                : "((status IN (" + placeholders(criteria.resolvedStatuses().size()) + ") AND date_reported < ?) OR date_reported < ?)";
+        return age + " AND NOT EXISTS (SELECT 1 FROM claims c WHERE c.item_id = items.id AND c.status = 'Pending')";
+    }
+
+    private static int bindArchivable(PreparedStatement stmt, int index, Criteria criteria) throws SQLException {
+        if (!criteria.resolvedStatuses().isEmpty()) {
+            for (String status : criteria.resolvedStatuses()) {
+                stmt.setString(index++, status);
+            }
+            stmt.setDate(index++, Date.valueOf(criteria.resolvedBefore()));
+        }
+        stmt.setDate(index++, Date.valueOf(criteria.staleBefore()));
+        return index;
+    }
+
+    private static int executeUpdate(Connection conn, String sql, Timestamp archivedAt, List<Long> ids) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int index = 1;
+            if (archivedAt != null) {
+                stmt.setTimestamp(index++, archivedAt);
+            }
+            bindIds(stmt, index, ids);
+            return stmt.executeUpdate();
+        }
+    }
+
+    private static int bindIds(PreparedStatement stmt, int index, List<Long> ids) throws SQLException {
+        for (Long id : ids) {
+            stmt.setLong(index++, id);
+        }
+        return index;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    /**
+     * Get database instance for testing
+     */
+    public Database getDatabase() {
+        return database;
+    }
+
+    /**
+     * Set database instance for testing
+     */
+    public void setDatabase(Database database) {
+        this.database = database;
+    }
+}
@@ -2,6 +2,7 @@ package Backend.repository;
 
 import Backend.config.Database;
 import Backend.model.Claim;
+import Backend.model.ClaimTransition;
 import Backend.model.Item;
 import org.springframework.stereotype.Repository;
 
@@ -21,6 +22,8 @@ import java.util.logging.Logger;
 public class ClaimRepository {
     
     private static final Logger logger = Logger.getLogger(ClaimRepository.class.getName());
+    private static final RepositoryMetrics metrics = RepositoryMetrics.forRepository("claim");
+    private static final SingleFlight flights = SingleFlight.forRepository("claim");
     private Database database;
     private ItemRepository itemRepository;
 
@@ -33,140 +36,195 @@ public class ClaimRepository {
      * Find claim by ID
      */
     public Optional<Claim> findById(Long id) {
-        String sql = "SELECT * FROM claims WHERE id = ?";
+        return metrics.time("findById", () -> {
+            String sql = "SELECT * FROM claims WHERE id = ?";
         
-        try (Connection conn = database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (Connection conn = database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setLong(1, id);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return Optional.of(mapResultSetToClaim(rs));
+                stmt.setLong(1, id);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        return Optional.of(mapResultSetToClaim(rs));
+                    }
                 }
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Error finding claim by ID: " + id, e);
+                RepositoryMetrics.error(e);
             }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error finding claim by ID: " + id, e);
-        }
-        return Optional.empty();
+            return Optional.empty();
+        });
     }
 
     /**
      * Find all claims
      */
     public List<Claim> findAll() {
-        List<Claim> claims = new ArrayList<>();
-        String sql = "SELECT * FROM claims ORDER BY created_at DESC";
+        return metrics.time("findAll", () -> flights.list(database, "findAll", () -> {
+            List<Claim> claims = new ArrayList<>();
+            String sql = "SELECT * FROM claims ORDER BY created_at DESC";
         
-        try (Connection conn = database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
+            try (Connection conn = database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql);
+                 ResultSet rs = stmt.executeQuery()) {
             
-            while (rs.next()) {
-                claims.add(mapResultSetToClaim(rs));
+                while (rs.next()) {
+                    claims.add(mapResultSetToClaim(rs));
+                }
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Error finding all claims", e);
+                RepositoryMetrics.error(e);
             }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error finding all claims", e);
-        }
-        return claims;
+            return claims;
+        }));
     }
 
     /**
      * Find claims by claimant ID
      */
     public List<Claim> findByClaimantId(Integer claimantId) {
-        List<Claim> claims = new ArrayList<>();
-        String sql = "SELECT * FROM claims WHERE claimant_id = ? ORDER BY created_at DESC";
+        return metrics.time("findByClaimantId", () -> flights.list(database, "findByClaimantId", claimantId, () -> {
+            List<Claim> claims = new ArrayList<>();
+            String sql = "SELECT * FROM claims WHERE claimant_id = ? ORDER BY created_at DESC";
         
-        try (Connection conn = database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (Connection conn = database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setInt(1, claimantId);
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    claims.add(mapResultSetToClaim(rs));
+                stmt.setInt(1, claimantId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        claims.add(mapResultSetToClaim(rs));
+                    }
                 }
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Error finding claims by claimant ID: " + claimantId, e);
+                RepositoryMetrics.error(e);
             }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error finding claims by claimant ID: " + claimantId, e);
-        }
-        return claims;
+            return claims;
+        }));
     }
 
     /**
      * Find claims by status
      */
     public List<Claim> findByStatus(String status) {
-        List<Claim> claims = new ArrayList<>();
-        String sql = "SELECT * FROM claims WHERE status = ? ORDER BY created_at DESC";
+        return metrics.time("findByStatus", () -> flights.list(database, "findByStatus", status, () -> {
+            List<Claim> claims = new ArrayList<>();
+            String sql = "SELECT * FROM claims WHERE status = ? ORDER BY created_at DESC";
         
-        try (Connection conn = database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (Connection conn = database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setString(1, status);
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    claims.add(mapResultSetToClaim(rs));
+                stmt.setString(1, status);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        claims.add(mapResultSetToClaim(rs));
+                    }
                 }
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Error finding claims by status: " + status, e);
+                RepositoryMetrics.error(e);
             }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error finding claims by status: " + status, e);
-        }
-        return claims;
+            return claims;
+        }));
     }
 
     /**
      * Find all claims with their associated items (JOIN query)
      */
     public List<Claim> findAllWithItems() {
-        List<Claim> claims = new ArrayList<>();
-        String sql = "SELECT c.*, i.* FROM claims c " +
-                     "JOIN items i ON c.item_id = i.id " +
-                     "ORDER BY c.created_at DESC";
+        return metrics.time("findAllWithItems", () -> flights.list(database, "findAllWithItems", () -> {
+            List<Claim> claims = new ArrayList<>();
+            String sql = "SELECT c.*, i.* FROM claims c " +
+                         "JOIN items i ON c.item_id = i.id " +
+                         "ORDER BY c.created_at DESC";
         
-        try (Connection conn = database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
+            try (Connection conn = database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql);
+                 ResultSet rs = stmt.executeQuery()) {
             
-            while (rs.next()) {
-                claims.add(mapResultSetToClaimWithItem(rs));
+                while (rs.next()) {
+                    claims.add(mapResultSetToClaimWithItem(rs));
+                }
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Error finding claims with items", e);
+                RepositoryMetrics.error(e);
             }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error finding claims with items", e);
-        }
-        return claims;
+            return claims;
+        }));
     }
 
     /**
      * Find claims by item ID
      */
     public List<Claim> findByItemId(Long itemId) {
-        List<Claim> claims = new ArrayList<>();
-        String sql = "SELECT * FROM claims WHERE item_id = ? ORDER BY created_at DESC";
+        return metrics.time("findByItemId", () -> {
+            List<Claim> claims = new ArrayList<>();
+            String sql = "SELECT * FROM claims WHERE item_id = ? ORDER BY created_at DESC";
         
-        try (Connection conn = database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (Connection conn = database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setLong(1, itemId);
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    claims.add(mapResultSetToClaim(rs));
+                stmt.setLong(1, itemId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        claims.add(mapResultSetToClaim(rs));
+                    }
                 }
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Error finding claims by item ID: " + itemId, e);
+                RepositoryMetrics.error(e);
             }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error finding claims by item ID: " + itemId, e);
-        }
-        return claims;
+            return claims;
+        });
+    }
+
+    /**
+     * Find claims with an ID greater than the given one, in ID order
+     * Items are not loaded; each claim carries an Item holding only its ID
+     */
+    public List<Claim> findSummariesByIdGreaterThan(Long id) {
+        return metrics.time("findSummariesByIdGreaterThan", () -> {
+            List<Claim> claims = new ArrayList<>();
+            String sql = "SELECT * FROM claims WHERE id > ? ORDER BY id";
+        
+            try (Connection conn = database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+                stmt.setLong(1, id);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        Claim claim = new Claim();
+                        claim.setId(rs.getLong("id"));
+                        Item item = new Item();
+                        item.setId(rs.getLong("item_id"));
+                        claim.setItem(item);
+                        claim.setClaimantId(rs.getInt("claimant_id"));
+                        claim.setClaimantUsername(rs.getString("claimant_username"));
+                        claim.setStatus(rs.getString("status"));
+                        claim.setVersion(rs.getInt("version"));
+                        claims.add(claim);
+                    }
+                }
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Error finding claim summaries with ID greater than: " + id, e);
+                RepositoryMetrics.error(e);
+            }
+            return claims;
+        });
     }
 
     /**
      * Save (create or update) claim
      */
     public Claim save(Claim claim) {
-        if (claim.getId() == null) {
-            return create(claim);
-        } else {
-            return update(claim);
-        }
+        return metrics.time("save", () -> {
+            if (claim.getId() == null) {
+                return create(claim);
+            } else {
+                return update(claim);
+            }
+        });
     }
 
     /**
@@ -205,19 +263,24 @@ public class ClaimRepository {
             }
             
             logger.info("Claim created successfully with ID: " + claim.getId());
+            RepositoryEvents.claimSaved(claim, true);
             return claim;
             
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Error creating claim", e);
+            RepositoryMetrics.error(e);
             throw new RuntimeException("Failed to create claim", e);
         }
     }
 
     /**
      * Update existing claim
+     * When the claim carries a version, the update only applies if the row still has it
      */
     private Claim update(Claim claim) {
-        String sql = "UPDATE claims SET item_id = ?, claimant_id = ?, claimant_username = ?, claim_description = ?, status = ?, date_submitted = ? WHERE id = ?";
+        String sql = "UPDATE claims SET item_id = ?, claimant_id = ?, claimant_username = ?, claim_description = ?, status = ?, date_submitted = ?, " +
+                     "approver_username = ?, date_approved = ?, version = version + 1 WHERE id = ?" +
+                     (claim.getVersion() != null ? " AND version = ?" : "");
         
         try (Connection conn = database.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -228,98 +291,329 @@ public class ClaimRepository {
             stmt.setString(4, claim.getClaimDescription());
             stmt.setString(5, claim.getStatus());
             stmt.setDate(6, java.sql.Date.valueOf(claim.getDateSubmitted().toLocalDate()));
-            stmt.setLong(7, claim.getId());
+            stmt.setString(7, claim.getApproverUsername());
+            stmt.setTimestamp(8, claim.getDateApproved() != null ? Timestamp.valueOf(claim.getDateApproved()) : null);
+            stmt.setLong(9, claim.getId());
+            if (claim.getVersion() != null) {
+                stmt.setInt(10, claim.getVersion());
+            }
             
             int affectedRows = stmt.executeUpdate();
             
             if (affectedRows == 0) {
-                throw new SQLException("Updating claim failed, no rows affected.");
+                throw new SQLException("Updating claim failed, no rows affected (missing or modified concurrently).");
+            }
+            if (claim.getVersion() != null) {
+                claim.setVersion(claim.getVersion() + 1);
             }
             
             logger.info("Claim updated successfully with ID: " + claim.getId());
+            RepositoryEvents.claimSaved(claim, false);
             return claim;
             
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Error updating claim with ID: " + claim.getId(), e);
+            RepositoryMetrics.error(e);
             throw new RuntimeException("Failed to update claim", e);
         }
     }
 
+    /**
+     * Move a claim from one status to another in a single guarded UPDATE
+     * Only a claim still in fromStatus (and at expectedVersion, when given) is
+     * changed, so two admins acting at once cannot both win. The row is read
+     * back on the same connection to report the outcome; items are not loaded.
+     * @param expectedVersion Version the caller last saw, or null to skip the version check
+     */
+    public ClaimTransition transitionStatus(Long id, String fromStatus, String toStatus, String approverUsername, Integer expectedVersion) {
+        return metrics.time("transitionStatus", () -> {
+            try (Connection conn = database.getConnection()) {
+            
+                int affectedRows = updateStatus(conn, id, fromStatus, toStatus, approverUsername, LocalDateTime.now(), expectedVersion);
+                Claim current = findState(conn, id);
+                ClaimTransition transition = outcome(affectedRows, fromStatus, current);
+            
+                if (transition.isApplied()) {
+                    logger.info("Claim " + id + " moved from " + fromStatus + " to " + toStatus);
+                    if (current != null) {
+                        RepositoryEvents.claimSaved(current, false);
+                    }
+                }
+                return transition;
+            
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Error changing status of claim with ID: " + id, e);
+                RepositoryMetrics.error(e);
+                throw new RuntimeException("Failed to update claim status", e);
+            }
+        });
+    }
+
+    /**
+     * Approve a pending claim, close its item and reject the competing claims, in one transaction
+     * The item's pending claims are locked in ID order first, so two admins
+     * approving different claims on the same item queue up instead of
+     * deadlocking; the second one then sees its claim already Rejected.
+     * Competitors are rejected with one set-based UPDATE. Change events for
+     * the claims and the item are sent only after the commit.
+     * @param itemStatus Status the item moves to, e.g. "Claimed"
+     * @param expectedVersion Version of the approved claim the caller last saw, or null
+     */
+    public ClaimTransition approveAndCloseItem(Long id, String approverUsername, Integer expectedVersion, String itemStatus) {
+        return metrics.time("approveAndCloseItem", () -> {
+            LocalDateTime now = LocalDateTime.now();
+            Claim approved = null;
+            Item item = null;
+            List<Claim> rejected = new ArrayList<>();
+        
+            try (Connection conn = database.getConnection()) {
+                conn.setAutoCommit(false);
+                try {
+                    List<Claim> pending = lockPendingClaimsOfItem(conn, id);
+                
+                    int affectedRows = updateStatus(conn, id, "Pending", "Approved", approverUsername, now, expectedVersion);
+                    if (affectedRows == 0) {
+                        conn.rollback();
+                        return outcome(0, "Pending", findState(conn, id));
+                    }
+                
+                    for (Claim claim : pending) {
+                        boolean isApproved = claim.getId().equals(id);
+                        claim.setStatus(isApproved ? "Approved" : "Rejected");
+                        claim.setApproverUsername(approverUsername);
+                        claim.setDateApproved(now);
+                        claim.setVersion(claim.getVersion() + 1);
+                        if (isApproved) {
+                            approved = claim;
+                        } else {
+                            rejected.add(claim);
+                        }
+                    }
+                    if (approved == null) {
+                        // Not pending when locked, yet the guarded update matched; read what is there
+                        approved = findState(conn, id);
+                    }
+                
+                    if (!rejected.isEmpty()) {
+                        String rejectSql = "UPDATE claims SET status = 'Rejected', approver_username = ?, date_approved = ?, version = version + 1 " +
+                                           "WHERE item_id = ? AND status = 'Pending' AND id <> ?";
+                        try (PreparedStatement stmt = conn.prepareStatement(rejectSql)) {
+                            stmt.setString(1, approverUsername);
+                            stmt.setTimestamp(2, Timestamp.valueOf(now));
+                            stmt.setLong(3, approved.getItem().getId());
+                            stmt.setLong(4, id);
+                            stmt.executeUpdate();
+                        }
+                    }
+                
+                    Long itemId = approved.getItem().getId();
+                    try (PreparedStatement stmt = conn.prepareStatement("UPDATE items SET status = ? WHERE id = ?")) {
+                        stmt.setString(1, itemStatus);
+                        stmt.setLong(2, itemId);
+                        stmt.executeUpdate();
+                    }
+                    try (PreparedStatement stmt = conn.prepareStatement("SELECT * FROM items WHERE id = ?")) {
+                        stmt.setLong(1, itemId);
+                        try (ResultSet rs = stmt.executeQuery()) {
+                            if (rs.next()) {
+                                item = itemRepository.mapResultSetToItem(rs);
+                            }
+                        }
+                    }
+                
+                    conn.commit();
+                } catch (SQLException | RuntimeException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+            
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Error approving claim with ID: " + id, e);
+                RepositoryMetrics.error(e);
+                throw new RuntimeException("Failed to approve claim", e);
+            }
+        
+            logger.info("Claim " + id + " approved; item set to " + itemStatus + ", " + rejected.size() + " competing claims rejected");
+            if (item != null) {
+                approved.setItem(item);
+                RepositoryEvents.itemSaved(item, false);
+            }
+            RepositoryEvents.claimSaved(approved, false);
+            for (Claim claim : rejected) {
+                claim.setItem(approved.getItem());
+                RepositoryEvents.claimSaved(claim, false);
+            }
+            return new ClaimTransition(ClaimTransition.Outcome.APPLIED, approved, rejected);
+        });
+    }
+
+    /**
+     * Guarded status UPDATE; returns the number of rows changed (0 or 1)
+     */
+    private int updateStatus(Connection conn, Long id, String fromStatus, String toStatus, String approverUsername,
+                             LocalDateTime resolvedAt, Integer expectedVersion) throws SQLException {
+        String sql = "UPDATE claims SET status = ?, approver_username = ?, date_approved = ?, version = version + 1 " +
+                     "WHERE id = ? AND status = ?" + (expectedVersion != null ? " AND version = ?" : "");
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, toStatus);
+            stmt.setString(2, approverUsername);
+            stmt.setTimestamp(3, Timestamp.valueOf(resolvedAt));
+            stmt.setLong(4, id);
+            stmt.setString(5, fromStatus);
+            if (expectedVersion != null) {
+                stmt.setInt(6, expectedVersion);
+            }
+            return stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Lock the pending claims on the same item as the given claim, in ID order
+     */
+    private List<Claim> lockPendingClaimsOfItem(Connection conn, Long id) throws SQLException {
+        List<Claim> claims = new ArrayList<>();
+        String sql = "SELECT * FROM claims WHERE item_id = (SELECT item_id FROM claims WHERE id = ?) " +
+                     "AND status = 'Pending' ORDER BY id FOR UPDATE";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setLong(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    claims.add(mapClaimState(rs));
+                }
+            }
+        }
+        return claims;
+    }
+
+    /**
+     * Classify a guarded update by the rows it changed and the claim as it is now
+     */
+    private static ClaimTransition outcome(int affectedRows, String fromStatus, Claim current) {
+        if (affectedRows > 0) {
+            return new ClaimTransition(ClaimTransition.Outcome.APPLIED, current);
+        }
+        if (current == null) {
+            return new ClaimTransition(ClaimTransition.Outcome.NOT_FOUND, null);
+        }
+        if (!fromStatus.equals(current.getStatus())) {
+            return new ClaimTransition(ClaimTransition.Outcome.STATUS_CONFLICT, current);
+        }
+        return new ClaimTransition(ClaimTransition.Outcome.VERSION_CONFLICT, current);
+    }
+
+    /**
+     * Read a claim's own columns; the item holds only its ID
+     */
+    private Claim findState(Connection conn, Long id) throws SQLException {
+        String sql = "SELECT * FROM claims WHERE id = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setLong(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? mapClaimState(rs) : null;
+            }
+        }
+    }
+
+    /**
+     * Map a claim row without loading its item; the item holds only its ID
+     */
+    private Claim mapClaimState(ResultSet rs) throws SQLException {
+        Claim claim = new Claim();
+        Item item = new Item();
+        item.setId(rs.getLong("item_id"));
+        claim.setItem(item);
+        mapClaimColumns(rs, claim);
+        return claim;
+    }
+
     /**
      * Delete claim by ID
      */
     public void deleteById(Long id) {
-        String sql = "DELETE FROM claims WHERE id = ?";
+        metrics.run("deleteById", () -> {
+            String sql = "DELETE FROM claims WHERE id = ?";
         
-        try (Connection conn = database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (Connection conn = database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setLong(1, id);
-            int affectedRows = stmt.executeUpdate();
+                stmt.setLong(1, id);
+                int affectedRows = stmt.executeUpdate();
             
-            if (affectedRows > 0) {
-                logger.info("Claim deleted successfully with ID: " + id);
-            } else {
-                logger.warning("No claim found to delete with ID: " + id);
-            }
+                if (affectedRows > 0) {
+                    logger.info("Claim deleted successfully with ID: " + id);
+                    RepositoryEvents.claimDeleted(id);
+                } else {
+                    logger.warning("No claim found to delete with ID: " + id);
+                }
             
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error deleting claim with ID: " + id, e);
-            throw new RuntimeException("Failed to delete claim", e);
-        }
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Error deleting claim with ID: " + id, e);
+                RepositoryMetrics.error(e);
+                throw new RuntimeException("Failed to delete claim", e);
+            }
+        });
     }
 
     /**
      * Count total claims
      */
     public long count() {
-        String sql = "SELECT COUNT(*) FROM claims";
+        return metrics.time("count", () -> flights.value(database, "count", null, () -> {
+            String sql = "SELECT COUNT(*) FROM claims";
         
-        try (Connection conn = database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
+            try (Connection conn = database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql);
+                 ResultSet rs = stmt.executeQuery()) {
             
-            if (rs.next()) {
-                return rs.getLong(1);
+                if (rs.next()) {
+                    return rs.getLong(1);
+                }
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Error counting claims", e);
+                RepositoryMetrics.error(e);
             }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error counting claims", e);
-        }
-        return 0;
+            return 0L;
+        }));
     }
 
     /**
      * Count claims by status
      */
     public long countByStatus(String status) {
-        String sql = "SELECT COUNT(*) FROM claims WHERE status = ?";
+        return metrics.time("countByStatus", () -> flights.value(database, "countByStatus", status, () -> {
+            String sql = "SELECT COUNT(*) FROM claims WHERE status = ?";
         
-        try (Connection conn = database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (Connection conn = database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setString(1, status);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getLong(1);
+                stmt.setString(1, status);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        return rs.getLong(1);
+                    }
                 }
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Error counting claims by status: " + status, e);
+                RepositoryMetrics.error(e);
             }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error counting claims by status: " + status, e);
-        }
-        return 0;
+            return 0L;
+        }));
     }
 
     /**
      * Check if claim exists by ID
      */
     public boolean existsById(Long id) {
-        return findById(id).isPresent();
+        return metrics.time("existsById", () -> findById(id).isPresent());
     }
 
     /**
      * Map ResultSet to Claim entity (basic mapping without item)
+     * Package-private for the JMH benchmarks
      */
-    private Claim mapResultSetToClaim(ResultSet rs) throws SQLException {
+    Claim mapResultSetToClaim(ResultSet rs) throws SQLException {
         Claim claim = new Claim();
         claim.setId(rs.getLong("id"));
         
@@ -330,6 +624,15 @@ public class ClaimRepository {
             claim.setItem(itemOpt.orElse(null));
         }
         
+        mapClaimColumns(rs, claim);
+        return claim;
+    }
+
+    /**
+     * Map the claim's own columns, everything but the item
+     */
+    static void mapClaimColumns(ResultSet rs, Claim claim) throws SQLException {
+        claim.setId(rs.getLong("id"));
         claim.setClaimantId(rs.getInt("claimant_id"));
         claim.setClaimantUsername(rs.getString("claimant_username"));
         claim.setClaimDescription(rs.getString("claim_description"));
@@ -343,7 +646,17 @@ public class ClaimRepository {
             claim.setDateSubmitted(LocalDateTime.now());
         }
         
-        return claim;
+        claim.setApproverUsername(rs.getString("approver_username"));
+        Timestamp dateApproved = rs.getTimestamp("date_approved");
+        if (dateApproved != null) {
+            claim.setDateApproved(dateApproved.toLocalDateTime());
+        }
+        claim.setVersion(rs.getInt("version"));
+        
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        if (createdAt != null) {
+            claim.setCreatedAt(createdAt.toLocalDateTime());
+        }
     }
 
     /**
@@ -368,19 +681,7 @@ public class ClaimRepository {
         }
         
         claim.setItem(item);
-        claim.setClaimantId(rs.getInt("claimant_id"));
-        claim.setClaimantUsername(rs.getString("claimant_username"));
-        claim.setClaimDescription(rs.getString("claim_description"));
-        claim.setStatus(rs.getString("status"));
-        
-        // Handle date fields - use date_submitted column
-        Date submittedDate = rs.getDate("date_submitted");
-        if (submittedDate != null) {
-            claim.setDateSubmitted(submittedDate.toLocalDate().atStartOfDay());
-        } else {
-            claim.setDateSubmitted(LocalDateTime.now());
-        }
-        
+        mapClaimColumns(rs, claim);
         return claim;
     }
 
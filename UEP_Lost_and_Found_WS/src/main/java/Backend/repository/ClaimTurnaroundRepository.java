@@ -0,0 +1,89 @@
+package Backend.repository;
+
+import Backend.config.Database;
+import Backend.model.ClaimTurnaroundSketch;
+import org.springframework.stereotype.Repository;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Storage for serialized claim turnaround sketches, one row per week and approver
+ */
+@Repository
+public class ClaimTurnaroundRepository {
+
+    private static final Logger logger = Logger.getLogger(ClaimTurnaroundRepository.class.getName());
+    private Database database;
+
+    public ClaimTurnaroundRepository() {
+        this.database = new Database();
+    }
+
+    /**
+     * Find all stored sketches
+     */
+    public List<ClaimTurnaroundSketch> findAll() {
+        List<ClaimTurnaroundSketch> sketches = new ArrayList<>();
+        String sql = "SELECT week_start, approver, sample_count, sketch FROM claim_turnaround_sketches";
+        
+        try (Connection conn = database.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            
+            while (rs.next()) {
+                sketches.add(new ClaimTurnaroundSketch(
+                    rs.getDate("week_start").toLocalDate(),
+                    rs.getString("approver"),
+                    rs.getLong("sample_count"),
+                    rs.getBytes("sketch")
+                ));
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error finding claim turnaround sketches", e);
+        }
+        return sketches;
+    }
+
+    /**
+     * Insert or replace the sketch of one week and approver
+     */
+    public void save(ClaimTurnaroundSketch sketch) {
+        String sql = "INSERT INTO claim_turnaround_sketches (week_start, approver, sample_count, sketch) " +
+                     "VALUES (?, ?, ?, ?) " +
+                     "ON DUPLICATE KEY UPDATE sample_count = VALUES(sample_count), sketch = VALUES(sketch), " +
+                     "updated_at = CURRENT_TIMESTAMP";
+        
+        try (Connection conn = database.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setDate(1, java.sql.Date.valueOf(sketch.getWeekStart()));
+            stmt.setString(2, sketch.getApprover());
+            stmt.setLong(3, sketch.getSampleCount());
+            stmt.setBytes(4, sketch.getSketch());
+            stmt.executeUpdate();
+            
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error saving claim turnaround sketch for week " + sketch.getWeekStart() +
+                       " and approver " + sketch.getApprover(), e);
+            throw new RuntimeException("Failed to save claim turnaround sketch", e);
+        }
+    }
+
+    /**
+     * Get database instance for testing
+     */
+    public Database getDatabase() {
+        return database;
+    }
+
+    /**
+     * Set database instance for testing
+     */
+    public void setDatabase(Database database) {
+        this.database = database;
+    }
+}
@@ -0,0 +1,202 @@
+package Backend.repository;
+
+import Backend.config.Database;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Streams items and claims, joined with their item and user, for exports
+ * Rows go to the writer as the driver reads them, with the backend's
+ * streaming fetch size, so an export holds one row in memory however many
+ * it covers. Filters are part of the WHERE clause and the date range is an
+ * index range scan on idx_items_date_reported or idx_claims_date_submitted.
+ */
+@Repository
+public class ExportRepository {
+
+    private static final Logger logger = Logger.getLogger(ExportRepository.class.getName());
+    private static final RepositoryMetrics metrics = RepositoryMetrics.forRepository("export");
+
+    public static final List<String> ITEM_COLUMNS = List.of(
+            "id", "name", "description", "status", "category", "location", "date_reported", "reported_by",
+            "reporter_id", "reporter_name", "reporter_email", "duplicate_of", "archived");
+
+    public static final List<String> CLAIM_COLUMNS = List.of(
+            "id", "item_id", "item_name", "item_status", "item_category", "item_location", "claimant_id",
+            "claimant_username", "claimant_name", "claimant_email", "claim_description", "status",
+            "date_submitted", "approver_username", "date_approved", "archived");
+
+    private static final String ITEM_SELECT =
+            "SELECT i.id, i.name, i.description, i.status, i.category, i.location, i.date_reported, i.reported_by, " +
+            "i.user_id, u.fname, u.lname, u.email, i.duplicate_of FROM %s i LEFT JOIN users u ON u.id = i.user_id";
+
+    private static final String CLAIM_SELECT =
+            "SELECT c.id, c.item_id, i.name, i.status, i.category, i.location, c.claimant_id, c.claimant_username, " +
+            "u.fname, u.lname, u.email, c.claim_description, c.status, c.date_submitted, c.approver_username, " +
+            "c.date_approved FROM %s c LEFT JOIN %s i ON i.id = c.item_id LEFT JOIN users u ON u.id = c.claimant_id";
+
+    private Database database;
+
+    /**
+     * Which rows to export; null fields do not filter
+     * @param from First day, inclusive: date reported for items, date submitted for claims
+     * @param to Last day, inclusive
+     * @param status Item or claim status
+     * @param includeArchived Whether to add the archived rows, which come first
+     */
+    public record Filter(LocalDate from, LocalDate to, String status, boolean includeArchived) {}
+
+    /**
+     * Receives exported rows, values in column order
+     */
+    public interface RowWriter {
+        void row(Object[] values) throws IOException;
+    }
+
+    public ExportRepository() {
+        this.database = new Database();
+    }
+
+    /**
+     * Stream items, with their reporter, in ITEM_COLUMNS order
+     * @return Number of rows written
+     * @throws IOException If the writer failed, e.g. the client went away; the query is abandoned
+     */
+    public long streamItems(Filter filter, int fetchSize, RowWriter writer) throws IOException {
+        return stream("streamItems", filter, (conn, archived) -> {
+            List<Object> params = new ArrayList<>();
+            String sql = String.format(ITEM_SELECT, archived ? "items_archive" : "items") +
+                         where(filter, "i.date_reported", "i.status", params) +
+                         " ORDER BY i.date_reported, i.id";
+            return query(conn, sql, params, fetchSize, rs -> new Object[] {
+                    rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5),
+                    rs.getString(6), toLocalDate(rs.getDate(7)), rs.getString(8), rs.getLong(9),
+                    fullName(rs.getString(10), rs.getString(11)), rs.getString(12), rs.getObject(13, Long.class),
+                    archived
+            }, writer);
+        });
+    }
+
+    /**
+     * Stream claims, with their item and claimant, in CLAIM_COLUMNS order
+     * @return Number of rows written
+     * @throws IOException If the writer failed, e.g. the client went away; the query is abandoned
+     */
+    public long streamClaims(Filter filter, int fetchSize, RowWriter writer) throws IOException {
+        return stream("streamClaims", filter, (conn, archived) -> {
+            List<Object> params = new ArrayList<>();
+            String sql = String.format(CLAIM_SELECT, archived ? "claims_archive" : "claims", archived ? "items_archive" : "items") +
+                         where(filter, "c.date_submitted", "c.status", params) +
+                         " ORDER BY c.date_submitted, c.id";
+            return query(conn, sql, params, fetchSize, rs -> {
+                Timestamp approved = rs.getTimestamp(16);
+                return new Object[] {
+                        rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getString(4), rs.getString(5),
+                        rs.getString(6), rs.getLong(7), rs.getString(8), fullName(rs.getString(9), rs.getString(10)),
+                        rs.getString(11), rs.getString(12), rs.getString(13), toLocalDate(rs.getDate(14)),
+                        rs.getString(15), approved != null ? approved.toLocalDateTime() : null, archived
+                };
+            }, writer);
+        });
+    }
+
+    /**
+     * One query per table: the archive (older rows) when asked for, then the live table
+     */
+    private interface TableQuery {
+        long run(Connection conn, boolean archived) throws SQLException, IOException;
+    }
+
+    private interface RowMapper {
+        Object[] map(ResultSet rs) throws SQLException;
+    }
+
+    private long stream(String method, Filter filter, TableQuery query) throws IOException {
+        try {
+            return metrics.time(method, () -> {
+                long rows = 0;
+                try (Connection conn = database.getConnection()) {
+                    if (filter.includeArchived()) {
+                        rows += query.run(conn, true);
+                    }
+                    rows += query.run(conn, false);
+                } catch (SQLException e) {
+                    logger.log(Level.SEVERE, "Error exporting rows (" + method + ")", e);
+                    RepositoryMetrics.error(e);
+                    throw new RuntimeException("Failed to export rows", e);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return rows;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private long query(Connection conn, String sql, List<Object> params, int fetchSize, RowMapper mapper, RowWriter writer)
+            throws SQLException, IOException {
+        long rows = 0;
+        try (PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(database.getBackend().getStreamingFetchSize(fetchSize));
+            for (int i = 0; i < params.size(); i++) {
+                stmt.setObject(i + 1, params.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    writer.row(mapper.map(rs));
+                    rows++;
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static String where(Filter filter, String dateColumn, String statusColumn, List<Object> params) {
+        StringBuilder where = new StringBuilder(" WHERE 1 = 1");
+        if (filter.from() != null) {
+            where.append(" AND ").append(dateColumn).append(" >= ?");
+            params.add(Date.valueOf(filter.from()));
+        }
+        if (filter.to() != null) {
+            where.append(" AND ").append(dateColumn).append(" <= ?");
+            params.add(Date.valueOf(filter.to()));
+        }
+        if (filter.status() != null) {
+            where.append(" AND ").append(statusColumn).append(" = ?");
+            params.add(filter.status());
+        }
+        return where.toString();
+    }
+
+    private static LocalDate toLocalDate(Date date) {
+        return date != null ? date.toLocalDate() : null;
+    }
+
+    // Null when the user is gone, e.g. for archived rows of a removed user
+    private static String fullName(String fname, String lname) {
+        return fname != null ? fname + " " + lname : null;
+    }
+
+    /**
+     * Get database instance for testing
+     */
+    public Database getDatabase() {
+        return database;
+    }
+
+    /**
+     * Set database instance for testing
+     */
+    public void setDatabase(Database database) {
+        this.database = database;
+    }
+}
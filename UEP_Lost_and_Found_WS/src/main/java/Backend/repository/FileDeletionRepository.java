@@ -0,0 +1,199 @@
+package Backend.repository;
+
+import Backend.config.Database;
+import Backend.model.FileDeletion;
+import org.springframework.stereotype.Repository;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Durable queue of upload files to delete, backed by file_deletions
+ */
+@Repository
+public class FileDeletionRepository {
+
+    private static final Logger logger = Logger.getLogger(FileDeletionRepository.class.getName());
+    private static final RepositoryMetrics metrics = RepositoryMetrics.forRepository("fileDeletion");
+    private Database database;
+
+    public FileDeletionRepository() {
+        this.database = new Database();
+    }
+
+    /**
+     * Queue files for deletion in one batch
+     */
+    public void enqueueAll(Collection<String> paths, String reason) {
+        if (paths.isEmpty()) {
+            return;
+        }
+        metrics.run("enqueueAll", () -> {
+            String sql = "INSERT INTO file_deletions (path, reason) VALUES (?, ?)";
+
+            try (Connection conn = database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                for (String path : paths) {
+                    stmt.setString(1, path);
+                    stmt.setString(2, reason);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Error queueing " + paths.size() + " file deletions (" + reason + ")", e);
+                RepositoryMetrics.error(e);
+                throw new RuntimeException("Failed to queue file deletions", e);
+            }
+        });
+    }
+
+    /**
+     * Find deletions whose next attempt is due, oldest first
+     */
+    public List<FileDeletion> findDue(int limit) {
+        return metrics.time("findDue", () -> {
+            List<FileDeletion> deletions = new ArrayList<>();
+            String sql = "SELECT * FROM file_deletions WHERE next_attempt_at <= ? ORDER BY next_attempt_at, id LIMIT ?";
+
+            try (Connection conn = database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                stmt.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now()));
+                stmt.setInt(2, limit);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        deletions.add(mapResultSetToFileDeletion(rs));
+                    }
+                }
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Error finding due file deletions", e);
+                RepositoryMetrics.error(e);
+            }
+            return deletions;
+        });
+    }
+
+    /**
+     * Paths currently queued, so a sweep does not queue them twice
+     */
+    public Set<String> findQueuedPaths() {
+        return metrics.time("findQueuedPaths", () -> {
+            Set<String> paths = new HashSet<>();
+            String sql = "SELECT path FROM file_deletions";
+
+            try (Connection conn = database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql);
+                 ResultSet rs = stmt.executeQuery()) {
+
+                while (rs.next()) {
+                    paths.add(rs.getString("path"));
+                }
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Error finding queued file deletions", e);
+                RepositoryMetrics.error(e);
+                throw new RuntimeException("Failed to find queued file deletions", e);
+            }
+            return paths;
+        });
+    }
+
+    /**
+     * Records a failed attempt and when to try again
+     */
+    public void markFailed(Long id, String error, LocalDateTime nextAttemptAt) {
+        metrics.run("markFailed", () -> {
+            String sql = "UPDATE file_deletions SET attempts = attempts + 1, last_error = ?, next_attempt_at = ? WHERE id = ?";
+
+            try (Connection conn = database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                stmt.setString(1, error != null && error.length() > 255 ? error.substring(0, 255) : error);
+                stmt.setTimestamp(2, Timestamp.valueOf(nextAttemptAt));
+                stmt.setLong(3, id);
+                stmt.executeUpdate();
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Error recording failed file deletion with ID: " + id, e);
+                RepositoryMetrics.error(e);
+            }
+        });
+    }
+
+    /**
+     * Remove a deletion once the file is gone
+     */
+    public void deleteById(Long id) {
+        metrics.run("deleteById", () -> {
+            String sql = "DELETE FROM file_deletions WHERE id = ?";
+
+            try (Connection conn = database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                stmt.setLong(1, id);
+                stmt.executeUpdate();
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Error removing file deletion with ID: " + id, e);
+                RepositoryMetrics.error(e);
+            }
+        });
+    }
+
+    /**
+     * Count queued deletions
+     */
+    public long count() {
+        return metrics.time("count", () -> {
+            String sql = "SELECT COUNT(*) FROM file_deletions";
+
+            try (Connection conn = database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql);
+                 ResultSet rs = stmt.executeQuery()) {
+
+                if (rs.next()) {
+                    return rs.getLong(1);
+                }
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Error counting file deletions", e);
+                RepositoryMetrics.error(e);
+            }
+            return 0L;
+        });
+    }
+
+    private FileDeletion mapResultSetToFileDeletion(ResultSet rs) throws SQLException {
+        FileDeletion deletion = new FileDeletion(rs.getString("path"), rs.getString("reason"));
+        deletion.setId(rs.getLong("id"));
+        deletion.setAttempts(rs.getInt("attempts"));
+        deletion.setLastError(rs.getString("last_error"));
+        Timestamp nextAttemptAt = rs.getTimestamp("next_attempt_at");
+        if (nextAttemptAt != null) {
+            deletion.setNextAttemptAt(nextAttemptAt.toLocalDateTime());
+        }
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        if (createdAt != null) {
+            deletion.setCreatedAt(createdAt.toLocalDateTime());
+        }
+        return deletion;
+    }
+
+    /**
+     * Get database instance for testing
+     */
+    public Database getDatabase() {
+        return database;
+    }
+
+    /**
+     * Set database instance for testing
+     */
+    public void setDatabase(Database database) {
+        this.database = database;
+    }
+}
@@ -0,0 +1,153 @@
+package Backend.repository;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * MinHash signature of an item's words, with LSH band keys
+ * Two reports of the same thing share most of their words, so the fraction
+ * of equal signature slots estimates their Jaccard similarity. Slots are
+ * grouped into bands; items sharing any whole band become candidates, which
+ * the item_fingerprint_bands index finds without scanning the items table.
+ * With 12 bands of 2 slots, items at 60% similarity share a band 99.5% of
+ * the time and items at 20% about 40% of the time, before the exact check.
+ */
+final class ItemFingerprint {
+
+    static final int BANDS = 12;
+    static final int ROWS = 2;
+    static final int SIZE = BANDS * ROWS;
+
+    private static final int MIN_WORD_LENGTH = 2;
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "the", "with", "for", "was", "were", "this", "that", "from", "near", "at",
+            "in", "on", "of", "to", "it", "is", "my", "has", "have", "had", "lost", "found", "item");
+    private static final long[] SEEDS = new long[SIZE];
+    static {
+        long seed = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < SIZE; i++) {
+            seed = mix(seed + 0x9E3779B97F4A7C15L);
+            SEEDS[i] = seed;
+        }
+    }
+
+    private final int[] slots;
+
+    private ItemFingerprint(int[] slots) {
+        this.slots = slots;
+    }
+
+    /**
+     * Signature of the name and description, or null if they have no usable words
+     */
+    static ItemFingerprint of(String name, String description) {
+        Set<String> words = new HashSet<>();
+        addWords(name, words);
+        addWords(description, words);
+        if (words.isEmpty()) {
+            return null;
+        }
+
+        int[] slots = new int[SIZE];
+        Arrays.fill(slots, Integer.MAX_VALUE);
+        for (String word : words) {
+            long hash = hash(word);
+            for (int i = 0; i < SIZE; i++) {
+                int value = (int) (mix(hash ^ SEEDS[i]) >>> 33);
+                if (value < slots[i]) {
+                    slots[i] = value;
+                }
+            }
+        }
+        return new ItemFingerprint(slots);
+    }
+
+    static ItemFingerprint fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length != SIZE * Integer.BYTES) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int[] slots = new int[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            slots[i] = buffer.getInt();
+        }
+        return new ItemFingerprint(slots);
+    }
+
+    byte[] toBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(SIZE * Integer.BYTES);
+        for (int slot : slots) {
+            buffer.putInt(slot);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * One key per band; the band number is part of the key so bands never collide
+     */
+    long[] bandKeys() {
+        long[] keys = new long[BANDS];
+        for (int band = 0; band < BANDS; band++) {
+            long hash = band;
+            for (int row = 0; row < ROWS; row++) {
+                hash = mix(hash * 31 + slots[band * ROWS + row]);
+            }
+            keys[band] = ((long) band << 32) | (hash & 0xFFFFFFFFL);
+        }
+        return keys;
+    }
+
+    /**
+     * Estimated Jaccard similarity of the two word sets, 0 to 1
+     */
+    double similarity(ItemFingerprint other) {
+        int equal = 0;
+        for (int i = 0; i < SIZE; i++) {
+            if (slots[i] == other.slots[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / SIZE;
+    }
+
+    private static void addWords(String text, Set<String> words) {
+        if (text == null) {
+            return;
+        }
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                word.append(Character.toLowerCase(c));
+            } else if (word.length() > 0) {
+                String value = word.toString();
+                if (value.length() >= MIN_WORD_LENGTH && !STOP_WORDS.contains(value)) {
+                    words.add(value);
+                }
+                word.setLength(0);
+            }
+        }
+    }
+
+    // 64-bit FNV-1a; String.hashCode is too weak for MinHash
+    private static long hash(String word) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < word.length(); i++) {
+            hash ^= word.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    // MurmurHash3 finalizer
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB93FE1A85EC3L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
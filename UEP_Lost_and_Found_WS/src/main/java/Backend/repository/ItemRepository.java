@@ -8,8 +8,12 @@ import org.springframework.stereotype.Repository;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -21,6 +25,13 @@ import java.util.logging.Logger;
 public class ItemRepository {
     
     private static final Logger logger = Logger.getLogger(ItemRepository.class.getName());
+    private static final RepositoryMetrics metrics = RepositoryMetrics.forRepository("item");
+    private static final SingleFlight flights = SingleFlight.forRepository("item");
+
+    // Near-duplicate reports: estimated word overlap, how far back to look, and how many candidates to check
+    private static final double DUPLICATE_SIMILARITY = 0.6;
+    private static final int DUPLICATE_WINDOW_DAYS = 60;
+    private static final int DUPLICATE_CANDIDATE_LIMIT = 200;
     private Database database;
 
     public ItemRepository() {
@@ -31,305 +42,590 @@ public class ItemRepository {
      * Find item by ID
      */
     public Optional<Item> findById(Long id) {
-        String sql = "SELECT * FROM items WHERE id = ?";
+        return metrics.time("findById", () -> {
+            String sql = "SELECT * FROM items WHERE id = ?";
         
-        try (Connection conn = database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (Connection conn = database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setLong(1, id);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return Optional.of(mapResultSetToItem(rs));
+                stmt.setLong(1, id);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        return Optional.of(mapResultSetToItem(rs));
+                    }
                 }
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Error finding item by ID: " + id, e);
+                RepositoryMetrics.error(e);
             }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error finding item by ID: " + id, e);
-        }
-        return Optional.empty();
+            return Optional.empty();
+        });
     }
 
     /**
      * Find all items
      */
     public List<Item> findAll() {
-        List<Item> items = new ArrayList<>();
-        String sql = "SELECT * FROM items ORDER BY date_reported DESC";
+        return metrics.time("findAll", () -> flights.list(database, "findAll", () -> {
+            List<Item> items = new ArrayList<>();
+            String sql = "SELECT * FROM items ORDER BY date_reported DESC";
         
-        try (Connection conn = database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
+            try (Connection conn = database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql);
+                 ResultSet rs = stmt.executeQuery()) {
             
-            while (rs.next()) {
-                items.add(mapResultSetToItem(rs));
+                while (rs.next()) {
+                    items.add(mapResultSetToItem(rs));
+                }
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Error finding all items", e);
+                RepositoryMetrics.error(e);
             }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error finding all items", e);
-        }
-        return items;
+            return items;
+        }));
+    }
+
+    /**
+     * All items, newest first, like findAll, but a failed query throws
+     * instead of returning an empty list; for callers that keep the result
+     */
+    public List<Item> loadAll() {
+        return metrics.time("loadAll", () -> {
+            List<Item> items = new ArrayList<>();
+            String sql = "SELECT * FROM items ORDER BY date_reported DESC";
+
+            try (Connection conn = database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql);
+                 ResultSet rs = stmt.executeQuery()) {
+
+                while (rs.next()) {
+                    items.add(mapResultSetToItem(rs));
+                }
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Error loading all items", e);
+                RepositoryMetrics.error(e);
+                throw new RuntimeException("Failed to load items", e);
+            }
+            return items;
+        });
     }
 
     /**
      * Find items by status
      */
     public List<Item> findByStatus(String status) {
-        List<Item> items = new ArrayList<>();
-        String sql = "SELECT * FROM items WHERE status = ? ORDER BY date_reported DESC";
+        return metrics.time("findByStatus", () -> flights.list(database, "findByStatus", status, () -> {
+            List<Item> items = new ArrayList<>();
+            String sql = "SELECT * FROM items WHERE status = ? ORDER BY date_reported DESC";
         
-        try (Connection conn = database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (Connection conn = database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setString(1, status);
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    items.add(mapResultSetToItem(rs));
+                stmt.setString(1, status);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        items.add(mapResultSetToItem(rs));
+                    }
                 }
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Error finding items by status: " + status, e);
+                RepositoryMetrics.error(e);
             }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error finding items by status: " + status, e);
-        }
-        return items;
+            return items;
+        }));
     }
 
     /**
      * Find items by reported by user
      */
     public List<Item> findByReportedBy(String reportedBy) {
-        List<Item> items = new ArrayList<>();
-        String sql = "SELECT * FROM items WHERE reported_by = ? ORDER BY date_reported DESC";
+        return metrics.time("findByReportedBy", () -> flights.list(database, "findByReportedBy", reportedBy, () -> {
+            List<Item> items = new ArrayList<>();
+            String sql = "SELECT * FROM items WHERE reported_by = ? ORDER BY date_reported DESC";
         
-        try (Connection conn = database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (Connection conn = database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setString(1, reportedBy);
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    items.add(mapResultSetToItem(rs));
+                stmt.setString(1, reportedBy);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        items.add(mapResultSetToItem(rs));
+                    }
                 }
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Error finding items by reporter: " + reportedBy, e);
+                RepositoryMetrics.error(e);
             }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error finding items by reporter: " + reportedBy, e);
-        }
-        return items;
+            return items;
+        }));
     }
 
     /**
      * Find items by name containing search term
      */
     public List<Item> findByNameContaining(String searchTerm) {
-        List<Item> items = new ArrayList<>();
-        String sql = "SELECT * FROM items WHERE name LIKE ? ORDER BY date_reported DESC";
+        return metrics.time("findByNameContaining", () -> flights.list(database, "findByNameContaining", searchTerm, () -> {
+            List<Item> items = new ArrayList<>();
+            String sql = "SELECT * FROM items WHERE name LIKE ? ORDER BY date_reported DESC";
         
-        try (Connection conn = database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (Connection conn = database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setString(1, "%" + searchTerm + "%");
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    items.add(mapResultSetToItem(rs));
+                stmt.setString(1, "%" + searchTerm + "%");
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        items.add(mapResultSetToItem(rs));
+                    }
                 }
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Error finding items by name containing: " + searchTerm, e);
+                RepositoryMetrics.error(e);
             }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error finding items by name containing: " + searchTerm, e);
-        }
-        return items;
+            return items;
+        }));
     }
 
     /**
      * Find items by description containing search term
      */
     public List<Item> findByDescriptionContaining(String searchTerm) {
-        List<Item> items = new ArrayList<>();
-        String sql = "SELECT * FROM items WHERE description LIKE ? ORDER BY date_reported DESC";
+        return metrics.time("findByDescriptionContaining", () -> flights.list(database, "findByDescriptionContaining", searchTerm, () -> {
+            List<Item> items = new ArrayList<>();
+            String sql = "SELECT * FROM items WHERE description LIKE ? ORDER BY date_reported DESC";
         
-        try (Connection conn = database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (Connection conn = database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setString(1, "%" + searchTerm + "%");
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    items.add(mapResultSetToItem(rs));
+                stmt.setString(1, "%" + searchTerm + "%");
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        items.add(mapResultSetToItem(rs));
+                    }
                 }
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Error finding items by description containing: " + searchTerm, e);
+                RepositoryMetrics.error(e);
             }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error finding items by description containing: " + searchTerm, e);
-        }
-        return items;
+            return items;
+        }));
+    }
+
+    /**
+     * Find items with an ID greater than the given one, in ID order
+     */
+    public List<Item> findByIdGreaterThan(Long id) {
+        return metrics.time("findByIdGreaterThan", () -> flights.list(database, "findByIdGreaterThan", id, () -> {
+            List<Item> items = new ArrayList<>();
+            String sql = "SELECT * FROM items WHERE id > ? ORDER BY id";
+        
+            try (Connection conn = database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+                stmt.setLong(1, id);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        items.add(mapResultSetToItem(rs));
+                    }
+                }
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Error finding items with ID greater than: " + id, e);
+                RepositoryMetrics.error(e);
+            }
+            return items;
+        }));
     }
 
     /**
      * Save (create or update) item
      */
     public Item save(Item item) {
-        if (item.getId() == null) {
-            return create(item);
-        } else {
-            return update(item);
-        }
+        return metrics.time("save", () -> {
+            if (item.getId() == null) {
+                return create(item);
+            } else {
+                return update(item);
+            }
+        });
     }
 
     /**
      * Create new item
+     * The name and description are fingerprinted first; if an earlier report
+     * with the same status and similar words exists, the new item is flagged
+     * as its duplicate. The lookup goes through the band index, so its cost
+     * depends on how many items share a band, not on the size of the table.
      */
     private Item create(Item item) {
-        String sql = "INSERT INTO items (name, description, status, reported_by, image, user_id, date_reported) " +
-                     "VALUES (?, ?, ?, ?, ?, ?, ?)";
+        String sql = "INSERT INTO items (name, description, status, reported_by, image, user_id, date_reported, category, location, fingerprint, duplicate_of) " +
+                     "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
         
-        try (Connection conn = database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            
-            stmt.setString(1, item.getName());
-            stmt.setString(2, item.getDesc());
-            stmt.setString(3, item.getStatus());
-            stmt.setString(4, item.getReportedBy());
-            stmt.setString(5, item.getImage());
-            stmt.setLong(6, item.getUserId());
-            
-            // Add null check for dateReported to prevent NullPointerException
-            if (item.getDateReported() != null) {
-                stmt.setDate(7, java.sql.Date.valueOf(item.getDateReported().toLocalDate()));
-            } else {
-                // Use current date if dateReported is null
-                stmt.setDate(7, java.sql.Date.valueOf(java.time.LocalDate.now()));
-            }
-            
-            int affectedRows = stmt.executeUpdate();
-            
-            if (affectedRows == 0) {
-                throw new SQLException("Creating item failed, no rows affected.");
-            }
-            
-            try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    item.setId(generatedKeys.getLong(1));
+        // Add null check for dateReported to prevent NullPointerException
+        java.time.LocalDate dateReported = item.getDateReported() != null
+                ? item.getDateReported().toLocalDate()
+                : java.time.LocalDate.now(); // Use current date if dateReported is null
+        ItemFingerprint fingerprint = ItemFingerprint.of(item.getName(), item.getDesc());
+        
+        try (Connection conn = database.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                Long duplicateOf = fingerprint != null
+                        ? findDuplicate(conn, fingerprint, item.getStatus(), dateReported)
+                        : null;
+                
+                try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                    stmt.setString(1, item.getName());
+                    stmt.setString(2, item.getDesc());
+                    stmt.setString(3, item.getStatus());
+                    stmt.setString(4, item.getReportedBy());
+                    stmt.setString(5, item.getImage());
+                    stmt.setLong(6, item.getUserId());
+                    stmt.setDate(7, java.sql.Date.valueOf(dateReported));
+                    stmt.setString(8, item.getCategory());
+                    stmt.setString(9, item.getLocation());
+                    stmt.setBytes(10, fingerprint != null ? fingerprint.toBytes() : null);
+                    stmt.setObject(11, duplicateOf, Types.INTEGER);
+                    
+                    int affectedRows = stmt.executeUpdate();
+                    
+                    if (affectedRows == 0) {
+                        throw new SQLException("Creating item failed, no rows affected.");
+                    }
+                    
+                    try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                        if (generatedKeys.next()) {
+                            item.setId(generatedKeys.getLong(1));
+                        }
+                    }
                 }
+                insertBands(conn, item.getId(), fingerprint);
+                conn.commit();
+                item.setDuplicateOf(duplicateOf);
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
             }
             
-            logger.info("Item created successfully with ID: " + item.getId());
+            if (item.getDuplicateOf() != null) {
+                logger.info("Item created successfully with ID: " + item.getId() + ", possible duplicate of " + item.getDuplicateOf());
+            } else {
+                logger.info("Item created successfully with ID: " + item.getId());
+            }
+            RepositoryEvents.itemSaved(item, true);
             return item;
             
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Error creating item", e);
+            RepositoryMetrics.error(e);
             throw new RuntimeException("Failed to create item", e);
         }
     }
 
     /**
      * Update existing item
+     * The fingerprint follows the new name and description; the duplicate
+     * flag set at creation is kept.
      */
     private Item update(Item item) {
         String sql = "UPDATE items SET name = ?, description = ?, status = ?, reported_by = ?, " +
-                     "image = ?, user_id = ?, date_reported = ? WHERE id = ?";
+                     "image = ?, user_id = ?, date_reported = ?, category = ?, location = ?, fingerprint = ? WHERE id = ?";
         
-        try (Connection conn = database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setString(1, item.getName());
-            stmt.setString(2, item.getDesc());
-            stmt.setString(3, item.getStatus());
-            stmt.setString(4, item.getReportedBy());
-            stmt.setString(5, item.getImage());
-            stmt.setLong(6, item.getUserId());
-            stmt.setDate(7, java.sql.Date.valueOf(item.getDateReported().toLocalDate()));
-            stmt.setLong(8, item.getId());
-            
-            int affectedRows = stmt.executeUpdate();
-            
-            if (affectedRows == 0) {
-                throw new SQLException("Updating item failed, no rows affected.");
+        ItemFingerprint fingerprint = ItemFingerprint.of(item.getName(), item.getDesc());
+        
+        try (Connection conn = database.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setString(1, item.getName());
+                    stmt.setString(2, item.getDesc());
+                    stmt.setString(3, item.getStatus());
+                    stmt.setString(4, item.getReportedBy());
+                    stmt.setString(5, item.getImage());
+                    stmt.setLong(6, item.getUserId());
+                    stmt.setDate(7, java.sql.Date.valueOf(item.getDateReported().toLocalDate()));
+                    stmt.setString(8, item.getCategory());
+                    stmt.setString(9, item.getLocation());
+                    stmt.setBytes(10, fingerprint != null ? fingerprint.toBytes() : null);
+                    stmt.setLong(11, item.getId());
+                    
+                    int affectedRows = stmt.executeUpdate();
+                    
+                    if (affectedRows == 0) {
+                        throw new SQLException("Updating item failed, no rows affected.");
+                    }
+                }
+                try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM item_fingerprint_bands WHERE item_id = ?")) {
+                    stmt.setLong(1, item.getId());
+                    stmt.executeUpdate();
+                }
+                insertBands(conn, item.getId(), fingerprint);
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
             }
             
             logger.info("Item updated successfully with ID: " + item.getId());
+            RepositoryEvents.itemSaved(item, false);
             return item;
             
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Error updating item with ID: " + item.getId(), e);
+            RepositoryMetrics.error(e);
             throw new RuntimeException("Failed to update item", e);
         }
     }
 
+    /**
+     * Most similar earlier report sharing a band, with the same status and reported
+     * within DUPLICATE_WINDOW_DAYS; points at the original when that one is a duplicate too
+     * For common words more than DUPLICATE_CANDIDATE_LIMIT items may qualify; the
+     * newest are checked, being the likeliest reports of the same thing.
+     */
+    private Long findDuplicate(Connection conn, ItemFingerprint fingerprint, String status,
+                               java.time.LocalDate dateReported) throws SQLException {
+        long[] bandKeys = fingerprint.bandKeys();
+        String sql = "SELECT id, fingerprint, duplicate_of FROM items WHERE id IN (" +
+                     "SELECT item_id FROM item_fingerprint_bands WHERE band_key IN (" +
+                     String.join(", ", java.util.Collections.nCopies(bandKeys.length, "?")) + ")) " +
+                     "AND status = ? AND date_reported >= ? ORDER BY id DESC LIMIT " + DUPLICATE_CANDIDATE_LIMIT;
+        
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int index = 1;
+            for (long bandKey : bandKeys) {
+                stmt.setLong(index++, bandKey);
+            }
+            stmt.setString(index++, status);
+            stmt.setDate(index, java.sql.Date.valueOf(dateReported.minusDays(DUPLICATE_WINDOW_DAYS)));
+            
+            Long best = null;
+            double bestSimilarity = DUPLICATE_SIMILARITY;
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ItemFingerprint candidate = ItemFingerprint.fromBytes(rs.getBytes("fingerprint"));
+                    double similarity = candidate != null ? fingerprint.similarity(candidate) : 0;
+                    if (similarity >= bestSimilarity && (best == null || similarity > bestSimilarity)) {
+                        long original = rs.getLong("duplicate_of");
+                        best = rs.wasNull() ? rs.getLong("id") : original;
+                        bestSimilarity = similarity;
+                    }
+                }
+            }
+            return best;
+        }
+    }
+
+    private void insertBands(Connection conn, Long itemId, ItemFingerprint fingerprint) throws SQLException {
+        if (fingerprint == null) {
+            return;
+        }
+        try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO item_fingerprint_bands (band_key, item_id) VALUES (?, ?)")) {
+            for (long bandKey : fingerprint.bandKeys()) {
+                stmt.setLong(1, bandKey);
+                stmt.setLong(2, itemId);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
     /**
      * Delete item by ID
      */
     public void deleteById(Long id) {
-        String sql = "DELETE FROM items WHERE id = ?";
+        metrics.run("deleteById", () -> {
+            String sql = "DELETE FROM items WHERE id = ?";
         
-        try (Connection conn = database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (Connection conn = database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setLong(1, id);
-            int affectedRows = stmt.executeUpdate();
+                stmt.setLong(1, id);
+                int affectedRows = stmt.executeUpdate();
             
-            if (affectedRows > 0) {
-                logger.info("Item deleted successfully with ID: " + id);
-            } else {
-                logger.warning("No item found to delete with ID: " + id);
-            }
+                if (affectedRows > 0) {
+                    logger.info("Item deleted successfully with ID: " + id);
+                    RepositoryEvents.itemDeleted(id);
+                } else {
+                    logger.warning("No item found to delete with ID: " + id);
+                }
             
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error deleting item with ID: " + id, e);
-            throw new RuntimeException("Failed to delete item", e);
-        }
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Error deleting item with ID: " + id, e);
+                RepositoryMetrics.error(e);
+                throw new RuntimeException("Failed to delete item", e);
+            }
+        });
     }
 
     /**
      * Count total items
      */
     public long count() {
-        String sql = "SELECT COUNT(*) FROM items";
+        return metrics.time("count", () -> flights.value(database, "count", null, () -> {
+            String sql = "SELECT COUNT(*) FROM items";
         
-        try (Connection conn = database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
+            try (Connection conn = database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql);
+                 ResultSet rs = stmt.executeQuery()) {
             
-            if (rs.next()) {
-                return rs.getLong(1);
+                if (rs.next()) {
+                    return rs.getLong(1);
+                }
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Error counting items", e);
+                RepositoryMetrics.error(e);
             }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error counting items", e);
-        }
-        return 0;
+            return 0L;
+        }));
     }
 
     /**
      * Count items by status
      */
     public long countByStatus(String status) {
-        String sql = "SELECT COUNT(*) FROM items WHERE status = ?";
+        return metrics.time("countByStatus", () -> flights.value(database, "countByStatus", status, () -> {
+            String sql = "SELECT COUNT(*) FROM items WHERE status = ?";
         
-        try (Connection conn = database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (Connection conn = database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setString(1, status);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getLong(1);
+                stmt.setString(1, status);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        return rs.getLong(1);
+                    }
                 }
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Error counting items by status: " + status, e);
+                RepositoryMetrics.error(e);
             }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error counting items by status: " + status, e);
-        }
-        return 0;
+            return 0L;
+        }));
     }
 
     /**
      * Check if item exists by ID
      */
     public boolean existsById(Long id) {
-        return findById(id).isPresent();
+        return metrics.time("existsById", () -> findById(id).isPresent());
+    }
+
+    /**
+     * Image paths of all items, archived ones included
+     */
+    public Set<String> findReferencedImages() {
+        return metrics.time("findReferencedImages", () -> {
+            Set<String> images = new HashSet<>();
+            String sql = "SELECT image FROM items WHERE image IS NOT NULL " +
+                         "UNION SELECT image FROM items_archive WHERE image IS NOT NULL";
+
+            try (Connection conn = database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql);
+                 ResultSet rs = stmt.executeQuery()) {
+
+                while (rs.next()) {
+                    images.add(rs.getString("image"));
+                }
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Error finding referenced item images", e);
+                RepositoryMetrics.error(e);
+                // An incomplete set would make referenced files look orphaned
+                throw new RuntimeException("Failed to find referenced item images", e);
+            }
+            return images;
+        });
+    }
+
+    /**
+     * Image paths of the live items reported by a user
+     */
+    public List<String> findImagesByUserId(Long userId) {
+        return metrics.time("findImagesByUserId", () -> {
+            List<String> images = new ArrayList<>();
+            String sql = "SELECT image FROM items WHERE user_id = ? AND image IS NOT NULL";
+
+            try (Connection conn = database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                stmt.setLong(1, userId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        images.add(rs.getString("image"));
+                    }
+                }
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Error finding item images for user ID: " + userId, e);
+                RepositoryMetrics.error(e);
+            }
+            return images;
+        });
+    }
+
+    /**
+     * Perceptual hashes of the live items' photos, by item ID
+     */
+    public Map<Long, Long> findImageHashes() {
+        return metrics.time("findImageHashes", () -> {
+            Map<Long, Long> hashes = new HashMap<>();
+            String sql = "SELECT id, image_hash FROM items WHERE image_hash IS NOT NULL";
+
+            try (Connection conn = database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql);
+                 ResultSet rs = stmt.executeQuery()) {
+
+                while (rs.next()) {
+                    hashes.put(rs.getLong("id"), rs.getLong("image_hash"));
+                }
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Error finding item image hashes", e);
+                RepositoryMetrics.error(e);
+                throw new RuntimeException("Failed to find item image hashes", e);
+            }
+            return hashes;
+        });
+    }
+
+    /**
+     * Store the perceptual hash of an item's photo, unless the photo has changed since
+     */
+    public void updateImageHash(Long id, String image, long hash) {
+        metrics.run("updateImageHash", () -> {
+            String sql = "UPDATE items SET image_hash = ? WHERE id = ? AND image = ?";
+
+            try (Connection conn = database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                stmt.setLong(1, hash);
+                stmt.setLong(2, id);
+                stmt.setString(3, image);
+                stmt.executeUpdate();
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Error storing image hash for item ID: " + id, e);
+                RepositoryMetrics.error(e);
+            }
+        });
     }
 
     /**
      * Map ResultSet to Item entity
+     * Package-private for the JMH benchmarks
      */
-    private Item mapResultSetToItem(ResultSet rs) throws SQLException {
+    Item mapResultSetToItem(ResultSet rs) throws SQLException {
         Item item = new Item();
         item.setId(rs.getLong("id"));
         item.setName(rs.getString("name"));
         item.setDesc(rs.getString("description")); // Map database column to model field
         item.setStatus(rs.getString("status"));
+        item.setCategory(rs.getString("category"));
+        item.setLocation(rs.getString("location"));
         item.setReportedBy(rs.getString("reported_by")); // Map database column to model field
         item.setImage(rs.getString("image"));
         item.setUserId(rs.getLong("user_id")); // Map database column to model field
+        long duplicateOf = rs.getLong("duplicate_of");
+        item.setDuplicateOf(rs.wasNull() ? null : duplicateOf);
         
         // Handle potential null values for date
         Date date = rs.getDate("date_reported");
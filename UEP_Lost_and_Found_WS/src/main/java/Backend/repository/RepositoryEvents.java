@@ -0,0 +1,114 @@
+package Backend.repository;
+
+import Backend.model.Claim;
+import Backend.model.Item;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Change notifications for repository writes
+ * Repositories are created with new in several places, so listeners are
+ * registered here once and receive writes from every repository instance.
+ * Every write also ends sharing of earlier reads (see SingleFlight).
+ */
+public final class RepositoryEvents {
+
+    private static final Logger logger = Logger.getLogger(RepositoryEvents.class.getName());
+    private static final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Receives repository writes after they succeeded
+     * Implementations must be fast and thread-safe; they run on the writing thread.
+     */
+    public interface Listener {
+        default void itemSaved(Item item, boolean created) {}
+        default void itemDeleted(Long itemId) {}
+        default void claimSaved(Claim claim, boolean created) {}
+        default void claimDeleted(Long claimId) {}
+        default void userDeleted(Long userId) {}
+
+        /**
+         * All tables were replaced at once, e.g. by a snapshot restore; reload everything
+         */
+        default void dataReplaced() {}
+    }
+
+    private RepositoryEvents() {}
+
+    public static void register(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public static void unregister(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    static void itemSaved(Item item, boolean created) {
+        SingleFlight.invalidate();
+        for (Listener listener : listeners) {
+            try {
+                listener.itemSaved(item, created);
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Repository listener failed on item save: " + item.getId(), e);
+            }
+        }
+    }
+
+    static void itemDeleted(Long itemId) {
+        SingleFlight.invalidate();
+        for (Listener listener : listeners) {
+            try {
+                listener.itemDeleted(itemId);
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Repository listener failed on item delete: " + itemId, e);
+            }
+        }
+    }
+
+    static void claimSaved(Claim claim, boolean created) {
+        SingleFlight.invalidate();
+        for (Listener listener : listeners) {
+            try {
+                listener.claimSaved(claim, created);
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Repository listener failed on claim save: " + claim.getId(), e);
+            }
+        }
+    }
+
+    static void claimDeleted(Long claimId) {
+        SingleFlight.invalidate();
+        for (Listener listener : listeners) {
+            try {
+                listener.claimDeleted(claimId);
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Repository listener failed on claim delete: " + claimId, e);
+            }
+        }
+    }
+
+    static void userDeleted(Long userId) {
+        SingleFlight.invalidate();
+        for (Listener listener : listeners) {
+            try {
+                listener.userDeleted(userId);
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Repository listener failed on user delete: " + userId, e);
+            }
+        }
+    }
+
+    static void dataReplaced() {
+        SingleFlight.invalidate();
+        for (Listener listener : listeners) {
+            try {
+                listener.dataReplaced();
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Repository listener failed on data replacement", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package Backend.repository;
+
+import Backend.util.Tracer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+import java.sql.SQLException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Timers and error counters for repository operations
+ * Repositories are created with new rather than as Spring beans, so meters
+ * are registered on the global Micrometer registry, which Spring Boot backs
+ * with the Prometheus registry. Meters are looked up once per operation and
+ * cached; the hot path is a map hit, two nanoTime calls and a timer record.
+ * Sampled requests also get a tracing span per call.
+ *
+ *   repository.operation{repository, method, outcome}   timer
+ *   repository.errors{repository, method, exception}    counter
+ */
+public final class RepositoryMetrics {
+
+    private static final ThreadLocal<Frame> current = new ThreadLocal<>();
+
+    private final String repository;
+    private final ConcurrentHashMap<String, Operation> operations = new ConcurrentHashMap<>();
+
+    /**
+     * Meters of one repository method
+     */
+    private static final class Operation {
+        final String repository;
+        final String method;
+        final String name;
+        final Timer success;
+        final Timer failure;
+        final ConcurrentHashMap<Class<?>, Counter> errors = new ConcurrentHashMap<>();
+
+        Operation(String repository, String method) {
+            this.repository = repository;
+            this.method = method;
+            this.name = repository + "." + method;
+            this.success = timer("success");
+            this.failure = timer("error");
+        }
+
+        private Timer timer(String outcome) {
+            return Timer.builder("repository.operation")
+                    .description("Repository method latency")
+                    .tags("repository", repository, "method", method, "outcome", outcome)
+                    .register(Metrics.globalRegistry);
+        }
+
+        void error(Throwable e) {
+            errors.computeIfAbsent(e.getClass(), type -> Counter.builder("repository.errors")
+                    .description("Exceptions raised or swallowed by repository methods")
+                    .tags("repository", repository, "method", method, "exception", type.getSimpleName())
+                    .register(Metrics.globalRegistry)).increment();
+        }
+    }
+
+    /**
+     * Operation running on the current thread; nested repository calls stack
+     */
+    private static final class Frame {
+        final Operation operation;
+        final Frame parent;
+        boolean failed;
+
+        Frame(Operation operation, Frame parent) {
+            this.operation = operation;
+            this.parent = parent;
+        }
+    }
+
+    private RepositoryMetrics(String repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Metrics for one repository; hold the result in a static field
+     * @param repository Tag value, e.g. "item"
+     */
+    public static RepositoryMetrics forRepository(String repository) {
+        return new RepositoryMetrics(repository);
+    }
+
+    /**
+     * Runs a repository method body and records its latency and outcome
+     */
+    <T> T time(String method, Supplier<T> body) {
+        Operation operation = operation(method);
+        Frame frame = new Frame(operation, current.get());
+        current.set(frame);
+        Tracer.Span span = Tracer.startSpan("repository", operation.name);
+        long start = System.nanoTime();
+        try {
+            return body.get();
+        } catch (RuntimeException | Error e) {
+            if (!frame.failed) {
+                frame.failed = true;
+                operation.error(e.getCause() instanceof SQLException ? e.getCause() : e);
+            }
+            throw e;
+        } finally {
+            (frame.failed ? operation.failure : operation.success).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (frame.failed) {
+                span.tag("outcome", "error");
+            }
+            span.end();
+            if (frame.parent != null) {
+                current.set(frame.parent);
+            } else {
+                current.remove();
+            }
+        }
+    }
+
+    /**
+     * Same as time, for methods without a result
+     */
+    void run(String method, Runnable body) {
+        time(method, () -> {
+            body.run();
+            return null;
+        });
+    }
+
+    /**
+     * Records an exception the current repository method handled itself,
+     * e.g. a finder that logs the SQLException and returns an empty result
+     */
+    static void error(Throwable e) {
+        Frame frame = current.get();
+        if (frame != null && !frame.failed) {
+            frame.failed = true;
+            frame.operation.error(e);
+        }
+    }
+
+    /**
+     * Whether the repository method running on this thread recorded an error so far
+     */
+    static boolean currentFailed() {
+        Frame frame = current.get();
+        return frame != null && frame.failed;
+    }
+
+    /**
+     * Name of the repository operation running on this thread, e.g. "item.findById"
+     * @return the innermost operation, or null outside repository code
+     */
+    public static String currentOperation() {
+        Frame frame = current.get();
+        return frame != null ? frame.operation.name : null;
+    }
+
+    private Operation operation(String method) {
+        Operation operation = operations.get(method);
+        if (operation == null) {
+            operation = operations.computeIfAbsent(method, m -> new Operation(repository, m));
+        }
+        return operation;
+    }
+}
@@ -0,0 +1,200 @@
+package Backend.repository;
+
+import Backend.config.Database;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces identical concurrent reads into one query
+ * The first caller of a method with given arguments runs the query; callers
+ * arriving while it runs wait for it and share its result, and for
+ * stale-ms after it completes later callers reuse the result as well.
+ * Every repository write bumps a generation (see RepositoryEvents), after
+ * which no earlier query is joined or reused, so a write is visible to the
+ * next read on this node however long the window. Results are shared
+ * between requests: lists come back unmodifiable and their entities must
+ * be treated as read-only, which is why only list and count queries use
+ * this, not the finders whose entities are updated and saved.
+ */
+public final class SingleFlight {
+
+    // Completed results kept for reuse before expired ones are swept
+    private static final int MAX_KEYS = 1024;
+
+    private static final AtomicLong generation = new AtomicLong();
+    private static final LongAdder executed = new LongAdder();
+    private static final LongAdder joined = new LongAdder();
+    private static final LongAdder reused = new LongAdder();
+    private static volatile boolean enabled = true;
+    private static volatile long staleNanos;
+
+    private final String repository;
+    private final ConcurrentHashMap<Key, Flight> flights = new ConcurrentHashMap<>();
+
+    private record Key(String url, String method, Object argument) {}
+
+    /**
+     * One query execution and the callers sharing it
+     */
+    private static final class Flight {
+        final long generation;
+        final CompletableFuture<Object> result = new CompletableFuture<>();
+        // Reusable until, in System.nanoTime terms; set on success
+        volatile long freshUntil;
+        volatile boolean reusable;
+
+        Flight(long generation) {
+            this.generation = generation;
+        }
+
+        boolean canJoin(long currentGeneration, long now) {
+            if (generation != currentGeneration) {
+                return false;
+            }
+            return !result.isDone() || (reusable && now - freshUntil <= 0);
+        }
+    }
+
+    private SingleFlight(String repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Coalescing for one repository; hold the result in a static field
+     */
+    static SingleFlight forRepository(String repository) {
+        return new SingleFlight(repository);
+    }
+
+    /**
+     * Applies single-flight.* settings
+     * @param staleMillis How long a completed result is reused, 0 to only share queries still running
+     */
+    public static void configure(boolean enabled, long staleMillis) {
+        SingleFlight.enabled = enabled;
+        SingleFlight.staleNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, staleMillis));
+    }
+
+    /**
+     * Ends sharing of every query started so far; called after each write
+     */
+    static void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Query and sharing counts for monitoring
+     */
+    public static Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("stale_ms", TimeUnit.NANOSECONDS.toMillis(staleNanos));
+        stats.put("executed", executed.sum());
+        stats.put("joined", joined.sum());
+        stats.put("reused", reused.sum());
+        return stats;
+    }
+
+    /**
+     * Shared list query without arguments
+     */
+    <T> List<T> list(Database database, String method, Supplier<List<T>> body) {
+        return list(database, method, null, body);
+    }
+
+    /**
+     * Shared list query; the result is unmodifiable
+     * @param argument The method's argument, compared with equals
+     */
+    <T> List<T> list(Database database, String method, Object argument, Supplier<List<T>> body) {
+        return value(database, method, argument, () -> Collections.unmodifiableList(body.get()));
+    }
+
+    /**
+     * Shared query for an immutable value, e.g. a count
+     */
+    @SuppressWarnings("unchecked")
+    <T> T value(Database database, String method, Object argument, Supplier<T> body) {
+        if (!enabled) {
+            return body.get();
+        }
+        Key key = new Key(database.getUrl(), method, argument);
+        long currentGeneration = generation.get();
+        while (true) {
+            Flight flight = flights.get(key);
+            if (flight != null && flight.canJoin(currentGeneration, System.nanoTime())) {
+                (flight.result.isDone() ? reused : joined).increment();
+                return (T) await(flight);
+            }
+            Flight mine = new Flight(currentGeneration);
+            boolean installed = flight == null
+                    ? flights.putIfAbsent(key, mine) == null
+                    : flights.replace(key, flight, mine);
+            if (installed) {
+                return run(key, mine, body);
+            }
+        }
+    }
+
+    private <T> T run(Key key, Flight flight, Supplier<T> body) {
+        executed.increment();
+        T value;
+        try {
+            value = body.get();
+        } catch (RuntimeException | Error e) {
+            flights.remove(key, flight);
+            flight.result.completeExceptionally(e);
+            throw e;
+        }
+        // A finder that logged an SQLException returns an empty result; share it with
+        // those already waiting, but do not hand it to anyone later
+        flight.reusable = staleNanos > 0 && !RepositoryMetrics.currentFailed();
+        flight.freshUntil = System.nanoTime() + staleNanos;
+        flight.result.complete(value);
+        if (!flight.reusable) {
+            flights.remove(key, flight);
+        } else if (flights.size() > MAX_KEYS) {
+            sweep();
+        }
+        return value;
+    }
+
+    private static Object await(Flight flight) {
+        try {
+            return flight.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Drops completed results that can no longer be reused
+     */
+    private void sweep() {
+        long currentGeneration = generation.get();
+        long now = System.nanoTime();
+        flights.entrySet().removeIf(entry -> entry.getValue().result.isDone()
+                && !entry.getValue().canJoin(currentGeneration, now));
+    }
+
+    @Override
+    public String toString() {
+        return "SingleFlight[" + repository + ", " + flights.size() + " keys]";
+    }
+}
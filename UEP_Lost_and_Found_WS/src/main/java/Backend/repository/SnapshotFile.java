@@ -0,0 +1,454 @@
+package Backend.repository;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Snapshot file: tables stored as compressed, checksummed column blocks
+ *
+ *   file   = "UEPSNAP" version created-millis table* 'Z' table-count crc32(file so far)
+ *   table  = 'T' name column-count (column-name type)* block* 'E' row-count
+ *   block  = 'B' rows raw-length packed-length crc32(raw) deflate(raw)
+ *   raw    = per column: null bitmap, then its non-null values
+ *
+ * Laying a block out column by column puts like values together; ids, dates
+ * and timestamps are zigzag varint deltas, mostly one byte in primary key
+ * order, before deflate. A block is checked against its CRC-32 before any of
+ * its rows are used; the end markers carry counts and the file as a whole
+ * has a CRC-32, so a truncated file or a damaged header is caught too.
+ */
+final class SnapshotFile {
+
+    static final int VERSION = 1;
+    private static final byte[] MAGIC = "UEPSNAP".getBytes(StandardCharsets.US_ASCII);
+    private static final byte TABLE = 'T';
+    private static final byte BLOCK = 'B';
+    private static final byte TABLE_END = 'E';
+    private static final byte FILE_END = 'Z';
+    // Larger sizes in a block header can only come from corruption
+    private static final int MAX_BLOCK_BYTES = 256 * 1024 * 1024;
+    private static final int MAX_BLOCK_ROWS = 1 << 20;
+
+    enum Type {
+        LONG, STRING, DATE, TIMESTAMP, BOOLEAN, BYTES;
+
+        /**
+         * Snapshot type for a JDBC column type
+         */
+        static Type of(int sqlType) {
+            switch (sqlType) {
+                case Types.TINYINT: case Types.SMALLINT: case Types.INTEGER: case Types.BIGINT:
+                    return LONG;
+                case Types.DATE:
+                    return DATE;
+                case Types.TIMESTAMP: case Types.TIMESTAMP_WITH_TIMEZONE:
+                    return TIMESTAMP;
+                case Types.BOOLEAN: case Types.BIT:
+                    return BOOLEAN;
+                case Types.BINARY: case Types.VARBINARY: case Types.LONGVARBINARY: case Types.BLOB:
+                    return BYTES;
+                default:
+                    return STRING;
+            }
+        }
+    }
+
+    record Column(String name, Type type) {}
+
+    record Table(String name, List<Column> columns) {}
+
+    private SnapshotFile() {}
+
+    /**
+     * Writes tables one after another, a block of rows at a time
+     * Values are Long, String, LocalDate, LocalDateTime, Boolean or byte[]
+     * according to the column type, or null.
+     */
+    static final class Writer implements Closeable {
+        private final DataOutputStream out;
+        private final CRC32 fileCrc = new CRC32();
+        private final int blockRows;
+        private final Deflater deflater = new Deflater();
+        private final List<Object[]> rows = new ArrayList<>();
+        private List<Column> columns;
+        private long tableRows;
+        private int tables;
+        private byte[] packed = new byte[64 * 1024];
+
+        Writer(OutputStream out, int blockRows) throws IOException {
+            this.out = new DataOutputStream(new CheckedOutputStream(out, fileCrc));
+            this.blockRows = Math.min(MAX_BLOCK_ROWS, Math.max(1, blockRows));
+            this.out.write(MAGIC);
+            this.out.writeByte(VERSION);
+            this.out.writeLong(System.currentTimeMillis());
+        }
+
+        void startTable(String name, List<Column> columns) throws IOException {
+            this.columns = columns;
+            this.tableRows = 0;
+            out.writeByte(TABLE);
+            out.writeUTF(name);
+            out.writeInt(columns.size());
+            for (Column column : columns) {
+                out.writeUTF(column.name());
+                out.writeByte(column.type().ordinal());
+            }
+        }
+
+        void addRow(Object[] values) throws IOException {
+            rows.add(values);
+            if (rows.size() >= blockRows) {
+                flushBlock();
+            }
+        }
+
+        void endTable() throws IOException {
+            flushBlock();
+            out.writeByte(TABLE_END);
+            out.writeLong(tableRows);
+            tables++;
+        }
+
+        /**
+         * Writes the end marker; the stream itself is left open
+         */
+        void finish() throws IOException {
+            out.writeByte(FILE_END);
+            out.writeInt(tables);
+            out.writeInt((int) fileCrc.getValue());
+            out.flush();
+        }
+
+        @Override
+        public void close() {
+            deflater.end();
+        }
+
+        private void flushBlock() throws IOException {
+            if (rows.isEmpty()) {
+                return;
+            }
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(rows.size() * columns.size() * 4);
+            for (int c = 0; c < columns.size(); c++) {
+                encodeColumn(buffer, columns.get(c).type(), c);
+            }
+            byte[] raw = buffer.toByteArray();
+            CRC32 crc = new CRC32();
+            crc.update(raw);
+
+            deflater.reset();
+            deflater.setInput(raw);
+            deflater.finish();
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == packed.length) {
+                    packed = Arrays.copyOf(packed, packed.length * 2);
+                }
+                length += deflater.deflate(packed, length, packed.length - length);
+            }
+
+            out.writeByte(BLOCK);
+            out.writeInt(rows.size());
+            out.writeInt(raw.length);
+            out.writeInt(length);
+            out.writeInt((int) crc.getValue());
+            out.write(packed, 0, length);
+            tableRows += rows.size();
+            rows.clear();
+        }
+
+        private void encodeColumn(ByteArrayOutputStream buffer, Type type, int c) {
+            byte[] nulls = new byte[(rows.size() + 7) / 8];
+            for (int r = 0; r < rows.size(); r++) {
+                if (rows.get(r)[c] == null) {
+                    nulls[r >> 3] |= (byte) (1 << (r & 7));
+                }
+            }
+            buffer.writeBytes(nulls);
+
+            long previous = 0;
+            for (Object[] row : rows) {
+                Object value = row[c];
+                if (value == null) {
+                    continue;
+                }
+                switch (type) {
+                    case LONG:
+                        long number = ((Number) value).longValue();
+                        writeVarLong(buffer, zigzag(number - previous));
+                        previous = number;
+                        break;
+                    case DATE:
+                        long day = ((LocalDate) value).toEpochDay();
+                        writeVarLong(buffer, zigzag(day - previous));
+                        previous = day;
+                        break;
+                    case TIMESTAMP:
+                        LocalDateTime time = (LocalDateTime) value;
+                        long second = time.toEpochSecond(ZoneOffset.UTC);
+                        writeVarLong(buffer, zigzag(second - previous));
+                        writeVarLong(buffer, time.getNano());
+                        previous = second;
+                        break;
+                    case BOOLEAN:
+                        buffer.write((Boolean) value ? 1 : 0);
+                        break;
+                    case BYTES:
+                        byte[] bytes = (byte[]) value;
+                        writeVarLong(buffer, bytes.length);
+                        buffer.writeBytes(bytes);
+                        break;
+                    default:
+                        byte[] text = value.toString().getBytes(StandardCharsets.UTF_8);
+                        writeVarLong(buffer, text.length);
+                        buffer.writeBytes(text);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads tables in file order; every block is verified before it is returned
+     */
+    static final class Reader implements Closeable {
+        private final DataInputStream in;
+        private final CRC32 fileCrc = new CRC32();
+        private final Inflater inflater = new Inflater();
+        private final long createdAt;
+        private Table table;
+        private long tableRows;
+        private int blockRows;
+        private int tables;
+        private boolean finished;
+
+        Reader(InputStream in) throws IOException {
+            this.in = new DataInputStream(new CheckedInputStream(in, fileCrc));
+            byte[] magic = new byte[MAGIC.length];
+            this.in.readFully(magic);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new IOException("Not a snapshot file");
+            }
+            int version = this.in.readUnsignedByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported snapshot version " + version);
+            }
+            this.createdAt = this.in.readLong();
+        }
+
+        long getCreatedAt() {
+            return createdAt;
+        }
+
+        /**
+         * Header of the next table, or null after the last one
+         * Blocks of the current table that were not read are skipped.
+         */
+        Table nextTable() throws IOException {
+            while (table != null) {
+                readBlock();
+            }
+            if (finished) {
+                return null;
+            }
+            byte marker = in.readByte();
+            if (marker == FILE_END) {
+                if (in.readInt() != tables) {
+                    throw new IOException("Corrupt snapshot: table count does not match");
+                }
+                int crc = (int) fileCrc.getValue();
+                if (in.readInt() != crc) {
+                    throw new IOException("Corrupt snapshot: file checksum mismatch");
+                }
+                finished = true;
+                return null;
+            }
+            if (marker != TABLE) {
+                throw new IOException("Corrupt snapshot: expected a table, found marker " + marker);
+            }
+            String name = in.readUTF();
+            int count = in.readInt();
+            if (count < 0 || count > 1000) {
+                throw new IOException("Corrupt snapshot: " + count + " columns in " + name);
+            }
+            List<Column> columns = new ArrayList<>(count);
+            Type[] types = Type.values();
+            for (int i = 0; i < count; i++) {
+                String column = in.readUTF();
+                int type = in.readUnsignedByte();
+                if (type >= types.length) {
+                    throw new IOException("Corrupt snapshot: unknown type " + type + " of " + name + "." + column);
+                }
+                columns.add(new Column(column, types[type]));
+            }
+            table = new Table(name, List.copyOf(columns));
+            tableRows = 0;
+            return table;
+        }
+
+        /**
+         * Rows of the next block of the current table, or null at its end
+         */
+        List<Object[]> nextBlock() throws IOException {
+            byte[] raw = readBlock();
+            return raw != null ? decode(raw, blockRows) : null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            inflater.end();
+            in.close();
+        }
+
+        /**
+         * Verified raw bytes of the next block, or null at the table end marker
+         */
+        private byte[] readBlock() throws IOException {
+            if (table == null) {
+                throw new IllegalStateException("No current table");
+            }
+            byte marker = in.readByte();
+            if (marker == TABLE_END) {
+                if (in.readLong() != tableRows) {
+                    throw new IOException("Corrupt snapshot: row count of " + table.name() + " does not match");
+                }
+                table = null;
+                tables++;
+                return null;
+            }
+            if (marker != BLOCK) {
+                throw new IOException("Corrupt snapshot: expected a block of " + table.name() + ", found marker " + marker);
+            }
+            int rows = in.readInt();
+            int rawLength = in.readInt();
+            int packedLength = in.readInt();
+            int crc = in.readInt();
+            if (rows <= 0 || rows > MAX_BLOCK_ROWS || rawLength < 0 || rawLength > MAX_BLOCK_BYTES || packedLength < 0 || packedLength > MAX_BLOCK_BYTES) {
+                throw new IOException("Corrupt snapshot: bad block header in " + table.name());
+            }
+            byte[] packed = new byte[packedLength];
+            in.readFully(packed);
+
+            byte[] raw = new byte[rawLength];
+            inflater.reset();
+            inflater.setInput(packed);
+            try {
+                int length = 0;
+                while (length < rawLength && !inflater.finished()) {
+                    int n = inflater.inflate(raw, length, rawLength - length);
+                    if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        break;
+                    }
+                    length += n;
+                }
+                if (length != rawLength) {
+                    throw new IOException("Corrupt snapshot: block of " + table.name() + " is truncated");
+                }
+            } catch (DataFormatException e) {
+                throw new IOException("Corrupt snapshot: block of " + table.name() + " does not inflate", e);
+            }
+            CRC32 check = new CRC32();
+            check.update(raw);
+            if ((int) check.getValue() != crc) {
+                throw new IOException("Corrupt snapshot: checksum mismatch in " + table.name());
+            }
+            tableRows += rows;
+            blockRows = rows;
+            return raw;
+        }
+
+        private List<Object[]> decode(byte[] raw, int rows) throws IOException {
+            List<Column> columns = table.columns();
+            Object[][] values = new Object[rows][columns.size()];
+            int[] position = {0};
+            try {
+                for (int c = 0; c < columns.size(); c++) {
+                    int bitmap = position[0];
+                    position[0] += (rows + 7) / 8;
+                    long previous = 0;
+                    for (int r = 0; r < rows; r++) {
+                        if ((raw[bitmap + (r >> 3)] & (1 << (r & 7))) != 0) {
+                            continue;
+                        }
+                        switch (columns.get(c).type()) {
+                            case LONG:
+                                previous += unzigzag(readVarLong(raw, position));
+                                values[r][c] = previous;
+                                break;
+                            case DATE:
+                                previous += unzigzag(readVarLong(raw, position));
+                                values[r][c] = LocalDate.ofEpochDay(previous);
+                                break;
+                            case TIMESTAMP:
+                                previous += unzigzag(readVarLong(raw, position));
+                                values[r][c] = LocalDateTime.ofEpochSecond(previous, (int) readVarLong(raw, position), ZoneOffset.UTC);
+                                break;
+                            case BOOLEAN:
+                                values[r][c] = raw[position[0]++] != 0;
+                                break;
+                            case BYTES:
+                                int size = (int) readVarLong(raw, position);
+                                values[r][c] = Arrays.copyOfRange(raw, position[0], position[0] + size);
+                                position[0] += size;
+                                break;
+                            default:
+                                int length = (int) readVarLong(raw, position);
+                                values[r][c] = new String(raw, position[0], length, StandardCharsets.UTF_8);
+                                position[0] += length;
+                        }
+                    }
+                }
+            } catch (ArrayIndexOutOfBoundsException e) {
+                throw new EOFException("Corrupt snapshot: block of " + table.name() + " ends early");
+            }
+            return Arrays.asList(values);
+        }
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(byte[] in, int[] position) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in[position[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new ArrayIndexOutOfBoundsException("Varint too long");
+    }
+}
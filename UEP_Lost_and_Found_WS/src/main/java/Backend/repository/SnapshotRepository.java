@@ -0,0 +1,479 @@
+package Backend.repository;
+
+import Backend.config.Database;
+import Backend.config.DatabaseBackend;
+import org.springframework.stereotype.Repository;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Backs the data tables up into a snapshot file and restores them from one
+ * A backup reads every table in one consistent-snapshot transaction, so
+ * users, items, claims and the upload files they reference are as of a
+ * single instant while the application keeps writing. A restore checks the
+ * whole file first, then empties the tables and bulk-loads them with batched
+ * inserts, foreign key checks off and secondary indexes dropped until the
+ * rows are in. Upload files themselves are not part of the snapshot, only
+ * their paths and sizes, so a restore can report the ones that are missing.
+ */
+@Repository
+public class SnapshotRepository {
+
+    private static final Logger logger = Logger.getLogger(SnapshotRepository.class.getName());
+    private static final RepositoryMetrics metrics = RepositoryMetrics.forRepository("snapshot");
+
+    /**
+     * Tables in the snapshot, parents first, each with the key it is read in
+     * order of; file_deletions is a work queue for this node, not data
+     */
+    private static final Map<String, String> TABLES = tables(
+            "users", "id",
+            "items", "id",
+            "item_fingerprint_bands", "item_id, band_key",
+            "claims", "id",
+            "items_archive", "id",
+            "claims_archive", "id",
+            "claim_turnaround_sketches", "week_start, approver");
+
+    /**
+     * Pseudo-table of upload files referenced by items: path and size in bytes
+     */
+    static final String UPLOADS = "uploads";
+    private static final List<SnapshotFile.Column> UPLOAD_COLUMNS = List.of(
+            new SnapshotFile.Column("path", SnapshotFile.Type.STRING),
+            new SnapshotFile.Column("size", SnapshotFile.Type.LONG));
+    private static final int MISSING_UPLOADS_LISTED = 100;
+
+    private Database database;
+
+    /**
+     * What a restore loaded
+     * @param rows Rows per table, in restore order
+     * @param uploads Upload files the snapshot references
+     * @param missingUploads How many of those are not on this node's disk
+     * @param missingUploadPaths The first missing paths, for the log and the admin
+     */
+    public record RestoreResult(Map<String, Long> rows, long uploads, long missingUploads,
+                                List<String> missingUploadPaths, long createdAt) {}
+
+    public SnapshotRepository() {
+        this.database = new Database();
+    }
+
+    /**
+     * Writes a consistent snapshot of all tables and referenced uploads
+     * @param blockRows Rows per compressed block
+     * @param fetchSize Rows per round trip while reading
+     * @return Rows written per table, uploads included
+     * @throws IOException If the output could not be written
+     */
+    public Map<String, Long> backup(OutputStream out, int blockRows, int fetchSize) throws IOException {
+        try {
+            return metrics.time("backup", () -> {
+                Map<String, Long> rows = new LinkedHashMap<>();
+                DatabaseBackend backend = database.getBackend();
+                try (Connection conn = database.getConnection();
+                     SnapshotFile.Writer writer = new SnapshotFile.Writer(out, blockRows)) {
+                    backend.beginConsistentSnapshot(conn);
+                    try {
+                        for (Map.Entry<String, String> table : TABLES.entrySet()) {
+                            rows.put(table.getKey(), backupTable(conn, writer, table.getKey(), table.getValue(), fetchSize));
+                        }
+                        rows.put(UPLOADS, backupUploads(conn, writer, fetchSize));
+                        writer.finish();
+                        conn.commit();
+                    } catch (SQLException | IOException | RuntimeException e) {
+                        conn.rollback();
+                        throw e;
+                    } finally {
+                        conn.setAutoCommit(true);
+                    }
+                } catch (SQLException e) {
+                    logger.log(Level.SEVERE, "Error writing snapshot", e);
+                    RepositoryMetrics.error(e);
+                    throw new RuntimeException("Failed to write snapshot", e);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return rows;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Reads a snapshot file through, checking every block, without touching the database
+     * @return Rows per table, uploads included
+     * @throws IOException If the file is corrupt, truncated or not a snapshot
+     */
+    public Map<String, Long> verify(Path file) throws IOException {
+        Map<String, Long> rows = new LinkedHashMap<>();
+        try (SnapshotFile.Reader reader = open(file)) {
+            SnapshotFile.Table table;
+            while ((table = reader.nextTable()) != null) {
+                long count = 0;
+                List<Object[]> block;
+                while ((block = reader.nextBlock()) != null) {
+                    count += block.size();
+                }
+                rows.merge(table.name(), count, Long::sum);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Replaces the contents of all snapshot tables with those of the file
+     * The file is verified before anything is deleted. Rows are committed a
+     * batch at a time, so a restore that fails part way leaves partial
+     * tables; restoring again from a good file repairs them. Columns the
+     * file has and the table no longer has are skipped, as are unknown tables.
+     * @param batchSize Rows per INSERT batch and commit
+     * @throws IOException If the file is corrupt or unreadable; nothing has been changed then
+     */
+    public RestoreResult restore(Path file, int batchSize) throws IOException {
+        verify(file);
+        try {
+            return metrics.time("restore", () -> {
+                try (SnapshotFile.Reader reader = open(file)) {
+                    RestoreResult result = load(reader, Math.max(1, batchSize));
+                    RepositoryEvents.dataReplaced();
+                    return result;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private long backupTable(Connection conn, SnapshotFile.Writer writer, String table, String key, int fetchSize)
+            throws SQLException, IOException {
+        String sql = "SELECT * FROM " + table + " ORDER BY " + key;
+        long rows = 0;
+        try (PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(database.getBackend().getStreamingFetchSize(fetchSize));
+            try (ResultSet rs = stmt.executeQuery()) {
+                ResultSetMetaData meta = rs.getMetaData();
+                List<SnapshotFile.Column> columns = new ArrayList<>();
+                for (int i = 1; i <= meta.getColumnCount(); i++) {
+                    columns.add(new SnapshotFile.Column(meta.getColumnLabel(i).toLowerCase(),
+                            SnapshotFile.Type.of(meta.getColumnType(i))));
+                }
+                writer.startTable(table, columns);
+                while (rs.next()) {
+                    Object[] values = new Object[columns.size()];
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] = read(rs, i + 1, columns.get(i).type());
+                    }
+                    writer.addRow(values);
+                    rows++;
+                }
+                writer.endTable();
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Paths as ItemRepository.findReferencedImages, read in the same snapshot
+     */
+    private long backupUploads(Connection conn, SnapshotFile.Writer writer, int fetchSize) throws SQLException, IOException {
+        String sql = "SELECT image FROM items WHERE image IS NOT NULL " +
+                     "UNION SELECT image FROM items_archive WHERE image IS NOT NULL ORDER BY image";
+        long rows = 0;
+        writer.startTable(UPLOADS, UPLOAD_COLUMNS);
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setFetchSize(database.getBackend().getStreamingFetchSize(fetchSize));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String image = rs.getString(1);
+                    writer.addRow(new Object[] {image, uploadSize(image)});
+                    rows++;
+                }
+            }
+        }
+        writer.endTable();
+        return rows;
+    }
+
+    private RestoreResult load(SnapshotFile.Reader reader, int batchSize) throws IOException {
+        Map<String, Long> rows = new LinkedHashMap<>();
+        long uploads = 0;
+        long missing = 0;
+        List<String> missingPaths = new ArrayList<>();
+        DatabaseBackend backend = database.getBackend();
+
+        try (Connection conn = database.getConnection();
+             Statement stmt = conn.createStatement()) {
+            for (String sql : backend.getBulkLoadStart()) {
+                stmt.execute(sql);
+            }
+            List<String[]> deferred = new ArrayList<>();
+            try {
+                conn.setAutoCommit(false);
+                // Children first; with foreign key checks off nothing cascades
+                List<String> tables = new ArrayList<>(TABLES.keySet());
+                for (int i = tables.size() - 1; i >= 0; i--) {
+                    stmt.execute("TRUNCATE TABLE " + tables.get(i));
+                }
+                for (String table : tables) {
+                    deferred.addAll(dropSecondaryIndexes(conn, stmt, table));
+                }
+                conn.commit();
+
+                SnapshotFile.Table table;
+                while ((table = reader.nextTable()) != null) {
+                    if (UPLOADS.equals(table.name())) {
+                        List<Object[]> block;
+                        while ((block = reader.nextBlock()) != null) {
+                            for (Object[] upload : block) {
+                                uploads++;
+                                String path = (String) upload[0];
+                                if (!Files.exists(Paths.get(path))) {
+                                    if (missing++ < MISSING_UPLOADS_LISTED) {
+                                        missingPaths.add(path);
+                                    }
+                                }
+                            }
+                        }
+                    } else if (TABLES.containsKey(table.name())) {
+                        rows.put(table.name(), loadTable(conn, reader, table, batchSize));
+                    } else {
+                        logger.warning("Skipping table " + table.name() + " of snapshot: not in this schema");
+                    }
+                }
+
+                // Queued deletions of files the restored rows reference again
+                stmt.executeUpdate("DELETE FROM file_deletions WHERE path IN " +
+                                   "(SELECT image FROM items WHERE image IS NOT NULL " +
+                                   "UNION SELECT image FROM items_archive WHERE image IS NOT NULL)");
+                conn.commit();
+            } catch (SQLException | IOException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+                recreateIndexes(stmt, deferred);
+                for (String sql : backend.getBulkLoadEnd()) {
+                    stmt.execute(sql);
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error restoring snapshot", e);
+            RepositoryMetrics.error(e);
+            throw new RuntimeException("Failed to restore snapshot", e);
+        }
+        return new RestoreResult(rows, uploads, missing, missingPaths, reader.getCreatedAt());
+    }
+
+    private long loadTable(Connection conn, SnapshotFile.Reader reader, SnapshotFile.Table table, int batchSize)
+            throws SQLException, IOException {
+        Map<String, Integer> current = columnTypes(conn, table.name());
+        List<Integer> positions = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < table.columns().size(); i++) {
+            String name = table.columns().get(i).name();
+            if (current.containsKey(name)) {
+                positions.add(i);
+                names.add(name);
+            } else {
+                logger.warning("Skipping column " + table.name() + "." + name + " of snapshot: not in this schema");
+            }
+        }
+
+        String sql = "INSERT INTO " + table.name() + " (" + String.join(", ", names) + ") VALUES (" +
+                     String.join(", ", Collections.nCopies(names.size(), "?")) + ")";
+        long rows = 0;
+        int pending = 0;
+        try (PreparedStatement insert = conn.prepareStatement(sql)) {
+            List<Object[]> block;
+            while ((block = reader.nextBlock()) != null) {
+                for (Object[] values : block) {
+                    for (int p = 0; p < positions.size(); p++) {
+                        bind(insert, p + 1, values[positions.get(p)], current.get(names.get(p)));
+                    }
+                    insert.addBatch();
+                    rows++;
+                    if (++pending == batchSize) {
+                        insert.executeBatch();
+                        conn.commit();
+                        pending = 0;
+                    }
+                }
+            }
+            if (pending > 0) {
+                insert.executeBatch();
+                conn.commit();
+            }
+        }
+        logger.info("Restored " + rows + " rows into " + table.name());
+        return rows;
+    }
+
+    /**
+     * Drops the table's non-unique indexes that no foreign key depends on
+     * @return Indexes dropped, as {table, name, columns}, to be created again afterwards
+     */
+    private List<String[]> dropSecondaryIndexes(Connection conn, Statement stmt, String table) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        Set<String> foreignKeyColumns = new LinkedHashSet<>();
+        try (ResultSet rs = meta.getImportedKeys(conn.getCatalog(), conn.getSchema(), table)) {
+            while (rs.next()) {
+                foreignKeyColumns.add(rs.getString("FKCOLUMN_NAME").toLowerCase());
+            }
+        }
+        Map<String, TreeMap<Integer, String>> indexes = new LinkedHashMap<>();
+        try (ResultSet rs = meta.getIndexInfo(conn.getCatalog(), conn.getSchema(), table, false, false)) {
+            while (rs.next()) {
+                String name = rs.getString("INDEX_NAME");
+                String column = rs.getString("COLUMN_NAME");
+                if (rs.getBoolean("NON_UNIQUE") && name != null && column != null) {
+                    indexes.computeIfAbsent(name, n -> new TreeMap<>()).put((int) rs.getShort("ORDINAL_POSITION"), column.toLowerCase());
+                }
+            }
+        }
+
+        List<String[]> dropped = new ArrayList<>();
+        for (Map.Entry<String, TreeMap<Integer, String>> index : indexes.entrySet()) {
+            // An index a foreign key needs cannot be dropped while the key exists
+            if (foreignKeyColumns.contains(index.getValue().firstEntry().getValue())) {
+                continue;
+            }
+            stmt.execute("DROP INDEX " + index.getKey() + " ON " + table);
+            dropped.add(new String[] {table, index.getKey(), String.join(", ", index.getValue().values())});
+        }
+        return dropped;
+    }
+
+    /**
+     * Builds the dropped indexes again, each in one pass over the loaded table
+     * Runs even when the load failed, so the schema is never left without them.
+     */
+    private void recreateIndexes(Statement stmt, List<String[]> indexes) {
+        DatabaseBackend backend = database.getBackend();
+        for (String[] index : indexes) {
+            try {
+                stmt.execute("CREATE INDEX " + index[1] + " ON " + index[0] + " (" + index[2] + ")");
+            } catch (SQLException e) {
+                if (!backend.isAlreadyExists(e)) {
+                    logger.log(Level.SEVERE, "Could not recreate index " + index[1] + " on " + index[0], e);
+                    RepositoryMetrics.error(e);
+                }
+            }
+        }
+    }
+
+    private static Map<String, Integer> columnTypes(Connection conn, String table) throws SQLException {
+        Map<String, Integer> columns = new HashMap<>();
+        try (ResultSet rs = conn.getMetaData().getColumns(conn.getCatalog(), conn.getSchema(), table, null)) {
+            while (rs.next()) {
+                columns.put(rs.getString("COLUMN_NAME").toLowerCase(), rs.getInt("DATA_TYPE"));
+            }
+        }
+        return columns;
+    }
+
+    private static Object read(ResultSet rs, int column, SnapshotFile.Type type) throws SQLException {
+        switch (type) {
+            case LONG:
+                long number = rs.getLong(column);
+                return rs.wasNull() ? null : number;
+            case BOOLEAN:
+                boolean flag = rs.getBoolean(column);
+                return rs.wasNull() ? null : flag;
+            case DATE:
+                Date date = rs.getDate(column);
+                return date != null ? date.toLocalDate() : null;
+            case TIMESTAMP:
+                Timestamp timestamp = rs.getTimestamp(column);
+                return timestamp != null ? timestamp.toLocalDateTime() : null;
+            case BYTES:
+                return rs.getBytes(column);
+            default:
+                return rs.getString(column);
+        }
+    }
+
+    private static void bind(PreparedStatement stmt, int index, Object value, int sqlType) throws SQLException {
+        if (value == null) {
+            stmt.setNull(index, sqlType);
+        } else if (value instanceof Long number) {
+            stmt.setLong(index, number);
+        } else if (value instanceof Boolean flag) {
+            stmt.setBoolean(index, flag);
+        } else if (value instanceof LocalDate date) {
+            stmt.setDate(index, Date.valueOf(date));
+        } else if (value instanceof LocalDateTime dateTime) {
+            stmt.setTimestamp(index, Timestamp.valueOf(dateTime));
+        } else if (value instanceof byte[] bytes) {
+            stmt.setBytes(index, bytes);
+        } else {
+            stmt.setString(index, value.toString());
+        }
+    }
+
+    // Null when the file is not there, e.g. on a node that never had it
+    private static Long uploadSize(String path) {
+        try {
+            return Files.size(Paths.get(path));
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static SnapshotFile.Reader open(Path file) throws IOException {
+        InputStream in = new BufferedInputStream(Files.newInputStream(file), 64 * 1024);
+        try {
+            return new SnapshotFile.Reader(in);
+        } catch (IOException | RuntimeException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    private static Map<String, String> tables(String... tableAndKey) {
+        Map<String, String> tables = new LinkedHashMap<>();
+        for (int i = 0; i < tableAndKey.length; i += 2) {
+            tables.put(tableAndKey[i], tableAndKey[i + 1]);
+        }
+        return tables;
+    }
+
+    /**
+     * Get database instance for testing
+     */
+    public Database getDatabase() {
+        return database;
+    }
+
+    /**
+     * Set database instance for testing
+     */
+    public void setDatabase(Database database) {
+        this.database = database;
+    }
+}
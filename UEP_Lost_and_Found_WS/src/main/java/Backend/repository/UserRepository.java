@@ -18,8 +18,23 @@ import java.util.logging.Logger;
 public class UserRepository {
     
     private static final Logger logger = Logger.getLogger(UserRepository.class.getName());
+    private static final RepositoryMetrics metrics = RepositoryMetrics.forRepository("user");
+    private static final SingleFlight flights = SingleFlight.forRepository("user");
     private Database database;
 
+    /**
+     * Admin directory filters; null fields do not filter
+     * @param prefix Start of the last name, first name, username or email
+     * @param type User type, e.g. Student
+     * @param status Account status, e.g. Active
+     */
+    public record DirectoryFilter(String prefix, String type, String status) {}
+
+    /**
+     * Position after the last user of a directory page, in (lname, fname, id) order
+     */
+    public record DirectoryCursor(String lname, String fname, long id) {}
+
     public UserRepository() {
         this.database = new Database();
     }
@@ -28,114 +43,238 @@ public class UserRepository {
      * Find user by ID
      */
     public Optional<User> findById(Long id) {
-        String sql = "SELECT * FROM users WHERE id = ?";
+        return metrics.time("findById", () -> {
+            String sql = "SELECT * FROM users WHERE id = ?";
         
-        try (Connection conn = database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (Connection conn = database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setLong(1, id);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return Optional.of(mapResultSetToUser(rs));
+                stmt.setLong(1, id);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        return Optional.of(mapResultSetToUser(rs));
+                    }
                 }
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Error finding user by ID: " + id, e);
+                RepositoryMetrics.error(e);
             }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error finding user by ID: " + id, e);
-        }
-        return Optional.empty();
+            return Optional.empty();
+        });
     }
 
     /**
      * Find user by username
      */
     public Optional<User> findByUsername(String username) {
-        String sql = "SELECT * FROM users WHERE username = ?";
+        return metrics.time("findByUsername", () -> {
+            String sql = "SELECT * FROM users WHERE username = ?";
         
-        try (Connection conn = database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (Connection conn = database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setString(1, username);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return Optional.of(mapResultSetToUser(rs));
+                stmt.setString(1, username);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        return Optional.of(mapResultSetToUser(rs));
+                    }
                 }
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Error finding user by username: " + username, e);
+                RepositoryMetrics.error(e);
             }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error finding user by username: " + username, e);
-        }
-        return Optional.empty();
+            return Optional.empty();
+        });
     }
 
     /**
      * Find user by email
      */
     public Optional<User> findByEmail(String email) {
-        String sql = "SELECT * FROM users WHERE email = ?";
+        return metrics.time("findByEmail", () -> {
+            String sql = "SELECT * FROM users WHERE email = ?";
         
-        try (Connection conn = database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (Connection conn = database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setString(1, email);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return Optional.of(mapResultSetToUser(rs));
+                stmt.setString(1, email);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        return Optional.of(mapResultSetToUser(rs));
+                    }
                 }
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Error finding user by email: " + email, e);
+                RepositoryMetrics.error(e);
             }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error finding user by email: " + email, e);
-        }
-        return Optional.empty();
+            return Optional.empty();
+        });
     }
 
     /**
      * Find all users
      */
     public List<User> findAll() {
-        List<User> users = new ArrayList<>();
-        String sql = "SELECT * FROM users ORDER BY lname, fname";
+        return metrics.time("findAll", () -> flights.list(database, "findAll", () -> {
+            List<User> users = new ArrayList<>();
+            String sql = "SELECT * FROM users ORDER BY lname, fname";
         
-        try (Connection conn = database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
+            try (Connection conn = database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql);
+                 ResultSet rs = stmt.executeQuery()) {
             
-            while (rs.next()) {
-                users.add(mapResultSetToUser(rs));
+                while (rs.next()) {
+                    users.add(mapResultSetToUser(rs));
+                }
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Error finding all users", e);
+                RepositoryMetrics.error(e);
             }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error finding all users", e);
+            return users;
+        }));
+    }
+
+    /**
+     * One page of the admin directory, ordered by last name, first name and id
+     * Keyset pagination: the page starts right after the cursor, so any page
+     * costs an index seek plus limit rows, however deep into the list it is.
+     * @param after Last user of the previous page, or null for the first page
+     */
+    public List<User> findDirectoryPage(DirectoryFilter filter, DirectoryCursor after, int limit) {
+        return metrics.time("findDirectoryPage", () -> {
+            List<User> users = new ArrayList<>();
+            List<Object> params = new ArrayList<>();
+            StringBuilder sql = new StringBuilder(directoryQuery("u.*", filter, params));
+            if (after != null) {
+                sql.append(" AND (u.lname, u.fname, u.id) > (?, ?, ?)");
+                params.add(after.lname());
+                params.add(after.fname());
+                params.add(after.id());
+            }
+            sql.append(" ORDER BY u.lname, u.fname, u.id LIMIT ?");
+            params.add(limit);
+
+            try (Connection conn = database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+
+                for (int i = 0; i < params.size(); i++) {
+                    stmt.setObject(i + 1, params.get(i));
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        users.add(mapResultSetToUser(rs));
+                    }
+                }
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Error finding user directory page", e);
+                RepositoryMetrics.error(e);
+                throw new RuntimeException("Failed to find users", e);
+            }
+            return users;
+        });
+    }
+
+    /**
+     * Number of users matching the filter, counting no further than cap
+     * Returns cap + 1 when there are more, so the cost stays bounded on large tables.
+     */
+    public long countDirectory(DirectoryFilter filter, int cap) {
+        return metrics.time("countDirectory", () -> {
+            List<Object> params = new ArrayList<>();
+            String sql = "SELECT COUNT(*) FROM (" + directoryQuery("1", filter, params) + " LIMIT ?) capped";
+            params.add(cap + 1);
+
+            try (Connection conn = database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                for (int i = 0; i < params.size(); i++) {
+                    stmt.setObject(i + 1, params.get(i));
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        return rs.getLong(1);
+                    }
+                }
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Error counting user directory", e);
+                RepositoryMetrics.error(e);
+            }
+            return 0L;
+        });
+    }
+
+    /**
+     * Directory query up to its WHERE conditions, users aliased as u
+     * A prefix search collects matching ids from one index range scan per
+     * column (idx_users_name, idx_users_fname and the unique keys on username
+     * and email) rather than one OR over all four, which no index can serve,
+     * so it reads the matches instead of the whole table.
+     */
+    private static String directoryQuery(String select, DirectoryFilter filter, List<Object> params) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(select);
+        if (filter.prefix() != null) {
+            String pattern = escapeLike(filter.prefix()) + "%";
+            sql.append(" FROM (SELECT id FROM users WHERE lname LIKE ?")
+               .append(" UNION SELECT id FROM users WHERE fname LIKE ?")
+               .append(" UNION SELECT id FROM users WHERE username LIKE ?")
+               .append(" UNION SELECT id FROM users WHERE email LIKE ?) matched")
+               .append(" JOIN users u ON u.id = matched.id");
+            for (int i = 0; i < 4; i++) {
+                params.add(pattern);
+            }
+        } else {
+            sql.append(" FROM users u");
+        }
+        sql.append(" WHERE 1 = 1");
+        if (filter.type() != null) {
+            sql.append(" AND u.type = ?");
+            params.add(filter.type());
+        }
+        if (filter.status() != null) {
+            sql.append(" AND u.status = ?");
+            params.add(filter.status());
         }
-        return users;
+        return sql.toString();
+    }
+
+    // Backslash is the default LIKE escape in both MySQL and H2
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
     }
 
     /**
      * Find users who requested admin access
      */
     public List<User> findByRequestAdminTrue() {
-        List<User> users = new ArrayList<>();
-        String sql = "SELECT * FROM users WHERE request_admin = 1 ORDER BY lname, fname";
+        return metrics.time("findByRequestAdminTrue", () -> flights.list(database, "findByRequestAdminTrue", () -> {
+            List<User> users = new ArrayList<>();
+            String sql = "SELECT * FROM users WHERE request_admin = 1 ORDER BY lname, fname";
         
-        try (Connection conn = database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
+            try (Connection conn = database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql);
+                 ResultSet rs = stmt.executeQuery()) {
             
-            while (rs.next()) {
-                users.add(mapResultSetToUser(rs));
+                while (rs.next()) {
+                    users.add(mapResultSetToUser(rs));
+                }
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Error finding users requesting admin access", e);
+                RepositoryMetrics.error(e);
             }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error finding users requesting admin access", e);
-        }
-        return users;
+            return users;
+        }));
     }
 
     /**
      * Save (create or update) user
      */
     public User save(User user) {
-        if (user.getId() == null) {
-            return create(user);
-        } else {
-            return update(user);
-        }
+        return metrics.time("save", () -> {
+            User saved = user.getId() == null ? create(user) : update(user);
+            // No listener needs user saves, but shared user reads must not outlive them
+            SingleFlight.invalidate();
+            return saved;
+        });
     }
 
     /**
@@ -174,6 +313,7 @@ public class UserRepository {
             
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Error creating user", e);
+            RepositoryMetrics.error(e);
             throw new RuntimeException("Failed to create user", e);
         }
     }
@@ -209,6 +349,7 @@ public class UserRepository {
             
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Error updating user with ID: " + user.getId(), e);
+            RepositoryMetrics.error(e);
             throw new RuntimeException("Failed to update user", e);
         }
     }
@@ -217,76 +358,87 @@ public class UserRepository {
      * Delete user by User object
      */
     public void delete(User user) {
-        if (user != null && user.getId() != null) {
-            deleteById(user.getId());
-        }
+        metrics.run("delete", () -> {
+            if (user != null && user.getId() != null) {
+                deleteById(user.getId());
+            }
+        });
     }
 
     /**
      * Delete user by ID
      */
     public void deleteById(Long id) {
-        String sql = "DELETE FROM users WHERE id = ?";
+        metrics.run("deleteById", () -> {
+            String sql = "DELETE FROM users WHERE id = ?";
         
-        try (Connection conn = database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (Connection conn = database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setLong(1, id);
-            int affectedRows = stmt.executeUpdate();
+                stmt.setLong(1, id);
+                int affectedRows = stmt.executeUpdate();
             
-            if (affectedRows > 0) {
-                logger.info("User deleted successfully with ID: " + id);
-            } else {
-                logger.warning("No user found to delete with ID: " + id);
-            }
+                if (affectedRows > 0) {
+                    logger.info("User deleted successfully with ID: " + id);
+                    RepositoryEvents.userDeleted(id);
+                } else {
+                    logger.warning("No user found to delete with ID: " + id);
+                }
             
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error deleting user with ID: " + id, e);
-            throw new RuntimeException("Failed to delete user", e);
-        }
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Error deleting user with ID: " + id, e);
+                RepositoryMetrics.error(e);
+                throw new RuntimeException("Failed to delete user", e);
+            }
+        });
     }
 
     /**
      * Delete user by username
      */
     public void deleteByUsername(String username) {
-        Optional<User> userOpt = findByUsername(username);
-        if (userOpt.isPresent()) {
-            deleteById(userOpt.get().getId());
-        }
+        metrics.run("deleteByUsername", () -> {
+            Optional<User> userOpt = findByUsername(username);
+            if (userOpt.isPresent()) {
+                deleteById(userOpt.get().getId());
+            }
+        });
     }
 
     /**
      * Count total users
      */
     public long count() {
-        String sql = "SELECT COUNT(*) FROM users";
+        return metrics.time("count", () -> flights.value(database, "count", null, () -> {
+            String sql = "SELECT COUNT(*) FROM users";
         
-        try (Connection conn = database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
+            try (Connection conn = database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql);
+                 ResultSet rs = stmt.executeQuery()) {
             
-            if (rs.next()) {
-                return rs.getLong(1);
+                if (rs.next()) {
+                    return rs.getLong(1);
+                }
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Error counting users", e);
+                RepositoryMetrics.error(e);
             }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error counting users", e);
-        }
-        return 0;
+            return 0L;
+        }));
     }
 
     /**
      * Check if username exists
      */
     public boolean existsByUsername(String username) {
-        return findByUsername(username).isPresent();
+        return metrics.time("existsByUsername", () -> findByUsername(username).isPresent());
     }
 
     /**
      * Check if email exists
      */
     public boolean existsByEmail(String email) {
-        return findByEmail(email).isPresent();
+        return metrics.time("existsByEmail", () -> findByEmail(email).isPresent());
     }
 
     /**
@@ -302,6 +454,7 @@ public class UserRepository {
         user.setEmail(rs.getString("email"));
         user.setUsername(rs.getString("username"));
         user.setPassword(rs.getString("password"));
+        user.setStatus(rs.getString("status"));
         user.setRequestAdmin(rs.getBoolean("request_admin"));
         return user;
     }
@@ -0,0 +1,160 @@
+package Backend.service;
+
+import Backend.repository.ArchiveRepository;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Background archival of resolved and stale items
+ * Walks the items table in id order, a small batch at a time, and pauses
+ * between batches so the live tables are never locked for long and the
+ * job never competes with requests for the database.
+ */
+@Service
+public class ArchivalService {
+
+    private static final Logger logger = Logger.getLogger(ArchivalService.class.getName());
+
+    private final ArchiveRepository archiveRepository;
+    private final boolean enabled;
+    private final Set<String> resolvedStatuses;
+    private final int resolvedAfterDays;
+    private final int staleAfterDays;
+    private final int batchSize;
+    private final long batchPauseMillis;
+    private final int maxBatchesPerRun;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Map<String, Object> lastRun = Map.of();
+
+    public ArchivalService(
+            @Value("${archive.enabled:true}") boolean enabled,
+            @Value("${archive.resolved-statuses:Claimed}") String resolvedStatuses,
+            @Value("${archive.resolved-after-days:90}") int resolvedAfterDays,
+            @Value("${archive.stale-after-days:365}") int staleAfterDays,
+            @Value("${archive.batch-size:100}") int batchSize,
+            @Value("${archive.batch-pause-ms:200}") long batchPauseMillis,
+            @Value("${archive.max-batches-per-run:500}") int maxBatchesPerRun) {
+        this.archiveRepository = new ArchiveRepository();
+        this.enabled = enabled;
+        this.resolvedStatuses = Arrays.stream(resolvedStatuses.split(","))
+                .map(String::trim)
+                .filter(status -> !status.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        this.resolvedAfterDays = resolvedAfterDays;
+        this.staleAfterDays = staleAfterDays;
+        this.batchSize = Math.max(1, batchSize);
+        this.batchPauseMillis = Math.max(0, batchPauseMillis);
+        this.maxBatchesPerRun = Math.max(1, maxBatchesPerRun);
+    }
+
+    @Scheduled(initialDelayString = "${archive.initial-delay-ms:300000}", fixedDelayString = "${archive.interval-ms:3600000}")
+    public void scheduledRun() {
+        if (enabled) {
+            archive();
+        }
+    }
+
+    /**
+     * Archives everything eligible today, up to max-batches-per-run batches
+     * @return Summary of the run, or of the run already in progress
+     */
+    public Map<String, Object> archive() {
+        if (!running.compareAndSet(false, true)) {
+            logger.info("Archival already running, skipped");
+            return lastRun;
+        }
+        try {
+            LocalDate today = LocalDate.now();
+            ArchiveRepository.Criteria criteria = new ArchiveRepository.Criteria(resolvedStatuses,
+                    today.minusDays(resolvedAfterDays), today.minusDays(staleAfterDays));
+
+            long start = System.nanoTime();
+            long cursor = 0;
+            int batches = 0;
+            int items = 0;
+            int claims = 0;
+            boolean complete = false;
+
+            while (batches < maxBatchesPerRun) {
+                List<Long> candidates = archiveRepository.findArchivableItemIds(cursor, criteria, batchSize);
+                if (candidates.isEmpty()) {
+                    complete = true;
+                    break;
+                }
+                cursor = candidates.get(candidates.size() - 1);
+
+                ArchiveRepository.MovedRows moved = archiveRepository.archiveItems(candidates, criteria);
+                batches++;
+                items += moved.items();
+                claims += moved.claims();
+                Metrics.counter("archive.rows", "table", "items").increment(moved.items());
+                Metrics.counter("archive.rows", "table", "claims").increment(moved.claims());
+
+                if (candidates.size() < batchSize) {
+                    complete = true;
+                    break;
+                }
+                if (!pause()) {
+                    break;
+                }
+            }
+
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("finished_at", LocalDateTime.now().toString());
+            summary.put("batches", batches);
+            summary.put("items", items);
+            summary.put("claims", claims);
+            summary.put("complete", complete);
+            summary.put("duration_ms", (System.nanoTime() - start) / 1_000_000);
+            lastRun = summary;
+            if (items > 0 || !complete) {
+                logger.info("Archived " + items + " items and " + claims + " claims in " + batches + " batches" +
+                        (complete ? "" : "; more remain for the next run"));
+            }
+            return summary;
+        } catch (RuntimeException e) {
+            logger.log(Level.SEVERE, "Archival run failed", e);
+            throw e;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Summary of the last completed run
+     */
+    public Map<String, Object> getLastRun() {
+        return lastRun;
+    }
+
+    /**
+     * Throttle between batches; false when interrupted so the run stops early
+     */
+    private boolean pause() {
+        if (batchPauseMillis == 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(batchPauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package Backend.service;
+
+import Backend.repository.SnapshotRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Snapshot backups of the database into backup.dir, and restores from them
+ * A snapshot is written to a temporary file and renamed when complete, so
+ * the directory only ever holds whole snapshots; the oldest are removed
+ * past backup.keep. Restoring replaces all data and is off unless
+ * backup.restore-enabled is set, e.g. on staging or a node being recovered.
+ * One backup or restore runs at a time.
+ */
+@Service
+public class BackupService {
+
+    private static final Logger logger = Logger.getLogger(BackupService.class.getName());
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+    // Only names this service writes, so a request can never reach outside the directory
+    private static final Pattern FILE_NAME = Pattern.compile("snapshot-\\d{8}-\\d{6}-\\d{3}\\.snap");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final SnapshotRepository snapshotRepository;
+    private final Path dir;
+    private final int keep;
+    private final int blockRows;
+    private final int fetchSize;
+    private final int restoreBatchSize;
+    private final boolean restoreEnabled;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public BackupService(
+            @Value("${backup.dir:backups}") String dir,
+            @Value("${backup.keep:7}") int keep,
+            @Value("${backup.block-rows:4096}") int blockRows,
+            @Value("${backup.fetch-size:1000}") int fetchSize,
+            @Value("${backup.restore.batch-size:1000}") int restoreBatchSize,
+            @Value("${backup.restore-enabled:false}") boolean restoreEnabled) {
+        this.snapshotRepository = new SnapshotRepository();
+        this.dir = Paths.get(dir);
+        this.keep = Math.max(1, keep);
+        this.blockRows = Math.max(1, blockRows);
+        this.fetchSize = Math.max(1, fetchSize);
+        this.restoreBatchSize = Math.max(1, restoreBatchSize);
+        this.restoreEnabled = restoreEnabled;
+    }
+
+    /**
+     * Off unless backup.cron is set, e.g. "0 30 2 * * *" for nightly at 02:30
+     */
+    @Scheduled(cron = "${backup.cron:-}")
+    public void scheduledBackup() {
+        try {
+            backup();
+        } catch (IOException | RuntimeException e) {
+            logger.log(Level.SEVERE, "Scheduled backup failed", e);
+        }
+    }
+
+    /**
+     * Writes a new snapshot
+     * @return Summary: file, bytes, rows per table and millis
+     * @throws IllegalStateException If a backup or restore is already running
+     */
+    public Map<String, Object> backup() throws IOException {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A backup or restore is already running");
+        }
+        try {
+            Files.createDirectories(dir);
+            String name = "snapshot-" + FILE_TIME.format(LocalDateTime.now()) + ".snap";
+            Path file = dir.resolve(name);
+            Path temp = dir.resolve(name + ".tmp");
+
+            long start = System.nanoTime();
+            Map<String, Long> rows;
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp), BUFFER_SIZE)) {
+                rows = snapshotRepository.backup(out, blockRows, fetchSize);
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(temp);
+                throw e;
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+            long millis = (System.nanoTime() - start) / 1_000_000;
+
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("file", name);
+            summary.put("bytes", Files.size(file));
+            summary.put("rows", rows);
+            summary.put("millis", millis);
+            logger.info("Wrote snapshot " + name + " (" + Files.size(file) + " bytes) in " + millis + " ms: " + rows);
+
+            removeOldSnapshots();
+            return summary;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Snapshots in backup.dir, newest first
+     */
+    public List<Map<String, Object>> list() throws IOException {
+        List<Map<String, Object>> snapshots = new ArrayList<>();
+        for (Path file : snapshotFiles()) {
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            snapshot.put("file", file.getFileName().toString());
+            snapshot.put("bytes", Files.size(file));
+            snapshot.put("created_at", Instant.ofEpochMilli(Files.getLastModifiedTime(file).toMillis()).toString());
+            snapshots.add(snapshot);
+        }
+        return snapshots;
+    }
+
+    /**
+     * Path of a snapshot by file name
+     * @return The file, or null if the name is not a snapshot name or there is no such file
+     */
+    public Path find(String name) {
+        if (name == null || !FILE_NAME.matcher(name).matches()) {
+            return null;
+        }
+        Path file = dir.resolve(name);
+        return Files.isRegularFile(file) ? file : null;
+    }
+
+    public boolean isRestoreEnabled() {
+        return restoreEnabled;
+    }
+
+    /**
+     * Replaces all data with the snapshot's
+     * @return Summary: rows per table, uploads, missing uploads and millis
+     * @throws IllegalStateException If restores are disabled or a backup or restore is already running
+     * @throws IOException If the snapshot is corrupt or unreadable; the database is unchanged then
+     */
+    public Map<String, Object> restore(Path file) throws IOException {
+        if (!restoreEnabled) {
+            throw new IllegalStateException("Restore is disabled (backup.restore-enabled)");
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A backup or restore is already running");
+        }
+        try {
+            long start = System.nanoTime();
+            SnapshotRepository.RestoreResult result = snapshotRepository.restore(file, restoreBatchSize);
+            long millis = (System.nanoTime() - start) / 1_000_000;
+
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("file", file.getFileName().toString());
+            summary.put("snapshot_created_at", Instant.ofEpochMilli(result.createdAt()).toString());
+            summary.put("rows", result.rows());
+            summary.put("uploads", result.uploads());
+            summary.put("missing_uploads", result.missingUploads());
+            summary.put("missing_upload_paths", result.missingUploadPaths());
+            summary.put("millis", millis);
+            logger.info("Restored snapshot " + file.getFileName() + " in " + millis + " ms: " + result.rows());
+            if (result.missingUploads() > 0) {
+                logger.warning(result.missingUploads() + " uploads referenced by the snapshot are missing, e.g. "
+                        + result.missingUploadPaths().get(0));
+            }
+            return summary;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private List<Path> snapshotFiles() throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            // Names sort by time
+            return files.filter(file -> FILE_NAME.matcher(file.getFileName().toString()).matches())
+                    .sorted(Comparator.comparing(Path::getFileName).reversed())
+                    .toList();
+        }
+    }
+
+    private void removeOldSnapshots() {
+        try {
+            List<Path> files = snapshotFiles();
+            for (Path file : files.subList(Math.min(keep, files.size()), files.size())) {
+                Files.deleteIfExists(file);
+                logger.info("Removed old snapshot " + file.getFileName());
+            }
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to remove old snapshots in " + dir, e);
+        }
+    }
+}
@@ -3,28 +3,40 @@
 package Backend.service;
 
 import Backend.model.Claim;
+import Backend.model.ClaimTransition;
 import Backend.model.Item;
 import Backend.model.User;
+import Backend.repository.ArchiveRepository;
 import Backend.repository.ClaimRepository;
 import Backend.repository.ItemRepository;
 import Backend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 @Service
 public class ClaimService {
 
+    // Item status once one of its claims is approved
+    static final String RESOLVED_ITEM_STATUS = "Claimed";
+
     private ClaimRepository claimRepository;
     private ItemRepository itemRepository;
     private UserRepository userRepository;
+    private ArchiveRepository archiveRepository;
+
+    @Autowired
+    private ClaimTurnaroundRecorder turnaroundRecorder;
 
     public ClaimService() {
         this.claimRepository = new ClaimRepository();
         this.itemRepository = new ItemRepository();
         this.userRepository = new UserRepository();
+        this.archiveRepository = new ArchiveRepository();
     }
 
     // Constructor for dependency injection (if needed)
@@ -32,6 +44,7 @@ public class ClaimService {
         this.claimRepository = claimRepository;
         this.itemRepository = itemRepository;
         this.userRepository = userRepository;
+        this.archiveRepository = new ArchiveRepository();
     }
 
     public List<Claim> getAllClaims() {
@@ -48,6 +61,23 @@ public class ClaimService {
         return List.of(); // Return empty list if user not found
     }
 
+    /**
+     * Claims of a user, optionally followed by their archived claims
+     */
+    public List<Claim> getClaimsByUser(String username, boolean includeArchived) {
+        if (!includeArchived) {
+            return getClaimsByUser(username);
+        }
+        Optional<User> userOpt = userRepository.findByUsername(username);
+        if (userOpt.isEmpty()) {
+            return List.of();
+        }
+        int claimantId = userOpt.get().getId().intValue();
+        List<Claim> claims = new ArrayList<>(claimRepository.findByClaimantId(claimantId));
+        claims.addAll(archiveRepository.findClaimsByClaimantId(claimantId));
+        return claims;
+    }
+
     public List<Claim> getPendingClaims() {
         return claimRepository.findByStatus("Pending");
     }
@@ -70,29 +100,38 @@ public class ClaimService {
         throw new RuntimeException("Item or user not found");
     }
 
-    public void approveClaim(Long claimId, String approverUsername) {
-        Optional<Claim> claimOpt = claimRepository.findById(claimId);
-        if (claimOpt.isPresent()) {
-            Claim claim = claimOpt.get();
-            claim.setStatus("Approved");
-            claim.setApproverUsername(approverUsername);
-            claim.setDateApproved(LocalDateTime.now());
-            claimRepository.save(claim);
-        } else {
-            throw new RuntimeException("Claim not found");
+    /**
+     * Approves a pending claim, marks its item Claimed and rejects the other pending claims on it
+     * @param expectedVersion Version the admin last saw, or null to only require the claim to be Pending
+     */
+    public ClaimTransition approveClaim(Long claimId, String approverUsername, Integer expectedVersion) {
+        ClaimTransition transition = claimRepository.approveAndCloseItem(claimId, approverUsername, expectedVersion, RESOLVED_ITEM_STATUS);
+        if (transition.isApplied()) {
+            recordTurnaround(transition.claim());
+            transition.rejectedClaims().forEach(this::recordTurnaround);
+        }
+        return transition;
+    }
+
+    /**
+     * Rejects a pending claim
+     * @param expectedVersion Version the admin last saw, or null to only require the claim to be Pending
+     */
+    public ClaimTransition rejectClaim(Long claimId, String approverUsername, Integer expectedVersion) {
+        return resolveClaim(claimId, "Rejected", approverUsername, expectedVersion);
+    }
+
+    private ClaimTransition resolveClaim(Long claimId, String status, String approverUsername, Integer expectedVersion) {
+        ClaimTransition transition = claimRepository.transitionStatus(claimId, "Pending", status, approverUsername, expectedVersion);
+        if (transition.isApplied()) {
+            recordTurnaround(transition.claim());
         }
+        return transition;
     }
 
-    public void rejectClaim(Long claimId, String approverUsername) {
-        Optional<Claim> claimOpt = claimRepository.findById(claimId);
-        if (claimOpt.isPresent()) {
-            Claim claim = claimOpt.get();
-            claim.setStatus("Rejected");
-            claim.setApproverUsername(approverUsername);
-            claim.setDateApproved(LocalDateTime.now());
-            claimRepository.save(claim);
-        } else {
-            throw new RuntimeException("Claim not found");
+    private void recordTurnaround(Claim claim) {
+        if (turnaroundRecorder != null && claim != null) {
+            turnaroundRecorder.record(claim, claim.getApproverUsername(), claim.getDateApproved());
         }
     }
 }
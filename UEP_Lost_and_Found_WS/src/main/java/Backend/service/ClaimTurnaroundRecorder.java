@@ -0,0 +1,231 @@
+package Backend.service;
+
+import Backend.model.Claim;
+import Backend.model.ClaimTurnaroundSketch;
+import Backend.repository.ClaimTurnaroundRepository;
+import Backend.repository.RepositoryEvents;
+import org.HdrHistogram.AbstractHistogram;
+import org.HdrHistogram.IntCountsHistogram;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import java.nio.ByteBuffer;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.DataFormatException;
+
+/**
+ * Streaming percentiles of how long claims stay Pending
+ * Each resolution is recorded into an HDR histogram for its (week, approver)
+ * bucket. Buckets are persisted in compressed form and merged on demand, so
+ * p50/p90/p99 never require scanning the claims table. After a snapshot
+ * restore the buckets are reloaded from the restored sketches.
+ */
+@Service
+public class ClaimTurnaroundRecorder implements RepositoryEvents.Listener {
+
+    private static final Logger logger = Logger.getLogger(ClaimTurnaroundRecorder.class.getName());
+    private static final long MAX_TURNAROUND_SECONDS = TimeUnit.DAYS.toSeconds(3650);
+    private static final int SIGNIFICANT_DIGITS = 2;
+    private static final String UNKNOWN_APPROVER = "unknown";
+
+    private final ClaimTurnaroundRepository repository;
+    private final ConcurrentHashMap<BucketKey, Bucket> buckets = new ConcurrentHashMap<>();
+
+    record BucketKey(LocalDate weekStart, String approver) {}
+
+    private static final class Bucket {
+        final AbstractHistogram histogram = newHistogram();
+        boolean dirty;
+    }
+
+    public ClaimTurnaroundRecorder() {
+        this.repository = new ClaimTurnaroundRepository();
+        RepositoryEvents.register(this);
+    }
+
+    /**
+     * Merges the persisted sketches into memory
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            for (ClaimTurnaroundSketch stored : repository.findAll()) {
+                AbstractHistogram histogram = decode(stored.getSketch());
+                Bucket bucket = bucket(new BucketKey(stored.getWeekStart(), stored.getApprover()));
+                synchronized (bucket) {
+                    bucket.histogram.add(histogram);
+                }
+            }
+            logger.info("Loaded " + buckets.size() + " claim turnaround sketches");
+        } catch (RuntimeException e) {
+            logger.log(Level.SEVERE, "Failed to load claim turnaround sketches", e);
+        }
+    }
+
+    /**
+     * Records the time a claim spent Pending before being approved or rejected
+     */
+    public void record(Claim claim, String approverUsername, LocalDateTime resolvedAt) {
+        LocalDateTime submittedAt = claim.getCreatedAt() != null ? claim.getCreatedAt() : claim.getDateSubmitted();
+        if (submittedAt == null) {
+            return;
+        }
+        long seconds = Math.max(0, Duration.between(submittedAt, resolvedAt).getSeconds());
+        String approver = approverUsername == null || approverUsername.isBlank() ? UNKNOWN_APPROVER : approverUsername;
+
+        Bucket bucket = bucket(new BucketKey(weekStart(resolvedAt.toLocalDate()), approver));
+        synchronized (bucket) {
+            bucket.histogram.recordValue(Math.min(seconds, MAX_TURNAROUND_SECONDS));
+            bucket.dirty = true;
+        }
+    }
+
+    /**
+     * Turnaround percentiles grouped by week or by approver
+     * @param groupBy "week" or "approver"
+     * @param weeks Number of most recent weeks to include
+     */
+    public Map<String, Object> getTurnaround(String groupBy, int weeks) {
+        LocalDate firstWeek = weekStart(LocalDate.now()).minusWeeks(Math.max(1, weeks) - 1L);
+        Function<BucketKey, String> grouping = "approver".equals(groupBy)
+                ? BucketKey::approver
+                : key -> key.weekStart().toString();
+
+        Map<String, AbstractHistogram> groups = new TreeMap<>();
+        AbstractHistogram overall = newHistogram();
+        buckets.forEach((key, bucket) -> {
+            if (key.weekStart().isBefore(firstWeek)) {
+                return;
+            }
+            AbstractHistogram group = groups.computeIfAbsent(grouping.apply(key),
+                    k -> newHistogram());
+            synchronized (bucket) {
+                group.add(bucket.histogram);
+                overall.add(bucket.histogram);
+            }
+        });
+
+        Map<String, Object> grouped = new LinkedHashMap<>();
+        groups.forEach((name, histogram) -> grouped.put(name, summarize(histogram)));
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("group_by", "approver".equals(groupBy) ? "approver" : "week");
+        result.put("since_week", firstWeek.toString());
+        result.put("overall", summarize(overall));
+        result.put("groups", grouped);
+        return result;
+    }
+
+    /**
+     * Number of (week, approver) buckets held in memory
+     */
+    public int getBucketCount() {
+        return buckets.size();
+    }
+
+    /**
+     * Writes buckets changed since the last flush
+     */
+    @Scheduled(fixedDelayString = "${claims.turnaround.flush-interval-ms:30000}")
+    public synchronized void flush() {
+        buckets.forEach((key, bucket) -> {
+            ClaimTurnaroundSketch sketch;
+            synchronized (bucket) {
+                if (!bucket.dirty) {
+                    return;
+                }
+                sketch = new ClaimTurnaroundSketch(key.weekStart(), key.approver(),
+                        bucket.histogram.getTotalCount(), encode(bucket.histogram));
+                bucket.dirty = false;
+            }
+            try {
+                repository.save(sketch);
+            } catch (RuntimeException e) {
+                synchronized (bucket) {
+                    bucket.dirty = true;
+                }
+                logger.log(Level.WARNING, "Failed to persist turnaround sketch " + key, e);
+            }
+        });
+    }
+
+    /**
+     * Drops the in-memory buckets, which predate the restore, so they are not
+     * flushed over the restored sketches, and loads the restored ones
+     */
+    @Override
+    public synchronized void dataReplaced() {
+        buckets.clear();
+        load();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        RepositoryEvents.unregister(this);
+        flush();
+    }
+
+    /**
+     * Auto-resizing histogram with int counts; it only grows to cover the
+     * value range actually recorded, which keeps idle buckets small
+     */
+    private static AbstractHistogram newHistogram() {
+        return new IntCountsHistogram(SIGNIFICANT_DIGITS);
+    }
+
+    private Bucket bucket(BucketKey key) {
+        return buckets.computeIfAbsent(key, k -> new Bucket());
+    }
+
+    private static LocalDate weekStart(LocalDate date) {
+        return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    private static Map<String, Object> summarize(AbstractHistogram histogram) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", histogram.getTotalCount());
+        if (histogram.getTotalCount() == 0) {
+            return summary;
+        }
+        summary.put("p50_hours", toHours(histogram.getValueAtPercentile(50.0)));
+        summary.put("p90_hours", toHours(histogram.getValueAtPercentile(90.0)));
+        summary.put("p99_hours", toHours(histogram.getValueAtPercentile(99.0)));
+        summary.put("max_hours", toHours(histogram.getMaxValue()));
+        summary.put("mean_hours", toHours(Math.round(histogram.getMean())));
+        return summary;
+    }
+
+    private static double toHours(long seconds) {
+        return Math.round(seconds / 36.0) / 100.0;
+    }
+
+    private static byte[] encode(AbstractHistogram histogram) {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        return Arrays.copyOf(buffer.array(), length);
+    }
+
+    private static AbstractHistogram decode(byte[] bytes) {
+        try {
+            return IntCountsHistogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(bytes), 0);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt claim turnaround sketch", e);
+        }
+    }
+}
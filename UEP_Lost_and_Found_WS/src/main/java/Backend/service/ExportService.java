@@ -0,0 +1,194 @@
+package Backend.service;
+
+import Backend.repository.ExportRepository;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Admin exports of items and claims as CSV or newline-delimited JSON
+ * An export is written from the repository's row stream straight into the
+ * response, through a small buffer and optionally gzip, so memory stays
+ * constant whatever the date range. The body runs on the MVC async executor
+ * rather than a request thread, and at most max-concurrent exports run at
+ * once, each holding one database connection.
+ */
+@Service
+public class ExportService {
+
+    private static final Logger logger = Logger.getLogger(ExportService.class.getName());
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    public enum Dataset {
+        ITEMS("items", ExportRepository.ITEM_COLUMNS),
+        CLAIMS("claims", ExportRepository.CLAIM_COLUMNS);
+
+        final String name;
+        final List<String> columns;
+
+        Dataset(String name, List<String> columns) {
+            this.name = name;
+            this.columns = columns;
+        }
+    }
+
+    public enum Format {
+        CSV("text/csv;charset=UTF-8", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        final String contentType;
+        final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+    }
+
+    /**
+     * An export ready to be streamed; the body gives back its slot when done
+     */
+    public record Export(String fileName, String contentType, StreamingResponseBody body) {}
+
+    private final ExportRepository exportRepository;
+    private final int fetchSize;
+    private final Semaphore running;
+
+    public ExportService(
+            @Value("${export.fetch-size:500}") int fetchSize,
+            @Value("${export.max-concurrent:2}") int maxConcurrent) {
+        this.exportRepository = new ExportRepository();
+        this.fetchSize = fetchSize;
+        this.running = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * Reserves a slot for an export
+     * @return The export to stream, or null when max-concurrent exports are already running
+     */
+    public Export start(Dataset dataset, Format format, ExportRepository.Filter filter, boolean gzip) {
+        if (!running.tryAcquire()) {
+            return null;
+        }
+        String fileName = dataset.name + "-" + LocalDate.now() + "." + format.extension + (gzip ? ".gz" : "");
+        String contentType = gzip ? "application/gzip" : format.contentType;
+        StreamingResponseBody body = out -> {
+            long start = System.nanoTime();
+            try {
+                long rows = write(dataset, format, filter, gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : out);
+                logger.info(String.format("Exported %d %s as %s in %d ms", rows, dataset.name, fileName,
+                        (System.nanoTime() - start) / 1_000_000));
+            } catch (IOException e) {
+                // Usually the client cancelled the download
+                logger.log(Level.INFO, "Export of " + fileName + " stopped: " + e.getMessage());
+                throw e;
+            } finally {
+                running.release();
+            }
+        };
+        return new Export(fileName, contentType, body);
+    }
+
+    private long write(Dataset dataset, Format format, ExportRepository.Filter filter, OutputStream out) throws IOException {
+        long rows;
+        if (format == Format.CSV) {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+            writeCsvRow(writer, dataset.columns.toArray());
+            rows = stream(dataset, filter, values -> writeCsvRow(writer, values));
+            writer.flush();
+        } else {
+            JsonGenerator gen = JSON.createGenerator(out, JsonEncoding.UTF8);
+            gen.setRootValueSeparator(new SerializedString("\n"));
+            SerializedString[] names = dataset.columns.stream().map(SerializedString::new).toArray(SerializedString[]::new);
+            rows = stream(dataset, filter, values -> writeJsonRow(gen, names, values));
+            if (rows > 0) {
+                gen.writeRaw('\n');
+            }
+            gen.flush();
+        }
+        if (out instanceof GZIPOutputStream gzip) {
+            gzip.finish();
+        }
+        return rows;
+    }
+
+    private long stream(Dataset dataset, ExportRepository.Filter filter, ExportRepository.RowWriter writer) throws IOException {
+        return dataset == Dataset.ITEMS
+                ? exportRepository.streamItems(filter, fetchSize, writer)
+                : exportRepository.streamClaims(filter, fetchSize, writer);
+    }
+
+    /**
+     * RFC 4180: fields with a comma, quote or line break are quoted, quotes doubled
+     * Text starting with =, +, - or @ gets a leading quote so spreadsheets do
+     * not evaluate user input as a formula.
+     */
+    private static void writeCsvRow(Writer writer, Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object value = values[i];
+            if (value == null) {
+                continue;
+            }
+            String text = format(value);
+            if (value instanceof String && !text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0) {
+                text = "'" + text;
+            }
+            if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(text.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(text);
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private static void writeJsonRow(JsonGenerator gen, SerializedString[] names, Object[] values) throws IOException {
+        gen.writeStartObject();
+        for (int i = 0; i < values.length; i++) {
+            gen.writeFieldName(names[i]);
+            Object value = values[i];
+            if (value == null) {
+                gen.writeNull();
+            } else if (value instanceof Long number) {
+                gen.writeNumber(number);
+            } else if (value instanceof Boolean flag) {
+                gen.writeBoolean(flag);
+            } else {
+                gen.writeString(format(value));
+            }
+        }
+        gen.writeEndObject();
+    }
+
+    private static String format(Object value) {
+        if (value instanceof LocalDateTime dateTime) {
+            return DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(dateTime);
+        }
+        return value.toString();
+    }
+}
@@ -0,0 +1,507 @@
+package Backend.service;
+
+import Backend.model.Item;
+import Backend.repository.ItemRepository;
+import Backend.repository.RepositoryEvents;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Visually similar item photos
+ * Every uploaded photo gets a 64-bit difference hash (dHash) on a
+ * background thread: the image is shrunk to 9x8 grey pixels and each bit
+ * says whether a pixel is brighter than its right neighbour, so re-encoded,
+ * resized or slightly re-lit copies of a photo differ in only a few bits.
+ * Hashes are stored in items.image_hash and kept in a multi-index hash,
+ * which answers "all hashes within Hamming distance d" from a few bucket
+ * probes instead of comparing against every photo.
+ */
+@Service
+public class ImageMatchIndex implements RepositoryEvents.Listener {
+
+    private static final Logger logger = Logger.getLogger(ImageMatchIndex.class.getName());
+
+    private final ItemRepository itemRepository;
+    private final ThreadPoolExecutor hasher;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final AtomicLong hashed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final int maxDistance;
+    private final MultiIndex index = new MultiIndex();
+    // Serialises loads; entries and index are guarded by lock
+    private final Object loadLock = new Object();
+    // Changes seen while a load reads the table, replayed over its result
+    private List<Runnable> pendingChanges;
+    private volatile boolean ready = false;
+
+    /**
+     * A similar item and how many of the 64 hash bits differ
+     */
+    public record Match(Item item, int distance) {}
+
+    /**
+     * Item with the photo it had when indexed; hash is null until computed
+     */
+    private record Entry(Item item, String image, Long hash) {}
+
+    public ImageMatchIndex(@Value("${image-match.max-distance:10}") int maxDistance,
+                           @Value("${image-match.queue-capacity:1000}") int queueCapacity) {
+        this.itemRepository = new ItemRepository();
+        this.maxDistance = maxDistance;
+        this.hasher = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), runnable -> {
+                    Thread thread = new Thread(runnable, "image-hasher");
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                });
+        RepositoryEvents.register(this);
+    }
+
+    /**
+     * Loads stored hashes and queues photos that have none yet, off the startup path
+     * The table is read without the lock, so writers are not held up; writes
+     * that happen meanwhile are replayed once the loaded photos are in.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        Thread loader = new Thread(() -> {
+            synchronized (loadLock) {
+                load();
+            }
+        }, "image-match-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    private void load() {
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Map<Long, Long> hashes;
+        List<Item> items;
+        try {
+            hashes = itemRepository.findImageHashes();
+            items = itemRepository.findByIdGreaterThan(0L);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.log(Level.SEVERE, "Failed to load image match index", e);
+            return;
+        }
+
+        List<Entry> missing = new ArrayList<>();
+        List<Runnable> replay;
+        int photos;
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            index.clear();
+            for (Item item : items) {
+                if (item.getImage() == null) {
+                    continue;
+                }
+                Entry entry = new Entry(item, item.getImage(), hashes.get(item.getId()));
+                entries.put(item.getId(), entry);
+                if (entry.hash() != null) {
+                    index.add(entry.hash(), item.getId());
+                } else {
+                    missing.add(entry);
+                }
+            }
+            photos = entries.size();
+            replay = pendingChanges;
+            pendingChanges = null;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        // Each change looks at the entry it finds and queues a hash only if the photo differs
+        replay.forEach(Runnable::run);
+        logger.info("Image match index ready with " + (photos - missing.size()) + " hashed photos, "
+                + missing.size() + " to hash");
+        missing.forEach(entry -> submit(entry.item().getId(), entry.image()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        RepositoryEvents.unregister(this);
+        hasher.shutdownNow();
+    }
+
+    /**
+     * Items whose photo looks like the given item's, closest first
+     * @param status Only items with this status, e.g. "Lost" for a found item, or null for any
+     * @return null if the item is unknown or has no photo; empty if its photo is not hashed yet
+     */
+    public List<Match> findSimilar(Long itemId, String status, int limit) {
+        lock.readLock().lock();
+        try {
+            Entry entry = entries.get(itemId);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.hash() == null) {
+                return List.of();
+            }
+            List<Match> matches = new ArrayList<>();
+            index.search(entry.hash(), maxDistance, (id, distance) -> {
+                Entry other = entries.get(id);
+                if (!id.equals(itemId) && other != null
+                        && (status == null || status.equalsIgnoreCase(other.item().getStatus()))) {
+                    matches.add(new Match(other.item(), distance));
+                }
+            });
+            matches.sort(Comparator.comparingInt(Match::distance)
+                    .thenComparing(match -> match.item().getId(), Comparator.reverseOrder()));
+            return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Whether the item's photo has been hashed; null if it has no known photo
+     */
+    public Boolean isHashed(Long itemId) {
+        lock.readLock().lock();
+        try {
+            Entry entry = entries.get(itemId);
+            return entry != null ? entry.hash() != null : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            status.put("ready", ready);
+            status.put("photos", entries.size());
+            status.put("indexed", index.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+        status.put("queued", hasher.getQueue().size());
+        status.put("hashed", hashed.get());
+        status.put("failed", failed.get());
+        status.put("max_distance", maxDistance);
+        return status;
+    }
+
+    // === Repository events ===
+
+    @Override
+    public void itemSaved(Item item, boolean created) {
+        change(() -> saved(item));
+    }
+
+    @Override
+    public void itemDeleted(Long itemId) {
+        change(() -> {
+            lock.writeLock().lock();
+            try {
+                remove(itemId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    @Override
+    public void dataReplaced() {
+        initialize();
+    }
+
+    @Override
+    public void userDeleted(Long userId) {
+        // items.user_id is ON DELETE CASCADE
+        change(() -> {
+            lock.writeLock().lock();
+            try {
+                entries.values().stream()
+                        .filter(entry -> userId.equals(entry.item().getUserId()))
+                        .map(entry -> entry.item().getId())
+                        .toList()
+                        .forEach(this::remove);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Applies a change, and keeps it for replay while a load runs
+     * Changes set an item's state rather than adjust it, so applying one
+     * again after the load is safe.
+     */
+    private void change(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        change.run();
+    }
+
+    private void saved(Item item) {
+        boolean rehash;
+        lock.writeLock().lock();
+        try {
+            Entry previous = entries.get(item.getId());
+            if (item.getImage() == null) {
+                remove(item.getId());
+                return;
+            }
+            rehash = previous == null || !item.getImage().equals(previous.image());
+            if (rehash) {
+                remove(item.getId());
+                entries.put(item.getId(), new Entry(item, item.getImage(), null));
+            } else {
+                entries.put(item.getId(), new Entry(item, previous.image(), previous.hash()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (rehash) {
+            submit(item.getId(), item.getImage());
+        }
+    }
+
+    // === Hashing ===
+
+    private void submit(Long itemId, String image) {
+        try {
+            hasher.execute(() -> hash(itemId, image));
+        } catch (RejectedExecutionException e) {
+            // Picked up again on the next start, when the loader finds no stored hash
+            logger.warning("Image hash queue full, skipping item " + itemId);
+        }
+    }
+
+    private void hash(Long itemId, String image) {
+        long hash;
+        try {
+            hash = dHash(Paths.get(image));
+        } catch (IOException | RuntimeException e) {
+            failed.incrementAndGet();
+            logger.log(Level.WARNING, "Could not hash image of item " + itemId + ": " + image, e);
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            Entry entry = entries.get(itemId);
+            if (entry == null || !image.equals(entry.image())) {
+                return; // deleted or given another photo meanwhile
+            }
+            entries.put(itemId, new Entry(entry.item(), image, hash));
+            index.add(hash, itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        hashed.incrementAndGet();
+        itemRepository.updateImageHash(itemId, image, hash);
+    }
+
+    /**
+     * 64-bit difference hash of an image file
+     */
+    static long dHash(Path path) throws IOException {
+        BufferedImage source;
+        try (var in = Files.newInputStream(path)) {
+            source = ImageIO.read(in);
+        }
+        if (source == null) {
+            throw new IOException("Unsupported image format");
+        }
+        BufferedImage small = new BufferedImage(9, 8, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D graphics = small.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, 9, 8, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        var raster = small.getRaster();
+        long hash = 0;
+        for (int y = 0; y < 8; y++) {
+            for (int x = 0; x < 8; x++) {
+                hash <<= 1;
+                if (raster.getSample(x, y, 0) > raster.getSample(x + 1, y, 0)) {
+                    hash |= 1;
+                }
+            }
+        }
+        return hash;
+    }
+
+    // === Maintenance, callers hold the write lock ===
+
+    private void remove(Long itemId) {
+        Entry entry = itemId != null ? entries.remove(itemId) : null;
+        if (entry != null && entry.hash() != null) {
+            index.remove(entry.hash(), itemId);
+        }
+    }
+
+    /**
+     * Multi-index hashing over 64-bit hashes
+     * Each hash is filed under its four 16-bit chunks. Two hashes at most d
+     * bits apart differ in at most d / 4 bits in at least one chunk, so a
+     * search probes, per chunk, every value within d / 4 bits of the query's
+     * chunk (137 values for d = 10) and checks the full distance of what it
+     * finds. Radii beyond 19 would need too many probes and scan instead.
+     */
+    private static final class MultiIndex {
+
+        private static final int CHUNKS = 4;
+        private static final int CHUNK_BITS = Long.SIZE / CHUNKS;
+        private static final int MAX_PROBE_BITS = 4;
+        // 16-bit masks by number of set bits, 0 to MAX_PROBE_BITS
+        private static final int[][] MASKS = new int[MAX_PROBE_BITS + 1][];
+        static {
+            List<List<Integer>> masks = new ArrayList<>();
+            for (int bits = 0; bits <= MAX_PROBE_BITS; bits++) {
+                masks.add(new ArrayList<>());
+            }
+            for (int mask = 0; mask < 1 << CHUNK_BITS; mask++) {
+                if (Integer.bitCount(mask) <= MAX_PROBE_BITS) {
+                    masks.get(Integer.bitCount(mask)).add(mask);
+                }
+            }
+            for (int bits = 0; bits <= MAX_PROBE_BITS; bits++) {
+                MASKS[bits] = masks.get(bits).stream().mapToInt(Integer::intValue).toArray();
+            }
+        }
+
+        private final Map<Long, Long> hashes = new HashMap<>();
+        private final List<Map<Integer, List<Slot>>> tables = new ArrayList<>(CHUNKS);
+
+        // The full hash sits next to the id, so checking a candidate needs no lookup
+        private record Slot(Long id, long hash) {}
+
+        interface Visitor {
+            void visit(Long id, int distance);
+        }
+
+        MultiIndex() {
+            for (int chunk = 0; chunk < CHUNKS; chunk++) {
+                tables.add(new HashMap<>());
+            }
+        }
+
+        void add(long hash, Long id) {
+            hashes.put(id, hash);
+            for (int chunk = 0; chunk < CHUNKS; chunk++) {
+                tables.get(chunk).computeIfAbsent(chunk(hash, chunk), key -> new ArrayList<>(1)).add(new Slot(id, hash));
+            }
+        }
+
+        void remove(long hash, Long id) {
+            if (hashes.remove(id) == null) {
+                return;
+            }
+            for (int chunk = 0; chunk < CHUNKS; chunk++) {
+                int key = chunk(hash, chunk);
+                List<Slot> slots = tables.get(chunk).get(key);
+                if (slots != null) {
+                    slots.removeIf(slot -> slot.id().equals(id));
+                    if (slots.isEmpty()) {
+                        tables.get(chunk).remove(key);
+                    }
+                }
+            }
+        }
+
+        void search(long hash, int maxDistance, Visitor visitor) {
+            int probeBits = maxDistance / CHUNKS;
+            if (probeBits > MAX_PROBE_BITS) {
+                hashes.forEach((id, other) -> {
+                    int distance = Long.bitCount(hash ^ other);
+                    if (distance <= maxDistance) {
+                        visitor.visit(id, distance);
+                    }
+                });
+                return;
+            }
+            // A match can turn up under several chunks; only matches need de-duplicating
+            Set<Long> matched = new HashSet<>();
+            for (int chunk = 0; chunk < CHUNKS; chunk++) {
+                int value = chunk(hash, chunk);
+                for (int bits = 0; bits <= probeBits; bits++) {
+                    for (int mask : MASKS[bits]) {
+                        List<Slot> slots = tables.get(chunk).get(value ^ mask);
+                        if (slots == null) {
+                            continue;
+                        }
+                        for (Slot slot : slots) {
+                            int distance = Long.bitCount(hash ^ slot.hash());
+                            if (distance <= maxDistance && matched.add(slot.id())) {
+                                visitor.visit(slot.id(), distance);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        void clear() {
+            hashes.clear();
+            for (Map<Integer, List<Slot>> table : tables) {
+                table.clear();
+            }
+        }
+
+        int size() {
+            return hashes.size();
+        }
+
+        private static int chunk(long hash, int chunk) {
+            return (int) (hash >>> (chunk * CHUNK_BITS)) & 0xFFFF;
+        }
+    }
+}
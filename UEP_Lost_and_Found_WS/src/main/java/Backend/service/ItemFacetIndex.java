@@ -0,0 +1,312 @@
+package Backend.service;
+
+import Backend.model.Item;
+import Backend.repository.ItemRepository;
+import Backend.repository.RepositoryEvents;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * In-memory faceted index over the live items
+ * Keeps a compressed bitmap of item ids per facet value, so a filter is the
+ * union of the selected values within a facet intersected across facets,
+ * and facet counts are intersection cardinalities. Items are kept in memory
+ * too, so browsing never queries the database once the index is loaded.
+ */
+@Service
+public class ItemFacetIndex implements RepositoryEvents.Listener {
+
+    private static final Logger logger = Logger.getLogger(ItemFacetIndex.class.getName());
+
+    public static final String STATUS = "status";
+    public static final String CATEGORY = "category";
+    public static final String LOCATION = "location";
+    public static final String REPORTER = "reporter";
+
+    private static final Map<String, Function<Item, String>> FACETS = new LinkedHashMap<>();
+    static {
+        FACETS.put(STATUS, Item::getStatus);
+        FACETS.put(CATEGORY, Item::getCategory);
+        FACETS.put(LOCATION, Item::getLocation);
+        FACETS.put(REPORTER, Item::getReportedBy);
+    }
+
+    private final ItemRepository itemRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Serialises loads; the index itself is guarded by lock
+    private final Object loadLock = new Object();
+    private Index index = new Index();
+    // Changes seen while a load reads the table, replayed over its result
+    private List<Consumer<Index>> pendingChanges;
+    private volatile boolean ready = false;
+
+    /**
+     * One page of matching items, newest first, with facet counts
+     * Counts for a facet ignore that facet's own selection, so the client can
+     * show how many items each alternative value would give.
+     */
+    public record Result(long total, List<Item> items, Map<String, Map<String, Long>> facets) {}
+
+    public ItemFacetIndex() {
+        this.itemRepository = new ItemRepository();
+        RepositoryEvents.register(this);
+    }
+
+    /**
+     * Loads all live items, off the startup path
+     * The table is read and indexed without the lock, so writers are not held
+     * up. Writes that happen meanwhile are replayed over the new index before
+     * it replaces the old one, so they are never overwritten by older rows.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        Thread loader = new Thread(() -> {
+            synchronized (loadLock) {
+                load();
+            }
+        }, "item-facet-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    private void load() {
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Index loaded = new Index();
+        try {
+            itemRepository.findByIdGreaterThan(0L).forEach(loaded::add);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.log(Level.SEVERE, "Failed to load item facet index", e);
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            pendingChanges.forEach(change -> change.accept(loaded));
+            pendingChanges = null;
+            index = loaded;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Item facet index ready with " + loaded.size() + " items");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        RepositoryEvents.unregister(this);
+    }
+
+    /**
+     * Items matching every facet filter, e.g. status=[Found], category=[Electronics]
+     * @param filters Facet name to accepted values; values of one facet are ORed
+     * @return The page, or null until the index is loaded
+     */
+    public Result query(Map<String, List<String>> filters, int offset, int limit) {
+        if (!ready) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            return index.query(filters, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Facet names accepted by query
+     */
+    public static Collection<String> facetNames() {
+        return FACETS.keySet();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // === Repository events ===
+
+    @Override
+    public void itemSaved(Item item, boolean created) {
+        change(target -> {
+            target.remove(item.getId());
+            target.add(item);
+        });
+    }
+
+    @Override
+    public void itemDeleted(Long itemId) {
+        change(target -> target.remove(itemId));
+    }
+
+    @Override
+    public void dataReplaced() {
+        // The current index describes the data before the restore
+        ready = false;
+        initialize();
+    }
+
+    @Override
+    public void userDeleted(Long userId) {
+        // items.user_id is ON DELETE CASCADE
+        change(target -> target.items.values().stream()
+                .filter(item -> userId.equals(item.getUserId()))
+                .map(Item::getId)
+                .toList()
+                .forEach(target::remove));
+    }
+
+    /**
+     * Applies a change to the index, and keeps it for replay while a load runs
+     */
+    private void change(Consumer<Index> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(index);
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Bitmaps and rows; not thread-safe, guarded by the outer lock
+     */
+    private static final class Index {
+
+        final Map<Integer, Item> items = new HashMap<>();
+        final RoaringBitmap all = new RoaringBitmap();
+        final Map<String, Map<String, RoaringBitmap>> bitmaps = new HashMap<>();
+
+        Index() {
+            FACETS.keySet().forEach(facet -> bitmaps.put(facet, new HashMap<>()));
+        }
+
+        void add(Item item) {
+            int id = Math.toIntExact(item.getId());
+            items.put(id, item);
+            all.add(id);
+            FACETS.forEach((facet, value) -> {
+                String key = value.apply(item);
+                if (key != null && !key.isBlank()) {
+                    bitmaps.get(facet).computeIfAbsent(key, k -> new RoaringBitmap()).add(id);
+                }
+            });
+        }
+
+        void remove(Long itemId) {
+            if (itemId == null) {
+                return;
+            }
+            int id = Math.toIntExact(itemId);
+            Item previous = items.remove(id);
+            if (previous == null) {
+                return;
+            }
+            all.remove(id);
+            FACETS.forEach((facet, value) -> {
+                String key = value.apply(previous);
+                Map<String, RoaringBitmap> values = bitmaps.get(facet);
+                RoaringBitmap bitmap = key != null ? values.get(key) : null;
+                if (bitmap != null) {
+                    bitmap.remove(id);
+                    if (bitmap.isEmpty()) {
+                        values.remove(key);
+                    }
+                }
+            });
+        }
+
+        int size() {
+            return items.size();
+        }
+
+        Result query(Map<String, List<String>> filters, int offset, int limit) {
+            // Union of the selected values per facet
+            Map<String, RoaringBitmap> selections = new HashMap<>();
+            filters.forEach((facet, values) -> {
+                if (bitmaps.containsKey(facet) && values != null && !values.isEmpty()) {
+                    RoaringBitmap selection = new RoaringBitmap();
+                    for (String value : values) {
+                        RoaringBitmap bitmap = bitmaps.get(facet).get(value);
+                        if (bitmap != null) {
+                            selection.or(bitmap);
+                        }
+                    }
+                    selections.put(facet, selection);
+                }
+            });
+
+            RoaringBitmap matches = intersect(selections, null);
+
+            // Newest first: ids grow with every report
+            List<Item> page = new ArrayList<>();
+            IntIterator ids = matches.getReverseIntIterator();
+            int position = 0;
+            while (ids.hasNext() && page.size() < limit) {
+                int id = ids.next();
+                if (position++ >= offset) {
+                    page.add(items.get(id));
+                }
+            }
+
+            Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+            for (String facet : FACETS.keySet()) {
+                RoaringBitmap others = intersect(selections, facet);
+                Map<String, Long> counts = new TreeMap<>();
+                bitmaps.get(facet).forEach((value, bitmap) -> {
+                    long count = RoaringBitmap.andCardinality(bitmap, others);
+                    if (count > 0) {
+                        counts.put(value, count);
+                    }
+                });
+                facets.put(facet, counts);
+            }
+
+            return new Result(matches.getLongCardinality(), page, facets);
+        }
+
+        /**
+         * Items matching every selection except the excluded facet's
+         */
+        private RoaringBitmap intersect(Map<String, RoaringBitmap> selections, String excluded) {
+            RoaringBitmap result = all.clone();
+            selections.forEach((facet, selection) -> {
+                if (!facet.equals(excluded)) {
+                    result.and(selection);
+                }
+            });
+            return result;
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package Backend.service;
+
+import Backend.dto.ItemView;
+import Backend.model.Item;
+import Backend.repository.ItemRepository;
+import Backend.repository.RepositoryEvents;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The public item list, and the list per status, as ready-encoded JSON
+ * GET /api/items is read far more often than items change, so the response
+ * bodies are encoded once, plain and gzipped, and served as bytes. A write
+ * marks the snapshot outdated at once and schedules a rebuild after
+ * item-snapshot.debounce-ms, so a burst of writes costs one rebuild. Until
+ * the rebuild is done, get returns null and the caller reads the database
+ * as before, so nobody sees a list older than their own write.
+ */
+@Service
+public class ItemListSnapshot implements RepositoryEvents.Listener {
+
+    private static final Logger logger = Logger.getLogger(ItemListSnapshot.class.getName());
+
+    private final ItemRepository itemRepository;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final long debounceMillis;
+    private final ScheduledExecutorService builder;
+
+    // Bumped on every item write; a snapshot is current while it was built at the latest version
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    private volatile Snapshot snapshot;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder builds = new LongAdder();
+    private volatile long lastBuildMillis;
+
+    /**
+     * One response body, plain and gzipped
+     */
+    public record Body(byte[] json, byte[] gzip) {}
+
+    /**
+     * Encoded views as of one version; none is the list for a status no item has
+     */
+    private record Snapshot(long version, int items, Body all, Map<String, Body> byStatus, Body none) {}
+
+    public ItemListSnapshot(ObjectMapper objectMapper,
+                            @Value("${item-snapshot.enabled:true}") boolean enabled,
+                            @Value("${item-snapshot.debounce-ms:200}") long debounceMillis) {
+        this.itemRepository = new ItemRepository();
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.debounceMillis = Math.max(0, debounceMillis);
+        this.builder = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "item-snapshot-builder");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (enabled) {
+            RepositoryEvents.register(this);
+        }
+    }
+
+    /**
+     * Builds the first snapshot, off the startup path
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (enabled) {
+            scheduleRebuild(0);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        RepositoryEvents.unregister(this);
+        builder.shutdownNow();
+    }
+
+    /**
+     * Encoded list of all items, or of the items with a status
+     * @param status Status to filter by, or null for all items
+     * @return The body, or null while the snapshot is missing or outdated
+     */
+    public Body get(String status) {
+        Snapshot current = snapshot;
+        if (current == null || current.version() != version.get()) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        if (status == null) {
+            return current.all();
+        }
+        return current.byStatus().getOrDefault(status, current.none());
+    }
+
+    /**
+     * Whether a request with this Accept-Encoding should get the gzipped body
+     * Codings are matched case-insensitively with their q-values, so gzip;q=0
+     * refuses gzip and * allows it unless gzip is listed. Gzip is chosen
+     * unless identity is explicitly preferred over it.
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double identity = null;
+        Double any = null;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = quality(parts);
+            switch (coding) {
+                case "gzip", "x-gzip" -> gzip = gzip == null ? quality : Math.max(gzip, quality);
+                case "identity" -> identity = quality;
+                case "*" -> any = quality;
+                default -> { }
+            }
+        }
+        double gzipQuality = gzip != null ? gzip : any != null ? any : 0;
+        double identityQuality = identity != null ? identity : 0;
+        return gzipQuality > 0 && gzipQuality >= identityQuality;
+    }
+
+    /**
+     * The q parameter of one Accept-Encoding element, 1 if absent and 0 if malformed
+     */
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.length() > 2 && Character.toLowerCase(parameter.charAt(0)) == 'q' && parameter.charAt(1) == '=') {
+                try {
+                    double quality = Double.parseDouble(parameter.substring(2).trim());
+                    return quality >= 0 && quality <= 1 ? quality : 0;
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Encodes items the way the snapshot does, for requests it cannot serve
+     */
+    public byte[] encode(List<Item> items) {
+        try {
+            return objectMapper.writeValueAsBytes(Map.of("items", ItemView.of(items)));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Snapshot size, hit and rebuild counts for monitoring
+     */
+    public Map<String, Object> getStats() {
+        Snapshot current = snapshot;
+        long jsonBytes = 0;
+        long gzipBytes = 0;
+        if (current != null) {
+            jsonBytes += current.all().json().length;
+            gzipBytes += current.all().gzip().length;
+            for (Body body : current.byStatus().values()) {
+                jsonBytes += body.json().length;
+                gzipBytes += body.gzip().length;
+            }
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("current", current != null && current.version() == version.get());
+        stats.put("items", current != null ? current.items() : 0);
+        stats.put("statuses", current != null ? current.byStatus().size() : 0);
+        stats.put("json_bytes", jsonBytes);
+        stats.put("gzip_bytes", gzipBytes);
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("builds", builds.sum());
+        stats.put("last_build_ms", lastBuildMillis);
+        return stats;
+    }
+
+    // === Repository events ===
+
+    @Override
+    public void itemSaved(Item item, boolean created) {
+        changed();
+    }
+
+    @Override
+    public void itemDeleted(Long itemId) {
+        changed();
+    }
+
+    @Override
+    public void userDeleted(Long userId) {
+        // Their items went with them
+        changed();
+    }
+
+    @Override
+    public void dataReplaced() {
+        changed();
+    }
+
+    private void changed() {
+        version.incrementAndGet();
+        scheduleRebuild(debounceMillis);
+    }
+
+    private void scheduleRebuild(long delayMillis) {
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            builder.schedule(this::rebuild, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void rebuild() {
+        rebuildScheduled.set(false);
+        // Read before the query: a write after this point outdates the result again
+        long builtAt = version.get();
+        long start = System.nanoTime();
+        try {
+            List<Item> items = itemRepository.loadAll();
+            Map<String, List<Item>> byStatus = new HashMap<>();
+            for (Item item : items) {
+                if (item.getStatus() != null) {
+                    byStatus.computeIfAbsent(item.getStatus(), status -> new ArrayList<>()).add(item);
+                }
+            }
+            Map<String, Body> statusViews = new HashMap<>();
+            for (Map.Entry<String, List<Item>> entry : byStatus.entrySet()) {
+                statusViews.put(entry.getKey(), body(entry.getValue()));
+            }
+            snapshot = new Snapshot(builtAt, items.size(), body(items), statusViews, body(List.of()));
+            builds.increment();
+            lastBuildMillis = (System.nanoTime() - start) / 1_000_000;
+            logger.fine("Item list snapshot rebuilt with " + items.size() + " items in " + lastBuildMillis + " ms");
+        } catch (RuntimeException e) {
+            // Requests keep reading the database until the next write tries again
+            logger.log(Level.SEVERE, "Failed to build item list snapshot", e);
+        }
+    }
+
+    private Body body(List<Item> items) {
+        byte[] json = encode(items);
+        ByteArrayOutputStream gzip = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(gzip)) {
+            out.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new Body(json, gzip.toByteArray());
+    }
+}
@@ -2,9 +2,12 @@
 package Backend.service;
 
 import Backend.model.Item;
+import Backend.repository.ArchiveRepository;
 import Backend.repository.ItemRepository;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,20 +15,36 @@ import java.util.Optional;
 public class ItemService {
 
     private ItemRepository itemRepository;
+    private ArchiveRepository archiveRepository;
 
     public ItemService() {
         this.itemRepository = new ItemRepository();
+        this.archiveRepository = new ArchiveRepository();
     }
 
     // Constructor for dependency injection (if needed)
     public ItemService(ItemRepository itemRepository) {
         this.itemRepository = itemRepository;
+        this.archiveRepository = new ArchiveRepository();
     }
 
     public List<Item> getAllItems() {
         return itemRepository.findAll();
     }
 
+    /**
+     * All items, newest first, optionally including archived ones
+     */
+    public List<Item> getAllItems(boolean includeArchived) {
+        if (!includeArchived) {
+            return getAllItems();
+        }
+        List<Item> items = new ArrayList<>(itemRepository.findAll());
+        items.addAll(archiveRepository.findAllItems());
+        items.sort(Comparator.comparing(Item::getDateReported, Comparator.nullsLast(Comparator.reverseOrder())));
+        return items;
+    }
+
     public Optional<Item> getItemById(Long id) {
         return itemRepository.findById(id);
     }
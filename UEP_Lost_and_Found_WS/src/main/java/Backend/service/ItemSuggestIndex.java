@@ -0,0 +1,356 @@
+package Backend.service;
+
+import Backend.model.Item;
+import Backend.repository.ItemRepository;
+import Backend.repository.RepositoryEvents;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Autocomplete over item names and description terms
+ * A prefix trie whose every node caches its best completions, so a lookup
+ * is one walk down the prefix and returns a precomputed array: no
+ * database, no sorting and almost no allocation per keystroke. Readers
+ * never lock; writers are serialised and publish immutable arrays.
+ *
+ * Weights combine frequency and recency with forward decay: each item adds
+ * 2^(age in half-lives) relative to a fixed day, so newer reports outweigh
+ * older ones without ever rescaling existing weights.
+ */
+@Service
+public class ItemSuggestIndex implements RepositoryEvents.Listener {
+
+    private static final Logger logger = Logger.getLogger(ItemSuggestIndex.class.getName());
+    private static final int TOP_K = 10;
+    private static final int MIN_TERM_LENGTH = 3;
+    private static final int MAX_PHRASE_LENGTH = 60;
+    private static final double NAME_WEIGHT = 3.0;
+    private static final double TERM_WEIGHT = 1.0;
+    private static final Set<String> STOP_WORDS = Set.of(
+            "and", "the", "with", "for", "was", "were", "this", "that", "from", "near", "has", "have",
+            "had", "are", "its", "his", "her", "our", "your", "their", "not", "but", "some", "one",
+            "lost", "found", "item", "left", "please", "contact");
+
+    private final ItemRepository itemRepository;
+    private final Node root = new Node();
+    private final Map<Long, Contribution> contributions = new HashMap<>();
+    private final LocalDate baseDay = LocalDate.now();
+    private final double halfLifeDays;
+    private volatile boolean ready = false;
+    // Trie nodes below the root; guarded by the monitor
+    private int nodes = 0;
+
+    /**
+     * Completion with its current weight
+     */
+    public record Suggestion(String text, double weight) {}
+
+    /**
+     * What one item added to the trie, so it can be taken out again
+     */
+    private record Contribution(Long userId, String name, Set<String> terms, double weight) {}
+
+    /**
+     * Trie node; readers only follow children and read best, which is
+     * replaced as a whole, never modified in place
+     */
+    private static final class Node {
+        volatile Map<Character, Node> children;
+        final Node parent;
+        final char key;
+        String text;       // phrase ending here, if any
+        double weight;     // its weight
+        volatile Suggestion[] best = new Suggestion[0];
+
+        Node() {
+            this(null, '\0');
+        }
+
+        Node(Node parent, char key) {
+            this.parent = parent;
+            this.key = key;
+        }
+    }
+
+    public ItemSuggestIndex(@Value("${suggest.half-life-days:30}") double halfLifeDays) {
+        this.itemRepository = new ItemRepository();
+        this.halfLifeDays = Math.max(1.0, halfLifeDays);
+        RepositoryEvents.register(this);
+    }
+
+    /**
+     * Loads all live items, off the startup path
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        Thread loader = new Thread(() -> {
+            try {
+                List<Item> items = itemRepository.findByIdGreaterThan(0L);
+                synchronized (this) {
+                    // Items saved meanwhile were indexed by their events; replace, never double count
+                    items.forEach(item -> {
+                        unindex(item.getId());
+                        index(item);
+                    });
+                    ready = true;
+                }
+                logger.info("Item suggest index ready with " + items.size() + " items");
+            } catch (RuntimeException e) {
+                logger.log(Level.SEVERE, "Failed to load item suggest index", e);
+            }
+        }, "item-suggest-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        RepositoryEvents.unregister(this);
+    }
+
+    /**
+     * Best completions of a prefix, highest weight first
+     * Case and repeated whitespace in the prefix are ignored.
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        Node node = root;
+        boolean space = false;
+        boolean started = false;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            char c = prefix.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = started;
+                continue;
+            }
+            if (!Character.isLetterOrDigit(c)) {
+                continue;
+            }
+            if (space) {
+                node = child(node, ' ');
+                space = false;
+                if (node == null) {
+                    break;
+                }
+            }
+            node = child(node, Character.toLowerCase(c));
+            started = true;
+        }
+        if (node == null || !started) {
+            return List.of();
+        }
+        Suggestion[] best = node.best;
+        return Arrays.asList(best).subList(0, Math.min(Math.max(limit, 0), best.length));
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Indexed items and trie size for monitoring
+     */
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ready", ready);
+        stats.put("items", contributions.size());
+        stats.put("nodes", nodes);
+        return stats;
+    }
+
+    // === Repository events ===
+
+    @Override
+    public synchronized void itemSaved(Item item, boolean created) {
+        unindex(item.getId());
+        index(item);
+    }
+
+    @Override
+    public synchronized void itemDeleted(Long itemId) {
+        unindex(itemId);
+    }
+
+    @Override
+    public synchronized void userDeleted(Long userId) {
+        // items.user_id is ON DELETE CASCADE
+        contributions.entrySet().stream()
+                .filter(entry -> userId.equals(entry.getValue().userId()))
+                .map(Map.Entry::getKey)
+                .toList()
+                .forEach(this::unindex);
+    }
+
+    @Override
+    public void dataReplaced() {
+        synchronized (this) {
+            // The loader only replaces items it finds, so take out the ones that are gone first
+            List.copyOf(contributions.keySet()).forEach(this::unindex);
+        }
+        initialize();
+    }
+
+    // === Maintenance, callers hold the monitor ===
+
+    private void index(Item item) {
+        if (item.getId() == null) {
+            return;
+        }
+        String name = normalize(item.getName());
+        Set<String> terms = terms(item.getDescription());
+        if (name != null) {
+            terms.addAll(terms(item.getName()));
+        }
+        LocalDate reported = item.getDateReported() != null ? item.getDateReported().toLocalDate() : LocalDate.now();
+        double weight = Math.pow(2.0, (reported.toEpochDay() - baseDay.toEpochDay()) / halfLifeDays);
+
+        Contribution contribution = new Contribution(item.getUserId(), name, terms, weight);
+        contributions.put(item.getId(), contribution);
+        apply(contribution, 1);
+    }
+
+    private void unindex(Long itemId) {
+        Contribution contribution = itemId != null ? contributions.remove(itemId) : null;
+        if (contribution != null) {
+            apply(contribution, -1);
+        }
+    }
+
+    private void apply(Contribution contribution, int sign) {
+        if (contribution.name() != null) {
+            adjust(contribution.name(), sign * contribution.weight() * NAME_WEIGHT);
+        }
+        for (String term : contribution.terms()) {
+            if (!term.equals(contribution.name())) {
+                adjust(term, sign * contribution.weight() * TERM_WEIGHT);
+            }
+        }
+    }
+
+    private void adjust(String text, double delta) {
+        Node node = root;
+        for (int i = 0; i < text.length(); i++) {
+            Node next = child(node, text.charAt(i));
+            if (next == null) {
+                if (delta <= 0) {
+                    return;
+                }
+                next = new Node(node, text.charAt(i));
+                Map<Character, Node> children = node.children;
+                if (children == null) {
+                    children = new ConcurrentHashMap<>(4);
+                    node.children = children;
+                }
+                children.put(text.charAt(i), next);
+                nodes++;
+            }
+            node = next;
+        }
+
+        double weight = node.weight + delta;
+        // Weights are sums of the same doubles added and removed; clear the leftovers
+        if (weight <= 1e-12 * Math.max(1.0, Math.abs(delta))) {
+            node.text = null;
+            node.weight = 0;
+        } else {
+            node.text = text;
+            node.weight = weight;
+        }
+
+        // Refresh the cached completions from this node up to the root
+        for (Node current = node; current != null; current = current.parent) {
+            if (current.children != null && current.children.isEmpty()) {
+                current.children = null;
+            }
+            current.best = best(current);
+            if (current.parent != null && current.text == null && current.children == null) {
+                current.parent.children.remove(current.key);
+                nodes--;
+            }
+        }
+    }
+
+    /**
+     * Top K of the node's own phrase and its children's cached completions
+     */
+    private static Suggestion[] best(Node node) {
+        List<Suggestion> candidates = new ArrayList<>();
+        if (node.text != null) {
+            candidates.add(new Suggestion(node.text, node.weight));
+        }
+        Map<Character, Node> children = node.children;
+        if (children != null) {
+            for (Node child : children.values()) {
+                candidates.addAll(Arrays.asList(child.best));
+            }
+        }
+        candidates.sort((a, b) -> Double.compare(b.weight(), a.weight()));
+        return candidates.subList(0, Math.min(TOP_K, candidates.size())).toArray(new Suggestion[0]);
+    }
+
+    private static Node child(Node node, char c) {
+        Map<Character, Node> children = node.children;
+        return children != null ? children.get(c) : null;
+    }
+
+    /**
+     * Lower case words separated by single spaces, or null if nothing is left
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return null;
+        }
+        StringBuilder normalized = new StringBuilder(Math.min(text.length(), MAX_PHRASE_LENGTH));
+        for (int i = 0; i < text.length() && normalized.length() < MAX_PHRASE_LENGTH; i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(Character.toLowerCase(c));
+            } else if (Character.isWhitespace(c) && normalized.length() > 0 && normalized.charAt(normalized.length() - 1) != ' ') {
+                normalized.append(' ');
+            }
+        }
+        int end = normalized.length();
+        while (end > 0 && normalized.charAt(end - 1) == ' ') {
+            end--;
+        }
+        return end == 0 ? null : normalized.substring(0, end);
+    }
+
+    private static Set<String> terms(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        String normalized = normalize(text);
+        if (normalized == null) {
+            return terms;
+        }
+        for (String term : normalized.split(" ")) {
+            if (term.length() >= MIN_TERM_LENGTH && !STOP_WORDS.contains(term) && !isNumber(term)) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    private static boolean isNumber(String term) {
+        for (int i = 0; i < term.length(); i++) {
+            if (!Character.isDigit(term.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,223 @@
+package Backend.service;
+
+import Backend.util.TokenBucket;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * In-memory login throttling keyed by username and by client address
+ * Attempts are rejected before any database lookup or BCrypt check once
+ * a key has used up its tokens or is in progressive back-off.
+ */
+@Service
+public class LoginRateLimiter {
+
+    private static final Logger logger = Logger.getLogger(LoginRateLimiter.class.getName());
+
+    private final BucketMap byUsername;
+    private final BucketMap byAddress;
+    private final int freeFailures;
+    private final long baseDelayNanos;
+    private final long maxDelayNanos;
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejectedByUsername = new LongAdder();
+    private final LongAdder rejectedByAddress = new LongAdder();
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    /**
+     * Result of an early check
+     */
+    public static final class Decision {
+        private static final Decision ALLOWED = new Decision(true, 0);
+
+        private final boolean allowed;
+        private final long retryAfterMillis;
+
+        private Decision(boolean allowed, long retryAfterMillis) {
+            this.allowed = allowed;
+            this.retryAfterMillis = retryAfterMillis;
+        }
+
+        public boolean isAllowed() { return allowed; }
+        public long getRetryAfterMillis() { return retryAfterMillis; }
+
+        /**
+         * Retry-After header value, rounded up to whole seconds
+         */
+        public long getRetryAfterSeconds() {
+            return Math.max(1, (retryAfterMillis + 999) / 1000);
+        }
+    }
+
+    public LoginRateLimiter(
+            @Value("${login.rate-limit.username.capacity:5}") int usernameCapacity,
+            @Value("${login.rate-limit.username.refill-seconds:60}") long usernameRefillSeconds,
+            @Value("${login.rate-limit.address.capacity:20}") int addressCapacity,
+            @Value("${login.rate-limit.address.refill-seconds:6}") long addressRefillSeconds,
+            @Value("${login.rate-limit.free-failures:3}") int freeFailures,
+            @Value("${login.rate-limit.base-delay-ms:1000}") long baseDelayMillis,
+            @Value("${login.rate-limit.max-delay-ms:900000}") long maxDelayMillis,
+            @Value("${login.rate-limit.max-entries:10000}") int maxEntries,
+            @Value("${login.rate-limit.idle-expiry-minutes:30}") long idleExpiryMinutes) {
+        long idleNanos = TimeUnit.MINUTES.toNanos(idleExpiryMinutes);
+        this.byUsername = new BucketMap(usernameCapacity, TimeUnit.SECONDS.toNanos(usernameRefillSeconds), maxEntries, idleNanos);
+        this.byAddress = new BucketMap(addressCapacity, TimeUnit.SECONDS.toNanos(addressRefillSeconds), maxEntries, idleNanos);
+        this.freeFailures = freeFailures;
+        this.baseDelayNanos = TimeUnit.MILLISECONDS.toNanos(baseDelayMillis);
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+    }
+
+    /**
+     * Takes a token for both the address and the username
+     * Must be followed by onSuccess or onFailure when allowed
+     */
+    public Decision tryAcquire(String username, String address) {
+        long now = System.nanoTime();
+        TokenBucket addressBucket = byAddress.get(normalizeAddress(address), now);
+        long addressWait = addressBucket.tryAcquire(now);
+        if (addressWait > 0) {
+            rejectedByAddress.increment();
+            return new Decision(false, TimeUnit.NANOSECONDS.toMillis(addressWait));
+        }
+
+        TokenBucket usernameBucket = byUsername.get(normalizeUsername(username), now);
+        long usernameWait = usernameBucket.tryAcquire(now);
+        if (usernameWait > 0) {
+            // Do not charge the address for an attempt that never ran
+            addressBucket.release(now, false);
+            rejectedByUsername.increment();
+            return new Decision(false, TimeUnit.NANOSECONDS.toMillis(usernameWait));
+        }
+
+        allowed.increment();
+        return Decision.ALLOWED;
+    }
+
+    /**
+     * Successful login: refunds the tokens and clears the username failure streak
+     * The address streak is kept, so one valid account cannot wipe the record of
+     * guesses from the same address; it lapses once max-delay-ms passes after
+     * its back-off without another failure.
+     */
+    public void onSuccess(String username, String address) {
+        long now = System.nanoTime();
+        successes.increment();
+        byUsername.get(normalizeUsername(username), now).release(now, true);
+        byAddress.get(normalizeAddress(address), now).release(now, false);
+    }
+
+    /**
+     * Failed login: extends the progressive back-off of both keys
+     */
+    public void onFailure(String username, String address) {
+        long now = System.nanoTime();
+        failures.increment();
+        String user = normalizeUsername(username);
+        long delay = byUsername.get(user, now).recordFailure(now, freeFailures, baseDelayNanos, maxDelayNanos);
+        byAddress.get(normalizeAddress(address), now).recordFailure(now, freeFailures * 4, baseDelayNanos, maxDelayNanos);
+        if (delay > 0) {
+            logger.warning("Login for '" + user + "' throttled for " + TimeUnit.NANOSECONDS.toMillis(delay) + " ms after repeated failures");
+        }
+    }
+
+    /**
+     * Counters for monitoring
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("allowed", allowed.sum());
+        stats.put("rejected_by_username", rejectedByUsername.sum());
+        stats.put("rejected_by_address", rejectedByAddress.sum());
+        stats.put("successes", successes.sum());
+        stats.put("failures", failures.sum());
+        stats.put("tracked_usernames", byUsername.size());
+        stats.put("tracked_addresses", byAddress.size());
+        stats.put("evicted", byUsername.evicted.sum() + byAddress.evicted.sum());
+        stats.put("overflow_hits", byUsername.overflowHits.sum() + byAddress.overflowHits.sum());
+        return stats;
+    }
+
+    private static String normalizeUsername(String username) {
+        return username == null ? "" : username.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String normalizeAddress(String address) {
+        return address == null ? "unknown" : address;
+    }
+
+    /**
+     * Bounded map of buckets; idle buckets expire, and once the map is full
+     * unknown keys share one overflow bucket so a flood of fresh keys cannot
+     * grow memory or escape throttling
+     */
+    private static final class BucketMap {
+        private static final long MIN_SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+        private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+        private final int capacity;
+        private final long refillNanos;
+        private final int maxEntries;
+        private final long idleNanos;
+        private final TokenBucket overflow;
+        private final LongAdder evicted = new LongAdder();
+        private final LongAdder overflowHits = new LongAdder();
+        private volatile long lastSweep;
+
+        BucketMap(int capacity, long refillNanos, int maxEntries, long idleNanos) {
+            this.capacity = capacity;
+            this.refillNanos = refillNanos;
+            this.maxEntries = maxEntries;
+            this.idleNanos = idleNanos;
+            long now = System.nanoTime();
+            this.overflow = new TokenBucket(capacity, refillNanos, now);
+            this.lastSweep = now;
+        }
+
+        TokenBucket get(String key, long now) {
+            TokenBucket bucket = buckets.get(key);
+            if (bucket != null) {
+                return bucket;
+            }
+            if (buckets.size() >= maxEntries) {
+                sweep(now, true);
+                if (buckets.size() >= maxEntries) {
+                    overflowHits.increment();
+                    return overflow;
+                }
+            } else {
+                sweep(now, false);
+            }
+            return buckets.computeIfAbsent(key, k -> new TokenBucket(capacity, refillNanos, now));
+        }
+
+        private void sweep(long now, boolean full) {
+            // A full map is swept at most once per second so a key flood stays O(1) per call
+            long interval = full ? MIN_SWEEP_INTERVAL_NANOS : idleNanos;
+            if (now - lastSweep <= interval) {
+                return;
+            }
+            lastSweep = now;
+            buckets.entrySet().removeIf(entry -> {
+                boolean idle = entry.getValue().isIdle(now, idleNanos);
+                if (idle) {
+                    evicted.increment();
+                }
+                return idle;
+            });
+        }
+
+        int size() {
+            return buckets.size();
+        }
+    }
+}
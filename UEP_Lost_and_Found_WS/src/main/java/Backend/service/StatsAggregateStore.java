@@ -0,0 +1,486 @@
+package Backend.service;
+
+import Backend.model.Claim;
+import Backend.model.Item;
+import Backend.repository.ClaimRepository;
+import Backend.repository.ItemRepository;
+import Backend.repository.RepositoryEvents;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Dashboard aggregates maintained incrementally from repository writes
+ * Every write adjusts the counters by the difference between the old and
+ * new state of the row, so reading the dashboard never queries the database.
+ * The state is checkpointed to disk periodically; on startup the checkpoint
+ * is loaded and only rows added since are read back. Changes to existing
+ * rows are not seen that way, so the checkpoint is trusted only after a
+ * clean shutdown: a marker file exists while the store runs, and finding
+ * it at startup means the last run died after the last checkpoint, so
+ * everything is loaded again. Rows changed while no instance was running,
+ * or by another instance, still need POST /api/stats/rebuild.
+ */
+@Service
+public class StatsAggregateStore implements RepositoryEvents.Listener {
+
+    private static final Logger logger = Logger.getLogger(StatsAggregateStore.class.getName());
+    private static final int REPORT_DAYS = 90;
+    private static final int TOP_REPORTERS = 10;
+    private static final Set<String> OPEN_ITEM_STATUSES = Set.of("Lost", "Found");
+    private static final String OPEN_CLAIM_STATUS = "Pending";
+
+    private final ItemRepository itemRepository;
+    private final ClaimRepository claimRepository;
+    private final ObjectMapper objectMapper;
+    private final Path checkpointFile;
+    private final Path runningMarker;
+
+    // Per-row facts needed to compute deltas on update and delete
+    private final Map<Long, ItemFacts> items = new HashMap<>();
+    private final Map<Long, ClaimFacts> claims = new HashMap<>();
+
+    private final Map<String, Long> itemsByStatus = new HashMap<>();
+    private final Map<String, Long> claimsByStatus = new HashMap<>();
+    private final Map<LocalDate, Long> reportsPerDay = new HashMap<>();
+    private final Map<String, Long> reportsByReporter = new HashMap<>();
+
+    private volatile Map<String, Object> snapshot;
+    private final LongAdder snapshotHits = new LongAdder();
+    private final LongAdder snapshotBuilds = new LongAdder();
+    private volatile boolean ready = false;
+    private volatile LocalDateTime lastCheckpoint;
+    private boolean dirty = false;
+    // Serialises full loads; the aggregates themselves are guarded by this
+    private final Object loadLock = new Object();
+    // Changes seen while a rebuild scans the tables, replayed over its result
+    private List<Runnable> pendingChanges;
+
+    record ItemFacts(String status, String reportedBy, Long userId, LocalDate dateReported) {}
+
+    record ClaimFacts(Long itemId, Integer claimantId, String status) {}
+
+    /**
+     * On-disk checkpoint layout
+     */
+    record Checkpoint(LocalDateTime checkpointedAt, Map<Long, ItemFacts> items, Map<Long, ClaimFacts> claims) {}
+
+    public StatsAggregateStore(ObjectMapper objectMapper,
+                               @Value("${stats.checkpoint-file:data/stats-checkpoint.json}") String checkpointFile) {
+        this.itemRepository = new ItemRepository();
+        this.claimRepository = new ClaimRepository();
+        this.objectMapper = objectMapper;
+        this.checkpointFile = Paths.get(checkpointFile);
+        this.runningMarker = this.checkpointFile.resolveSibling(this.checkpointFile.getFileName() + ".running");
+        RepositoryEvents.register(this);
+    }
+
+    /**
+     * Loads the checkpoint and catches up with rows added since, off the startup path
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        Thread loader = new Thread(() -> {
+            synchronized (loadLock) {
+                try {
+                    boolean uncleanStop = Files.exists(runningMarker);
+                    if (uncleanStop) {
+                        logger.warning("Previous run did not stop cleanly, ignoring stats checkpoint: " + checkpointFile);
+                    }
+                    markRunning();
+                    boolean restored = !uncleanStop && loadCheckpoint();
+                    catchUp();
+                    ready = true;
+                    logger.info("Stats aggregates ready (" + (restored ? "checkpoint + catch-up" : "full load") + ")");
+                } catch (RuntimeException e) {
+                    logger.log(Level.SEVERE, "Failed to initialise stats aggregates", e);
+                }
+            }
+        }, "stats-aggregate-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * Dashboard view; served from the cached snapshot until the next write
+     */
+    public Map<String, Object> getDashboard() {
+        Map<String, Object> current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    snapshot = buildSnapshot();
+                    snapshotBuilds.increment();
+                }
+                current = snapshot;
+            }
+        } else {
+            snapshotHits.increment();
+        }
+        return current;
+    }
+
+    /**
+     * Snapshot cache counters and tracked row counts for monitoring
+     * Sizes are read without the lock and may be momentarily stale.
+     */
+    public Map<String, Number> getCacheStats() {
+        Map<String, Number> stats = new LinkedHashMap<>();
+        stats.put("snapshot_hits", snapshotHits.sum());
+        stats.put("snapshot_builds", snapshotBuilds.sum());
+        stats.put("tracked_items", items.size());
+        stats.put("tracked_claims", claims.size());
+        stats.put("ready", ready ? 1 : 0);
+        return stats;
+    }
+
+    /**
+     * Discards all aggregates and reloads them from the database
+     * The tables are read without holding the aggregates' lock, so writers
+     * are not held up; their changes meanwhile are applied to the current
+     * aggregates and replayed over the loaded ones before they are swapped in.
+     */
+    public void rebuild() {
+        synchronized (loadLock) {
+            synchronized (this) {
+                pendingChanges = new ArrayList<>();
+            }
+            Map<Long, ItemFacts> loadedItems = new HashMap<>();
+            Map<Long, ClaimFacts> loadedClaims = new HashMap<>();
+            try {
+                for (Item item : itemRepository.findByIdGreaterThan(0L)) {
+                    loadedItems.put(item.getId(), itemFacts(item));
+                }
+                for (Claim claim : claimRepository.findSummariesByIdGreaterThan(0L)) {
+                    loadedClaims.put(claim.getId(), claimFacts(claim));
+                }
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    pendingChanges = null;
+                }
+                throw e;
+            }
+            synchronized (this) {
+                items.clear();
+                claims.clear();
+                itemsByStatus.clear();
+                claimsByStatus.clear();
+                reportsPerDay.clear();
+                reportsByReporter.clear();
+                loadedItems.forEach(this::applyItem);
+                loadedClaims.forEach(this::applyClaim);
+                List<Runnable> replay = pendingChanges;
+                pendingChanges = null;
+                replay.forEach(Runnable::run);
+                changed();
+                ready = true;
+            }
+            checkpoint();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${stats.checkpoint-interval-ms:60000}")
+    public void scheduledCheckpoint() {
+        if (ready) {
+            checkpoint();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        RepositoryEvents.unregister(this);
+        if (ready) {
+            checkpoint();
+            // Only a checkpoint holding every change makes the next start a clean one
+            synchronized (this) {
+                if (dirty) {
+                    return;
+                }
+            }
+            try {
+                Files.deleteIfExists(runningMarker);
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Failed to remove stats marker: " + runningMarker, e);
+            }
+        }
+    }
+
+    // === Repository events ===
+
+    @Override
+    public void itemSaved(Item item, boolean created) {
+        Long id = item.getId();
+        ItemFacts facts = itemFacts(item);
+        change(() -> applyItem(id, facts));
+    }
+
+    @Override
+    public void itemDeleted(Long itemId) {
+        change(() -> removeItem(itemId));
+    }
+
+    @Override
+    public void claimSaved(Claim claim, boolean created) {
+        Long id = claim.getId();
+        ClaimFacts facts = claimFacts(claim);
+        change(() -> applyClaim(id, facts));
+    }
+
+    @Override
+    public void claimDeleted(Long claimId) {
+        change(() -> applyClaim(claimId, null));
+    }
+
+    @Override
+    public void userDeleted(Long userId) {
+        change(() -> removeUser(userId));
+    }
+
+    @Override
+    public void dataReplaced() {
+        // Off the restoring thread, like the initial load
+        Thread loader = new Thread(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                logger.log(Level.SEVERE, "Failed to rebuild stats aggregates", e);
+            }
+        }, "stats-aggregate-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    // === Incremental maintenance ===
+
+    /**
+     * Applies a change, and keeps it for replay while a rebuild is loading
+     */
+    private synchronized void change(Runnable change) {
+        change.run();
+        if (pendingChanges != null) {
+            pendingChanges.add(change);
+        }
+    }
+
+    private static ItemFacts itemFacts(Item item) {
+        LocalDate reported = item.getDateReported() != null ? item.getDateReported().toLocalDate() : LocalDate.now();
+        return new ItemFacts(item.getStatus(), item.getReportedBy(), item.getUserId(), reported);
+    }
+
+    private static ClaimFacts claimFacts(Claim claim) {
+        Long itemId = claim.getItem() != null ? claim.getItem().getId() : null;
+        return new ClaimFacts(itemId, claim.getClaimantId(), claim.getStatus());
+    }
+
+    private synchronized void removeItem(Long itemId) {
+        applyItem(itemId, null);
+        // claims.item_id is ON DELETE CASCADE
+        claims.entrySet().stream()
+                .filter(entry -> itemId.equals(entry.getValue().itemId()))
+                .map(Map.Entry::getKey)
+                .toList()
+                .forEach(claimId -> applyClaim(claimId, null));
+    }
+
+    private synchronized void removeUser(Long userId) {
+        // items.user_id and claims.claimant_id are ON DELETE CASCADE
+        items.entrySet().stream()
+                .filter(entry -> userId.equals(entry.getValue().userId()))
+                .map(Map.Entry::getKey)
+                .toList()
+                .forEach(this::removeItem);
+        claims.entrySet().stream()
+                .filter(entry -> entry.getValue().claimantId() != null && userId.intValue() == entry.getValue().claimantId())
+                .map(Map.Entry::getKey)
+                .toList()
+                .forEach(claimId -> applyClaim(claimId, null));
+    }
+
+    private synchronized void applyItem(Long id, ItemFacts next) {
+        ItemFacts previous = next == null ? items.remove(id) : items.put(id, next);
+        if (previous != null) {
+            adjust(itemsByStatus, previous.status(), -1);
+            adjust(reportsPerDay, previous.dateReported(), -1);
+            adjust(reportsByReporter, previous.reportedBy(), -1);
+        }
+        if (next != null) {
+            adjust(itemsByStatus, next.status(), 1);
+            adjust(reportsPerDay, next.dateReported(), 1);
+            adjust(reportsByReporter, next.reportedBy(), 1);
+        }
+        changed();
+    }
+
+    private synchronized void applyClaim(Long id, ClaimFacts next) {
+        ClaimFacts previous = next == null ? claims.remove(id) : claims.put(id, next);
+        if (previous != null) {
+            adjust(claimsByStatus, previous.status(), -1);
+        }
+        if (next != null) {
+            adjust(claimsByStatus, next.status(), 1);
+        }
+        changed();
+    }
+
+    private static <K> void adjust(Map<K, Long> counts, K key, long delta) {
+        if (key == null) {
+            return;
+        }
+        long value = counts.getOrDefault(key, 0L) + delta;
+        if (value <= 0) {
+            counts.remove(key);
+        } else {
+            counts.put(key, value);
+        }
+    }
+
+    private void changed() {
+        dirty = true;
+        snapshot = null;
+    }
+
+    private synchronized Map<String, Object> buildSnapshot() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("ready", ready);
+        result.put("items_by_status", new LinkedHashMap<>(itemsByStatus));
+        result.put("claims_by_status", new LinkedHashMap<>(claimsByStatus));
+
+        List<Map<String, Object>> perDay = new ArrayList<>(REPORT_DAYS);
+        LocalDate today = LocalDate.now();
+        for (int i = REPORT_DAYS - 1; i >= 0; i--) {
+            LocalDate day = today.minusDays(i);
+            perDay.add(Map.of("date", day.toString(), "count", reportsPerDay.getOrDefault(day, 0L)));
+        }
+        result.put("reports_per_day", perDay);
+
+        List<Map<String, Object>> topReporters = reportsByReporter.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(TOP_REPORTERS)
+                .map(entry -> Map.<String, Object>of("reported_by", entry.getKey(), "count", entry.getValue()))
+                .toList();
+        result.put("top_reporters", topReporters);
+
+        long openItems = itemsByStatus.entrySet().stream()
+                .filter(entry -> OPEN_ITEM_STATUSES.contains(entry.getKey()))
+                .mapToLong(Map.Entry::getValue).sum();
+        long resolvedItems = items.size() - openItems;
+        long openClaims = claimsByStatus.getOrDefault(OPEN_CLAIM_STATUS, 0L);
+        long resolvedClaims = claims.size() - openClaims;
+        result.put("items_open_vs_resolved", ratio(openItems, resolvedItems));
+        result.put("claims_open_vs_resolved", ratio(openClaims, resolvedClaims));
+
+        result.put("last_checkpoint", lastCheckpoint != null ? lastCheckpoint.toString() : null);
+        return result;
+    }
+
+    private static Map<String, Object> ratio(long open, long resolved) {
+        long total = open + resolved;
+        Map<String, Object> ratio = new LinkedHashMap<>();
+        ratio.put("open", open);
+        ratio.put("resolved", resolved);
+        ratio.put("resolved_ratio", total == 0 ? 0.0 : (double) resolved / total);
+        return ratio;
+    }
+
+    // === Loading and checkpointing ===
+
+    /**
+     * Reads rows with IDs above the highest one already known
+     */
+    private void catchUp() {
+        long maxItemId;
+        long maxClaimId;
+        synchronized (this) {
+            maxItemId = items.keySet().stream().mapToLong(Long::longValue).max().orElse(0L);
+            maxClaimId = claims.keySet().stream().mapToLong(Long::longValue).max().orElse(0L);
+        }
+        for (Item item : itemRepository.findByIdGreaterThan(maxItemId)) {
+            itemSaved(item, true);
+        }
+        for (Claim claim : claimRepository.findSummariesByIdGreaterThan(maxClaimId)) {
+            claimSaved(claim, true);
+        }
+    }
+
+    private void markRunning() {
+        try {
+            Path parent = runningMarker.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            if (!Files.exists(runningMarker)) {
+                Files.createFile(runningMarker);
+            }
+        } catch (IOException e) {
+            // Without the marker an unclean stop goes unnoticed; the checkpoint is still usable
+            logger.log(Level.WARNING, "Failed to create stats marker: " + runningMarker, e);
+        }
+    }
+
+    private synchronized boolean loadCheckpoint() {
+        if (!Files.exists(checkpointFile)) {
+            return false;
+        }
+        try {
+            Checkpoint checkpoint = objectMapper.readValue(checkpointFile.toFile(), Checkpoint.class);
+            checkpoint.items().forEach(this::applyItem);
+            checkpoint.claims().forEach(this::applyClaim);
+            lastCheckpoint = checkpoint.checkpointedAt();
+            dirty = false;
+            return true;
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Ignoring unreadable stats checkpoint: " + checkpointFile, e);
+            return false;
+        }
+    }
+
+    private void checkpoint() {
+        Checkpoint checkpoint;
+        synchronized (this) {
+            if (!dirty) {
+                return;
+            }
+            checkpoint = new Checkpoint(LocalDateTime.now(), new HashMap<>(items), new HashMap<>(claims));
+            dirty = false;
+        }
+        try {
+            Path parent = checkpointFile.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path temp = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+            objectMapper.writeValue(temp.toFile(), checkpoint);
+            Files.move(temp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            lastCheckpoint = checkpoint.checkpointedAt();
+            snapshot = null;
+        } catch (IOException e) {
+            synchronized (this) {
+                dirty = true;
+            }
+            logger.log(Level.WARNING, "Failed to write stats checkpoint: " + checkpointFile, e);
+        }
+    }
+}
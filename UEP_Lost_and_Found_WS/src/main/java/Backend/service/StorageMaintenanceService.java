@@ -0,0 +1,365 @@
+package Backend.service;
+
+import Backend.model.FileDeletion;
+import Backend.repository.FileDeletionRepository;
+import Backend.repository.ItemRepository;
+import Backend.util.TokenBucket;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Upload storage maintenance
+ * Files are never deleted on the request path: deletes are queued in
+ * file_deletions and a background worker removes them at a limited rate,
+ * retrying with back-off. A periodic sweep walks the upload directory in
+ * parallel and queues files no item (live or archived) refers to.
+ */
+@Service
+public class StorageMaintenanceService {
+
+    private static final Logger logger = Logger.getLogger(StorageMaintenanceService.class.getName());
+    private static final int REPORT_SAMPLE = 100;
+
+    private final FileDeletionRepository deletionRepository;
+    private final ItemRepository itemRepository;
+    private final Path uploadDir;
+    private final int deletionBatchSize;
+    private final int maxAttempts;
+    private final long retryBaseSeconds;
+    private final TokenBucket deletionRate;
+    private final boolean sweepEnabled;
+    private final boolean sweepDryRun;
+    private final long sweepMinAgeMillis;
+    private final int sweepParallelism;
+    private final int sweepMaxOrphans;
+
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private volatile Map<String, Object> lastSweep = Map.of();
+
+    /**
+     * Upload file found by the sweep that no item refers to
+     */
+    record Orphan(Path path, long bytes, Instant modified) {}
+
+    public StorageMaintenanceService(
+            @Value("${storage.upload-dir:uploads}") String uploadDir,
+            @Value("${storage.deletion.batch-size:50}") int deletionBatchSize,
+            @Value("${storage.deletion.max-attempts:5}") int maxAttempts,
+            @Value("${storage.deletion.retry-base-seconds:30}") long retryBaseSeconds,
+            @Value("${storage.deletion.rate-per-second:20}") int deletionsPerSecond,
+            @Value("${storage.sweep.enabled:true}") boolean sweepEnabled,
+            @Value("${storage.sweep.dry-run:false}") boolean sweepDryRun,
+            @Value("${storage.sweep.min-age-minutes:1440}") long sweepMinAgeMinutes,
+            @Value("${storage.sweep.parallelism:4}") int sweepParallelism,
+            @Value("${storage.sweep.max-orphans-per-run:1000}") int sweepMaxOrphans) {
+        this.deletionRepository = new FileDeletionRepository();
+        this.itemRepository = new ItemRepository();
+        this.uploadDir = Paths.get(uploadDir).toAbsolutePath().normalize();
+        this.deletionBatchSize = Math.max(1, deletionBatchSize);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBaseSeconds = Math.max(1, retryBaseSeconds);
+        int rate = Math.max(1, deletionsPerSecond);
+        this.deletionRate = new TokenBucket(rate, TimeUnit.SECONDS.toNanos(1) / rate, System.nanoTime());
+        this.sweepEnabled = sweepEnabled;
+        this.sweepDryRun = sweepDryRun;
+        this.sweepMinAgeMillis = TimeUnit.MINUTES.toMillis(Math.max(0, sweepMinAgeMinutes));
+        this.sweepParallelism = Math.max(1, sweepParallelism);
+        this.sweepMaxOrphans = Math.max(1, sweepMaxOrphans);
+    }
+
+    /**
+     * Directory uploaded images are written to
+     */
+    public Path getUploadDir() {
+        return uploadDir;
+    }
+
+    /**
+     * Queues an upload file for deletion
+     * Never throws: if the queue cannot be written the file is left for the sweep.
+     */
+    public void scheduleDeletion(String path, String reason) {
+        if (path != null) {
+            scheduleDeletions(List.of(path), reason);
+        }
+    }
+
+    /**
+     * Queues upload files for deletion in one batch
+     */
+    public void scheduleDeletions(Collection<String> paths, String reason) {
+        List<String> uploads = paths.stream()
+                .filter(path -> path != null && !path.isBlank())
+                .filter(path -> {
+                    if (isUpload(path)) {
+                        return true;
+                    }
+                    logger.warning("Refusing to delete " + path + ": outside " + uploadDir);
+                    return false;
+                })
+                .toList();
+        if (uploads.isEmpty()) {
+            return;
+        }
+        try {
+            deletionRepository.enqueueAll(uploads, reason);
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Could not queue " + uploads.size() + " file deletions; the orphan sweep will reclaim them", e);
+        }
+    }
+
+    /**
+     * Works off due deletions, at most rate-per-second files per second
+     */
+    @Scheduled(initialDelayString = "${storage.deletion.initial-delay-ms:10000}", fixedDelayString = "${storage.deletion.interval-ms:5000}")
+    public void processDeletions() {
+        List<FileDeletion> due = deletionRepository.findDue(deletionBatchSize);
+        for (FileDeletion deletion : due) {
+            if (!throttle()) {
+                return;
+            }
+            process(deletion);
+        }
+    }
+
+    private void process(FileDeletion deletion) {
+        if (!isUpload(deletion.getPath())) {
+            logger.warning("Dropping queued deletion of " + deletion.getPath() + ": outside " + uploadDir);
+            deletionRepository.deleteById(deletion.getId());
+            Metrics.counter("storage.deletions", "outcome", "refused").increment();
+            return;
+        }
+        try {
+            Files.deleteIfExists(resolve(deletion.getPath()));
+            deletionRepository.deleteById(deletion.getId());
+            Metrics.counter("storage.deletions", "outcome", "deleted", "reason", deletion.getReason()).increment();
+        } catch (IOException e) {
+            int attempts = deletion.getAttempts() + 1;
+            if (attempts >= maxAttempts) {
+                logger.log(Level.SEVERE, "Giving up deleting " + deletion.getPath() + " after " + attempts + " attempts", e);
+                deletionRepository.deleteById(deletion.getId());
+                Metrics.counter("storage.deletions", "outcome", "abandoned", "reason", deletion.getReason()).increment();
+                return;
+            }
+            long delaySeconds = retryBaseSeconds << Math.min(attempts - 1, 16);
+            logger.log(Level.WARNING, "Failed to delete " + deletion.getPath() + ", retrying in " + delaySeconds + "s", e);
+            deletionRepository.markFailed(deletion.getId(), e.toString(), LocalDateTime.now().plusSeconds(delaySeconds));
+            Metrics.counter("storage.deletions", "outcome", "failed", "reason", deletion.getReason()).increment();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${storage.sweep.initial-delay-ms:600000}", fixedDelayString = "${storage.sweep.interval-ms:86400000}")
+    public void scheduledSweep() {
+        if (sweepEnabled) {
+            sweep(sweepDryRun);
+        }
+    }
+
+    /**
+     * Finds upload files no item refers to and, unless dry-run, queues them for deletion
+     * Files younger than min-age-minutes are skipped: an image is written
+     * before its item row, and that row may not be committed yet.
+     * @return Report of the sweep; with dryRun nothing is changed
+     */
+    public Map<String, Object> sweep(boolean dryRun) {
+        if (!sweeping.compareAndSet(false, true)) {
+            Map<String, Object> busy = new LinkedHashMap<>(lastSweep);
+            busy.put("skipped", "sweep already running");
+            return busy;
+        }
+        try {
+            long start = System.nanoTime();
+            // References first: a file uploaded after this point is younger than min-age
+            Set<Path> referenced = normalize(itemRepository.findReferencedImages());
+            Set<Path> queued = normalize(deletionRepository.findQueuedPaths());
+            long cutoff = System.currentTimeMillis() - sweepMinAgeMillis;
+
+            SweepResult result;
+            if (Files.isDirectory(uploadDir)) {
+                ForkJoinPool pool = new ForkJoinPool(sweepParallelism);
+                try {
+                    result = pool.invoke(new DirectoryScan(uploadDir, referenced, queued, cutoff));
+                } finally {
+                    pool.shutdown();
+                }
+            } else {
+                result = new SweepResult(0, 0, List.of());
+            }
+
+            List<Orphan> orphans = result.orphans().stream()
+                    .sorted(Comparator.comparing(Orphan::modified))
+                    .toList();
+            boolean truncated = orphans.size() > sweepMaxOrphans;
+            if (truncated) {
+                orphans = orphans.subList(0, sweepMaxOrphans);
+            }
+
+            if (!dryRun && !orphans.isEmpty()) {
+                deletionRepository.enqueueAll(orphans.stream()
+                        .map(orphan -> orphan.path().toString())
+                        .toList(), "orphan");
+            }
+
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("finished_at", LocalDateTime.now().toString());
+            report.put("dry_run", dryRun);
+            report.put("upload_dir", uploadDir.toString());
+            report.put("scanned_files", result.files());
+            report.put("referenced_files", referenced.size());
+            report.put("orphans", orphans.size());
+            report.put("orphan_bytes", orphans.stream().mapToLong(Orphan::bytes).sum());
+            report.put("truncated", truncated);
+            report.put(dryRun ? "would_queue" : "queued", orphans.stream()
+                    .limit(REPORT_SAMPLE)
+                    .map(orphan -> Map.of("path", uploadDir.relativize(orphan.path()).toString(),
+                            "bytes", orphan.bytes(),
+                            "modified", orphan.modified().toString()))
+                    .toList());
+            report.put("skipped_recent_files", result.recent());
+            report.put("duration_ms", (System.nanoTime() - start) / 1_000_000);
+            if (!dryRun) {
+                lastSweep = report;
+            }
+            if (!orphans.isEmpty()) {
+                logger.info((dryRun ? "Dry run found " : "Queued ") + orphans.size() + " orphaned upload files" +
+                        (truncated ? "; more remain for the next sweep" : ""));
+            }
+            return report;
+        } catch (RuntimeException e) {
+            logger.log(Level.SEVERE, "Upload sweep failed", e);
+            throw e;
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    /**
+     * Queue length and the last sweep, for the admin diagnostics
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("upload_dir", uploadDir.toString());
+        status.put("queued_deletions", deletionRepository.count());
+        status.put("last_sweep", lastSweep);
+        return status;
+    }
+
+    private boolean throttle() {
+        long wait;
+        while ((wait = deletionRate.tryAcquire(System.nanoTime())) > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Path resolve(String path) {
+        return Paths.get(path).toAbsolutePath().normalize();
+    }
+
+    private boolean isUpload(String path) {
+        Path resolved = resolve(path);
+        return resolved.startsWith(uploadDir) && !resolved.equals(uploadDir);
+    }
+
+    private Set<Path> normalize(Collection<String> paths) {
+        return paths.stream().map(this::resolve).collect(Collectors.toSet());
+    }
+
+    record SweepResult(int files, int recent, List<Orphan> orphans) {
+        SweepResult merge(SweepResult other) {
+            List<Orphan> merged = new ArrayList<>(orphans);
+            merged.addAll(other.orphans);
+            return new SweepResult(files + other.files, recent + other.recent, merged);
+        }
+    }
+
+    /**
+     * Scans one directory; subdirectories are forked so large trees are walked in parallel
+     */
+    private static final class DirectoryScan extends RecursiveTask<SweepResult> {
+
+        private final Path dir;
+        private final Set<Path> referenced;
+        private final Set<Path> queued;
+        private final long cutoff;
+
+        DirectoryScan(Path dir, Set<Path> referenced, Set<Path> queued, long cutoff) {
+            this.dir = dir;
+            this.referenced = referenced;
+            this.queued = queued;
+            this.cutoff = cutoff;
+        }
+
+        @Override
+        protected SweepResult compute() {
+            List<DirectoryScan> subdirs = new ArrayList<>();
+            List<Orphan> orphans = new ArrayList<>();
+            int files = 0;
+            int recent = 0;
+
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir)) {
+                for (Path entry : entries) {
+                    BasicFileAttributes attributes = Files.readAttributes(entry, BasicFileAttributes.class);
+                    if (attributes.isDirectory()) {
+                        DirectoryScan scan = new DirectoryScan(entry, referenced, queued, cutoff);
+                        scan.fork();
+                        subdirs.add(scan);
+                        continue;
+                    }
+                    if (!attributes.isRegularFile()) {
+                        continue;
+                    }
+                    files++;
+                    Path path = entry.toAbsolutePath().normalize();
+                    if (referenced.contains(path) || queued.contains(path)) {
+                        continue;
+                    }
+                    if (attributes.lastModifiedTime().toMillis() > cutoff) {
+                        recent++;
+                        continue;
+                    }
+                    orphans.add(new Orphan(path, attributes.size(), attributes.lastModifiedTime().toInstant()));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to scan " + dir, e);
+            }
+
+            SweepResult result = new SweepResult(files, recent, orphans);
+            for (DirectoryScan scan : subdirs) {
+                result = result.merge(scan.join());
+            }
+            return result;
+        }
+    }
+}
@@ -2,10 +2,15 @@
 package Backend.service;
 
 import Backend.model.User;
+import Backend.repository.ItemRepository;
 import Backend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,8 +18,24 @@ import java.util.Optional;
 public class UserService {
 
     private UserRepository userRepository;
+    private ItemRepository itemRepository = new ItemRepository();
     private BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
 
+    @Autowired
+    private StorageMaintenanceService storageService;
+
+    // Directory counts stop here; beyond it the admin page shows "more than"
+    @Value("${users.directory.count-cap:1000}")
+    private int directoryCountCap = 1000;
+
+    /**
+     * One page of the admin user directory
+     * @param next Cursor of the following page, null on the last one
+     * @param count Matching users, only computed for the first page (else null)
+     * @param countCapped Whether count stopped at the cap and there are more
+     */
+    public record DirectoryPage(List<User> users, String next, Long count, boolean countCapped) {}
+
     public UserService() {
         this.userRepository = new UserRepository();
     }
@@ -30,6 +51,53 @@ public class UserService {
         return userRepository.findAll();
     }
 
+    /**
+     * Admin directory page after an opaque cursor from a previous page
+     * @throws IllegalArgumentException If the cursor cannot be read
+     */
+    public DirectoryPage getDirectoryPage(UserRepository.DirectoryFilter filter, String after, int limit) {
+        UserRepository.DirectoryCursor cursor = after != null ? decodeCursor(after) : null;
+        // One extra row tells whether there is a next page without another query
+        List<User> users = userRepository.findDirectoryPage(filter, cursor, limit + 1);
+        String next = null;
+        if (users.size() > limit) {
+            users = users.subList(0, limit);
+            next = encodeCursor(users.get(limit - 1));
+        }
+
+        Long count = null;
+        boolean capped = false;
+        if (cursor == null) {
+            long counted = next == null ? users.size() : userRepository.countDirectory(filter, directoryCountCap);
+            capped = counted > directoryCountCap;
+            count = Math.min(counted, directoryCountCap);
+        }
+        return new DirectoryPage(users, next, count, capped);
+    }
+
+    private static String encodeCursor(User last) {
+        String raw = last.getId() + "\n" + nullToEmpty(last.getLname()) + "\n" + nullToEmpty(last.getFname());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static UserRepository.DirectoryCursor decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\n", 3);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new UserRepository.DirectoryCursor(parts[1], parts[2], Long.parseLong(parts[0]));
+        } catch (IllegalArgumentException e) {
+            // Also covers bad base64 and NumberFormatException
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
     public Optional<User> findByUsername(String username) {
         return userRepository.findByUsername(username);
     }
@@ -67,7 +135,12 @@ public class UserService {
     public void deleteUser(String username) {
         Optional<User> userOpt = userRepository.findByUsername(username);
         if (userOpt.isPresent()) {
+            // The user's items go with them (ON DELETE CASCADE), so their images must too
+            List<String> images = itemRepository.findImagesByUserId(userOpt.get().getId());
             userRepository.delete(userOpt.get());
+            if (storageService != null) {
+                storageService.scheduleDeletions(images, "user-deleted");
+            }
         } else {
             throw new RuntimeException("User not found");
         }
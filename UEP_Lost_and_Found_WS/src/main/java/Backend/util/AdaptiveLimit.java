@@ -0,0 +1,120 @@
+package Backend.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that follows latency, gradient style
+ * Every completed call's latency feeds a short and a long moving average.
+ * While the short one stays within tolerance of the long one the limit
+ * grows by about its square root per call; once it rises beyond that, the
+ * limit shrinks in proportion, so queueing moves out of the server and into
+ * fast rejections. Admission is lock-free; only the limit update is
+ * synchronized, once per completed call.
+ */
+public class AdaptiveLimit {
+
+    private static final double SHORT_WINDOW = 10;
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final double longWindow;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double limit;
+    // Moving averages in nanoseconds, guarded by this
+    private double shortRtt;
+    private double longRtt;
+
+    /**
+     * @param tolerance How far the short-term latency may rise above the long-term one before the limit shrinks, e.g. 1.5
+     * @param smoothing Weight of each new limit estimate, 0 to 1
+     * @param longWindow Calls the long-term latency average spans
+     */
+    public AdaptiveLimit(int initialLimit, int minLimit, int maxLimit, double tolerance, double smoothing, int longWindow) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.tolerance = Math.max(1.0, tolerance);
+        this.smoothing = Math.min(1.0, Math.max(0.01, smoothing));
+        this.longWindow = Math.max(SHORT_WINDOW, longWindow);
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+    }
+
+    /**
+     * Takes a slot if fewer than share of the limit are in use
+     * Lower shares are turned away first as the limit fills, which keeps
+     * the remaining headroom for callers with a larger share.
+     * @param share Fraction of the limit this caller may fill, 0 to 1
+     * @return true if admitted; the caller must then call release
+     */
+    public boolean tryAcquire(double share) {
+        int max = Math.max(1, (int) Math.round(limit * share));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= max) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Gives back a slot and updates the limit from the call's latency
+     */
+    public void release(long rttNanos) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        update(Math.max(1, rttNanos), inFlightBefore);
+    }
+
+    /**
+     * Gives back a slot without a latency sample, e.g. for a call that
+     * continues asynchronously
+     */
+    public void releaseWithoutSample() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public synchronized double getShortRttMillis() {
+        return shortRtt / 1_000_000.0;
+    }
+
+    public synchronized double getLongRttMillis() {
+        return longRtt / 1_000_000.0;
+    }
+
+    private synchronized void update(long rtt, int inFlightBefore) {
+        if (longRtt == 0) {
+            shortRtt = rtt;
+            longRtt = rtt;
+            return;
+        }
+        shortRtt += (rtt - shortRtt) / SHORT_WINDOW;
+        longRtt += (rtt - longRtt) / longWindow;
+        // Latency fell well below the long-term average: forget the slow past faster
+        if (longRtt > 2 * shortRtt) {
+            longRtt *= 0.95;
+        }
+
+        double current = limit;
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, tolerance * longRtt / shortRtt));
+        // A limit that is not being used says nothing about latency under load
+        if (gradient == 1.0 && inFlightBefore < current / 2) {
+            return;
+        }
+        double estimate = current * gradient + Math.sqrt(current);
+        double next = current * (1 - smoothing) + estimate * smoothing;
+        limit = Math.min(maxLimit, Math.max(minLimit, next));
+    }
+}
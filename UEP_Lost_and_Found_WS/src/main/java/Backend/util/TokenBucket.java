@@ -0,0 +1,130 @@
+package Backend.util;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free token bucket with progressive back-off
+ * The whole bucket state is swapped with compare-and-set so concurrent
+ * callers never block each other. Times are System.nanoTime() values.
+ */
+public class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final AtomicReference<State> state;
+
+    /**
+     * Immutable snapshot of the bucket
+     */
+    private static final class State {
+        final double tokens;
+        final long updatedAt;
+        final int failures;
+        final long blockedUntil;
+
+        State(double tokens, long updatedAt, int failures, long blockedUntil) {
+            this.tokens = tokens;
+            this.updatedAt = updatedAt;
+            this.failures = failures;
+            this.blockedUntil = blockedUntil;
+        }
+    }
+
+    /**
+     * @param capacity Maximum number of tokens (burst size)
+     * @param refillNanos Nanoseconds needed to refill one token
+     * @param now Current time in nanoseconds
+     */
+    public TokenBucket(int capacity, long refillNanos, long now) {
+        this.capacity = capacity;
+        this.tokensPerNano = 1.0 / refillNanos;
+        this.state = new AtomicReference<>(new State(capacity, now, 0, now));
+    }
+
+    /**
+     * Takes one token if available and the bucket is not in back-off
+     * @return 0 if a token was taken, otherwise the nanoseconds to wait
+     */
+    public long tryAcquire(long now) {
+        while (true) {
+            State current = state.get();
+            if (now - current.blockedUntil < 0) {
+                return current.blockedUntil - now;
+            }
+            double tokens = refill(current, now);
+            if (tokens < 1.0) {
+                return (long) Math.ceil((1.0 - tokens) / tokensPerNano);
+            }
+            State next = new State(tokens - 1.0, now, current.failures, current.blockedUntil);
+            if (state.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Gives back a token taken by tryAcquire
+     * @param clearFailures true to also forget the failure streak
+     */
+    public void release(long now, boolean clearFailures) {
+        while (true) {
+            State current = state.get();
+            double tokens = Math.min(capacity, refill(current, now) + 1.0);
+            int failures = clearFailures ? 0 : current.failures;
+            long blockedUntil = clearFailures ? now : current.blockedUntil;
+            if (state.compareAndSet(current, new State(tokens, now, failures, blockedUntil))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Records a failed attempt; once more than freeFailures are in a row the
+     * bucket blocks for baseDelay doubled per extra failure, capped at maxDelay.
+     * A failure more than maxDelay after the back-off ended starts a new
+     * streak, so keys whose streak is never cleared by a success still
+     * recover; a failure right after a capped block is blocked for maxDelay again.
+     * @return Nanoseconds the bucket is now blocked for (0 if not blocked)
+     */
+    public long recordFailure(long now, int freeFailures, long baseDelayNanos, long maxDelayNanos) {
+        while (true) {
+            State current = state.get();
+            boolean streakExpired = now - current.blockedUntil > maxDelayNanos;
+            int failures = streakExpired ? 1 : current.failures + 1;
+            long delay = 0;
+            if (failures > freeFailures) {
+                int shift = Math.min(failures - freeFailures - 1, 30);
+                delay = Math.min(maxDelayNanos, baseDelayNanos << shift);
+                if (delay < 0) {
+                    delay = maxDelayNanos;
+                }
+            }
+            State next = new State(refill(current, now), now, failures, now + delay);
+            if (state.compareAndSet(current, next)) {
+                return delay;
+            }
+        }
+    }
+
+    /**
+     * Checks whether the bucket carries no information anymore and can be dropped
+     */
+    public boolean isIdle(long now, long idleNanos) {
+        State current = state.get();
+        return now - current.updatedAt > idleNanos
+                && now - current.blockedUntil >= 0
+                && refill(current, now) >= capacity;
+    }
+
+    /**
+     * Number of failures in the current streak
+     */
+    public int getFailures() {
+        return state.get().failures;
+    }
+
+    private double refill(State current, long now) {
+        long elapsed = Math.max(0, now - current.updatedAt);
+        return Math.min(capacity, current.tokens + elapsed * tokensPerNano);
+    }
+}
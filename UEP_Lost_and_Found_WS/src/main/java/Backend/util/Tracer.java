@@ -0,0 +1,216 @@
+package Backend.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Minimal in-process tracer
+ * A sampled request opens a Trace on its thread; controller, service,
+ * repository and JDBC code then open child spans with startSpan. When no
+ * trace is active, startSpan returns a shared no-op span, so unsampled
+ * requests pay one thread-local lookup per instrumented call.
+ *
+ *   try (Tracer.Span span = Tracer.startSpan("repository", "item.findById")) { ... }
+ */
+public final class Tracer {
+
+    private static final ThreadLocal<Span> current = new ThreadLocal<>();
+
+    private Tracer() {}
+
+    /**
+     * @return a random 16 hex digit trace id
+     */
+    public static String newTraceId() {
+        return String.format("%016x", ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Starts a trace on the current thread; its root span becomes the current span
+     * @param maxSpans Spans beyond this are counted but not kept
+     */
+    public static Trace startTrace(String traceId, String name, int maxSpans) {
+        Trace trace = new Trace(traceId, maxSpans);
+        trace.root = new Span(trace, null, "http", name);
+        current.set(trace.root);
+        return trace;
+    }
+
+    /**
+     * Opens a child of the current span
+     * @return the new span, or a no-op span when no trace is active or it is full
+     */
+    public static Span startSpan(String kind, String name) {
+        Span parent = current.get();
+        if (parent == null) {
+            return Span.NOOP;
+        }
+        if (parent.trace.isFull()) {
+            parent.trace.dropped++;
+            return Span.NOOP;
+        }
+        Span span = new Span(parent.trace, parent, kind, name);
+        current.set(span);
+        return span;
+    }
+
+    public static boolean isActive() {
+        return current.get() != null;
+    }
+
+    /**
+     * Spans of one request, in start order
+     */
+    public static final class Trace {
+        private final String id;
+        private final long startedAtMillis = System.currentTimeMillis();
+        private final long startNanos = System.nanoTime();
+        private final int maxSpans;
+        private final List<Span> spans = new ArrayList<>();
+        private int dropped;
+        private Span root;
+
+        private Trace(String id, int maxSpans) {
+            this.id = id;
+            this.maxSpans = maxSpans;
+        }
+
+        private int add(Span span) {
+            spans.add(span);
+            return spans.size();
+        }
+
+        private boolean isFull() {
+            return spans.size() >= maxSpans;
+        }
+
+        public String getId() { return id; }
+        public long getStartedAtMillis() { return startedAtMillis; }
+        public Span getRoot() { return root; }
+        public List<Span> getSpans() { return Collections.unmodifiableList(spans); }
+        public int getDropped() { return dropped; }
+
+        /**
+         * Serializable view: trace summary plus a flat span list with parent ids
+         */
+        public Map<String, Object> toMap(boolean withSpans) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("trace_id", id);
+            map.put("name", root.name);
+            map.put("started_at", startedAtMillis);
+            map.put("duration_ms", toMillis(root.durationNanos));
+            map.put("error", root.error);
+            map.put("span_count", spans.size());
+            map.put("dropped_spans", dropped);
+            if (withSpans) {
+                List<Map<String, Object>> list = new ArrayList<>(spans.size());
+                for (Span span : spans) {
+                    list.add(span.toMap(startNanos));
+                }
+                map.put("spans", list);
+            }
+            return map;
+        }
+    }
+
+    /**
+     * One timed operation; end() must be called on the thread that started it
+     */
+    public static final class Span implements AutoCloseable {
+        static final Span NOOP = new Span();
+
+        private final Trace trace;
+        private final Span parent;
+        private final int id;
+        private final String kind;
+        private String name;
+        private final long startNanos;
+        private long durationNanos = -1;
+        private String error;
+        private Map<String, String> tags;
+
+        private Span() {
+            this.trace = null;
+            this.parent = null;
+            this.id = -1;
+            this.kind = null;
+            this.startNanos = 0;
+        }
+
+        private Span(Trace trace, Span parent, String kind, String name) {
+            this.trace = trace;
+            this.parent = parent;
+            this.kind = kind;
+            this.name = name;
+            this.startNanos = System.nanoTime();
+            this.id = trace.add(this);
+        }
+
+        public Span tag(String key, String value) {
+            if (this != NOOP) {
+                if (tags == null) {
+                    tags = new LinkedHashMap<>();
+                }
+                tags.put(key, value);
+            }
+            return this;
+        }
+
+        public void setName(String name) {
+            if (this != NOOP) {
+                this.name = name;
+            }
+        }
+
+        public void error(Throwable e) {
+            if (this != NOOP) {
+                this.error = e.getClass().getSimpleName();
+            }
+        }
+
+        public void end() {
+            if (this == NOOP || durationNanos >= 0) {
+                return;
+            }
+            durationNanos = System.nanoTime() - startNanos;
+            if (parent != null) {
+                current.set(parent);
+            } else {
+                current.remove();
+            }
+        }
+
+        @Override
+        public void close() {
+            end();
+        }
+
+        public long getDurationNanos() { return durationNanos; }
+
+        private Map<String, Object> toMap(long traceStartNanos) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("id", id);
+            map.put("parent_id", parent != null ? parent.id : null);
+            map.put("kind", kind);
+            map.put("name", name);
+            map.put("start_ms", toMillis(startNanos - traceStartNanos));
+            map.put("duration_ms", durationNanos >= 0 ? toMillis(durationNanos) : null);
+            if (error != null) {
+                map.put("error", error);
+            }
+            if (tags != null) {
+                map.put("tags", tags);
+            }
+            return map;
+        }
+    }
+
+    private static double toMillis(long nanos) {
+        return Math.round(nanos / (double) TimeUnit.MICROSECONDS.toNanos(10)) / 100.0;
+    }
+}
@@ -1,10 +1,8 @@
 
 
--- MySQL Database Schema for UEP Lost and Found System
-
--- Create database if it doesn't exist
-CREATE DATABASE IF NOT EXISTS uep_lost_and_found_ws;
-USE uep_lost_and_found_ws;
+-- Database Schema for UEP Lost and Found System
+-- Portable across MySQL and H2 in MySQL mode; DatabaseMigration runs it on startup.
+-- The database itself is created by the connection (createDatabaseIfNotExist for MySQL).
 
 -- Users table
 CREATE TABLE IF NOT EXISTS users (
@@ -18,7 +16,10 @@ CREATE TABLE IF NOT EXISTS users (
     password VARCHAR(255) NOT NULL,
     status VARCHAR(20) DEFAULT 'Active',
     request_admin BOOLEAN DEFAULT FALSE,
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_users_name (lname, fname, id),
+    INDEX idx_users_fname (fname),
+    INDEX idx_users_type_name (type, lname, fname, id)
 );
 
 -- Items table
@@ -33,10 +34,23 @@ CREATE TABLE IF NOT EXISTS items (
     user_id INT NOT NULL,
     date_reported DATE NOT NULL,
     reported_by VARCHAR(50) NOT NULL,
+    fingerprint VARBINARY(96),
+    image_hash BIGINT,
+    duplicate_of INT,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_items_date_reported (date_reported),
     FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
 );
 
+-- MinHash band keys of each item's words (see ItemFingerprint); items sharing a key are near-duplicate candidates
+CREATE TABLE IF NOT EXISTS item_fingerprint_bands (
+    band_key BIGINT NOT NULL,
+    item_id INT NOT NULL,
+    PRIMARY KEY (band_key, item_id),
+    INDEX idx_item_fingerprint_bands_item (item_id),
+    FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE
+);
+
 -- Claims table for found items
 CREATE TABLE IF NOT EXISTS claims (
     id INT AUTO_INCREMENT PRIMARY KEY,
@@ -46,20 +60,72 @@ CREATE TABLE IF NOT EXISTS claims (
     claim_description TEXT,
     status VARCHAR(20) DEFAULT 'Pending',
     date_submitted DATE NOT NULL,
+    approver_username VARCHAR(50),
+    date_approved TIMESTAMP NULL,
+    version INT NOT NULL DEFAULT 0,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_claims_date_submitted (date_submitted),
     FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE,
     FOREIGN KEY (claimant_id) REFERENCES users(id) ON DELETE CASCADE
 );
 
 
+-- Claim turnaround histograms, one compressed sketch per week and approver
+CREATE TABLE IF NOT EXISTS claim_turnaround_sketches (
+    week_start DATE NOT NULL,
+    approver VARCHAR(50) NOT NULL,
+    sample_count BIGINT NOT NULL DEFAULT 0,
+    sketch BLOB NOT NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (week_start, approver)
+);
+
+-- Archived items and claims, moved out of the hot tables in batches by ArchivalService
+-- Same columns as the live tables plus archived_at; no foreign keys so users can still be removed
+CREATE TABLE IF NOT EXISTS items_archive (
+    id INT PRIMARY KEY,
+    status VARCHAR(20) NOT NULL,
+    name VARCHAR(100) NOT NULL,
+    description TEXT NOT NULL,
+    category VARCHAR(50),
+    location VARCHAR(100),
+    image VARCHAR(255),
+    user_id INT NOT NULL,
+    date_reported DATE NOT NULL,
+    reported_by VARCHAR(50) NOT NULL,
+    duplicate_of INT,
+    created_at TIMESTAMP NULL,
+    archived_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_items_archive_date_reported (date_reported)
+);
+
+CREATE TABLE IF NOT EXISTS claims_archive (
+    id INT PRIMARY KEY,
+    item_id INT NOT NULL,
+    claimant_id INT NOT NULL,
+    claimant_username VARCHAR(50) NOT NULL,
+    claim_description TEXT,
+    status VARCHAR(20),
+    date_submitted DATE NOT NULL,
+    approver_username VARCHAR(50),
+    date_approved TIMESTAMP NULL,
+    version INT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NULL,
+    archived_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_claims_archive_item (item_id),
+    INDEX idx_claims_archive_claimant (claimant_id),
+    INDEX idx_claims_archive_date_submitted (date_submitted)
+);
 
--- Insert default admin user
--- Username: admin
--- Password: uep123 (BCrypt hash: $2a$10$92IXUNpkjO0rOQ5byMi.Ye4oKoEa3Ro9llC/.og/at2.uheWG/igi)
--- Use INSERT IGNORE to avoid duplicate errors
-INSERT IGNORE INTO users (fname, mname, lname, type, email, username, password, request_admin, status) VALUES
-('System', '', 'Admin', 'Admin', 'admin@uep.edu.ph', 'admin', 'uep123', false, 'Active');
+-- Upload files waiting to be deleted, worked off in the background by StorageMaintenanceService
+CREATE TABLE IF NOT EXISTS file_deletions (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    path VARCHAR(255) NOT NULL,
+    reason VARCHAR(30) NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    last_error VARCHAR(255),
+    next_attempt_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
 
--- Alternative: Create admin user with username uep123 (if preferred)
--- INSERT IGNORE INTO users (fname, mname, lname, type, email, username, password, request_admin, status) VALUES
--- ('System', '', 'Administrator', 'Admin', 'admin@uep.edu.ph', 'uep123', '$2a$10$92IXUNpkjO0rOQ5byMi.Ye4oKoEa3Ro9llC/.og/at2.uheWG/igi', false, 'Active');
+-- The default admin user (admin / uep123) is created with a BCrypt password by DataLoader
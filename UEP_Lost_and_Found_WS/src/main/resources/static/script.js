@@ -8,17 +8,50 @@ function initializeData() {
 }
 
 // Data Helpers - Now using API
-async function getUsers() {
+
+// Admin user directory: the server returns one page in name order plus a cursor for the next
+const userDirectory = { users: [], next: null, count: null, countCapped: false };
+
+async function getUsers(after) {
+    const params = new URLSearchParams({ limit: 50 });
+    const query = document.getElementById('user-directory-search').value.trim();
+    const type = document.getElementById('user-type-filter').value;
+    if (query) params.set('q', query);
+    if (type) params.set('type', type);
+    if (after) params.set('after', after);
     try {
-        const response = await fetch(`${API_BASE}users`, { credentials: 'include' });
+        const response = await fetch(`${API_BASE}users?${params}`, { credentials: 'include' });
         const data = await response.json();
-        return data.users || [];
+        return { users: data.users || [], next: data.next || null, count: data.count, countCapped: data.count_capped };
     } catch (error) {
         console.error('Error fetching users:', error);
-        return [];
+        return { users: [], next: null, count: 0, countCapped: false };
     }
 }
 
+// Fetches the first page for the current search, or the next page when more is set
+async function loadUserDirectory(more) {
+    const page = await getUsers(more ? userDirectory.next : null);
+    userDirectory.users = more ? userDirectory.users.concat(page.users) : page.users;
+    userDirectory.next = page.next;
+    if (!more) {
+        userDirectory.count = page.count;
+        userDirectory.countCapped = page.countCapped;
+    }
+    renderUserTable(userDirectory.users);
+    renderUserInfoGrid(userDirectory.users);
+}
+
+let userSearchTimer = null;
+function searchUsers() {
+    clearTimeout(userSearchTimer);
+    userSearchTimer = setTimeout(() => loadUserDirectory(false), 250);
+}
+
+function loadMoreUsers() {
+    if (userDirectory.next) loadUserDirectory(true);
+}
+
 async function getItems() {
     try {
         const response = await fetch(`${API_BASE}items?_=${Date.now()}`, {
@@ -218,10 +251,9 @@ document.getElementById('login-form').addEventListener('submit', async function(
 // ================= ADMIN DASHBOARD LOGIC =================
 
 async function loadAdminDashboard() {
-    const users = await getUsers();
+    await loadUserDirectory(false);
     const items = await getItems();
     const pendingAdmins = await getPendingAdmins();
-    renderUserTable(users);
     renderAdminItemTable(items);
     renderPendingAdminsTable(pendingAdmins);
 }
@@ -239,6 +271,10 @@ function renderUserTable(usersList) {
         `;
         tbody.appendChild(tr);
     });
+    const count = userDirectory.count;
+    document.getElementById('users-count').textContent =
+        count == null ? '' : `(${userDirectory.countCapped ? 'more than ' : ''}${count})`;
+    document.getElementById('users-load-more').classList.toggle('hidden', !userDirectory.next);
 }
 
 async function removeUser(username) {
@@ -270,8 +306,8 @@ function renderAdminItemTable(itemsList) {
         const tr = document.createElement('tr');
         tr.innerHTML = `
             <td><img src="${item.image}" class="item-thumb"></td>
-            <td>${item.name}<br><small>${item.desc.substring(0,30)}...</small></td>
-             <td><span class="status-badge status-${item.status}">${item.status}</span></td>
+            <td>${item.name}<br><small>${item.description.substring(0,30)}...</small></td>
+             <td><span class="status-badge status-${item.status}">${item.status}</span>${item.duplicateOf ? `<br><span class="status-badge status-Duplicate" title="Looks like a repeat of report #${item.duplicateOf}">Duplicate of #${item.duplicateOf}</span>` : ''}</td>
             <td>${item.reportedBy}</td>
             <td><button class="btn-delete" onclick="removeItem(${item.id})">Remove</button></td>
         `;
@@ -301,12 +337,41 @@ async function removeItem(id) {
     }
 }
 
+// Fills the shared datalist with completions for the input's text
+let suggestRequest = 0;
+async function suggestItems(input) {
+    const query = input.value.trim();
+    const datalist = document.getElementById('item-suggestions');
+    const request = ++suggestRequest;
+    if (query.length === 0) {
+        datalist.innerHTML = '';
+        return;
+    }
+    try {
+        const response = await fetch(`${API_BASE}items/suggest?q=${encodeURIComponent(query)}`, {
+            credentials: 'include'
+        });
+        const data = await response.json();
+        if (request !== suggestRequest) {
+            return; // a newer keystroke already asked
+        }
+        datalist.innerHTML = '';
+        (data.suggestions || []).forEach(suggestion => {
+            const option = document.createElement('option');
+            option.value = suggestion;
+            datalist.appendChild(option);
+        });
+    } catch (error) {
+        console.error('Error fetching suggestions:', error);
+    }
+}
+
 async function adminSearchItems() {
     const query = document.getElementById('admin-search').value.toLowerCase();
     const allItems = await getItems();
     const filtered = allItems.filter(item =>
         item.name.toLowerCase().includes(query) ||
-        item.desc.toLowerCase().includes(query) ||
+        item.description.toLowerCase().includes(query) ||
         item.status.toLowerCase().includes(query)
     );
     renderAdminItemTable(filtered);
@@ -389,7 +454,7 @@ function renderUserItemGrid(itemsList) {
             <div class="item-card-body">
                 <span class="status-badge status-${item.status}">${item.status}</span>
                 <h3>${item.name}</h3>
-                <p>${item.desc}</p>
+                <p>${item.description}</p>
                 <div class="item-reporter">Reported by: ${item.reportedBy} on ${item.dateReported}</div>
                 ${claimButton}
             </div>
@@ -427,6 +492,8 @@ document.getElementById('report-form').addEventListener('submit', async function
     formData.append('status', document.getElementById('item-status').value);
     formData.append('name', document.getElementById('item-name').value);
     formData.append('desc', document.getElementById('item-desc').value);
+    formData.append('category', document.getElementById('item-category').value);
+    formData.append('location', document.getElementById('item-location').value);
     formData.append('reportedBy', currentUser.username);
 
     // Handle image upload
@@ -466,7 +533,7 @@ async function userSearchItems() {
     const allItems = await getItems();
     const filtered = allItems.filter(item =>
         item.name.toLowerCase().includes(query) ||
-        item.desc.toLowerCase().includes(query)
+        item.description.toLowerCase().includes(query)
     );
     renderUserItemGrid(filtered);
 }
@@ -536,7 +603,10 @@ document.getElementById('profile-form').addEventListener('submit', async functio
 
 // Load user information cards for admin
 async function loadUserInformation() {
-    const users = await getUsers();
+    await loadUserDirectory(false);
+}
+
+function renderUserInfoGrid(users) {
     const grid = document.getElementById('user-info-grid');
     grid.innerHTML = '';
 
@@ -552,6 +622,7 @@ async function loadUserInformation() {
         `;
         grid.appendChild(card);
     });
+    document.getElementById('user-info-load-more').classList.toggle('hidden', !userDirectory.next);
 }
 
 // Modify switchAdminTab to load user info when that tab is selected
@@ -638,6 +709,22 @@ function renderUserClaimsTable(claimsList) {
 }
 
 // Load admin claims
+// Exports stream from the server as a file download; the browser keeps the session cookie
+function exportReport(event) {
+    event.preventDefault();
+    const dataset = document.getElementById('export-dataset').value;
+    const params = new URLSearchParams({ format: document.getElementById('export-format').value });
+    const from = document.getElementById('export-from').value;
+    const to = document.getElementById('export-to').value;
+    const status = document.getElementById('export-status').value.trim();
+    if (from) params.set('from', from);
+    if (to) params.set('to', to);
+    if (status) params.set('status', status);
+    if (document.getElementById('export-archived').checked) params.set('includeArchived', 'true');
+    if (document.getElementById('export-gzip').checked) params.set('gzip', 'true');
+    window.location.href = `${API_BASE}export/${dataset}?${params}`;
+}
+
 async function loadAdminClaims() {
     try {
         const response = await fetch(`${API_BASE}claims?action=pending`, { credentials: 'include' });
@@ -666,8 +753,8 @@ function renderAdminClaimsTable(claimsList) {
             <td><span class="status-badge status-${claim.status}">${claim.status}</span></td>
             <td>${claim.date_submitted}</td>
             <td>
-                <button class="btn-approve" onclick="approveClaim(${claim.id})">Approve</button>
-                <button class="btn-delete" onclick="rejectClaim(${claim.id})">Reject</button>
+                <button class="btn-approve" onclick="approveClaim(${claim.id}, ${claim.version})">Approve</button>
+                <button class="btn-delete" onclick="rejectClaim(${claim.id}, ${claim.version})">Reject</button>
             </td>
         `;
         tbody.appendChild(tr);
@@ -675,7 +762,7 @@ function renderAdminClaimsTable(claimsList) {
 }
 
 // Approve claim
-async function approveClaim(claimId) {
+async function approveClaim(claimId, version) {
     if (confirm('Are you sure you want to approve this claim?')) {
         try {
             const response = await fetch(`${API_BASE}claims`, {
@@ -687,6 +774,7 @@ async function approveClaim(claimId) {
                 body: JSON.stringify({
                     action: 'approve',
                     id: claimId,
+                    version: version,
                     approver_username: currentUser.username
                 })
             });
@@ -697,6 +785,9 @@ async function approveClaim(claimId) {
                 await loadAdminClaims(); // Refresh the claims
             } else if (data.error) {
                 alert(data.error);
+                if (response.status === 409) {
+                    await loadAdminClaims(); // Another admin got there first
+                }
             }
         } catch (error) {
             console.error('Error approving claim:', error);
@@ -706,7 +797,7 @@ async function approveClaim(claimId) {
 }
 
 // Reject claim
-async function rejectClaim(claimId) {
+async function rejectClaim(claimId, version) {
     if (confirm('Are you sure you want to reject this claim?')) {
         try {
             const response = await fetch(`${API_BASE}claims`, {
@@ -718,6 +809,7 @@ async function rejectClaim(claimId) {
                 body: JSON.stringify({
                     action: 'reject',
                     id: claimId,
+                    version: version,
                     approver_username: currentUser.username
                 })
             });
@@ -728,6 +820,9 @@ async function rejectClaim(claimId) {
                 await loadAdminClaims(); // Refresh the claims
             } else if (data.error) {
                 alert(data.error);
+                if (response.status === 409) {
+                    await loadAdminClaims(); // Another admin got there first
+                }
             }
         } catch (error) {
             console.error('Error rejecting claim:', error);
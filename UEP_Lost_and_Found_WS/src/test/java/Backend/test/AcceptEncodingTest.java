@@ -0,0 +1,35 @@
+package Backend.test;
+
+import Backend.service.ItemListSnapshot;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AcceptEncodingTest {
+
+    @Test
+    void gzipIsServedWhenListedWithPositiveQuality() {
+        assertTrue(ItemListSnapshot.acceptsGzip("gzip, deflate, br"));
+        assertTrue(ItemListSnapshot.acceptsGzip("br;q=1.0, GZIP;q=0.5"));
+        assertTrue(ItemListSnapshot.acceptsGzip("x-gzip"));
+        assertTrue(ItemListSnapshot.acceptsGzip("*"));
+    }
+
+    @Test
+    void gzipIsRefusedWhenExcludedOrNotListed() {
+        assertFalse(ItemListSnapshot.acceptsGzip(null));
+        assertFalse(ItemListSnapshot.acceptsGzip("gzip;q=0"));
+        assertFalse(ItemListSnapshot.acceptsGzip("gzip; q=0.000"));
+        assertFalse(ItemListSnapshot.acceptsGzip("x-gzip-unsupported"));
+        assertFalse(ItemListSnapshot.acceptsGzip("deflate, identity"));
+        assertFalse(ItemListSnapshot.acceptsGzip("*;q=1, gzip;q=0"));
+        assertFalse(ItemListSnapshot.acceptsGzip("gzip;q=bogus"));
+    }
+
+    @Test
+    void explicitlyPreferredIdentityWins() {
+        assertFalse(ItemListSnapshot.acceptsGzip("identity;q=1, gzip;q=0.5"));
+        assertTrue(ItemListSnapshot.acceptsGzip("identity;q=0.5, gzip"));
+    }
+}
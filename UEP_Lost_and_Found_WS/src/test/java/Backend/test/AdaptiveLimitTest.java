@@ -0,0 +1,88 @@
+package Backend.test;
+
+import Backend.util.AdaptiveLimit;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveLimitTest {
+
+    private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void lowerSharesAreTurnedAwayFirst() {
+        AdaptiveLimit limit = new AdaptiveLimit(10, 1, 100, 1.5, 0.2, 100);
+
+        for (int i = 0; i < 6; i++) {
+            assertTrue(limit.tryAcquire(0.6));
+        }
+        assertFalse(limit.tryAcquire(0.6));
+        assertTrue(limit.tryAcquire(1.0));
+        assertEquals(7, limit.getInFlight());
+
+        limit.releaseWithoutSample();
+        assertFalse(limit.tryAcquire(0.6));
+        limit.releaseWithoutSample();
+        assertTrue(limit.tryAcquire(0.6));
+    }
+
+    @Test
+    void growsWhileBusyAndLatencyIsSteady() {
+        AdaptiveLimit limit = new AdaptiveLimit(10, 5, 50, 1.5, 0.2, 100);
+
+        for (int i = 0; i < 200; i++) {
+            saturate(limit);
+            releaseAll(limit, 10 * MILLI);
+        }
+        assertEquals(50, limit.getLimit());
+    }
+
+    @Test
+    void doesNotGrowWhenIdle() {
+        AdaptiveLimit limit = new AdaptiveLimit(10, 5, 50, 1.5, 0.2, 100);
+
+        for (int i = 0; i < 200; i++) {
+            assertTrue(limit.tryAcquire(1.0));
+            limit.release(10 * MILLI);
+        }
+        assertEquals(10, limit.getLimit());
+    }
+
+    @Test
+    void shrinksWhenLatencyRisesAndRecovers() {
+        AdaptiveLimit limit = new AdaptiveLimit(40, 5, 50, 1.5, 0.2, 100);
+        for (int i = 0; i < 50; i++) {
+            saturate(limit);
+            releaseAll(limit, 10 * MILLI);
+        }
+        int before = limit.getLimit();
+
+        for (int i = 0; i < 5; i++) {
+            saturate(limit);
+            releaseAll(limit, 200 * MILLI);
+        }
+        assertTrue(limit.getLimit() < before / 2, "limit " + limit.getLimit() + " after " + before);
+
+        for (int i = 0; i < 300; i++) {
+            saturate(limit);
+            releaseAll(limit, 10 * MILLI);
+        }
+        assertEquals(50, limit.getLimit());
+    }
+
+    private static void saturate(AdaptiveLimit limit) {
+        while (limit.tryAcquire(1.0)) {
+            // fill every slot
+        }
+    }
+
+    private static void releaseAll(AdaptiveLimit limit, long rtt) {
+        while (limit.getInFlight() > 0) {
+            limit.release(rtt);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package Backend.test;
+
+import Backend.config.Database;
+import Backend.config.DatabaseMigration;
+import Backend.config.H2Backend;
+import Backend.model.Claim;
+import Backend.model.ClaimTransition;
+import Backend.model.Item;
+import Backend.repository.ClaimRepository;
+import Backend.repository.ItemRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ClaimTransitionTest {
+
+    private Database database;
+    private ItemRepository itemRepository;
+    private ClaimRepository claimRepository;
+    private Item item;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        database = new Database(new H2Backend("claim-transition-test", null)) {};
+        DatabaseMigration.runMigration(database);
+        itemRepository = new ItemRepository();
+        itemRepository.setDatabase(database);
+        claimRepository = new ClaimRepository();
+        claimRepository.setDatabase(database);
+        claimRepository.setItemRepository(itemRepository);
+        execute("INSERT INTO users (id, fname, lname, type, email, username, password) " +
+                "VALUES (1, 'Ana', 'Cruz', 'Admin', 'ana@uep.edu', 'ana', 'x')",
+                "INSERT INTO users (id, fname, lname, type, email, username, password) " +
+                "VALUES (2, 'Ben', 'Reyes', 'Student', 'ben@uep.edu', 'ben', 'x')");
+        item = itemRepository.save(item("Wallet"));
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void movesPendingClaim() {
+        Claim claim = claimRepository.save(claim(item));
+
+        ClaimTransition transition = claimRepository.transitionStatus(claim.getId(), "Pending", "Rejected", "ana", 0);
+
+        assertEquals(ClaimTransition.Outcome.APPLIED, transition.outcome());
+        assertEquals("Rejected", transition.claim().getStatus());
+        assertEquals("ana", transition.claim().getApproverUsername());
+        assertEquals(1, transition.claim().getVersion());
+        assertEquals("Rejected", status(claim));
+    }
+
+    @Test
+    void reportsMissingClaim() {
+        ClaimTransition transition = claimRepository.transitionStatus(999L, "Pending", "Rejected", "ana", null);
+
+        assertEquals(ClaimTransition.Outcome.NOT_FOUND, transition.outcome());
+        assertNull(transition.claim());
+    }
+
+    @Test
+    void secondResolutionIsStatusConflict() {
+        Claim claim = claimRepository.save(claim(item));
+        claimRepository.transitionStatus(claim.getId(), "Pending", "Rejected", "ana", null);
+
+        ClaimTransition transition = claimRepository.transitionStatus(claim.getId(), "Pending", "Approved", "ana", null);
+
+        assertEquals(ClaimTransition.Outcome.STATUS_CONFLICT, transition.outcome());
+        assertEquals("Rejected", transition.claim().getStatus());
+        assertEquals("Rejected", status(claim));
+    }
+
+    @Test
+    void staleVersionIsVersionConflict() throws SQLException {
+        Claim claim = claimRepository.save(claim(item));
+        // Someone else edited the claim after the caller read version 0
+        execute("UPDATE claims SET claim_description = 'Brown leather', version = version + 1 WHERE id = " + claim.getId());
+
+        ClaimTransition transition = claimRepository.transitionStatus(claim.getId(), "Pending", "Rejected", "ana", 0);
+
+        assertEquals(ClaimTransition.Outcome.VERSION_CONFLICT, transition.outcome());
+        assertEquals(1, transition.claim().getVersion());
+        assertEquals("Pending", status(claim));
+    }
+
+    @Test
+    void approvalClosesItemAndRejectsCompetingClaims() {
+        Claim first = claimRepository.save(claim(item));
+        Claim second = claimRepository.save(claim(item));
+        Claim third = claimRepository.save(claim(item));
+        Item other = itemRepository.save(item("Umbrella"));
+        Claim elsewhere = claimRepository.save(claim(other));
+
+        ClaimTransition transition = claimRepository.approveAndCloseItem(second.getId(), "ana", 0, "Claimed");
+
+        assertEquals(ClaimTransition.Outcome.APPLIED, transition.outcome());
+        assertEquals("Approved", transition.claim().getStatus());
+        assertEquals("Claimed", transition.claim().getItem().getStatus());
+        assertEquals(List.of(first.getId(), third.getId()),
+                transition.rejectedClaims().stream().map(Claim::getId).toList());
+        assertEquals("Approved", status(second));
+        assertEquals("Rejected", status(first));
+        assertEquals("Rejected", status(third));
+        assertEquals("Claimed", itemStatus(item));
+        // Claims on other items are left alone
+        assertEquals("Pending", status(elsewhere));
+        assertEquals("Found", itemStatus(other));
+    }
+
+    @Test
+    void approvalOfRejectedClaimChangesNothing() throws SQLException {
+        Claim first = claimRepository.save(claim(item));
+        Claim second = claimRepository.save(claim(item));
+        claimRepository.approveAndCloseItem(first.getId(), "ana", null, "Claimed");
+        execute("UPDATE items SET status = 'Found' WHERE id = " + item.getId());
+
+        // The other admin's approval arrives after the first one rejected this claim
+        ClaimTransition transition = claimRepository.approveAndCloseItem(second.getId(), "ana", null, "Claimed");
+
+        assertEquals(ClaimTransition.Outcome.STATUS_CONFLICT, transition.outcome());
+        assertEquals("Rejected", transition.claim().getStatus());
+        assertEquals("Found", itemStatus(item));
+    }
+
+    @Test
+    void approvalWithStaleVersionChangesNothing() throws SQLException {
+        Claim first = claimRepository.save(claim(item));
+        Claim second = claimRepository.save(claim(item));
+        execute("UPDATE claims SET version = version + 1 WHERE id = " + first.getId());
+
+        ClaimTransition transition = claimRepository.approveAndCloseItem(first.getId(), "ana", 0, "Claimed");
+
+        assertEquals(ClaimTransition.Outcome.VERSION_CONFLICT, transition.outcome());
+        assertEquals("Pending", status(first));
+        assertEquals("Pending", status(second));
+        assertEquals("Found", itemStatus(item));
+    }
+
+    @Test
+    void failedApprovalRollsBack() {
+        Claim first = claimRepository.save(claim(item));
+        Claim second = claimRepository.save(claim(item));
+
+        // Too long for items.status, so the last UPDATE fails after both claim updates ran
+        assertThrows(RuntimeException.class,
+                () -> claimRepository.approveAndCloseItem(first.getId(), "ana", null, "Claimed by its rightful owner"));
+
+        assertEquals("Pending", status(first));
+        assertEquals("Pending", status(second));
+        assertEquals("Found", itemStatus(item));
+    }
+
+    private String itemStatus(Item item) {
+        return itemRepository.findById(item.getId()).orElseThrow().getStatus();
+    }
+
+    private String status(Claim claim) {
+        return claimRepository.findById(claim.getId()).orElseThrow().getStatus();
+    }
+
+    private static Item item(String name) {
+        Item item = new Item();
+        item.setName(name);
+        item.setDescription(name + " left in the library");
+        item.setStatus("Found");
+        item.setReportedBy("ana");
+        item.setUserId(1L);
+        item.setDateReported(LocalDateTime.now());
+        return item;
+    }
+
+    private static Claim claim(Item item) {
+        Claim claim = new Claim(item, 2, "It is mine");
+        claim.setClaimantUsername("ben");
+        claim.setStatus("Pending");
+        claim.setDateSubmitted(LocalDateTime.now());
+        return claim;
+    }
+
+    private void execute(String... sqls) throws SQLException {
+        try (Connection conn = database.getConnection(); Statement stmt = conn.createStatement()) {
+            for (String sql : sqls) {
+                stmt.execute(sql);
+            }
+        }
+    }
+}
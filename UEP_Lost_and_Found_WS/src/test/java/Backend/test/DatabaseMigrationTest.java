@@ -0,0 +1,81 @@
+package Backend.test;
+
+import Backend.config.Database;
+import Backend.config.DatabaseMigration;
+import Backend.config.H2Backend;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DatabaseMigrationTest {
+
+    private Database database;
+
+    @BeforeEach
+    void setUp() {
+        database = new Database(new H2Backend("migration-test", null)) {};
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void addsNewColumnsToExistingTables() throws SQLException {
+        // Tables as deployed before the columns were added to schema.sql
+        execute(
+            "CREATE TABLE users (id INT AUTO_INCREMENT PRIMARY KEY, fname VARCHAR(50) NOT NULL, mname VARCHAR(50), " +
+            "lname VARCHAR(50) NOT NULL, type VARCHAR(20) NOT NULL, email VARCHAR(100) NOT NULL UNIQUE, " +
+            "username VARCHAR(50) NOT NULL UNIQUE, password VARCHAR(255) NOT NULL, status VARCHAR(20) DEFAULT 'Active', " +
+            "request_admin BOOLEAN DEFAULT FALSE, created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)",
+            "CREATE TABLE items (id INT AUTO_INCREMENT PRIMARY KEY, status VARCHAR(20) NOT NULL, name VARCHAR(100) NOT NULL, " +
+            "description TEXT NOT NULL, category VARCHAR(50), location VARCHAR(100), image VARCHAR(255), " +
+            "user_id INT NOT NULL, date_reported DATE NOT NULL, reported_by VARCHAR(50) NOT NULL, " +
+            "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE)",
+            "CREATE TABLE items_archive (id INT PRIMARY KEY, status VARCHAR(20) NOT NULL, name VARCHAR(100) NOT NULL, " +
+            "description TEXT NOT NULL, category VARCHAR(50), location VARCHAR(100), image VARCHAR(255), " +
+            "user_id INT NOT NULL, date_reported DATE NOT NULL, reported_by VARCHAR(50) NOT NULL, " +
+            "created_at TIMESTAMP NULL, archived_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+
+        DatabaseMigration.runMigration(database);
+        // Running it again on an up-to-date database changes nothing
+        DatabaseMigration.runMigration(database);
+
+        Set<String> items = columns("items");
+        assertTrue(items.containsAll(Set.of("fingerprint", "image_hash", "duplicate_of")), items.toString());
+        Set<String> archive = columns("items_archive");
+        assertTrue(archive.contains("duplicate_of"), archive.toString());
+    }
+
+    private Set<String> columns(String table) throws SQLException {
+        Set<String> columns = new HashSet<>();
+        try (Connection conn = database.getConnection();
+             ResultSet rs = conn.getMetaData().getColumns(null, null, null, null)) {
+            while (rs.next()) {
+                if (table.equalsIgnoreCase(rs.getString("TABLE_NAME"))) {
+                    columns.add(rs.getString("COLUMN_NAME").toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        return columns;
+    }
+
+    private void execute(String... sqls) throws SQLException {
+        try (Connection conn = database.getConnection(); Statement stmt = conn.createStatement()) {
+            for (String sql : sqls) {
+                stmt.execute(sql);
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package Backend.test;
+
+import Backend.model.Item;
+import Backend.service.ItemSuggestIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ItemSuggestIndexTest {
+
+    private final List<ItemSuggestIndex> indexes = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        indexes.forEach(ItemSuggestIndex::shutdown);
+    }
+
+    @Test
+    void suggestsNamesAndTermsByPrefix() {
+        ItemSuggestIndex index = index();
+        index.itemSaved(item(1L, "Blue Wallet", "Left near the library gate"), true);
+        index.itemSaved(item(2L, "Black Umbrella", "Found by the gate"), true);
+
+        // Names weigh more than the words they are made of
+        List<String> bl = texts(index, "bl");
+        assertEquals(Set.of("blue wallet", "black umbrella"), Set.copyOf(bl.subList(0, 2)));
+        assertEquals(Set.of("blue", "black"), Set.copyOf(bl.subList(2, 4)));
+        assertEquals(List.of("gate"), texts(index, "ga"));
+        assertEquals(List.of("blue wallet"), texts(index, "Blue   W"));
+        assertEquals(List.of(), texts(index, "red"));
+    }
+
+    @Test
+    void updateReplacesOldSuggestions() {
+        ItemSuggestIndex index = index();
+        index.itemSaved(item(1L, "Blue Wallet", "Left near the library gate"), true);
+        index.itemSaved(item(2L, "Black Umbrella", "Found by the gate"), true);
+
+        index.itemSaved(item(1L, "Red Wallet", "Left near the library gate"), false);
+
+        assertEquals(List.of(), texts(index, "blue"));
+        assertEquals(List.of("red wallet", "red"), texts(index, "red"));
+        assertEquals(List.of("black umbrella", "black"), texts(index, "bl"));
+        // The trie holds exactly what a fresh index of the same items holds
+        ItemSuggestIndex fresh = index();
+        fresh.itemSaved(item(1L, "Red Wallet", "Left near the library gate"), true);
+        fresh.itemSaved(item(2L, "Black Umbrella", "Found by the gate"), true);
+        assertEquals(fresh.getStats().get("nodes"), index.getStats().get("nodes"));
+    }
+
+    @Test
+    void deleteRemovesSuggestionsAndEmptyNodes() {
+        ItemSuggestIndex index = index();
+        index.itemSaved(item(1L, "Blue Wallet", "Left near the library gate"), true);
+        index.itemSaved(item(2L, "Blue Umbrella", "Found by the gate"), true);
+        assertTrue((Integer) index.getStats().get("nodes") > 0);
+
+        index.itemDeleted(1L);
+        assertEquals(List.of("umbrella"), texts(index, "u"));
+        assertEquals(List.of("blue umbrella", "blue"), texts(index, "blue"));
+        assertEquals(List.of(), texts(index, "wal"));
+        assertEquals(List.of("gate"), texts(index, "gate"));
+
+        index.itemDeleted(2L);
+        assertEquals(List.of(), texts(index, "b"));
+        assertEquals(List.of(), texts(index, "gate"));
+        assertEquals(0, index.getStats().get("items"));
+        assertEquals(0, index.getStats().get("nodes"));
+    }
+
+    @Test
+    void userDeleteRemovesTheirItems() {
+        ItemSuggestIndex index = index();
+        index.itemSaved(item(1L, "Blue Wallet", null), true);
+        Item other = item(2L, "Black Umbrella", null);
+        other.setUserId(2L);
+        index.itemSaved(other, true);
+
+        index.userDeleted(1L);
+
+        assertEquals(List.of("black umbrella", "black"), texts(index, "bl"));
+        assertEquals(1, index.getStats().get("items"));
+    }
+
+    private ItemSuggestIndex index() {
+        ItemSuggestIndex index = new ItemSuggestIndex(30);
+        indexes.add(index);
+        return index;
+    }
+
+    private static List<String> texts(ItemSuggestIndex index, String prefix) {
+        return index.suggest(prefix, 10).stream().map(ItemSuggestIndex.Suggestion::text).toList();
+    }
+
+    private static Item item(Long id, String name, String description) {
+        Item item = new Item();
+        item.setId(id);
+        item.setName(name);
+        item.setDescription(description);
+        item.setStatus("Lost");
+        item.setReportedBy("ana");
+        item.setUserId(1L);
+        item.setDateReported(LocalDateTime.now());
+        return item;
+    }
+}
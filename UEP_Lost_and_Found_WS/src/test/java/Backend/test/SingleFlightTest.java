@@ -0,0 +1,156 @@
+package Backend.test;
+
+import Backend.config.Database;
+import Backend.config.DatabaseMigration;
+import Backend.config.H2Backend;
+import Backend.model.Item;
+import Backend.repository.ItemRepository;
+import Backend.repository.SingleFlight;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+
+    private final AtomicInteger connections = new AtomicInteger();
+    private volatile CountDownLatch connecting;
+    private volatile CountDownLatch proceed;
+
+    private Database database;
+    private ItemRepository repository;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        database = new Database(new H2Backend("single-flight-test", null)) {
+            @Override
+            public Connection getConnection() {
+                connections.incrementAndGet();
+                CountDownLatch gate = proceed;
+                if (gate != null) {
+                    connecting.countDown();
+                    try {
+                        gate.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return super.getConnection();
+            }
+        };
+        DatabaseMigration.runMigration(database);
+        repository = new ItemRepository();
+        repository.setDatabase(database);
+        execute("INSERT INTO users (id, fname, lname, type, email, username, password) " +
+                "VALUES (1, 'Ana', 'Cruz', 'Admin', 'ana@uep.edu', 'ana', 'x')");
+        repository.save(item("Wallet"));
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        SingleFlight.configure(true, 0);
+        proceed = null;
+        execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void concurrentCallsShareOneQuery() throws Exception {
+        SingleFlight.configure(true, 0);
+        connecting = new CountDownLatch(1);
+        proceed = new CountDownLatch(1);
+        connections.set(0);
+        long joinedBefore = stat("joined");
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<Item>>> calls = new ArrayList<>();
+            calls.add(pool.submit(repository::findAll));
+            assertTrue(connecting.await(10, TimeUnit.SECONDS));
+            for (int i = 0; i < 7; i++) {
+                calls.add(pool.submit(repository::findAll));
+            }
+            // Let the query finish once every other caller waits for it
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (stat("joined") - joinedBefore < 7 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            proceed.countDown();
+
+            List<Item> first = calls.get(0).get(10, TimeUnit.SECONDS);
+            for (Future<List<Item>> call : calls) {
+                assertSame(first, call.get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(1, first.size());
+            assertEquals(1, connections.get());
+            assertThrows(UnsupportedOperationException.class, () -> first.add(item("Umbrella")));
+        } finally {
+            proceed.countDown();
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void reusesRecentResultUntilWrite() {
+        SingleFlight.configure(true, 60_000);
+        List<Item> first = repository.findAll();
+        connections.set(0);
+
+        assertSame(first, repository.findAll());
+        assertEquals(1L, repository.count());
+        assertEquals(1L, repository.count());
+        assertEquals(1, connections.get());
+
+        repository.save(item("Umbrella"));
+        assertEquals(2, repository.findAll().size());
+        assertEquals(2L, repository.count());
+    }
+
+    @Test
+    void disabledRunsEveryQuery() {
+        SingleFlight.configure(false, 60_000);
+        connections.set(0);
+
+        repository.findAll();
+        repository.findAll();
+        assertEquals(2, connections.get());
+    }
+
+    private static long stat(String key) {
+        return ((Number) SingleFlight.getStats().get(key)).longValue();
+    }
+
+    private static Item item(String name) {
+        Item item = new Item();
+        item.setName(name);
+        item.setDescription(name + " left in the library");
+        item.setStatus("Lost");
+        item.setReportedBy("ana");
+        item.setUserId(1L);
+        item.setDateReported(LocalDateTime.now());
+        return item;
+    }
+
+    private void execute(String... sqls) throws SQLException {
+        try (Connection conn = database.getConnection(); Statement stmt = conn.createStatement()) {
+            for (String sql : sqls) {
+                stmt.execute(sql);
+            }
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package Backend.test;
+
+import Backend.config.Database;
+import Backend.config.DatabaseMigration;
+import Backend.config.H2Backend;
+import Backend.repository.SnapshotRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Blob;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnapshotRoundTripTest {
+
+    private static final String[] TABLES = {
+        "users ORDER BY id", "items ORDER BY id", "item_fingerprint_bands ORDER BY item_id, band_key",
+        "claims ORDER BY id", "items_archive ORDER BY id", "claims_archive ORDER BY id",
+        "claim_turnaround_sketches ORDER BY week_start, approver"
+    };
+
+    @TempDir
+    Path dir;
+
+    private Database database;
+    private SnapshotRepository repository;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        database = new Database(new H2Backend("snapshot-test", null)) {};
+        DatabaseMigration.runMigration(database);
+        repository = new SnapshotRepository();
+        repository.setDatabase(database);
+        execute(
+            "INSERT INTO users (id, fname, mname, lname, type, email, username, password, status) VALUES " +
+            "(1, 'Ana', NULL, 'Cruz', 'Admin', 'ana@uep.edu', 'ana', 'x', 'Active'), " +
+            "(2, 'Ben', 'R', 'Diaz', 'Student', 'ben@uep.edu', 'ben', 'y', 'Suspended')",
+            "INSERT INTO items (id, status, name, description, category, location, image, user_id, date_reported, " +
+            "reported_by, fingerprint, image_hash, duplicate_of) VALUES " +
+            "(1, 'Lost', 'Wallet', 'Black, \"leather\"\nwith ID', 'Personal', 'Library', 'uploads/missing.jpg', 2, " +
+            "'2025-03-01', 'ben', X'00ff10', -42, NULL), " +
+            "(7, 'Found', 'Umbrella', 'Blue', NULL, 'Gym', NULL, 1, '2025-03-04', 'ana', NULL, NULL, 1)",
+            "INSERT INTO item_fingerprint_bands (band_key, item_id) VALUES (-9000000000, 1), (12, 7)",
+            "INSERT INTO claims (id, item_id, claimant_id, claimant_username, claim_description, status, " +
+            "date_submitted, approver_username, date_approved, version) VALUES " +
+            "(3, 7, 2, 'ben', 'Mine', 'Approved', '2025-03-05', 'ana', '2025-03-06 10:15:30.123', 2)",
+            "INSERT INTO items_archive (id, status, name, description, user_id, date_reported, reported_by, archived_at) " +
+            "VALUES (100, 'Claimed', 'Keys', 'Car keys', 2, '2023-01-01', 'ben', '2024-01-01 00:00:00')",
+            "INSERT INTO claims_archive (id, item_id, claimant_id, claimant_username, date_submitted, archived_at) " +
+            "VALUES (50, 100, 1, 'ana', '2023-01-02', '2024-01-01 00:00:00')",
+            "INSERT INTO claim_turnaround_sketches (week_start, approver, sample_count, sketch) " +
+            "VALUES ('2025-03-03', 'ana', 1, X'0102')");
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void restoresExactlyWhatWasBackedUp() throws Exception {
+        List<List<String>> before = dump();
+        Path file = backup();
+
+        execute("DELETE FROM claims", "DELETE FROM items WHERE id = 7",
+                "INSERT INTO users (fname, lname, type, email, username, password) VALUES ('Cy', 'Eng', 'Student', 'cy@uep.edu', 'cy', 'z')",
+                "UPDATE items SET name = 'Purse' WHERE id = 1");
+        assertNotEquals(before, dump());
+
+        SnapshotRepository.RestoreResult result = repository.restore(file, 2);
+
+        assertEquals(before, dump());
+        assertEquals(2L, result.rows().get("users"));
+        assertEquals(1L, result.uploads());
+        assertEquals(List.of("uploads/missing.jpg"), result.missingUploadPaths());
+        assertTrue(indexExists("items", "idx_items_date_reported"));
+        assertTrue(indexExists("users", "idx_users_name"));
+        // Foreign keys are enforced again and new rows continue after the restored ids
+        assertThrows(SQLException.class, () -> execute(
+                "INSERT INTO claims (item_id, claimant_id, claimant_username, date_submitted) VALUES (999, 1, 'ana', '2025-01-01')"));
+        execute("INSERT INTO users (fname, lname, type, email, username, password) VALUES ('Di', 'Fe', 'Student', 'di@uep.edu', 'di', 'z')");
+        assertEquals("3", query("SELECT MAX(id) FROM users"));
+    }
+
+    @Test
+    void rejectsCorruptFileWithoutTouchingData() throws Exception {
+        Path file = backup();
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 0x40;
+        Files.write(file, bytes);
+        List<List<String>> before = dump();
+
+        assertThrows(IOException.class, () -> repository.restore(file, 100));
+        assertEquals(before, dump());
+
+        Files.write(file, Arrays.copyOf(bytes, bytes.length / 2));
+        assertThrows(IOException.class, () -> repository.verify(file));
+    }
+
+    private Path backup() throws IOException {
+        Path file = dir.resolve("test.snap");
+        try (OutputStream out = Files.newOutputStream(file)) {
+            // Small blocks so tables span several of them
+            Map<String, Long> rows = repository.backup(out, 1, 10);
+            assertEquals(2L, rows.get("items"));
+        }
+        return file;
+    }
+
+    private List<List<String>> dump() throws SQLException {
+        List<List<String>> rows = new ArrayList<>();
+        try (Connection conn = database.getConnection(); Statement stmt = conn.createStatement()) {
+            for (String table : TABLES) {
+                try (ResultSet rs = stmt.executeQuery("SELECT * FROM " + table)) {
+                    while (rs.next()) {
+                        List<String> row = new ArrayList<>();
+                        row.add(table);
+                        for (int i = 1; i <= rs.getMetaData().getColumnCount(); i++) {
+                            Object value = rs.getObject(i);
+                            row.add(value instanceof byte[] || value instanceof Blob
+                                    ? Arrays.toString(rs.getBytes(i)) : String.valueOf(value));
+                        }
+                        rows.add(row);
+                    }
+                }
+            }
+        }
+        return rows;
+    }
+
+    private boolean indexExists(String table, String index) throws SQLException {
+        try (Connection conn = database.getConnection();
+             ResultSet rs = conn.getMetaData().getIndexInfo(conn.getCatalog(), conn.getSchema(), table, false, false)) {
+            while (rs.next()) {
+                if (index.equalsIgnoreCase(rs.getString("INDEX_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private String query(String sql) throws SQLException {
+        try (Connection conn = database.getConnection(); Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            rs.next();
+            return rs.getString(1);
+        }
+    }
+
+    private void execute(String... sqls) throws SQLException {
+        try (Connection conn = database.getConnection(); Statement stmt = conn.createStatement()) {
+            for (String sql : sqls) {
+                stmt.execute(sql);
+            }
+        }
+    }
+}
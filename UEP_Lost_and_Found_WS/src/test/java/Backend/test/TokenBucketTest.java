@@ -0,0 +1,83 @@
+package Backend.test;
+
+import Backend.util.TokenBucket;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void rejectsOnceBurstIsUsedAndRefillsOverTime() {
+        TokenBucket bucket = new TokenBucket(3, SECOND, 0);
+
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(SECOND, bucket.tryAcquire(0));
+
+        assertEquals(0, bucket.tryAcquire(SECOND));
+    }
+
+    @Test
+    void backOffDoublesAfterFreeFailures() {
+        TokenBucket bucket = new TokenBucket(10, SECOND, 0);
+
+        assertEquals(0, bucket.recordFailure(0, 2, SECOND, 60 * SECOND));
+        assertEquals(0, bucket.recordFailure(0, 2, SECOND, 60 * SECOND));
+        assertEquals(SECOND, bucket.recordFailure(0, 2, SECOND, 60 * SECOND));
+        assertEquals(2 * SECOND, bucket.recordFailure(0, 2, SECOND, 60 * SECOND));
+        assertTrue(bucket.tryAcquire(SECOND) > 0);
+
+        bucket.release(SECOND, true);
+        assertEquals(0, bucket.getFailures());
+        assertEquals(0, bucket.tryAcquire(SECOND));
+    }
+
+    @Test
+    void streakKeptBySuccessLapsesAfterMaxDelay() {
+        TokenBucket bucket = new TokenBucket(10, SECOND, 0);
+        bucket.recordFailure(0, 1, SECOND, 4 * SECOND);
+        assertEquals(SECOND, bucket.recordFailure(0, 1, SECOND, 4 * SECOND));
+
+        // A success from the same address keeps the streak
+        bucket.release(SECOND, false);
+        assertEquals(2, bucket.getFailures());
+        assertEquals(2 * SECOND, bucket.recordFailure(SECOND, 1, SECOND, 4 * SECOND));
+
+        // Quiet for longer than the maximum delay after the block: the next failure starts over
+        assertEquals(0, bucket.recordFailure(8 * SECOND, 1, SECOND, 4 * SECOND));
+        assertEquals(1, bucket.getFailures());
+    }
+
+    @Test
+    void failureRightAfterCappedBlockIsBlockedForMaxDelay() {
+        TokenBucket bucket = new TokenBucket(10, SECOND, 0);
+        bucket.recordFailure(0, 1, SECOND, 4 * SECOND);
+        bucket.recordFailure(0, 1, SECOND, 4 * SECOND);
+        bucket.recordFailure(0, 1, SECOND, 4 * SECOND);
+        assertEquals(4 * SECOND, bucket.recordFailure(0, 1, SECOND, 4 * SECOND));
+
+        // The capped block ends at 4s; failing again keeps the streak and the cap
+        assertEquals(4 * SECOND, bucket.recordFailure(5 * SECOND, 1, SECOND, 4 * SECOND));
+        assertEquals(5, bucket.getFailures());
+
+        // Only a quiet period longer than the cap after the block resets it
+        assertEquals(0, bucket.recordFailure(14 * SECOND, 1, SECOND, 4 * SECOND));
+    }
+
+    @Test
+    void becomesIdleOnlyWhenFullAndUnblocked() {
+        TokenBucket bucket = new TokenBucket(2, SECOND, 0);
+        bucket.tryAcquire(0);
+
+        assertFalse(bucket.isIdle(SECOND / 2, SECOND / 4));
+        assertTrue(bucket.isIdle(5 * SECOND, SECOND));
+    }
+}